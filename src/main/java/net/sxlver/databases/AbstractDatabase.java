@@ -4,6 +4,7 @@ import com.google.common.collect.Maps;
 import com.google.gson.*;
 import lombok.NonNull;
 import net.sxlver.databases.adapter.strategy.CustomToNumberPolicy;
+import net.sxlver.databases.util.FieldAccessor;
 import net.sxlver.databases.util.Reflection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -65,6 +66,15 @@ public abstract class AbstractDatabase<T> implements Database<T> {
         write(object);
     }
 
+    @Override
+    public void saveAll(final @NonNull Collection<T> objects) {
+        if(isCatchMainThread()) {
+            catchMainThread();
+        }
+        applyAttributes(objects);
+        writeAll(objects);
+    }
+
     @Override
     public @NonNull Collection<T> getAll(final @NonNull Object query) {
         if(isCatchMainThread()) {
@@ -96,6 +106,14 @@ public abstract class AbstractDatabase<T> implements Database<T> {
         delete(query);
     }
 
+    @Override
+    public void removeAll(final @NonNull Collection<?> queries) {
+        if(isCatchMainThread()) {
+            catchMainThread();
+        }
+        deleteAll(queries);
+    }
+
     protected abstract T read(final Object query);
 
     protected abstract void write(final T Object);
@@ -106,6 +124,32 @@ public abstract class AbstractDatabase<T> implements Database<T> {
 
     protected abstract void delete(final Object query);
 
+    /**
+     * Writes all the given objects to the database. Implementations
+     * supporting batched writes should override this method, the
+     * default implementation writes every object on its own.
+     *
+     * @param objects the objects to write
+     */
+    protected void writeAll(final Collection<T> objects) {
+        for (final T object : objects) {
+            write(object);
+        }
+    }
+
+    /**
+     * Deletes all entries matching any of the given queries. Implementations
+     * supporting batched deletes should override this method, the default
+     * implementation deletes the entries of every query on its own.
+     *
+     * @param queries the queries identifying the entries to delete
+     */
+    protected void deleteAll(final Collection<?> queries) {
+        for (final Object query : queries) {
+            delete(query);
+        }
+    }
+
     protected abstract void connect(final @NonNull DatabaseAuth auth);
 
     protected abstract ClassInfo getClassInfo();
@@ -128,14 +172,29 @@ public abstract class AbstractDatabase<T> implements Database<T> {
         final Field field = Reflection.getAutoIncrementField(type, getClassInfo());
         if(field != null) {
             checkAutoIncrementFieldIsInteger(field);
-            final Object value = Reflection.getValue(field, instance);
-            if ((Integer) value == 0) {
-                final int nextId = nextId(false);
-                Reflection.setValue(field, instance, nextId);
+            final FieldAccessor accessor = getClassInfo().getInfo(field).getAccessor();
+            // primitive fields are read and written without boxing
+            if(field.getType() == int.class) {
+                if(accessor.getInt(instance) == 0) {
+                    accessor.setInt(instance, nextId(false));
+                }
+            }else if((Integer) accessor.get(instance) == 0) {
+                accessor.set(instance, nextId(false));
             }
         }
     }
 
+    /**
+     * Applies the attributes of all given objects before they are written together.
+     *
+     * @param objects the objects to apply the attributes of
+     */
+    protected void applyAttributes(final Collection<T> objects) {
+        for (final T object : objects) {
+            applyAttributes(object);
+        }
+    }
+
     protected int getCurrentId() {
         return ID_MAP.computeIfAbsent(this, database -> fetchMaxId());
     }
@@ -8,13 +8,17 @@ import net.sxlver.databases.annotation.FieldNameFormatting;
 import net.sxlver.databases.annotation.Ignore;
 import net.sxlver.databases.annotation.UniqueIdentifier;
 import net.sxlver.databases.converter.Converter;
+import net.sxlver.databases.converter.FieldPlan;
 import net.sxlver.databases.exception.DatabaseException;
 import net.sxlver.databases.filter.FieldFilter;
 import net.sxlver.databases.filter.FieldFilters;
 import net.sxlver.databases.formatter.FieldNameFormatter;
 import net.sxlver.databases.formatter.FieldNameFormatters;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
 import net.sxlver.databases.impl.mysql.annotation.AutoIncrement;
+import net.sxlver.databases.util.FieldAccessor;
 import net.sxlver.databases.util.Reflection;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
@@ -30,6 +34,8 @@ public class ClassInfo {
     private final Class<?> clazz;
     private final DatabaseConverter<?, ?> converter;
     private final Field[] uniqueIdentifiers;
+    // reads the identifier parts of an instance, in the order of the declared fields
+    private final FieldAccessor[] identifierAccessors;
 
     ClassInfo(final @NonNull Class<?>                clazz,
               final @NonNull Map<Field, FieldInfo>   fieldInfo,
@@ -40,6 +46,10 @@ public class ClassInfo {
         this.fieldInfo = fieldInfo;
         this.converter = converter;
         this.uniqueIdentifiers = uniqueIdentifiers;
+        this.identifierAccessors = Arrays.stream(uniqueIdentifiers)
+                .filter(FieldFilters.DEFAULT)
+                .map(FieldAccessor::of)
+                .toArray(FieldAccessor[]::new);
     }
 
     /**
@@ -164,6 +174,21 @@ public class ClassInfo {
         return uniqueIdentifiers;
     }
 
+    /**
+     * Returns the identifier of the given instance, composed of the values
+     * of its unique identifier fields.
+     *
+     * @param instance the instance of the class
+     * @return the identifier of the instance
+     */
+    public DatabaseEntryIdentifier getIdentifier(final @NonNull Object instance) {
+        final String[] uniqueIds = new String[identifierAccessors.length];
+        for (int i = 0; i < uniqueIds.length; i++) {
+            uniqueIds[i] = identifierAccessors[i].get(instance).toString();
+        }
+        return DatabaseEntryIdentifier.of(uniqueIds);
+    }
+
     /**
      * Generates a {@link ClassInfo} instance from a class.
      *
@@ -176,6 +201,13 @@ public class ClassInfo {
             return classInfoCache.getIfPresent(clazz);
         }
 
+        final EntityMetadata<?> metadata = findMetadata(clazz);
+        if(metadata != null) {
+            final ClassInfo info = ofMetadata(clazz, formatter, metadata);
+            classInfoCache.put(clazz, info);
+            return info;
+        }
+
         final List<? extends Field> declaredFields = FieldFilters.DEFAULT.filterDeclaredFieldsOf(clazz);
         final Map<Field, FieldInfo> fieldInfo = new HashMap<>();
         final DatabaseConverter<?, ?> converter = getConverter(clazz);
@@ -193,12 +225,57 @@ public class ClassInfo {
         return info;
     }
 
+    /**
+     * Returns the {@link EntityMetadata} generated for the class at compile time.
+     *
+     * @param clazz the class of the entity
+     * @return the metadata or {@code null} if the class hasn't been processed
+     */
+    @Nullable
+    static EntityMetadata<?> findMetadata(final @NonNull Class<?> clazz) {
+        final Class<?> metadataClass;
+        try {
+            metadataClass = Class.forName(clazz.getName() + EntityMetadata.SUFFIX, true, clazz.getClassLoader());
+        }catch(final ClassNotFoundException exception) {
+            return null;
+        }
+        return (EntityMetadata<?>) Reflection.newInstance(metadataClass);
+    }
+
+    /**
+     * Creates the {@link ClassInfo} from the metadata generated at compile time,
+     * which spares scanning the fields and their annotations.
+     *
+     * @param clazz the class of the entity
+     * @param formatter field name formatter
+     * @param metadata the metadata generated for the class
+     * @return the created {@link ClassInfo}
+     */
+    static ClassInfo ofMetadata(final @NonNull Class<?>           clazz,
+                                final @NonNull FieldNameFormatter formatter,
+                                final @NonNull EntityMetadata<?>  metadata
+    ) {
+        final Field[] fields = Reflection.getDeclaredFields(clazz, metadata.getFieldNames());
+        final Field[] uniqueIdentifiers = Reflection.getDeclaredFields(clazz, metadata.getUniqueIdentifiers());
+        final Map<Field, FieldInfo> fieldInfo = new HashMap<>();
+        for (final Field field : fields) {
+            final boolean uniqueIdentifier = metadata.getUniqueIdentifiers().contains(field.getName());
+            final boolean autoIncrement = metadata.getAutoIncrementFields().contains(field.getName());
+            fieldInfo.put(field, new FieldInfo(field, formatter, uniqueIdentifier, autoIncrement));
+        }
+        final DatabaseConverter<?, ?> generated = metadata.createConverter();
+        final DatabaseConverter<?, ?> converter = generated != null ? generated : getConverter(clazz);
+        return new ClassInfo(clazz, fieldInfo, converter, uniqueIdentifiers);
+    }
+
     public static final class FieldInfo {
         private final Field field;
         private final Class<?> fieldType;
         private final boolean uniqueIdentifier;
         private final boolean autoIncrement;
         private final String formattedName;
+        private final FieldAccessor accessor;
+        private final FieldPlan plan;
 
         /**
          * Constructs the field info to the corresponding field
@@ -209,11 +286,21 @@ public class ClassInfo {
          */
         public FieldInfo(final @NonNull Field              field,
                          final @NonNull FieldNameFormatter formatter) {
+            this(field, formatter, isUniqueIdentifier(field), isAutoIncrement(field));
+        }
+
+        FieldInfo(final @NonNull Field              field,
+                  final @NonNull FieldNameFormatter formatter,
+                  final boolean                     uniqueIdentifier,
+                  final boolean                     autoIncrement
+        ) {
             this.field = field;
             this.fieldType = field.getType();
-            this.uniqueIdentifier = isUniqueIdentifier(field);
-            this.autoIncrement = isAutoIncrement(field);
+            this.uniqueIdentifier = uniqueIdentifier;
+            this.autoIncrement = autoIncrement;
             this.formattedName = formatter.apply(field.getName());
+            this.accessor = FieldAccessor.of(field);
+            this.plan = FieldPlan.of(field);
         }
 
         /**
@@ -294,5 +381,24 @@ public class ClassInfo {
         public String getFormattedName() {
             return formattedName;
         }
+
+        /**
+         * Returns the accessor reading and writing the field through
+         * method handles resolved once.
+         *
+         * @return the accessor of the field
+         */
+        public FieldAccessor getAccessor() {
+            return accessor;
+        }
+
+        /**
+         * Returns the conversion of the field, which has been computed once.
+         *
+         * @return the plan of the field
+         */
+        public FieldPlan getPlan() {
+            return plan;
+        }
     }
 }
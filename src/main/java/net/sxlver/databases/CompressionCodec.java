@@ -0,0 +1,26 @@
+package net.sxlver.databases;
+
+/**
+ * Determines how the flat file storage compresses the files of entries.
+ *
+ * <p>Compressed files are recognized by their leading bytes, so the codec
+ * of a table can be changed at any time. Existing files are read as they
+ * are and compressed the next time their entry is written.
+ *
+ * @see DatabaseSettings#getCompressionCodec()
+ */
+public enum CompressionCodec {
+    /**
+     * Entries are stored as plain text.
+     */
+    NONE,
+    /**
+     * Entries are compressed using the zlib format of {@link java.util.zip.Deflater}.
+     */
+    DEFLATE,
+    /**
+     * Entries are compressed using the GZIP file format, which can
+     * be inspected with common command line tools.
+     */
+    GZIP;
+}
@@ -4,9 +4,13 @@ import lombok.NonNull;
 import net.sxlver.databases.exception.DatabaseException;
 import net.sxlver.databases.handler.OnLoadMessageReceiver;
 import net.sxlver.databases.handler.OnLoadReceiverSupplier;
+import net.sxlver.databases.impl.btree.BTreeDatabase;
 import net.sxlver.databases.impl.json.JSONDatabase;
+import net.sxlver.databases.impl.jsonlog.JSONLogDatabase;
+import net.sxlver.databases.impl.memory.MemoryDatabase;
 import net.sxlver.databases.impl.mongodb.MongoDBDatabase;
 import net.sxlver.databases.impl.mysql.MySQLDatabase;
+import net.sxlver.databases.impl.mysql.dialect.SQLDialects;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
@@ -60,6 +64,24 @@ public interface Database<T> {
     @NonNull
     CompletableFuture<Void> saveAsync(final @NonNull T object);
 
+    /**
+     * Takes a collection of {@code T}s and attempts to write all of them to
+     * the database.
+     *
+     * <p>Implementations may batch the writes into as few round trips as
+     * possible, the order in which the objects are written is not guaranteed.
+     * The default implementations share the behavior of {@link #save(Object)}
+     * for every single object.
+     *
+     * @param objects the objects that should be written to the database, not null
+     * @throws NullPointerException if the objects parameter is null
+     */
+    default void saveAll(final @NonNull Collection<T> objects) {
+        for (final T object : objects) {
+            save(object);
+        }
+    }
+
     /**
      * Gets data from the database matching the provided query and deserializes
      * them to {@code T}
@@ -125,6 +147,22 @@ public interface Database<T> {
      */
     void remove(final @NonNull Object query);
 
+    /**
+     * Removes all database entries matching any of the given queries from
+     * the database.
+     *
+     * <p>Implementations may batch the removals into as few round trips as
+     * possible. The same restrictions as for {@link #remove(Object)} apply
+     * to every single query.
+     *
+     * @param queries the queries identifying the data to remove, not null
+     */
+    default void removeAll(final @NonNull Collection<?> queries) {
+        for (final Object query : queries) {
+            remove(query);
+        }
+    }
+
     /**
      * This method returns whether a connection to the database has been
      * successfully established.
@@ -142,6 +180,15 @@ public interface Database<T> {
      */
     boolean isConnected();
 
+    /**
+     * Closes the database and releases the resources, such as connections,
+     * held by it. The database must not be used after it has been closed.
+     *
+     * <p>Implementations sharing resources between multiple databases only
+     * release them once they aren't used by any other database anymore.
+     */
+    default void close() {}
+
     /**
      * Instantiates a implementation of this class depending on the return
      * value of the getType() method in the provided DatabaseSettings.
@@ -183,6 +230,10 @@ public interface Database<T> {
         switch(type) {
             case MYSQL: return MySQLDatabase.of(classType, settings, catchMainThread, thread);
             case JSON: return JSONDatabase.of(classType, settings, catchMainThread, thread);
+            case JSON_LOG: return JSONLogDatabase.of(classType, settings, catchMainThread, thread);
+            case BTREE: return BTreeDatabase.of(classType, settings, catchMainThread, thread);
+            case MEMORY: return MemoryDatabase.of(classType, settings, catchMainThread, thread);
+            case H2: return MySQLDatabase.of(classType, settings, catchMainThread, thread, SQLDialects.H2);
             case MONGODB: return MongoDBDatabase.of(classType, settings, catchMainThread, thread);
         }
         throw new DatabaseException("No database exists for type " + type);
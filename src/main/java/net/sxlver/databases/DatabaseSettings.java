@@ -1,5 +1,9 @@
 package net.sxlver.databases;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ForkJoinPool;
+
 public interface DatabaseSettings {
 
     /**
@@ -63,9 +67,293 @@ public interface DatabaseSettings {
 
     /**
      * Returns the connection uri mongodb uses to connect
-     * to the database
+     * to the database. H2 uses it as JDBC url if it isn't blank
      *
      * @return
      */
     String getConnectionUri();
+
+    /**
+     * Returns the maximum amount of operations sent to the database
+     * in a single batch by {@link Database#saveAll(java.util.Collection)}
+     * and {@link Database#removeAll(java.util.Collection)}, which must be positive.
+     *
+     * @return the maximum size of a single batch
+     */
+    default int getBulkWriteChunkSize() {
+        return 1000;
+    }
+
+    /**
+     * Returns the name of the write concern mongodb should acknowledge
+     * writes with, e.g. {@code ACKNOWLEDGED}, {@code MAJORITY} or
+     * {@code UNACKNOWLEDGED}.
+     *
+     * @return the name of the write concern
+     */
+    default String getWriteConcern() {
+        return "ACKNOWLEDGED";
+    }
+
+    /**
+     * Returns the maximum amount of pooled connections per host. Databases
+     * with equal connection settings share a single pool.
+     *
+     * @return the maximum size of the connection pool
+     */
+    default int getMaxPoolSize() {
+        return 100;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds a thread waits for a
+     * pooled connection to become available.
+     *
+     * @return the maximum wait time in milliseconds
+     */
+    default int getMaxWaitTime() {
+        return 120000;
+    }
+
+    /**
+     * Returns the time in milliseconds after which idle pooled connections
+     * are closed, {@code 0} keeps them open indefinitely.
+     *
+     * @return the maximum idle time in milliseconds
+     */
+    default int getMaxConnectionIdleTime() {
+        return 0;
+    }
+
+    /**
+     * Returns the database MongoDB users are authenticated against if no
+     * connection uri is given. Databases connecting with the same settings
+     * share a connection pool regardless of the database they work with,
+     * as long as they authenticate against the same database.
+     *
+     * @return the authentication database, or {@code null} to authenticate
+     *         against the {@link #getDatabase() database} itself
+     */
+    @Nullable
+    default String getAuthenticationDatabase() {
+        return null;
+    }
+
+    /**
+     * Returns the size in bytes after which the log-structured flat file
+     * storage starts appending to a new segment.
+     *
+     * @return the maximum size of a single segment
+     */
+    default long getLogSegmentSize() {
+        return 64 * 1024 * 1024;
+    }
+
+    /**
+     * Returns the interval in seconds in which the log-structured flat file
+     * storage checks whether its segments should be compacted.
+     *
+     * @return the compaction interval in seconds
+     */
+    default long getLogCompactionInterval() {
+        return 60;
+    }
+
+    /**
+     * Returns whether the flat file storage should read entries from memory
+     * mapped files instead of opening a reader for every lookup.
+     *
+     * @return whether memory mapped reads are enabled
+     */
+    default boolean isMemoryMappedReads() {
+        return false;
+    }
+
+    /**
+     * Returns the maximum amount of memory mapped files kept by the flat file
+     * storage, the least recently used mappings are released first.
+     *
+     * @return the maximum amount of cached mappings
+     */
+    default long getMappedFileCacheSize() {
+        return 1024;
+    }
+
+    /**
+     * Returns when the flat file storage forces written entries to disk.
+     *
+     * @return the fsync policy
+     */
+    default FsyncPolicy getFsyncPolicy() {
+        return FsyncPolicy.NONE;
+    }
+
+    /**
+     * Returns the interval in milliseconds in which pending writes are forced
+     * to disk when using {@link FsyncPolicy#GROUP_COMMIT}. This bounds both the
+     * latency of a write and the writes lost on a power failure.
+     *
+     * @return the group commit interval in milliseconds
+     */
+    default long getGroupCommitInterval() {
+        return 10;
+    }
+
+    /**
+     * Returns the amount of threads the flat file storage reads and
+     * deserializes entries with in {@link Database#getAll()} and
+     * {@link Database#getAll(Object)}. A value of {@code 1} reads all
+     * entries on the calling thread. Databases reading with the same
+     * parallelism share their threads.
+     *
+     * @return the parallelism of reads
+     */
+    default int getReadParallelism() {
+        return 1;
+    }
+
+    /**
+     * Returns the pool the flat file storage reads entries in parallel with,
+     * overriding the {@link #getReadParallelism() parallelism of reads}. The
+     * pool may be shared with other databases and isn't shut down by them.
+     *
+     * @return the pool of parallel reads, or {@code null} to use a shared pool
+     */
+    @Nullable
+    default ForkJoinPool getReadPool() {
+        return null;
+    }
+
+    /**
+     * Returns whether entries read in parallel should be returned in the
+     * order of their unique ids. Disabling this saves merging the results
+     * of the single threads.
+     *
+     * @return whether the order of entries read in parallel is preserved
+     */
+    default boolean isPreserveReadOrder() {
+        return true;
+    }
+
+    /**
+     * Returns how the flat file storage lays out the entry files of a table.
+     * Existing tables are migrated to the layout on startup.
+     *
+     * @return the layout of tables
+     */
+    default TableLayout getTableLayout() {
+        return TableLayout.FLAT;
+    }
+
+    /**
+     * Returns the amount of locks the flat file storage distributes its
+     * entries over. Entries sharing a lock can't be written at the same time.
+     *
+     * @return the amount of lock stripes
+     */
+    default int getLockStripes() {
+        return 64;
+    }
+
+    /**
+     * Returns whether the flat file storage should additionally lock entries
+     * in a lock file of the table while writing them, which excludes writes of
+     * the same entry by other processes sharing the table.
+     *
+     * <p>This only excludes concurrent writes of an entry. Each process keeps its
+     * own key index, entry count and auto increment ids, so entries written by
+     * another process aren't found until the table is opened again and tables
+     * with an auto increment field must not be written by multiple processes.
+     * With {@link FsyncPolicy#GROUP_COMMIT}, the lock only covers writing the new
+     * contents of an entry, which replace the entry after the lock is released.
+     * Opening a table deletes temporary files left behind by crashes while the
+     * whole lock file is locked, which may discard the pending group commits
+     * of another process.
+     *
+     * @return whether writes of the same entry are excluded across processes
+     */
+    default boolean isFileLocking() {
+        return false;
+    }
+
+    /**
+     * Returns the codec the flat file storage compresses entries with.
+     *
+     * @return the compression codec of entries
+     */
+    default CompressionCodec getCompressionCodec() {
+        return CompressionCodec.NONE;
+    }
+
+    /**
+     * Returns the size in bytes an encoded entry has to reach before it
+     * is compressed. Smaller entries are stored as plain text.
+     *
+     * @return the compression threshold in bytes
+     */
+    default int getCompressionThreshold() {
+        return 512;
+    }
+
+    /**
+     * Returns whether the flat file storage should write entries without
+     * indentation and line breaks instead of pretty printing them.
+     *
+     * @return whether entries are encoded compactly
+     */
+    default boolean isCompactEncoding() {
+        return false;
+    }
+
+    /**
+     * Returns whether the flat file and the MongoDB storage store entries under the
+     * escaped form of their identifier, which keeps identifiers with parts containing
+     * the delimiter apart. The B+tree, log and in-memory storages always do.
+     * Entries stored under the plain key aren't migrated, so this should only be
+     * enabled for new tables.
+     *
+     * @return whether identifiers are stored escaped
+     */
+    default boolean isEscapedIdentifiers() {
+        return false;
+    }
+
+    /**
+     * Returns the size in bytes of the pages of newly created B+tree files.
+     * Existing files keep the page size they have been created with.
+     *
+     * @return the page size of the embedded storage engine
+     */
+    default int getBTreePageSize() {
+        return 8192;
+    }
+
+    /**
+     * Returns the amount of pages the embedded storage engine caches in memory.
+     *
+     * @return the capacity of the buffer pool in pages
+     */
+    default int getBTreeBufferPoolSize() {
+        return 2048;
+    }
+
+    /**
+     * Returns whether the in-memory storage should persist its entries to
+     * a snapshot file, which is loaded again on startup.
+     *
+     * @return whether snapshots are enabled
+     */
+    default boolean isMemorySnapshots() {
+        return false;
+    }
+
+    /**
+     * Returns the interval in seconds in which the in-memory storage writes
+     * a snapshot of its entries, if they have been modified.
+     *
+     * @return the snapshot interval in seconds
+     */
+    default long getMemorySnapshotInterval() {
+        return 60;
+    }
 }
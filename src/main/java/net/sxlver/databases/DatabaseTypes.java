@@ -3,5 +3,9 @@ package net.sxlver.databases;
 public enum DatabaseTypes implements DatabaseType {
     MYSQL,
     MONGODB,
-    JSON;
+    JSON,
+    JSON_LOG,
+    BTREE,
+    MEMORY,
+    H2;
 }
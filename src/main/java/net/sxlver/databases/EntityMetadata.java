@@ -0,0 +1,51 @@
+package net.sxlver.databases;
+
+import net.sxlver.databases.processor.EntityProcessor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metadata of an entity type generated at compile time by the {@link EntityProcessor}.
+ *
+ * <p>The generated class is named after the binary name of the entity followed by
+ * {@link #SUFFIX}. If it is present, {@link ClassInfo} takes the persisted fields,
+ * the unique identifiers and the converter from it instead of scanning the type.
+ *
+ * @param <T> the type of the entity
+ */
+public interface EntityMetadata<T> {
+    String SUFFIX = "$$DatabaseMetadata";
+
+    Class<T> getType();
+
+    /**
+     * Returns the names of the persisted fields in declaration order.
+     *
+     * @return the names of the persisted fields
+     */
+    List<String> getFieldNames();
+
+    /**
+     * Returns the names of the fields annotated with {@code UniqueIdentifier}.
+     *
+     * @return the names of the unique identifiers
+     */
+    List<String> getUniqueIdentifiers();
+
+    /**
+     * Returns the names of the fields annotated with {@code AutoIncrement}.
+     *
+     * @return the names of the auto increment fields
+     */
+    List<String> getAutoIncrementFields();
+
+    /**
+     * Creates the converter that has been generated for the entity.
+     *
+     * @return the converter or {@code null} if the entity defines a custom converter
+     */
+    @Nullable
+    DatabaseConverter<T, Map<String, Object>> createConverter();
+}
@@ -0,0 +1,24 @@
+package net.sxlver.databases;
+
+/**
+ * Determines when the flat file storage forces written entries to disk.
+ *
+ * @see DatabaseSettings#getFsyncPolicy()
+ */
+public enum FsyncPolicy {
+    /**
+     * Entries are never forced to disk explicitly, the operating system
+     * decides when they are persisted.
+     */
+    NONE,
+    /**
+     * Every entry is forced to disk before the write returns.
+     */
+    PER_WRITE,
+    /**
+     * Writes are collected and forced to disk together every
+     * {@link DatabaseSettings#getGroupCommitInterval()} milliseconds.
+     * Writes return once their batch has been forced to disk.
+     */
+    GROUP_COMMIT;
+}
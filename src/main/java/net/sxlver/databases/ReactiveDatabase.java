@@ -0,0 +1,146 @@
+package net.sxlver.databases;
+
+import lombok.NonNull;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.handler.OnLoadMessageReceiver;
+import net.sxlver.databases.handler.OnLoadReceiverSupplier;
+import net.sxlver.databases.impl.mongodb.ReactiveMongoDBDatabase;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * A non-blocking counterpart to {@link Database}.
+ *
+ * <p>Operations never block the calling thread, results are emitted through
+ * {@link Flow.Publisher}s honoring the demand of their subscribers and writes
+ * complete {@link CompletableFuture}s once they have been acknowledged. Queries
+ * are interpreted the same way as by the {@link Database} of the same type.
+ *
+ * <p>Instead of instantiating implementations directly, use the {@code ofType()}
+ * method provided by this class.
+ *
+ * @param <T> describes the type of object the database will work with
+ */
+public interface ReactiveDatabase<T> {
+
+    /**
+     * Writes an instance of {@code T} to the database.
+     *
+     * @param object the object that should be written to the database, not null
+     * @return the future completed once the write has been acknowledged, never null
+     */
+    @NonNull
+    CompletableFuture<Void> save(final @NonNull T object);
+
+    /**
+     * Writes all the given instances of {@code T} to the database.
+     *
+     * @param objects the objects that should be written to the database, not null
+     * @return the future completed once all writes have been acknowledged, never null
+     */
+    @NonNull
+    CompletableFuture<Void> saveAll(final @NonNull Collection<T> objects);
+
+    /**
+     * Gets the data matching the provided query and deserializes it to {@code T}.
+     *
+     * @param query the query identifying the data to retrieve, not null
+     * @return the future completed with the deserialized object or {@code null}
+     *         if no data matching the query exist, never null
+     * @see Database#get(Object)
+     */
+    @NonNull
+    CompletableFuture<@Nullable T> get(final @NonNull Object query);
+
+    /**
+     * Gets all data matching the provided query and emits it deserialized
+     * to {@code T} as requested by the subscriber.
+     *
+     * @param query the query identifying the data to retrieve, not null
+     * @return the publisher emitting the matching objects, never null
+     * @see Database#getAll(Object)
+     */
+    @NonNull
+    Flow.Publisher<T> getAll(final @NonNull Object query);
+
+    /**
+     * Gets all data from the database and emits it deserialized to {@code T}
+     * as requested by the subscriber.
+     *
+     * @return the publisher emitting all objects, never null
+     */
+    @NonNull
+    Flow.Publisher<T> getAll();
+
+    /**
+     * Removes the entries matching the given query from the database.
+     *
+     * @param query the query identifying the data to remove, not null
+     * @return the future completed once the removal has been acknowledged, never null
+     * @see Database#remove(Object)
+     */
+    @NonNull
+    CompletableFuture<Void> remove(final @NonNull Object query);
+
+    /**
+     * Removes all entries matching any of the given queries from the database.
+     *
+     * @param queries the queries identifying the data to remove, not null
+     * @return the future completed once all removals have been acknowledged, never null
+     */
+    @NonNull
+    CompletableFuture<Void> removeAll(final @NonNull Collection<?> queries);
+
+    /**
+     * Returns whether a connection to the database has been established.
+     *
+     * @return whether a open connection to the database exists
+     */
+    boolean isConnected();
+
+    /**
+     * Closes the database and releases the resources held by it.
+     *
+     * @see Database#close()
+     */
+    void close();
+
+    /**
+     * Instantiates the non-blocking implementation for the database type
+     * returned by the provided DatabaseSettings.
+     *
+     * <p>Throws a {@code DatabaseException} if the DatabaseType doesn't have
+     * a non-blocking implementation.
+     *
+     * @param classType the parameter type of {@code T}, not null
+     * @param settings the database settings to parse connection information from, not null
+     * @return the implementation of this class for the given DatabaseType, never null
+     */
+    static <T> ReactiveDatabase<T> ofType(final Class<T> classType, final DatabaseSettings settings) {
+        final DatabaseTypes type = settings.getDatabaseType();
+        if(type == DatabaseTypes.MONGODB) {
+            return ReactiveMongoDBDatabase.of(classType, settings);
+        }
+        throw new DatabaseException("No reactive database exists for type " + type);
+    }
+
+    /**
+     * Calls a {@code OnLoadMessageReceiver} when data that belong to him have been loaded.
+     *
+     * @param object the message receiver, not null
+     * @see Database#callMessageReceiver(Object)
+     */
+    @SuppressWarnings("unchecked")
+    default void callMessageReceiver(final T object) {
+        if(object instanceof OnLoadReceiverSupplier) {
+            final OnLoadReceiverSupplier<OnLoadMessageReceiver> messageSupplier = (OnLoadReceiverSupplier<OnLoadMessageReceiver>) object;
+            final OnLoadMessageReceiver messageReceiver = messageSupplier.getMessageHandler();
+            if(messageReceiver != null) {
+                messageReceiver.onLoad(object);
+            }
+        }
+    }
+}
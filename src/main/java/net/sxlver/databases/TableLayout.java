@@ -0,0 +1,19 @@
+package net.sxlver.databases;
+
+/**
+ * Determines how the flat file storage lays out the entry files of a table.
+ *
+ * @see DatabaseSettings#getTableLayout()
+ */
+public enum TableLayout {
+    /**
+     * All entry files are stored in the directory of the table.
+     */
+    FLAT,
+    /**
+     * Entry files are fanned out into {@code ab/cd/} subdirectories of the
+     * table directory, named after the hash of their unique id. This keeps
+     * directories small for tables with millions of entries.
+     */
+    HASHED;
+}
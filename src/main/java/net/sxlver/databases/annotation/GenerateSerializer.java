@@ -0,0 +1,17 @@
+package net.sxlver.databases.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serializes the annotated type with a serializer class that is generated
+ * at first use, reading and writing its fields directly instead of through
+ * reflection. If no serializer can be generated for the type, it falls back
+ * to the reflective conversion.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GenerateSerializer {
+}
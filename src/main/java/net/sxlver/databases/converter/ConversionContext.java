@@ -40,10 +40,10 @@ public abstract class ConversionContext {
     public abstract void incCurrentNestingLevel();
 
     public static ConversionContext of(final Field field, final Object instance) {
-        return new ConversionContextImpl(field, null, instance);
+        return new ConversionContextImpl(FieldPlan.of(field), null, instance);
     }
 
     public static ConversionContext of(final Field field, final Object mapValue, final Object instance) {
-        return new ConversionContextImpl(field, mapValue, instance);
+        return new ConversionContextImpl(FieldPlan.of(field), mapValue, instance);
     }
 }
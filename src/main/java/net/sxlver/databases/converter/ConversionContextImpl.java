@@ -1,52 +1,31 @@
 package net.sxlver.databases.converter;
 
 import lombok.NonNull;
-import net.sxlver.databases.annotation.ElementType;
-import net.sxlver.databases.util.Reflection;
-import net.sxlver.databases.formatter.FieldNameFormatters;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
-
 public class ConversionContextImpl extends ConversionContext {
-    private final Class<?> fieldType;
-    private final Class<?> elementType;
+    private final FieldPlan plan;
     private final Object fieldValue;
     private final Object mapValue;
-    private final int nestingLevel;
     private int currentNestingLevel;
 
-    ConversionContextImpl(final @NonNull Field   field,
-                          final @Nullable Object mapValue,
-                          final @NonNull Object  instance
+    ConversionContextImpl(final @NonNull FieldPlan plan,
+                          final @Nullable Object   mapValue,
+                          final @NonNull Object    instance
     ) {
-        super(field, instance);
+        super(plan.getField(), instance);
+        this.plan = plan;
         this.mapValue = mapValue;
-        this.fieldType = field.getType();
-        this.elementType = elementType(field);
-        this.fieldValue = Reflection.getValue(field, instance);
-        this.nestingLevel = nestingLevel(field);
-    }
-
-    private static Class<?> elementType(final Field field) {
-        if (field.isAnnotationPresent(ElementType.class)) {
-            final ElementType et = field.getAnnotation(ElementType.class);
-            return et.value();
-        }
-        return null;
+        this.fieldValue = plan.getAccessor().get(instance);
     }
 
-    private static int nestingLevel(final Field field) {
-        if (field.isAnnotationPresent(ElementType.class)) {
-            final ElementType et = field.getAnnotation(ElementType.class);
-            return et.nestingLevel();
-        }
-        return -1;
+    FieldPlan getPlan() {
+        return plan;
     }
 
     @Override
     public int getNestingLevel() {
-        return nestingLevel;
+        return plan.getNestingLevel();
     }
 
     @Override
@@ -61,17 +40,17 @@ public class ConversionContextImpl extends ConversionContext {
 
     @Override
     public Class<?> getFieldType() {
-        return fieldType;
+        return plan.getFieldType();
     }
 
     @Override
     public Class<?> getElementType() {
-        return elementType;
+        return plan.getElementType();
     }
 
     @Override
     public boolean hasElementType() {
-        return elementType != null;
+        return plan.getElementType() != null;
     }
 
     @Override
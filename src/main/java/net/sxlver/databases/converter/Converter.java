@@ -19,7 +19,13 @@ import static net.sxlver.databases.util.Validator.*;
  */
 public final class Converter {
 
-    private static final Map<Class<? extends DatabaseConverter<?, ?>>, DatabaseConverter<?, ?>> cache = new WeakHashMap<>();
+    // custom converters are instantiated once per converter class
+    private static final ClassValue<DatabaseConverter<?, ?>> CUSTOM_CONVERTERS = new ClassValue<>() {
+        @Override
+        protected DatabaseConverter<?, ?> computeValue(final Class<?> type) {
+            return (DatabaseConverter<?, ?>) Reflection.newInstance(type);
+        }
+    };
 
     private static final ReflectiveObjectConverter REFLECTIVE_OBJECT_CONVERTER = new ReflectiveObjectConverter();
 
@@ -33,6 +39,30 @@ public final class Converter {
     private static final SimpleSetConverter SIMPLE_SET_CONVERTER = new SimpleSetConverter();
     private static final SimpleMapConverter SIMPLE_MAP_CONVERTER = new SimpleMapConverter();
 
+    private static final ValueConverters VALUE_CONVERTERS = new ValueConverters(false);
+    private static final ValueConverters ELEMENT_TYPE_VALUE_CONVERTERS = new ValueConverters(true);
+
+    /**
+     * Selects the converter of a field value by its runtime type, which is only
+     * computed once per type. Whether the field defines an element type decides
+     * how containers are converted, hence there is one instance for each case.
+     */
+    private static final class ValueConverters extends ClassValue<DatabaseConverter<Object, Object>> {
+        private final boolean hasElementType;
+
+        private ValueConverters(final boolean hasElementType) {
+            this.hasElementType = hasElementType;
+        }
+
+        @Override
+        protected DatabaseConverter<Object, Object> computeValue(final Class<?> valueType) {
+            if (Reflection.isSimpleType(valueType)) {
+                return toObjectConverter(SIMPLE_TYPE_CONVERTER);
+            }
+            return selectNonSimpleConverter(valueType, hasElementType);
+        }
+    }
+
     public static final class SimpleTypeConverter implements DatabaseConverter<Object, Object> {
         @Override
         public Object deserialize(final @NonNull Object toDeserialize, final @NonNull ConversionContext context) {
@@ -119,7 +149,10 @@ public final class Converter {
         public Object deserialize(final Object toDeserialize, final ConversionContext context) {
             final Object newInstance = Reflection.newInstance(context.getValueType());
             final Map<String, Object> typeMap = FieldMapper.toTypeMap(toDeserialize, null);
-            for (Map.Entry<String, Object> entry : typeMap.entrySet()) {
+            final EntitySerializer serializer = SerializerGenerator.forType(newInstance.getClass());
+            if(serializer != null) {
+                serializer.deserialize(newInstance, typeMap);
+                return newInstance;
             }
             FieldMapper.instanceFromMap(newInstance, typeMap);
             return newInstance;
@@ -127,6 +160,10 @@ public final class Converter {
 
         @Override
         public Object serialize(final Object toSerialize, final @Nullable ConversionContext context) {
+            final EntitySerializer serializer = SerializerGenerator.forType(toSerialize.getClass());
+            if(serializer != null) {
+                return serializer.serialize(toSerialize);
+            }
             return FieldMapper.instanceToMap(toSerialize);
         }
     }
@@ -326,40 +363,50 @@ public final class Converter {
         };
     }
 
-    private static DatabaseConverter<Object, Object> selectConverter(final @NonNull Class<?>          valueType,
-                                                                     final @NonNull ConversionContext context
-    ) {
-        final DatabaseConverter<?, ?> converter;
-        if (Reflection.shouldIgnore(context.getField())) {
-            converter = IDENTITY_CONVERTER;
-        } else if (Reflection.hasConverter(context.getField())) {
-            converter = instantiateConverter(context.getField());
-        } else if (Reflection.isSimpleType(valueType)) {
-            converter = SIMPLE_TYPE_CONVERTER;
-        } else {
-            converter = selectNonSimpleConverter(valueType, context);
+    /**
+     * Returns the converter that is used for the field regardless of the type of its value.
+     *
+     * @param field the field
+     * @return the converter or {@code null} if the converter is selected by the type of the value
+     */
+    @Nullable
+    static DatabaseConverter<Object, Object> selectFieldConverter(final @NonNull Field field) {
+        if (Reflection.shouldIgnore(field)) {
+            return toObjectConverter(IDENTITY_CONVERTER);
+        } else if (Reflection.hasConverter(field)) {
+            return toObjectConverter(instantiateConverter(field));
         }
-        return toObjectConverter(converter);
+        return null;
+    }
+
+    static ClassValue<DatabaseConverter<Object, Object>> valueConverters(final boolean hasElementType) {
+        return hasElementType ? ELEMENT_TYPE_VALUE_CONVERTERS : VALUE_CONVERTERS;
     }
 
     private static DatabaseConverter<Object, Object> selectNonSimpleConverter(final @NonNull Class<?>          valueType,
                                                                               final @NonNull ConversionContext context
+    ) {
+        return selectNonSimpleConverter(valueType, context.hasElementType());
+    }
+
+    private static DatabaseConverter<Object, Object> selectNonSimpleConverter(final @NonNull Class<?> valueType,
+                                                                              final boolean           hasElementType
     ) {
         final DatabaseConverter<?, ?> converter;
         if (Reflection.isEnumType(valueType) || valueType == String.class) {
             converter = ENUM_CONVERTER;
         } else if (Reflection.isContainerType(valueType)) {
-            converter = selectContainerConverter(valueType, context);
+            converter = selectContainerConverter(valueType, hasElementType);
         } else {
             converter = REFLECTIVE_OBJECT_CONVERTER;
         }
         return toObjectConverter(converter);
     }
 
-    private static DatabaseConverter<?, ?> selectContainerConverter(final @NonNull Class<?>          valueType,
-                                                                    final @NonNull ConversionContext context
+    private static DatabaseConverter<?, ?> selectContainerConverter(final @NonNull Class<?> valueType,
+                                                                    final boolean           hasElementType
     ) {
-        if (context.hasElementType()) {
+        if (hasElementType) {
             return selectElementTypeContainerConverter(valueType);
         } else {
             return selectSimpleContainerConverter(valueType);
@@ -379,19 +426,22 @@ public final class Converter {
     }
 
     static Object convertTo(final @NonNull ConversionContext context) {
-        final DatabaseConverter<Object, Object> converter = selectConverter(
-                context.getValueType(), context
-        );
+        final DatabaseConverter<Object, Object> converter = planOf(context).selectConverter(context.getValueType());
         return tryConvertTo(converter, context);
     }
 
     static Object convertFrom(final @NonNull ConversionContext context) {
-        final DatabaseConverter<Object, Object> converter = selectConverter(
-                context.getValueType(), context
-        );
+        final DatabaseConverter<Object, Object> converter = planOf(context).selectConverter(context.getValueType());
         return tryConvertFrom(converter, context);
     }
 
+    private static FieldPlan planOf(final ConversionContext context) {
+        if (context instanceof ConversionContextImpl) {
+            return ((ConversionContextImpl) context).getPlan();
+        }
+        return FieldPlan.of(context.getField());
+    }
+
     static DatabaseConverter<Object, Object> toObjectConverter(final @NonNull DatabaseConverter<?, ?> converter) {
         /* This cast may result in a ClassCastException when converting objects
          * back to their original representation. This happens if the type of the
@@ -404,8 +454,8 @@ public final class Converter {
         return c;
     }
 
-    private static Object tryConvertTo(final @NonNull DatabaseConverter<Object, Object> converter,
-                                       final @NonNull ConversionContext                 context
+    static Object tryConvertTo(final @NonNull DatabaseConverter<Object, Object> converter,
+                               final @NonNull ConversionContext                 context
     ) {
         try {
             return converter.serialize(context.getValue(), context);
@@ -417,7 +467,7 @@ public final class Converter {
         }
     }
 
-    private static Object tryConvertFrom(
+    static Object tryConvertFrom(
             final @NonNull DatabaseConverter<Object, Object> converter,
             final @NonNull ConversionContext                 context
     ) {
@@ -434,10 +484,8 @@ public final class Converter {
 
     static DatabaseConverter<?, ?> instantiateConverter(final Field field) {
         final CustomConverter convert = field.getAnnotation(CustomConverter.class);
-        return cache.computeIfAbsent(convert.value(), cls -> {
-            checkConverterHasNoArgsConstructor(cls, field.getName());
-            return Reflection.newInstance(cls);
-        });
+        checkConverterHasNoArgsConstructor(convert.value(), field.getName());
+        return CUSTOM_CONVERTERS.get(convert.value());
     }
 
     private static String getClsName(final Class<?> clazz) {
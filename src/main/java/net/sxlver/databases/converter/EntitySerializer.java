@@ -0,0 +1,176 @@
+package net.sxlver.databases.converter;
+
+import lombok.NonNull;
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.util.Reflection;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Base class of the serializers generated by {@link SerializerGenerator} at runtime
+ * and of the converters generated by the {@code EntityProcessor} at compile time.
+ *
+ * <p>Subclasses read and write the fields of their entity directly. Fields which
+ * aren't of a simple or enum type are converted through the helpers of this class,
+ * which behave like the reflective conversion of the {@link FieldMapper}.
+ */
+public abstract class EntitySerializer {
+    protected final Field[] fields;
+    protected final DatabaseConverter<Object, Object>[] converters;
+    private final FieldPlan[] plans;
+
+    protected EntitySerializer(final @NonNull Field[]                             fields,
+                               final @NonNull DatabaseConverter<Object, Object>[] converters
+    ) {
+        this.fields = fields;
+        this.converters = converters;
+        this.plans = new FieldPlan[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            plans[i] = FieldPlan.of(fields[i]);
+        }
+    }
+
+    /**
+     * Creates the serializer of the given fields, instantiating the custom converters
+     * defined for them once.
+     *
+     * @param fields the persisted fields of the entity
+     */
+    protected EntitySerializer(final @NonNull Field[] fields) {
+        this(fields, converters(fields));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static DatabaseConverter<Object, Object>[] converters(final Field[] fields) {
+        final DatabaseConverter<Object, Object>[] converters = new DatabaseConverter[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            if(Reflection.hasConverter(fields[i])) {
+                converters[i] = FieldPlan.of(fields[i]).selectConverter(fields[i].getType());
+            }
+        }
+        return converters;
+    }
+
+    protected static Field[] fields(final Class<?> type, final String... names) {
+        return Reflection.getDeclaredFields(type, Arrays.asList(names));
+    }
+
+    /**
+     * Returns the names the given fields are stored under, as formatted by the formatter of the type.
+     *
+     * @param type the type of the entity
+     * @param fields the persisted fields of the entity
+     * @return the formatted names
+     */
+    protected static String[] formattedNames(final Class<?> type, final Field[] fields) {
+        final String[] names = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            names[i] = FieldPlan.of(fields[i]).getName();
+        }
+        return names;
+    }
+
+    /**
+     * Serializes the given entity to a map of its formatted field names.
+     *
+     * @param instance the entity
+     * @return the serialized entity
+     */
+    public final Map<String, Object> serialize(final @NonNull Object instance) {
+        try {
+            return write(instance);
+        }catch(final ClassCastException exception) {
+            final String message = "Unable to serialize '" + instance.getClass().getName() + "' because a type mismatch occurred.";
+            throw new DatabaseException(message, exception);
+        }
+    }
+
+    /**
+     * Sets the fields of the given entity to the values of the map.
+     *
+     * @param instance the entity
+     * @param map the serialized entity
+     */
+    public final void deserialize(final @NonNull Object instance, final @NonNull Map<String, Object> map) {
+        try {
+            read(instance, map);
+        }catch(final ClassCastException exception) {
+            final String message = "Unable to deserialize '" + instance.getClass().getName() + "' because a type mismatch occurred.";
+            throw new DatabaseException(message, exception);
+        }
+    }
+
+    protected abstract Map<String, Object> write(Object instance);
+
+    protected abstract void read(Object instance, Map<String, Object> map);
+
+    protected final Object convertTo(final int index, final Object instance) {
+        return plans[index].convertTo(instance);
+    }
+
+    protected final Object convertFrom(final int index, final Object mapValue, final Object instance) {
+        return plans[index].convertFrom(mapValue, instance);
+    }
+
+    protected final Object serializeWith(final int index, final Object value, final Object instance) {
+        return converters[index].serialize(value, new ConversionContextImpl(plans[index], null, instance));
+    }
+
+    protected final Object deserializeWith(final int index, final Object mapValue, final Object instance) {
+        return converters[index].deserialize(mapValue, new ConversionContextImpl(plans[index], mapValue, instance));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected final Object enumValue(final int index, final Object mapValue) {
+        final Class<? extends Enum> type = (Class<? extends Enum>) fields[index].getType();
+        try {
+            return Enum.valueOf(type, (String) mapValue);
+        }catch(final IllegalArgumentException exception) {
+            final String message = "Cannot initialize enum '" + fields[index].getName() + "' because there is no " +
+                    "enum constant '" + mapValue + "'.";
+            throw new DatabaseException(message, exception);
+        }
+    }
+
+    protected static Object enumName(final Enum<?> value) {
+        return value == null ? null : value.toString();
+    }
+
+    protected static boolean booleanValue(final Object value) {
+        return (Boolean) value;
+    }
+
+    protected static char charValue(final Object value) {
+        if(value instanceof String && ((String) value).length() == 1) {
+            return ((String) value).charAt(0);
+        }
+        return (Character) value;
+    }
+
+    protected static byte byteValue(final Object value) {
+        return ((Number) value).byteValue();
+    }
+
+    protected static short shortValue(final Object value) {
+        return ((Number) value).shortValue();
+    }
+
+    protected static int intValue(final Object value) {
+        return ((Number) value).intValue();
+    }
+
+    protected static long longValue(final Object value) {
+        return ((Number) value).longValue();
+    }
+
+    protected static float floatValue(final Object value) {
+        return ((Number) value).floatValue();
+    }
+
+    protected static double doubleValue(final Object value) {
+        return ((Number) value).doubleValue();
+    }
+}
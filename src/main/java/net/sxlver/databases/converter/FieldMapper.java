@@ -2,13 +2,9 @@ package net.sxlver.databases.converter;
 
 import lombok.NonNull;
 import net.sxlver.databases.ClassInfo;
-import net.sxlver.databases.filter.FieldFilter;
-import net.sxlver.databases.filter.FieldFilters;
 import net.sxlver.databases.formatter.FieldNameFormatter;
-import net.sxlver.databases.util.Reflection;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -18,50 +14,33 @@ public class FieldMapper {
     static void instanceFromMap(final @NonNull Object              inst,
                                 final @NonNull Map<String, Object> instMap
     ) {
-        final FieldFilter filter = FieldFilters.DEFAULT;
-        for (final Field field : filter.filterDeclaredFieldsOf(inst.getClass())) {
-            final FieldNameFormatter fnf = selectFormatter(inst.getClass());
-            final String fn = fnf.fromFieldName(field.getName());
-            final Object mapValue = instMap.get(fn);
+        for (final FieldPlan plan : FieldPlan.persistedFieldsOf(inst.getClass())) {
+            final Object mapValue = instMap.get(plan.getName());
             if (mapValue != null) {
-                fromConvertedObject(field, mapValue, inst);
+                fromConvertedObject(plan, mapValue, inst);
             }
         }
     }
 
     static Map<String, Object> instanceToMap(final @NonNull Object inst) {
         final Map<String, Object> map = new LinkedHashMap<>();
-        final FieldFilter filter = FieldFilters.DEFAULT;
-        for (final Field field : filter.filterDeclaredFieldsOf(inst.getClass())) {
-            final Object val = toConvertibleObject(field, inst);
-            final FieldNameFormatter fnf = selectFormatter(inst.getClass());
-            final String fn = fnf.fromFieldName(field.getName());
-            map.put(fn, val);
+        for (final FieldPlan plan : FieldPlan.persistedFieldsOf(inst.getClass())) {
+            map.put(plan.getName(), plan.convertTo(inst));
         }
         return map;
     }
 
-    private static Object toConvertibleObject(final @NonNull Field field, final @NonNull Object instance) {
-        final ConversionContext context = ConversionContext.of(field, instance);
-        return Converter.convertTo(context);
-    }
-
-    private static void fromConvertedObject(final @NonNull Field  field,
-                                            final @NonNull Object mapValue,
-                                            final @NonNull Object instance
+    private static void fromConvertedObject(final @NonNull FieldPlan plan,
+                                            final @NonNull Object    mapValue,
+                                            final @NonNull Object    instance
     ) {
-        final ConversionContext context = ConversionContext.of(field, mapValue, instance);
-        final Object convert = Converter.convertFrom(context);
+        final Object convert = plan.convertFrom(mapValue, instance);
 
         if (convert == null) {
             return;
         }
 
-        if (Reflection.isContainerType(context.getFieldType())) {
-            checkFieldTypeAssignableFrom(convert.getClass(), context);
-        }
-
-        Reflection.setValue(field, instance, convert);
+        plan.getAccessor().set(instance, convert);
     }
 
     static Map<String, Object> toTypeMap(final Object value, final @Nullable String fn) {
@@ -0,0 +1,186 @@
+package net.sxlver.databases.converter;
+
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.annotation.ElementType;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.filter.FieldFilters;
+import net.sxlver.databases.util.FieldAccessor;
+import net.sxlver.databases.util.Reflection;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.sxlver.databases.util.Validator.checkFieldTypeAssignableFrom;
+
+/**
+ * The conversion of a single field, computed once per field.
+ *
+ * <p>The annotations of the field are only read when the plan is created. Fields
+ * that are ignored or define a custom converter always use the same converter,
+ * for all other fields the converter is selected by the runtime type of the value,
+ * which is cached per type as well.
+ */
+public final class FieldPlan {
+    // plans are created on first use, as creating them accesses the field
+    private static final ClassValue<Map<Field, FieldPlan>> PLANS = new ClassValue<>() {
+        @Override
+        protected Map<Field, FieldPlan> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final ClassValue<List<FieldPlan>> PERSISTED = new ClassValue<>() {
+        @Override
+        protected List<FieldPlan> computeValue(final Class<?> type) {
+            final List<FieldPlan> plans = new ArrayList<>();
+            for (final Field field : FieldFilters.DEFAULT.filterDeclaredFieldsOf(type)) {
+                plans.add(of(field));
+            }
+            return Collections.unmodifiableList(plans);
+        }
+    };
+
+    private final Field field;
+    private final String name;
+    private final FieldAccessor accessor;
+    private final Class<?> fieldType;
+    private final Class<?> elementType;
+    private final int nestingLevel;
+    private final boolean container;
+    @Nullable
+    private final DatabaseConverter<Object, Object> converter;
+    private final ClassValue<DatabaseConverter<Object, Object>> valueConverters;
+
+    private FieldPlan(final Field field) {
+        final ElementType et = field.getAnnotation(ElementType.class);
+        this.field = field;
+        this.name = FieldMapper.selectFormatter(field.getDeclaringClass()).fromFieldName(field.getName());
+        this.accessor = FieldAccessor.of(field);
+        this.fieldType = field.getType();
+        this.elementType = et == null ? null : et.value();
+        this.nestingLevel = et == null ? -1 : et.nestingLevel();
+        this.container = Reflection.isContainerType(fieldType);
+        this.converter = Converter.selectFieldConverter(field);
+        this.valueConverters = Converter.valueConverters(elementType != null);
+    }
+
+    /**
+     * Returns the plan of the given field.
+     *
+     * @param field the field
+     * @return the plan of the field, which is created once per field
+     */
+    public static FieldPlan of(final Field field) {
+        if(Modifier.isStatic(field.getModifiers())) {
+            throw new DatabaseException("Static field '" + field + "' can't be converted.");
+        }
+        final Map<Field, FieldPlan> plans = PLANS.get(field.getDeclaringClass());
+        final FieldPlan plan = plans.get(field);
+        if(plan != null) {
+            return plan;
+        }
+        // not computed atomically, as creating a plan may create the plans of other fields
+        final FieldPlan created = new FieldPlan(field);
+        final FieldPlan existing = plans.putIfAbsent(field, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Returns the plans of the fields of the given type that are (de-)serialized.
+     *
+     * @param type the type
+     * @return the plans in declaration order
+     */
+    public static List<FieldPlan> persistedFieldsOf(final Class<?> type) {
+        return PERSISTED.get(type);
+    }
+
+    /**
+     * Selects the converter of a value of this field.
+     *
+     * @param valueType the runtime type of the value
+     * @return the converter
+     */
+    DatabaseConverter<Object, Object> selectConverter(final Class<?> valueType) {
+        return converter != null ? converter : valueConverters.get(valueType);
+    }
+
+    /**
+     * Returns whether the field is ignored or defines a custom converter,
+     * so its values are always passed through the same converter.
+     *
+     * @return whether the converter doesn't depend on the value
+     */
+    boolean hasFixedConverter() {
+        return converter != null;
+    }
+
+    /**
+     * Converts the value the field has in the given instance.
+     *
+     * @param instance the instance declaring the field
+     * @return the converted value
+     */
+    Object convertTo(final Object instance) {
+        final ConversionContext context = new ConversionContextImpl(this, null, instance);
+        return Converter.tryConvertTo(selectConverter(context.getValueType()), context);
+    }
+
+    /**
+     * Converts a serialized value back to the type of the field.
+     *
+     * @param mapValue the serialized value
+     * @param instance the instance declaring the field
+     * @return the converted value or {@code null} if the field should keep its value
+     */
+    Object convertFrom(final Object mapValue, final Object instance) {
+        final ConversionContext context = new ConversionContextImpl(this, mapValue, instance);
+        final Object convert = Converter.tryConvertFrom(selectConverter(context.getValueType()), context);
+        if(convert != null && container) {
+            checkFieldTypeAssignableFrom(convert.getClass(), context);
+        }
+        return convert;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Returns the name the field is stored under.
+     *
+     * @return the formatted name of the field
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns whether the field holds a list, set or map.
+     *
+     * @return whether the field is a container
+     */
+    public boolean isContainer() {
+        return container;
+    }
+
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
+    public Class<?> getFieldType() {
+        return fieldType;
+    }
+
+    @Nullable
+    public Class<?> getElementType() {
+        return elementType;
+    }
+
+    public int getNestingLevel() {
+        return nestingLevel;
+    }
+}
@@ -0,0 +1,100 @@
+package net.sxlver.databases.converter;
+
+import lombok.NonNull;
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.util.FieldAccessor;
+import net.sxlver.databases.util.Reflection;
+
+/**
+ * Decodes entities straight from a {@link RowSource}, without collecting the
+ * stored fields in a map first.
+ *
+ * <p>Fields of a primitive or {@code String} type are assigned the typed values
+ * of the source, all other fields are converted like the {@link FieldMapper}
+ * does. Like there, null values leave the field at the value the no-args
+ * constructor assigned.
+ */
+public final class RowDecoder {
+
+    private RowDecoder() {
+    }
+
+    /**
+     * Returns whether entities of the given type can be decoded from a {@link RowSource},
+     * which is only the case if they are converted reflectively. Custom converters and
+     * serializers generated for the type are passed the map of the entry.
+     *
+     * @param type the type of the entity
+     * @param converter the converter of the entity
+     * @return whether the entities can be decoded by this class
+     */
+    public static boolean supports(final Class<?> type, final DatabaseConverter<?, ?> converter) {
+        return converter instanceof Converter.ReflectiveObjectConverter && SerializerGenerator.forType(type) == null;
+    }
+
+    /**
+     * Creates a new instance of the given type and reads its fields from the source.
+     *
+     * @param type the type of the entity
+     * @param source the source positioned at the first field of the entry
+     * @return the decoded entity
+     */
+    public static <T> T decode(final @NonNull Class<T> type, final @NonNull RowSource source) {
+        final RowLayout layout = RowLayout.of(type);
+        final T instance = Reflection.newInstance(type);
+        for (int ordinal = source.nextField(layout); ordinal != RowSource.END; ordinal = source.nextField(layout)) {
+            if(ordinal == RowSource.SKIP) {
+                source.skipValue();
+                continue;
+            }
+            read(layout, ordinal, source, instance);
+        }
+        return instance;
+    }
+
+    private static void read(final RowLayout layout, final int ordinal, final RowSource source, final Object instance) {
+        final FieldPlan plan = layout.get(ordinal);
+        final FieldAccessor accessor = plan.getAccessor();
+        switch (layout.kindOf(ordinal)) {
+            case BOOLEAN:
+                final boolean b = source.readBoolean();
+                if(!source.wasNull()) {
+                    accessor.setBoolean(instance, b);
+                }
+                return;
+            case INT:
+                final int i = source.readInt();
+                if(!source.wasNull()) {
+                    accessor.setInt(instance, i);
+                }
+                return;
+            case LONG:
+                final long l = source.readLong();
+                if(!source.wasNull()) {
+                    accessor.setLong(instance, l);
+                }
+                return;
+            case DOUBLE:
+                final double d = source.readDouble();
+                if(!source.wasNull()) {
+                    accessor.setDouble(instance, d);
+                }
+                return;
+            case STRING:
+                final String string = source.readString();
+                if(string != null) {
+                    accessor.set(instance, string);
+                }
+                return;
+            default:
+                final Object value = source.readValue();
+                if(value == null) {
+                    return;
+                }
+                final Object convert = plan.convertFrom(value, instance);
+                if(convert != null) {
+                    accessor.set(instance, convert);
+                }
+        }
+    }
+}
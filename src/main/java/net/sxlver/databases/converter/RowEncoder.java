@@ -0,0 +1,64 @@
+package net.sxlver.databases.converter;
+
+import lombok.NonNull;
+import net.sxlver.databases.util.FieldAccessor;
+
+/**
+ * Encodes entities straight to a {@link RowSink}, without collecting their
+ * converted fields in a map first.
+ *
+ * <p>Fields are written in the order of the {@link RowLayout} of the entity.
+ * Fields of a primitive or {@code String} type are written as such, all other
+ * fields are converted like the {@link FieldMapper} does. Whether an entity can
+ * be encoded this way is told by {@link RowDecoder#supports(Class, net.sxlver.databases.DatabaseConverter)}.
+ *
+ * <p>Converted values are handed to the sink as a whole. Containers without an
+ * element type are passed on unchanged, so the sink writes their elements one by
+ * one. Nested entities and containers with an element type are converted to maps
+ * and lists first, which are held in memory until the field has been written.
+ */
+public final class RowEncoder {
+
+    private RowEncoder() {
+    }
+
+    /**
+     * Writes the fields of the given entity to the sink.
+     *
+     * @param instance the entity
+     * @param sink the sink to write to
+     */
+    public static void encode(final @NonNull Object instance, final @NonNull RowSink sink) {
+        final RowLayout layout = RowLayout.of(instance.getClass());
+        sink.beginRow();
+        for (int ordinal = 0; ordinal < layout.size(); ordinal++) {
+            final FieldPlan plan = layout.get(ordinal);
+            sink.name(plan.getName());
+            write(plan, layout.kindOf(ordinal), instance, sink);
+        }
+        sink.endRow();
+    }
+
+    private static void write(final FieldPlan plan, final RowLayout.Kind kind, final Object instance, final RowSink sink) {
+        final FieldAccessor accessor = plan.getAccessor();
+        switch (kind) {
+            case BOOLEAN:
+                sink.writeBoolean(accessor.getBoolean(instance));
+                return;
+            case INT:
+                sink.writeInt(accessor.getInt(instance));
+                return;
+            case LONG:
+                sink.writeLong(accessor.getLong(instance));
+                return;
+            case DOUBLE:
+                sink.writeDouble(accessor.getDouble(instance));
+                return;
+            case STRING:
+                sink.writeString((String) accessor.get(instance));
+                return;
+            default:
+                sink.writeValue(plan.convertTo(instance));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package net.sxlver.databases.converter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The persisted fields of an entity by ordinal, computed once per type.
+ *
+ * <p>A {@link RowSource} resolves the names of stored fields to these ordinals,
+ * sources reading rows of a fixed shape can resolve them once per result.
+ */
+public final class RowLayout {
+    private static final ClassValue<RowLayout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected RowLayout computeValue(final Class<?> type) {
+            return new RowLayout(FieldPlan.persistedFieldsOf(type));
+        }
+    };
+
+    /**
+     * How the value of a field is read from a source. Fields of a primitive
+     * or {@code String} type without a custom converter are read as such,
+     * the values of all other fields are passed through their converter.
+     */
+    enum Kind {
+        BOOLEAN,
+        INT,
+        LONG,
+        DOUBLE,
+        STRING,
+        VALUE
+    }
+
+    private final FieldPlan[] plans;
+    private final Kind[] kinds;
+    private final Map<String, Integer> ordinals;
+
+    private RowLayout(final List<FieldPlan> plans) {
+        this.plans = plans.toArray(new FieldPlan[0]);
+        this.kinds = new Kind[this.plans.length];
+        this.ordinals = new HashMap<>();
+        for (int i = 0; i < this.plans.length; i++) {
+            kinds[i] = kindOf(this.plans[i]);
+            ordinals.put(this.plans[i].getName(), i);
+        }
+    }
+
+    public static RowLayout of(final Class<?> type) {
+        return LAYOUTS.get(type);
+    }
+
+    /**
+     * Returns the ordinal of the field stored under the given name.
+     *
+     * @param name the formatted name of the field
+     * @return the ordinal or {@link RowSource#SKIP} if no persisted field has the name
+     */
+    public int ordinalOf(final String name) {
+        final Integer ordinal = ordinals.get(name);
+        return ordinal == null ? RowSource.SKIP : ordinal;
+    }
+
+    public FieldPlan get(final int ordinal) {
+        return plans[ordinal];
+    }
+
+    public int size() {
+        return plans.length;
+    }
+
+    Kind kindOf(final int ordinal) {
+        return kinds[ordinal];
+    }
+
+    private static Kind kindOf(final FieldPlan plan) {
+        if(plan.hasFixedConverter()) {
+            return Kind.VALUE;
+        }
+        final Class<?> type = plan.getFieldType();
+        if(type == boolean.class) {
+            return Kind.BOOLEAN;
+        } else if(type == int.class) {
+            return Kind.INT;
+        } else if(type == long.class) {
+            return Kind.LONG;
+        } else if(type == double.class) {
+            return Kind.DOUBLE;
+        } else if(type == String.class) {
+            return Kind.STRING;
+        }
+        return Kind.VALUE;
+    }
+}
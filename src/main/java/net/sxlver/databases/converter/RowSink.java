@@ -0,0 +1,45 @@
+package net.sxlver.databases.converter;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The counterpart of a {@link RowSource}, a stored entry a {@link RowEncoder}
+ * writes the fields of an entity to, such as a streaming writer.
+ *
+ * <p>Every field is announced by its {@link #name(String) name}, followed by
+ * exactly one of the typed write methods. Null values may be dropped by the
+ * sink, so they read back as the value the no-args constructor assigned.
+ *
+ * <p>Errors of the underlying sink are thrown as {@code DatabaseException}.
+ */
+public interface RowSink {
+
+    void beginRow();
+
+    void endRow();
+
+    /**
+     * Starts the next field of the entry.
+     *
+     * @param name the formatted name of the field
+     */
+    void name(String name);
+
+    void writeBoolean(boolean value);
+
+    void writeInt(int value);
+
+    void writeLong(long value);
+
+    void writeDouble(double value);
+
+    void writeString(@Nullable String value);
+
+    /**
+     * Writes a value produced by a converter, that is a simple type,
+     * a {@code List} or a {@code Map}.
+     *
+     * @param value the value or {@code null}
+     */
+    void writeValue(@Nullable Object value);
+}
@@ -0,0 +1,67 @@
+package net.sxlver.databases.converter;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A stored entry a {@link RowDecoder} reads the fields of an entity from, such
+ * as a row of a {@code ResultSet} or a document read by a streaming reader.
+ *
+ * <p>The fields of the entry are visited in the order they are stored in. Each
+ * field is resolved to the ordinal of its plan in the {@link RowLayout} of the
+ * entity, after which its value is read exactly once through one of the typed
+ * read methods or skipped. Like JDBC, the primitive read methods return a default
+ * value for null values and tell so through {@link #wasNull()}.
+ *
+ * <p>Errors of the underlying source are thrown as {@code DatabaseException}.
+ */
+public interface RowSource {
+    /**
+     * Returned by {@link #nextField(RowLayout)} for fields which aren't part of the layout.
+     */
+    int SKIP = -1;
+
+    /**
+     * Returned by {@link #nextField(RowLayout)} once all fields of the entry have been visited.
+     */
+    int END = -2;
+
+    /**
+     * Advances to the next field of the entry.
+     *
+     * @param layout the layout of the entity being decoded
+     * @return the ordinal of the field in the layout, {@link #SKIP} or {@link #END}
+     */
+    int nextField(RowLayout layout);
+
+    /**
+     * Returns whether the value read last was null.
+     *
+     * @return whether the value was null
+     */
+    boolean wasNull();
+
+    boolean readBoolean();
+
+    int readInt();
+
+    long readLong();
+
+    double readDouble();
+
+    @Nullable
+    String readString();
+
+    /**
+     * Reads the value of the current field as a value converters accept,
+     * that is a simple type, a {@code List} or a {@code Map}.
+     *
+     * @return the value or {@code null}
+     */
+    @Nullable
+    Object readValue();
+
+    /**
+     * Skips the value of the current field.
+     */
+    void skipValue();
+}
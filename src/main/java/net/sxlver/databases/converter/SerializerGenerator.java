@@ -0,0 +1,291 @@
+package net.sxlver.databases.converter;
+
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.annotation.GenerateSerializer;
+import net.sxlver.databases.filter.FieldFilters;
+import net.sxlver.databases.formatter.FieldNameFormatter;
+import net.sxlver.databases.util.Reflection;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates an {@link EntitySerializer} per type annotated with {@link GenerateSerializer}.
+ *
+ * <p>The serializer is defined as hidden class nested with the entity, which allows
+ * it to read and write even private fields with plain field instructions. Fields of
+ * primitive, simple and enum types are converted inline, fields with a custom converter
+ * call the converter that has been instantiated once, all other fields are converted
+ * like the reflective conversion does.
+ */
+final class SerializerGenerator {
+    private static final ClassValue<Optional<EntitySerializer>> SERIALIZERS = new ClassValue<>() {
+        @Override
+        protected Optional<EntitySerializer> computeValue(final Class<?> type) {
+            if(!type.isAnnotationPresent(GenerateSerializer.class)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(generate(type));
+            }catch(final Error error) {
+                // a generated class failing verification is a bug of the generator
+                throw error;
+            }catch(final Throwable throwable) {
+                // e.g. the entity isn't accessible from this module, the reflective conversion still works
+                return Optional.empty();
+            }
+        }
+    };
+
+    private static final String SERIALIZER = Type.getInternalName(EntitySerializer.class);
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String MAP = Type.getInternalName(Map.class);
+    private static final String LINKED_HASH_MAP = Type.getInternalName(LinkedHashMap.class);
+    private static final String CONSTRUCTOR_DESCRIPTOR = Type.getMethodDescriptor(
+            Type.VOID_TYPE, Type.getType(Field[].class), Type.getType(DatabaseConverter[].class)
+    );
+
+    private SerializerGenerator() {}
+
+    /**
+     * Returns the generated serializer of the given type.
+     *
+     * @param type the type of the entity
+     * @return the serializer or {@code null} if the type isn't annotated or no serializer could be generated
+     */
+    @Nullable
+    static EntitySerializer forType(final Class<?> type) {
+        return SERIALIZERS.get(type).orElse(null);
+    }
+
+    private static EntitySerializer generate(final Class<?> type) throws Throwable {
+        final List<? extends Field> declaredFields = FieldFilters.DEFAULT.filterDeclaredFieldsOf(type);
+        final Field[] fields = declaredFields.toArray(new Field[0]);
+        final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        for (final Field field : fields) {
+            lookup.accessClass(field.getType());
+        }
+
+        final byte[] bytes = emit(type, fields, FieldMapper.selectFormatter(type));
+        final MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+        return (EntitySerializer) hidden.findConstructor(
+                hidden.lookupClass(), MethodType.methodType(void.class, Field[].class, DatabaseConverter[].class)
+        ).invoke(fields, EntitySerializer.converters(fields));
+    }
+
+    private static byte[] emit(final Class<?> type, final Field[] fields, final FieldNameFormatter formatter) {
+        final String owner = Type.getInternalName(type);
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(final String type1, final String type2) {
+                // frames only ever merge identical types, which doesn't require loading any class
+                return OBJECT;
+            }
+        };
+        writer.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, owner + "$$Serializer", null, SERIALIZER, null);
+
+        final MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitVarInsn(ALOAD, 1);
+        constructor.visitVarInsn(ALOAD, 2);
+        constructor.visitMethodInsn(INVOKESPECIAL, SERIALIZER, "<init>", CONSTRUCTOR_DESCRIPTOR, false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        emitWrite(writer, owner, fields, formatter);
+        emitRead(writer, owner, fields, formatter);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    // locals: 0 this, 1 instance, 2 entity, 3 map
+    private static void emitWrite(final ClassWriter writer,
+                                  final String      owner,
+                                  final Field[]     fields,
+                                  final FieldNameFormatter formatter
+    ) {
+        final MethodVisitor method = writer.visitMethod(
+                ACC_PROTECTED, "write", "(Ljava/lang/Object;)Ljava/util/Map;", null, null
+        );
+        method.visitCode();
+        method.visitVarInsn(ALOAD, 1);
+        method.visitTypeInsn(CHECKCAST, owner);
+        method.visitVarInsn(ASTORE, 2);
+        method.visitTypeInsn(NEW, LINKED_HASH_MAP);
+        method.visitInsn(DUP);
+        method.visitMethodInsn(INVOKESPECIAL, LINKED_HASH_MAP, "<init>", "()V", false);
+        method.visitVarInsn(ASTORE, 3);
+
+        for (int i = 0; i < fields.length; i++) {
+            final Field field = fields[i];
+            final Class<?> fieldType = field.getType();
+            method.visitVarInsn(ALOAD, 3);
+            method.visitLdcInsn(formatter.fromFieldName(field.getName()));
+            if(Reflection.hasConverter(field)) {
+                method.visitVarInsn(ALOAD, 0);
+                pushInt(method, i);
+                getBoxedField(method, owner, field);
+                method.visitVarInsn(ALOAD, 1);
+                method.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, "serializeWith", "(ILjava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", false);
+            } else if(fieldType.isPrimitive()) {
+                getBoxedField(method, owner, field);
+            } else if(Reflection.isSimpleType(fieldType)) {
+                getField(method, owner, field);
+            } else if(Reflection.isEnumType(fieldType)) {
+                getField(method, owner, field);
+                method.visitMethodInsn(INVOKESTATIC, SERIALIZER, "enumName", "(Ljava/lang/Enum;)Ljava/lang/Object;", false);
+            } else {
+                method.visitVarInsn(ALOAD, 0);
+                pushInt(method, i);
+                method.visitVarInsn(ALOAD, 1);
+                method.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, "convertTo", "(ILjava/lang/Object;)Ljava/lang/Object;", false);
+            }
+            method.visitMethodInsn(INVOKEINTERFACE, MAP, "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+            method.visitInsn(POP);
+        }
+
+        method.visitVarInsn(ALOAD, 3);
+        method.visitInsn(ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    // locals: 0 this, 1 instance, 2 map, 3 entity, 4 value
+    private static void emitRead(final ClassWriter writer,
+                                 final String      owner,
+                                 final Field[]     fields,
+                                 final FieldNameFormatter formatter
+    ) {
+        final MethodVisitor method = writer.visitMethod(
+                ACC_PROTECTED, "read", "(Ljava/lang/Object;Ljava/util/Map;)V", null, null
+        );
+        method.visitCode();
+        method.visitVarInsn(ALOAD, 1);
+        method.visitTypeInsn(CHECKCAST, owner);
+        method.visitVarInsn(ASTORE, 3);
+        method.visitInsn(ACONST_NULL);
+        method.visitVarInsn(ASTORE, 4);
+
+        for (int i = 0; i < fields.length; i++) {
+            final Field field = fields[i];
+            final Class<?> fieldType = field.getType();
+            final Label skip = new Label();
+            method.visitVarInsn(ALOAD, 2);
+            method.visitLdcInsn(formatter.fromFieldName(field.getName()));
+            method.visitMethodInsn(INVOKEINTERFACE, MAP, "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+            method.visitVarInsn(ASTORE, 4);
+            method.visitVarInsn(ALOAD, 4);
+            method.visitJumpInsn(IFNULL, skip);
+
+            if(Reflection.hasConverter(field) || !isInline(fieldType)) {
+                method.visitVarInsn(ALOAD, 0);
+                pushInt(method, i);
+                method.visitVarInsn(ALOAD, 4);
+                method.visitVarInsn(ALOAD, 1);
+                final String helper = Reflection.hasConverter(field) ? "deserializeWith" : "convertFrom";
+                method.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, helper, "(ILjava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", false);
+                method.visitVarInsn(ASTORE, 4);
+                method.visitVarInsn(ALOAD, 4);
+                method.visitJumpInsn(IFNULL, skip);
+                method.visitVarInsn(ALOAD, 3);
+                method.visitVarInsn(ALOAD, 4);
+                method.visitTypeInsn(CHECKCAST, Type.getInternalName(box(fieldType)));
+                if(fieldType.isPrimitive()) {
+                    unbox(method, fieldType);
+                }
+            } else if(Reflection.isEnumType(fieldType)) {
+                method.visitVarInsn(ALOAD, 3);
+                method.visitVarInsn(ALOAD, 0);
+                pushInt(method, i);
+                method.visitVarInsn(ALOAD, 4);
+                method.visitMethodInsn(INVOKEVIRTUAL, SERIALIZER, "enumValue", "(ILjava/lang/Object;)Ljava/lang/Object;", false);
+                method.visitTypeInsn(CHECKCAST, Type.getInternalName(fieldType));
+            } else {
+                method.visitVarInsn(ALOAD, 3);
+                method.visitVarInsn(ALOAD, 4);
+                final Class<?> primitive = unboxed(fieldType);
+                if(primitive == null) {
+                    method.visitTypeInsn(CHECKCAST, Type.getInternalName(fieldType));
+                } else {
+                    method.visitMethodInsn(INVOKESTATIC, SERIALIZER, primitive.getName() + "Value",
+                            Type.getMethodDescriptor(Type.getType(primitive), Type.getType(Object.class)), false);
+                    if(!fieldType.isPrimitive()) {
+                        method.visitMethodInsn(INVOKESTATIC, Type.getInternalName(fieldType), "valueOf",
+                                Type.getMethodDescriptor(Type.getType(fieldType), Type.getType(primitive)), false);
+                    }
+                }
+            }
+            method.visitFieldInsn(PUTFIELD, owner, field.getName(), Type.getDescriptor(fieldType));
+            method.visitLabel(skip);
+        }
+
+        method.visitInsn(RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    private static boolean isInline(final Class<?> fieldType) {
+        return Reflection.isSimpleType(fieldType) || Reflection.isEnumType(fieldType);
+    }
+
+    private static void getField(final MethodVisitor method, final String owner, final Field field) {
+        method.visitVarInsn(ALOAD, 2);
+        method.visitFieldInsn(GETFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+    }
+
+    private static void getBoxedField(final MethodVisitor method, final String owner, final Field field) {
+        getField(method, owner, field);
+        final Class<?> fieldType = field.getType();
+        if(fieldType.isPrimitive()) {
+            final Type boxed = Type.getType(box(fieldType));
+            method.visitMethodInsn(INVOKESTATIC, boxed.getInternalName(), "valueOf",
+                    Type.getMethodDescriptor(boxed, Type.getType(fieldType)), false);
+        }
+    }
+
+    private static void pushInt(final MethodVisitor method, final int value) {
+        if(value <= 5) {
+            method.visitInsn(ICONST_0 + value);
+        } else if(value <= Byte.MAX_VALUE) {
+            method.visitIntInsn(BIPUSH, value);
+        } else {
+            method.visitIntInsn(SIPUSH, value);
+        }
+    }
+
+    private static void unbox(final MethodVisitor method, final Class<?> primitive) {
+        final String boxed = Type.getInternalName(box(primitive));
+        method.visitMethodInsn(INVOKEVIRTUAL, boxed, primitive.getName() + "Value",
+                Type.getMethodDescriptor(Type.getType(primitive)), false);
+    }
+
+    private static Class<?> box(final Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * Returns the primitive type of the given primitive or boxed type.
+     *
+     * @param type the type
+     * @return the primitive type or {@code null} if the type is neither primitive nor boxed
+     */
+    @Nullable
+    private static Class<?> unboxed(final Class<?> type) {
+        final Class<?> primitive = MethodType.methodType(type).unwrap().returnType();
+        return primitive.isPrimitive() && primitive != void.class ? primitive : null;
+    }
+}
@@ -1,44 +1,208 @@
 package net.sxlver.databases.impl;
 
+import lombok.NonNull;
+
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
- * Wraps unique identifier(s) for database entries
+ * Wraps unique identifier(s) for database entries.
+ *
+ * <p>Identifiers are immutable and compare their parts in order. Backends storing
+ * them as a single string store entries under the key of their {@link IdentifierEncoding}:
+ * the {@link #toString() key} joining the parts with {@link #DELIMITER} as it always has,
+ * or the {@link #toEscapedString() escaped} form, which can be {@link #parse(String) parsed}
+ * into the same parts again even if they contain the delimiter.
  */
-public class DatabaseEntryIdentifier {
+public final class DatabaseEntryIdentifier implements Comparable<DatabaseEntryIdentifier> {
+    public static final String DELIMITER = "_";
+    private static final char DELIMITER_CHAR = '_';
+    private static final char ESCAPE = '%';
+    private static final String ESCAPED_DELIMITER = "%5F";
+    private static final String ESCAPED_ESCAPE = "%25";
+
     private final String[] uniqueIds;
-    public static String DELIMITER = "_";
+    private final String key;
+    private final int hash;
 
-    public DatabaseEntryIdentifier(final String... uniqueIds) {
-        this.uniqueIds = uniqueIds;
+    public DatabaseEntryIdentifier(final @NonNull String... uniqueIds) {
+        this.uniqueIds = uniqueIds.clone();
+        this.key = String.join(DELIMITER, this.uniqueIds);
+        this.hash = Arrays.hashCode(this.uniqueIds);
     }
 
     public static DatabaseEntryIdentifier of(final String... uniqueIds) {
         return new DatabaseEntryIdentifier(uniqueIds);
     }
 
+    /**
+     * Splits an identifier into its parts, unescaping delimiters escaped by
+     * {@link #toEscapedString()}. Keys of parts without delimiters are parsed
+     * into the same parts as well.
+     *
+     * @param encoded the identifier as returned by {@link #toEscapedString()} or {@link #toString()}
+     * @return the identifier
+     */
+    public static DatabaseEntryIdentifier parse(final @NonNull String encoded) {
+        final String[] parts = encoded.split(DELIMITER, -1);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = unescape(parts[i]);
+        }
+        return new DatabaseEntryIdentifier(parts);
+    }
+
+    /**
+     * Returns the identifier a query passed to a database refers to.
+     *
+     * @param query an identifier or any object whose string representation can be {@link #parse(String) parsed}
+     * @return the identifier
+     */
+    public static DatabaseEntryIdentifier from(final @NonNull Object query) {
+        if(query instanceof DatabaseEntryIdentifier) {
+            return (DatabaseEntryIdentifier) query;
+        }
+        return parse(query.toString());
+    }
+
+    /**
+     * Returns the single parts this identifier is composed of.
+     *
+     * @return the unique id parts
+     */
+    public String[] getUniqueIds() {
+        return uniqueIds.clone();
+    }
+
+    /**
+     * Returns the single parts this identifier is composed of without copying them.
+     *
+     * @return an unmodifiable list of the unique id parts
+     */
+    public List<String> asList() {
+        return Collections.unmodifiableList(Arrays.asList(uniqueIds));
+    }
+
+    public int size() {
+        return uniqueIds.length;
+    }
+
+    public String get(final int index) {
+        return uniqueIds[index];
+    }
+
+    /**
+     * Returns a filter testing whether the keys of stored entries contain the parts
+     * of this identifier consecutively and in order, by matching this key at the
+     * delimiter boundaries of the keys instead of splitting every key.
+     *
+     * @return the filter of keys
+     */
     public Predicate<String> getFilterApplicator() {
-        final String uniqueId = toString();
-        return id -> {
-            if(id.equals(toString())) {
-                return true;
+        return keyFilter(key);
+    }
+
+    static Predicate<String> keyFilter(final String key) {
+        final String prefix = key + DELIMITER;
+        final String suffix = DELIMITER + key;
+        final String infix = DELIMITER + key + DELIMITER;
+        return id -> id.equals(key) || id.startsWith(prefix) || id.endsWith(suffix) || id.contains(infix);
+    }
+
+    @Override
+    public int compareTo(final @NonNull DatabaseEntryIdentifier other) {
+        return Arrays.compare(uniqueIds, other.uniqueIds);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if(this == object) {
+            return true;
+        }
+        if(!(object instanceof DatabaseEntryIdentifier)) {
+            return false;
+        }
+        final DatabaseEntryIdentifier other = (DatabaseEntryIdentifier) object;
+        return hash == other.hash && Arrays.equals(uniqueIds, other.uniqueIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Returns the key of the identifier, which backends storing the identifier as a
+     * single string store entries under.
+     *
+     * @return the parts joined with the delimiter
+     */
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    /**
+     * Returns the identifier with the delimiter and the escape character escaped
+     * within its parts, which is {@link #parse(String) parsed} into the same parts
+     * even if they contain the delimiter. Equals the key if they don't.
+     *
+     * @return the escaped identifier
+     */
+    public String toEscapedString() {
+        boolean escaping = false;
+        for (final String uniqueId : uniqueIds) {
+            escaping |= requiresEscaping(uniqueId);
+        }
+        if(!escaping) {
+            return key;
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < uniqueIds.length; i++) {
+            if(i > 0) {
+                sb.append(DELIMITER_CHAR);
             }
-            final String[] splitUniqueId = id.split(DELIMITER);
-            boolean result = false;
-            for (final String string : splitUniqueId) {
-                result = string.equals(uniqueId);
-                if(result) {
-                    break;
+            final String uniqueId = uniqueIds[i];
+            if(!requiresEscaping(uniqueId)) {
+                sb.append(uniqueId);
+                continue;
+            }
+            for (int j = 0; j < uniqueId.length(); j++) {
+                final char c = uniqueId.charAt(j);
+                if(c == DELIMITER_CHAR) {
+                    sb.append(ESCAPED_DELIMITER);
+                } else if(c == ESCAPE) {
+                    sb.append(ESCAPED_ESCAPE);
+                } else {
+                    sb.append(c);
                 }
             }
-            return result || id.contains(DELIMITER + uniqueId) || id.contains(uniqueId + DELIMITER);
-        };
+        }
+        return sb.toString();
     }
 
-    @Override
-    public String toString() {
-        return String.join(DELIMITER, uniqueIds);
+    private static boolean requiresEscaping(final String uniqueId) {
+        return uniqueId.indexOf(DELIMITER_CHAR) >= 0 || uniqueId.indexOf(ESCAPE) >= 0;
+    }
+
+    private static String unescape(final String part) {
+        if(part.indexOf(ESCAPE) < 0) {
+            return part;
+        }
+        // decoded from left to right, so escaped escapes are never read as part of an escape sequence
+        final StringBuilder sb = new StringBuilder(part.length());
+        for (int i = 0; i < part.length(); i++) {
+            if(part.startsWith(ESCAPED_DELIMITER, i)) {
+                sb.append(DELIMITER_CHAR);
+                i += ESCAPED_DELIMITER.length() - 1;
+            } else if(part.startsWith(ESCAPED_ESCAPE, i)) {
+                sb.append(ESCAPE);
+                i += ESCAPED_ESCAPE.length() - 1;
+            } else {
+                sb.append(part.charAt(i));
+            }
+        }
+        return sb.toString();
     }
 }
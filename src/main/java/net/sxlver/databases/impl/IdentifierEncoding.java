@@ -0,0 +1,104 @@
+package net.sxlver.databases.impl;
+
+import lombok.NonNull;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.DatabaseSettings;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The encodings backends storing identifiers as a single string store
+ * entries under.
+ */
+public enum IdentifierEncoding {
+    /**
+     * Joins the parts with the delimiter as entries have always been stored.
+     * Parts containing the delimiter can't be told apart.
+     */
+    LEGACY {
+        @Override
+        public String key(final @NonNull DatabaseEntryIdentifier identifier) {
+            return identifier.toString();
+        }
+
+        @Override
+        public String key(final @NonNull Object query, final @NonNull ClassInfo classInfo) {
+            return query.toString();
+        }
+
+        @Override
+        public List<String> parts(final @NonNull String key) {
+            return Arrays.asList(key.split(DatabaseEntryIdentifier.DELIMITER, -1));
+        }
+    },
+    /**
+     * Stores the {@link DatabaseEntryIdentifier#toEscapedString() escaped} identifier,
+     * so every identifier has a key of its own.
+     */
+    ESCAPED {
+        @Override
+        public String key(final @NonNull DatabaseEntryIdentifier identifier) {
+            return identifier.toEscapedString();
+        }
+
+        @Override
+        public String key(final @NonNull Object query, final @NonNull ClassInfo classInfo) {
+            if(query instanceof DatabaseEntryIdentifier) {
+                return key((DatabaseEntryIdentifier) query);
+            }
+            // a plain query of an entity with a single identifier is the part itself
+            if(classInfo.getUniqueIdentifiers().length == 1) {
+                return DatabaseEntryIdentifier.of(query.toString()).toEscapedString();
+            }
+            return DatabaseEntryIdentifier.parse(query.toString()).toEscapedString();
+        }
+
+        @Override
+        public List<String> parts(final @NonNull String key) {
+            return DatabaseEntryIdentifier.parse(key).asList();
+        }
+    };
+
+    /**
+     * Returns the key an entry with the given identifier is stored under.
+     *
+     * @param identifier the identifier of the entry
+     * @return the key of the entry
+     */
+    public abstract String key(DatabaseEntryIdentifier identifier);
+
+    /**
+     * Returns the key a query passed to a database refers to.
+     *
+     * @param query an identifier or the string representation of one
+     * @param classInfo the info of the entity type
+     * @return the key of the entry
+     */
+    public abstract String key(Object query, ClassInfo classInfo);
+
+    /**
+     * Returns the parts a stored key is composed of.
+     *
+     * @param key the key of an entry
+     * @return the parts of the key
+     */
+    public abstract List<String> parts(String key);
+
+    /**
+     * Returns a filter testing whether stored keys contain the parts of the
+     * given identifier consecutively and in order, like
+     * {@link DatabaseEntryIdentifier#getFilterApplicator()} does for the plain keys.
+     *
+     * @param identifier the identifier to filter by
+     * @return the filter of keys
+     */
+    public Predicate<String> filter(final @NonNull DatabaseEntryIdentifier identifier) {
+        return DatabaseEntryIdentifier.keyFilter(key(identifier));
+    }
+
+    public static IdentifierEncoding of(final @NonNull DatabaseSettings settings) {
+        return settings.isEscapedIdentifiers() ? ESCAPED : LEGACY;
+    }
+}
@@ -0,0 +1,290 @@
+package net.sxlver.databases.impl.btree;
+
+import com.google.common.collect.Lists;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A B+tree mapping keys to values, whose pages are managed by a {@link BufferPool}.
+ *
+ * <p>Values are stored in the leaves, while inner pages only hold the
+ * separators of their children. Values larger than an eighth of a page are
+ * moved to a chain of overflow pages, so every split produces pages that fit.
+ * Pages falling below a quarter of the page size are merged with a sibling if
+ * both fit into a single page, otherwise their space is reused by entries
+ * inserted later on. Freed pages are reused right away.
+ *
+ * <p>The tree isn't thread safe. Modifications have to be committed or rolled
+ * back through the buffer pool by the caller.
+ */
+final class BTree {
+    private final BufferPool pool;
+    private final int maxKeySize;
+    private final int maxInlineValueSize;
+
+    BTree(final BufferPool pool) {
+        this.pool = pool;
+        this.maxKeySize = pool.getPageSize() / 16;
+        this.maxInlineValueSize = pool.getPageSize() / 8;
+    }
+
+    /**
+     * Creates the pages of an empty tree.
+     *
+     * @param pool the buffer pool of an empty page file
+     */
+    static void create(final BufferPool pool) throws IOException {
+        final LeafPage root = pool.allocate(id -> new LeafPage(id, 0, Lists.newArrayList()));
+        pool.getHeader().setRoot(root.getId());
+        pool.commit();
+    }
+
+    @Nullable
+    byte[] get(final String key) throws IOException {
+        final LeafPage leaf = findLeaf(key, null);
+        final int index = leaf.search(key);
+        return index >= 0 ? readValue(leaf.getCells().get(index)) : null;
+    }
+
+    /**
+     * Inserts or replaces the value of the given key.
+     *
+     * @param key the key
+     * @param value the value
+     * @throws IllegalArgumentException if the key exceeds a sixteenth of the page size
+     */
+    void put(final String key, final byte[] value) throws IOException {
+        if(key.getBytes(StandardCharsets.UTF_8).length > maxKeySize) {
+            throw new IllegalArgumentException("Key " + key + " exceeds the maximum size of " + maxKeySize + " bytes");
+        }
+        final List<InternalPage> path = Lists.newArrayList();
+        final LeafPage leaf = findLeaf(key, path);
+        pool.modify(leaf);
+        final LeafPage.Cell cell = createCell(key, value);
+        final int index = leaf.search(key);
+        if(index >= 0) {
+            freeValue(leaf.getCells().set(index, cell));
+        }else {
+            leaf.getCells().add(-index - 1, cell);
+        }
+        if(leaf.getEncodedSize() <= pool.getPageSize()) {
+            return;
+        }
+        final LeafPage sibling = pool.allocate(id -> new LeafPage(id, 0, Lists.newArrayList()));
+        insertSeparator(path, leaf.getId(), leaf.split(sibling), sibling.getId());
+    }
+
+    /**
+     * Removes the value of the given key.
+     *
+     * @param key the key
+     * @return whether the key has been removed
+     */
+    boolean remove(final String key) throws IOException {
+        final List<InternalPage> path = Lists.newArrayList();
+        final LeafPage leaf = findLeaf(key, path);
+        final int index = leaf.search(key);
+        if(index < 0) {
+            return false;
+        }
+        pool.modify(leaf);
+        freeValue(leaf.getCells().remove(index));
+        if(!path.isEmpty() && leaf.getEncodedSize() < pool.getPageSize() / 4) {
+            merge(path, key);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the keys starting with the given prefix in ascending order.
+     *
+     * @param prefix the prefix of the keys
+     * @return the matching keys
+     */
+    List<String> keys(final String prefix) throws IOException {
+        final List<String> keys = Lists.newArrayList();
+        scan(prefix, (cell) -> keys.add(cell.getKey()));
+        return keys;
+    }
+
+    /**
+     * Returns the values of the keys starting with the given prefix in ascending order of their keys.
+     *
+     * @param prefix the prefix of the keys
+     * @return the values of the matching keys
+     */
+    List<byte[]> values(final String prefix) throws IOException {
+        final List<byte[]> values = Lists.newArrayList();
+        scan(prefix, (cell) -> values.add(readValue(cell)));
+        return values;
+    }
+
+    /**
+     * Walks the leaves from the first key starting with the given prefix up
+     * to the last one.
+     */
+    private void scan(final String prefix, final CellConsumer consumer) throws IOException {
+        LeafPage leaf = findLeaf(prefix, null);
+        int index = leaf.search(prefix);
+        index = index >= 0 ? index : -index - 1;
+        while(true) {
+            final List<LeafPage.Cell> cells = leaf.getCells();
+            for (; index < cells.size(); index++) {
+                if(!cells.get(index).getKey().startsWith(prefix)) {
+                    return;
+                }
+                consumer.accept(cells.get(index));
+            }
+            if(leaf.getNext() == 0) {
+                return;
+            }
+            leaf = (LeafPage) pool.get(leaf.getNext());
+            index = 0;
+        }
+    }
+
+    /**
+     * Descends from the root to the leaf the given key belongs to.
+     *
+     * @param key the key
+     * @param path the list the inner pages passed are added to, or {@code null}
+     * @return the leaf
+     */
+    private LeafPage findLeaf(final String key, final @Nullable List<InternalPage> path) throws IOException {
+        Page page = pool.get(pool.getHeader().getRoot());
+        while(page instanceof InternalPage) {
+            final InternalPage internal = (InternalPage) page;
+            if(path != null) {
+                path.add(internal);
+            }
+            page = pool.get(internal.getChild(internal.childIndex(key)));
+        }
+        return (LeafPage) page;
+    }
+
+    /**
+     * Inserts the separator of a split page into its parent, splitting the
+     * parents up to the root as long as they overflow.
+     */
+    private void insertSeparator(final List<InternalPage> path, final int left, final String separator, final int right) throws IOException {
+        if(path.isEmpty()) {
+            final InternalPage root = pool.allocate(id -> new InternalPage(id, Lists.newArrayList(separator), Lists.newArrayList(left, right)));
+            pool.modify(pool.getHeader());
+            pool.getHeader().setRoot(root.getId());
+            return;
+        }
+        final InternalPage parent = path.remove(path.size() - 1);
+        pool.modify(parent);
+        parent.insert(parent.childIndex(separator), separator, right);
+        if(parent.getEncodedSize() <= pool.getPageSize()) {
+            return;
+        }
+        final InternalPage sibling = pool.allocate(id -> new InternalPage(id, Lists.newArrayList(), Lists.newArrayList()));
+        insertSeparator(path, parent.getId(), parent.split(sibling), sibling.getId());
+    }
+
+    /**
+     * Merges the underflowing child the given key belongs to with its left
+     * sibling, or with its right one if they don't fit into a single page.
+     * Merges the parents up to the root as long as they underflow, and
+     * replaces a root left with a single child by that child.
+     */
+    private void merge(final List<InternalPage> path, final String key) throws IOException {
+        final InternalPage parent = path.remove(path.size() - 1);
+        final int child = parent.childIndex(key);
+        if(!(child > 0 && merge(parent, child - 1)) && !(child < parent.size() && merge(parent, child))) {
+            return;
+        }
+        if(!path.isEmpty()) {
+            if(parent.getEncodedSize() < pool.getPageSize() / 4) {
+                merge(path, key);
+            }
+            return;
+        }
+        if(parent.size() == 0) {
+            pool.modify(pool.getHeader());
+            pool.getHeader().setRoot(parent.getChild(0));
+            pool.free(parent.getId());
+        }
+    }
+
+    /**
+     * Merges the children on both sides of a separator if they fit into a single page.
+     *
+     * @param parent the parent of the children
+     * @param separator the index of the separator
+     * @return whether the children have been merged
+     */
+    private boolean merge(final InternalPage parent, final int separator) throws IOException {
+        final Page left = pool.get(parent.getChild(separator));
+        final Page right = pool.get(parent.getChild(separator + 1));
+        if(left instanceof LeafPage) {
+            if(((LeafPage) left).getMergedSize((LeafPage) right) > pool.getPageSize()) {
+                return false;
+            }
+            pool.modify(left);
+            pool.modify(right);
+            ((LeafPage) left).merge((LeafPage) right);
+        }else {
+            final String key = parent.getKey(separator);
+            if(((InternalPage) left).getMergedSize(key, (InternalPage) right) > pool.getPageSize()) {
+                return false;
+            }
+            pool.modify(left);
+            pool.modify(right);
+            ((InternalPage) left).merge(key, (InternalPage) right);
+        }
+        pool.modify(parent);
+        parent.remove(separator);
+        pool.free(right.getId());
+        return true;
+    }
+
+    private LeafPage.Cell createCell(final String key, final byte[] value) throws IOException {
+        if(value.length <= maxInlineValueSize) {
+            return LeafPage.Cell.inline(key, value);
+        }
+        // the chain is written back to front, so every page knows its successor
+        final int capacity = pool.getPageSize() - OverflowPage.HEADER_SIZE;
+        int next = 0;
+        for (int offset = (value.length - 1) / capacity * capacity; offset >= 0; offset -= capacity) {
+            final byte[] data = Arrays.copyOfRange(value, offset, Math.min(offset + capacity, value.length));
+            final int successor = next;
+            next = pool.allocate(id -> new OverflowPage(id, successor, data)).getId();
+        }
+        return LeafPage.Cell.overflow(key, next, value.length);
+    }
+
+    private byte[] readValue(final LeafPage.Cell cell) throws IOException {
+        if(cell.getValue() != null) {
+            return cell.getValue();
+        }
+        final ByteArrayOutputStream value = new ByteArrayOutputStream(cell.getLength());
+        int next = cell.getOverflow();
+        while(next != 0) {
+            final OverflowPage page = (OverflowPage) pool.get(next);
+            value.write(page.getData());
+            next = page.getNext();
+        }
+        return value.toByteArray();
+    }
+
+    private void freeValue(final LeafPage.Cell cell) throws IOException {
+        int next = cell.getOverflow();
+        while(next != 0) {
+            final OverflowPage page = (OverflowPage) pool.get(next);
+            pool.free(next);
+            next = page.getNext();
+        }
+    }
+
+    @FunctionalInterface
+    private interface CellConsumer {
+        void accept(final LeafPage.Cell cell) throws IOException;
+    }
+}
@@ -0,0 +1,356 @@
+package net.sxlver.databases.impl.btree;
+
+import lombok.NonNull;
+import net.sxlver.databases.*;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import net.sxlver.databases.impl.json.context.JSONConversionContext;
+import net.sxlver.databases.util.FileSystemUtil;
+import net.sxlver.databases.util.Reflection;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An embedded database storing serialized entries in a B+tree file,
+ * keyed by their unique id.
+ *
+ * <p>Lookups and prefix queries are answered by descending the tree instead
+ * of listing or indexing files, and hot pages are cached in a buffer pool.
+ * Every write is a transaction appended to a write-ahead log before it is
+ * applied to the tree file by a checkpoint, so the tree is recovered to the
+ * last committed write after a crash. The log is forced to disk on every
+ * commit unless the {@link FsyncPolicy} is {@link FsyncPolicy#NONE}.
+ *
+ * <p>The highest auto increment id written is kept in the header of the tree
+ * file and updated by the transaction writing the entry, so it is neither lost
+ * nor ahead of the entries after a crash.
+ *
+ * <p>Reads run concurrently, while writes are serialized.
+ *
+ * @param <T> describes the type of object the database will work with
+ */
+public class BTreeDatabase<T> extends AbstractDatabase<T> {
+
+    private static final String DATABASE_FOLDER = "database";
+    private static final String TREE_FILE_NAME = "entries.btree";
+    private static final String LOG_FILE_NAME = "entries.wal";
+    private static final IdentifierEncoding ENCODING = IdentifierEncoding.ESCAPED;
+
+    private final ClassInfo classInfo;
+    private final Field autoIncrementField;
+    private final DatabaseConverter<T, Map<String, Object>> converter;
+    private final String tableName;
+    private final File directory;
+    private final BufferPool pool;
+    private final BTree tree;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean connected;
+
+    @SuppressWarnings("unchecked")
+    BTreeDatabase(final @NonNull Class<?>         type,
+                  final @NonNull DatabaseSettings settings,
+                  final boolean                   catchMainThread,
+                  final @Nullable Thread          thread
+    ) {
+        super(type, catchMainThread, thread);
+        this.classInfo = ClassInfo.ofClass(type, FieldNameFormatters.IDENTITY);
+        this.converter = (DatabaseConverter<T, Map<String, Object>>) classInfo.getConverter();
+        this.autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
+        this.tableName = Reflection.getTableName(type);
+        this.directory = new File(FileSystemUtil.getJarFileDirectory(type) + settings.getDatabasePath()
+                + File.separator + DATABASE_FOLDER + File.separator + tableName);
+        try {
+            this.pool = open(settings);
+        }catch(final IOException | RuntimeException exception) {
+            throw new DatabaseException("Unable to open tree of table " + tableName + ". " + exception.getMessage());
+        }
+        this.tree = new BTree(pool);
+        this.connected = true;
+        super.init();
+    }
+
+    /**
+     * Opens the tree file, applying all transactions committed to the
+     * log but not checkpointed before the tree was last closed.
+     *
+     * @param settings the settings of the database
+     * @return the buffer pool of the tree file
+     */
+    private BufferPool open(final DatabaseSettings settings) throws IOException {
+        if(!directory.exists()) {
+            directory.mkdirs();
+        }
+        final PageFile file = new PageFile(new File(directory, TREE_FILE_NAME));
+        final WriteAheadLog log = new WriteAheadLog(new File(directory, LOG_FILE_NAME));
+        final Map<Integer, byte[]> images = log.replay();
+        if(!images.isEmpty()) {
+            for (final Entry<Integer, byte[]> entry : images.entrySet()) {
+                file.write(entry.getKey(), entry.getValue());
+            }
+            file.force();
+        }
+        log.truncate();
+
+        final boolean force = settings.getFsyncPolicy() != FsyncPolicy.NONE;
+        if(file.isEmpty()) {
+            final int pageSize = settings.getBTreePageSize();
+            file.setPageSize(pageSize);
+            final BufferPool pool = new BufferPool(file, log, new HeaderPage(pageSize, 0, 1, 0, 0), settings.getBTreeBufferPoolSize(), force);
+            BTree.create(pool);
+            pool.checkpoint();
+            return pool;
+        }
+        // the page size of an existing file takes precedence over the settings
+        file.setPageSize(file.readPageSize());
+        final HeaderPage header = (HeaderPage) file.read(HeaderPage.ID);
+        return new BufferPool(file, log, header, settings.getBTreeBufferPoolSize(), force);
+    }
+
+    @Override
+    protected T read(final Object query) {
+        final byte[] value;
+        lock.readLock().lock();
+        try {
+            value = tree.get(ENCODING.key(query, classInfo));
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }finally {
+            lock.readLock().unlock();
+        }
+        if(value == null) {
+            return null;
+        }
+        final T object = deserialize(value);
+        callMessageReceiver(object);
+        return object;
+    }
+
+    @Override
+    protected void write(final T object) {
+        writeAll(List.of(object));
+    }
+
+    /**
+     * Writes all objects in a single transaction, which raises the highest
+     * auto increment id of the tree as well.
+     *
+     * @param objects the objects to write
+     */
+    @Override
+    protected void writeAll(final Collection<T> objects) {
+        final Map<String, byte[]> serialized = objects.stream()
+                .collect(Collectors.toMap(object -> ENCODING.key(classInfo.getIdentifier(object)), this::serialize, (first, second) -> second));
+        int maxId = 0;
+        if(autoIncrementField != null) {
+            for (final T object : objects) {
+                maxId = Math.max(maxId, (Integer) Reflection.getValue(autoIncrementField, object));
+            }
+        }
+        final int writtenMaxId = maxId;
+        transaction(() -> {
+            for (final Entry<String, byte[]> entry : serialized.entrySet()) {
+                tree.put(entry.getKey(), entry.getValue());
+            }
+            raiseMaxId(writtenMaxId);
+        });
+    }
+
+    @Override
+    protected Collection<T> readAll(final Object query) {
+        final Collection<T> objects = readValues(ENCODING.key(query, classInfo));
+        for (final T object : objects) {
+            callMessageReceiver(object);
+        }
+        return objects;
+    }
+
+    @Override
+    protected Collection<T> readAll() {
+        return readValues("");
+    }
+
+    /**
+     * Removes the entry of the given key. Identifiers remove every entry whose
+     * identifier contains their parts consecutively, like the other backends do,
+     * which are found by scanning the keys of the tree.
+     *
+     * @param query the unique id or identifier of the entries
+     */
+    @Override
+    protected void delete(final Object query) {
+        if(!(query instanceof DatabaseEntryIdentifier)) {
+            final String uniqueId = ENCODING.key(query, classInfo);
+            transaction(() -> tree.remove(uniqueId));
+            return;
+        }
+        final Predicate<String> filterApplicator = ENCODING.filter((DatabaseEntryIdentifier) query);
+        transaction(() -> {
+            for (final String key : tree.keys("")) {
+                if(filterApplicator.test(key)) {
+                    tree.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the highest auto increment id kept in the header of the tree.
+     * Trees whose header doesn't keep it yet are read once to find it.
+     *
+     * @return the highest id that has been written
+     */
+    @Override
+    protected int fetchMaxId() {
+        if(autoIncrementField == null) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            final int maxId = pool.getHeader().getMaxId();
+            if(maxId != HeaderPage.UNKNOWN_MAX_ID) {
+                return maxId;
+            }
+        }finally {
+            lock.readLock().unlock();
+        }
+        final String fieldName = ClassInfo.getFormatter(type).apply(autoIncrementField.getName());
+        int maxId = 0;
+        for (final Map<String, Object> map : readMaps("")) {
+            final Object id = map.get(fieldName);
+            if(id instanceof Number && ((Number) id).intValue() > maxId) {
+                maxId = ((Number) id).intValue();
+            }
+        }
+        final int scannedMaxId = maxId;
+        transaction(() -> raiseMaxId(scannedMaxId));
+        return maxId;
+    }
+
+    public static <T> BTreeDatabase<T> of(final Class<T>         type,
+                                          final DatabaseSettings settings,
+                                          final boolean          catchMainThread,
+                                          final Thread           thread
+    ) {
+        return new BTreeDatabase<>(type, settings, catchMainThread, thread);
+    }
+
+    /**
+     * Runs the given modifications of the tree as a transaction, which is
+     * rolled back if any of them fails.
+     *
+     * @param modification the modifications
+     */
+    private void transaction(final Modification modification) {
+        lock.writeLock().lock();
+        try {
+            modification.run();
+            pool.commit();
+        }catch(final IOException | RuntimeException exception) {
+            pool.rollback();
+            throw new DatabaseException(exception.getMessage());
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Raises the highest auto increment id kept in the header of the tree
+     * within the current transaction.
+     *
+     * @param id the id of an entry that is written
+     */
+    private void raiseMaxId(final int id) {
+        final HeaderPage header = pool.getHeader();
+        if(id > header.getMaxId()) {
+            pool.modify(header);
+            header.setMaxId(id);
+        }
+    }
+
+    private Collection<T> readValues(final String prefix) {
+        return readMaps(prefix).stream()
+                .map(map -> converter.deserialize(map, JSONConversionContext.of(type)))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readMaps(final String prefix) {
+        final List<byte[]> values;
+        lock.readLock().lock();
+        try {
+            values = tree.values(prefix);
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }finally {
+            lock.readLock().unlock();
+        }
+        return values.stream()
+                .map(value -> (Map<String, Object>) getGson().fromJson(new String(value, StandardCharsets.UTF_8), Map.class))
+                .collect(Collectors.toList());
+    }
+
+    private byte[] serialize(final T object) {
+        return getGson().toJson(converter.serialize(object, null)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T deserialize(final byte[] value) {
+        final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(new String(value, StandardCharsets.UTF_8), Map.class);
+        return converter.deserialize(map, JSONConversionContext.of(type));
+    }
+
+    @Override
+    protected ClassInfo getClassInfo() {
+        return classInfo;
+    }
+
+    @Override
+    protected void connect(final @NonNull DatabaseAuth auth) {}
+
+    /**
+     * Checkpoints all committed writes to the tree file and closes it.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if(!connected) {
+                return;
+            }
+            pool.close();
+            this.connected = false;
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public String getTypeDatabasePath() {
+        return directory.getPath();
+    }
+
+    @FunctionalInterface
+    private interface Modification {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,207 @@
+package net.sxlver.databases.impl.btree;
+
+import com.google.common.collect.Maps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Least recently used cache of the decoded pages of a {@link PageFile}.
+ *
+ * <p>Modified pages stay in the pool until a checkpoint has written them
+ * back, so the page file never holds changes missing in the
+ * {@link WriteAheadLog}. Pages have to be passed to {@link #modify(Page)}
+ * before they are changed, which keeps their previous image until the
+ * transaction is committed or rolled back.
+ *
+ * <p>A transaction is in progress from the first modification until the
+ * next commit or rollback, and only a single transaction may be in progress.
+ */
+final class BufferPool implements Closeable {
+    private final PageFile file;
+    private final WriteAheadLog log;
+    private final int pageSize;
+    private final int capacity;
+    private final boolean force;
+
+    private final LinkedHashMap<Integer, Page> pages;
+    private final Map<Integer, Page> dirty = Maps.newHashMap();
+    // the images of the pages before the transaction, null for allocated pages
+    private final Map<Integer, byte[]> undo = Maps.newLinkedHashMap();
+    private HeaderPage header;
+
+    BufferPool(final PageFile file, final WriteAheadLog log, final HeaderPage header, final int capacity, final boolean force) {
+        this.file = file;
+        this.log = log;
+        this.header = header;
+        this.pageSize = header.getPageSize();
+        this.capacity = capacity;
+        this.force = force;
+        this.pages = new LinkedHashMap<>(capacity, 0.75f, true);
+    }
+
+    synchronized HeaderPage getHeader() {
+        return header;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the page of the given id, reading it from the page file
+     * if it isn't cached.
+     *
+     * @param id the id of the page
+     * @return the page
+     */
+    synchronized Page get(final int id) throws IOException {
+        Page page = pages.get(id);
+        if(page == null) {
+            page = file.read(id);
+            pages.put(id, page);
+            // pages can't be evicted by a transaction that may still use them
+            if(undo.isEmpty()) {
+                evict();
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Marks the given page as modified by the current transaction. Has to
+     * be called before the page is changed.
+     *
+     * @param page the page that is about to be changed
+     */
+    synchronized void modify(final Page page) {
+        if(!undo.containsKey(page.getId())) {
+            undo.put(page.getId(), page.encode(pageSize));
+        }
+        if(page != header) {
+            pages.put(page.getId(), page);
+        }
+        dirty.put(page.getId(), page);
+    }
+
+    /**
+     * Allocates a page, reusing a free page if there is one.
+     *
+     * @param factory creates the page for the allocated id
+     * @return the allocated page
+     */
+    synchronized <P extends Page> P allocate(final IntFunction<P> factory) throws IOException {
+        modify(header);
+        final int id;
+        if(header.getFreeList() != 0) {
+            id = header.getFreeList();
+            final Page free = get(id);
+            header.setFreeList(((FreePage) free).getNext());
+            modify(free);
+        }else {
+            id = header.getPageCount();
+            header.setPageCount(id + 1);
+            undo.put(id, null);
+        }
+        final P page = factory.apply(id);
+        pages.put(id, page);
+        dirty.put(id, page);
+        return page;
+    }
+
+    /**
+     * Frees the given page, linking it into the list of free pages.
+     *
+     * @param id the id of the page
+     */
+    synchronized void free(final int id) throws IOException {
+        modify(header);
+        modify(get(id));
+        final FreePage page = new FreePage(id, header.getFreeList());
+        pages.put(id, page);
+        dirty.put(id, page);
+        header.setFreeList(id);
+    }
+
+    /**
+     * Appends the pages modified by the current transaction to the log, and
+     * checkpoints the pool once the log has grown too large.
+     */
+    synchronized void commit() throws IOException {
+        if(undo.isEmpty()) {
+            return;
+        }
+        final Map<Integer, byte[]> images = Maps.newLinkedHashMap();
+        for (final Integer id : undo.keySet()) {
+            images.put(id, dirty.get(id).encode(pageSize));
+        }
+        log.commit(images, force);
+        undo.clear();
+        if(dirty.size() >= capacity / 2 || log.getSize() >= (long) capacity * pageSize) {
+            checkpoint();
+        }
+        evict();
+    }
+
+    /**
+     * Restores the pages modified by the current transaction.
+     */
+    synchronized void rollback() {
+        for (final Map.Entry<Integer, byte[]> entry : undo.entrySet()) {
+            final int id = entry.getKey();
+            if(entry.getValue() == null) {
+                pages.remove(id);
+                dirty.remove(id);
+                continue;
+            }
+            final Page page = Page.decode(id, ByteBuffer.wrap(entry.getValue()));
+            if(id == HeaderPage.ID) {
+                this.header = (HeaderPage) page;
+            }else {
+                pages.put(id, page);
+            }
+            // the previous image may have been committed without being checkpointed yet
+            dirty.put(id, page);
+        }
+        undo.clear();
+    }
+
+    /**
+     * Writes all modified pages back to the page file and discards the log.
+     */
+    synchronized void checkpoint() throws IOException {
+        if(dirty.isEmpty()) {
+            return;
+        }
+        for (final Page page : dirty.values()) {
+            file.write(page.getId(), page.encode(pageSize));
+        }
+        file.force();
+        log.truncate();
+        dirty.clear();
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<Integer, Page>> iterator = pages.entrySet().iterator();
+        while(pages.size() > capacity && iterator.hasNext()) {
+            if(!dirty.containsKey(iterator.next().getKey())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Checkpoints the pool and closes its files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        checkpoint();
+        file.close();
+        log.close();
+    }
+}
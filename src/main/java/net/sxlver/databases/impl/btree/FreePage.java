@@ -0,0 +1,44 @@
+package net.sxlver.databases.impl.btree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A page that has been freed and is linked into the list of free pages,
+ * from which pages are allocated before the page file is grown.
+ */
+final class FreePage extends Page {
+    private final int next;
+
+    FreePage(final int id, final int next) {
+        super(id);
+        this.next = next;
+    }
+
+    static FreePage decode(final int id, final ByteBuffer buffer) {
+        return new FreePage(id, buffer.getInt());
+    }
+
+    @Override
+    byte getType() {
+        return FREE;
+    }
+
+    @Override
+    int getEncodedSize() {
+        return 1 + Integer.BYTES;
+    }
+
+    @Override
+    void encodeBody(final ByteBuffer buffer) {
+        buffer.putInt(next);
+    }
+
+    /**
+     * Returns the next page of the free list.
+     *
+     * @return the id of the next free page or {@code 0} if this is the last one
+     */
+    int getNext() {
+        return next;
+    }
+}
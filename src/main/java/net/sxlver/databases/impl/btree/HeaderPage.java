@@ -0,0 +1,118 @@
+package net.sxlver.databases.impl.btree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The first page of a {@link PageFile}, pointing to the root of the tree
+ * and to the first page of the list of free pages.
+ *
+ * <p>The header also keeps the highest id of the entries written to the tree.
+ * Headers written before it was tracked are told apart by their magic number,
+ * the id is {@link #UNKNOWN_MAX_ID unknown} for them.
+ */
+final class HeaderPage extends Page {
+    static final int ID = 0;
+    static final int UNKNOWN_MAX_ID = -1;
+    private static final int LEGACY_MAGIC = 0x42545245;
+    private static final int MAGIC = 0x42545246;
+    private static final int SIZE = 1 + Integer.BYTES * 6;
+
+    private final int pageSize;
+    private int root;
+    private int pageCount;
+    private int freeList;
+    private int maxId;
+
+    HeaderPage(final int pageSize, final int root, final int pageCount, final int freeList, final int maxId) {
+        super(ID);
+        this.pageSize = pageSize;
+        this.root = root;
+        this.pageCount = pageCount;
+        this.freeList = freeList;
+        this.maxId = maxId;
+    }
+
+    static HeaderPage decode(final ByteBuffer buffer) {
+        final int magic = buffer.getInt();
+        if(magic != MAGIC && magic != LEGACY_MAGIC) {
+            throw new IllegalStateException("Page file has an invalid header");
+        }
+        final int pageSize = buffer.getInt();
+        final int root = buffer.getInt();
+        final int pageCount = buffer.getInt();
+        final int freeList = buffer.getInt();
+        return new HeaderPage(pageSize, root, pageCount, freeList, magic == MAGIC ? buffer.getInt() : UNKNOWN_MAX_ID);
+    }
+
+    /**
+     * Reads the page size from the start of an encoded header, which
+     * has to be known before the page file can be read.
+     *
+     * @param buffer the start of the header image
+     * @return the size of the pages of the file
+     */
+    static int readPageSize(final ByteBuffer buffer) {
+        buffer.get();
+        final int magic = buffer.getInt();
+        if(magic != MAGIC && magic != LEGACY_MAGIC) {
+            throw new IllegalStateException("Page file has an invalid header");
+        }
+        return buffer.getInt();
+    }
+
+    @Override
+    byte getType() {
+        return HEADER;
+    }
+
+    @Override
+    int getEncodedSize() {
+        return SIZE;
+    }
+
+    @Override
+    void encodeBody(final ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putInt(pageSize).putInt(root).putInt(pageCount).putInt(freeList).putInt(maxId);
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    int getRoot() {
+        return root;
+    }
+
+    void setRoot(final int root) {
+        this.root = root;
+    }
+
+    int getPageCount() {
+        return pageCount;
+    }
+
+    void setPageCount(final int pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    int getFreeList() {
+        return freeList;
+    }
+
+    void setFreeList(final int freeList) {
+        this.freeList = freeList;
+    }
+
+    /**
+     * Returns the highest id of the entries written to the tree.
+     *
+     * @return the id or {@link #UNKNOWN_MAX_ID} if the header has been written before it was tracked
+     */
+    int getMaxId() {
+        return maxId;
+    }
+
+    void setMaxId(final int maxId) {
+        this.maxId = maxId;
+    }
+}
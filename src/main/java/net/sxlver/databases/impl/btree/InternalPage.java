@@ -0,0 +1,162 @@
+package net.sxlver.databases.impl.btree;
+
+import com.google.common.collect.Lists;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An inner node of the tree. The child at index {@code i} holds all keys
+ * less than the separator at index {@code i} and greater than or equal to
+ * the separator preceding it.
+ */
+final class InternalPage extends Page {
+    private static final int HEADER_SIZE = 1 + Integer.BYTES + Integer.BYTES;
+
+    private final List<String> keys;
+    private final List<Integer> children;
+
+    InternalPage(final int id, final List<String> keys, final List<Integer> children) {
+        super(id);
+        this.keys = keys;
+        this.children = children;
+    }
+
+    static InternalPage decode(final int id, final ByteBuffer buffer) {
+        final int count = buffer.getInt();
+        final List<String> keys = Lists.newArrayListWithCapacity(count);
+        final List<Integer> children = Lists.newArrayListWithCapacity(count + 1);
+        children.add(buffer.getInt());
+        for (int i = 0; i < count; i++) {
+            keys.add(getKey(buffer));
+            children.add(buffer.getInt());
+        }
+        return new InternalPage(id, keys, children);
+    }
+
+    @Override
+    byte getType() {
+        return INTERNAL;
+    }
+
+    @Override
+    int getEncodedSize() {
+        int size = HEADER_SIZE;
+        for (final String key : keys) {
+            size += encodedSize(key) + Integer.BYTES;
+        }
+        return size;
+    }
+
+    @Override
+    void encodeBody(final ByteBuffer buffer) {
+        buffer.putInt(keys.size()).putInt(children.get(0));
+        for (int i = 0; i < keys.size(); i++) {
+            putKey(buffer, keys.get(i));
+            buffer.putInt(children.get(i + 1));
+        }
+    }
+
+    /**
+     * Returns the index of the child whose subtree holds the given key.
+     *
+     * @param key the key
+     * @return the index of the child
+     */
+    int childIndex(final String key) {
+        final int index = Collections.binarySearch(keys, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    int getChild(final int index) {
+        return children.get(index);
+    }
+
+    String getKey(final int index) {
+        return keys.get(index);
+    }
+
+    /**
+     * Returns the amount of separators, which is one less than the amount of children.
+     *
+     * @return the amount of separators
+     */
+    int size() {
+        return keys.size();
+    }
+
+    /**
+     * Inserts the separator of a child that has been split.
+     *
+     * @param index the index of the child that has been split
+     * @param key the first key of the new right sibling of the child
+     * @param child the id of the new sibling
+     */
+    void insert(final int index, final String key, final int child) {
+        keys.add(index, key);
+        children.add(index + 1, child);
+    }
+
+    /**
+     * Removes the separator at the given index along with the child following
+     * it, after that child has been merged into its left sibling.
+     *
+     * @param index the index of the separator
+     */
+    void remove(final int index) {
+        keys.remove(index);
+        children.remove(index + 1);
+    }
+
+    /**
+     * Returns the encoded size of this page after merging the given sibling into it.
+     *
+     * @param separator the separator of both pages in their parent
+     * @param sibling the right sibling of this page
+     * @return the encoded size in bytes
+     */
+    int getMergedSize(final String separator, final InternalPage sibling) {
+        return getEncodedSize() + sibling.getEncodedSize() - HEADER_SIZE + encodedSize(separator) + Integer.BYTES;
+    }
+
+    /**
+     * Moves all separators and children of the given sibling to the end of
+     * this page. The separator of both pages moves down from their parent.
+     *
+     * @param separator the separator of both pages in their parent
+     * @param sibling the right sibling of this page
+     */
+    void merge(final String separator, final InternalPage sibling) {
+        keys.add(separator);
+        keys.addAll(sibling.keys);
+        children.addAll(sibling.children);
+        sibling.keys.clear();
+        sibling.children.clear();
+    }
+
+    /**
+     * Moves the upper half of the separators to the given sibling. The
+     * separator in the middle moves up to the parent of both pages.
+     *
+     * @param sibling the new right sibling of this page
+     * @return the separator of both pages in their parent
+     */
+    String split(final InternalPage sibling) {
+        final int half = getEncodedSize() / 2;
+        int size = HEADER_SIZE;
+        int index = 0;
+        while(index < keys.size() - 2 && size + encodedSize(keys.get(index)) + Integer.BYTES <= half) {
+            size += encodedSize(keys.get(index++)) + Integer.BYTES;
+        }
+        final int middle = Math.max(index, 1);
+        final String separator = keys.get(middle);
+        final List<String> movedKeys = keys.subList(middle, keys.size());
+        final List<Integer> movedChildren = children.subList(middle + 1, children.size());
+        sibling.keys.addAll(movedKeys.subList(1, movedKeys.size()));
+        sibling.children.addAll(movedChildren);
+        movedKeys.clear();
+        movedChildren.clear();
+        return separator;
+    }
+}
@@ -0,0 +1,185 @@
+package net.sxlver.databases.impl.btree;
+
+import com.google.common.collect.Lists;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A leaf of the tree holding entries in ascending order of their keys.
+ *
+ * <p>Leaves are linked to their right sibling, so range scans walk
+ * the leaves without ascending the tree again.
+ */
+final class LeafPage extends Page {
+    private static final int HEADER_SIZE = 1 + Integer.BYTES + Integer.BYTES;
+
+    private final List<Cell> cells;
+    private int next;
+
+    LeafPage(final int id, final int next, final List<Cell> cells) {
+        super(id);
+        this.next = next;
+        this.cells = cells;
+    }
+
+    static LeafPage decode(final int id, final ByteBuffer buffer) {
+        final int next = buffer.getInt();
+        final int count = buffer.getInt();
+        final List<Cell> cells = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            final String key = getKey(buffer);
+            if(buffer.get() == 0) {
+                final byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                cells.add(Cell.inline(key, value));
+            }else {
+                cells.add(Cell.overflow(key, buffer.getInt(), buffer.getInt()));
+            }
+        }
+        return new LeafPage(id, next, cells);
+    }
+
+    @Override
+    byte getType() {
+        return LEAF;
+    }
+
+    @Override
+    int getEncodedSize() {
+        int size = HEADER_SIZE;
+        for (final Cell cell : cells) {
+            size += cell.getEncodedSize();
+        }
+        return size;
+    }
+
+    @Override
+    void encodeBody(final ByteBuffer buffer) {
+        buffer.putInt(next).putInt(cells.size());
+        for (final Cell cell : cells) {
+            putKey(buffer, cell.key);
+            if(cell.value != null) {
+                buffer.put((byte) 0).putInt(cell.value.length).put(cell.value);
+            }else {
+                buffer.put((byte) 1).putInt(cell.overflow).putInt(cell.length);
+            }
+        }
+    }
+
+    /**
+     * Searches the cell of the given key.
+     *
+     * @param key the key to search
+     * @return the index of the cell or {@code -(insertion point) - 1} if there is none
+     */
+    int search(final String key) {
+        return Collections.binarySearch(Lists.transform(cells, Cell::getKey), key);
+    }
+
+    /**
+     * Moves the upper half of the cells, measured in bytes, to the given sibling.
+     *
+     * @param sibling the new right sibling of this leaf
+     * @return the first key of the sibling, separating both leaves in their parent
+     */
+    String split(final LeafPage sibling) {
+        final int half = getEncodedSize() / 2;
+        int size = HEADER_SIZE;
+        int index = 0;
+        while(index < cells.size() - 1 && size + cells.get(index).getEncodedSize() <= half) {
+            size += cells.get(index++).getEncodedSize();
+        }
+        final List<Cell> moved = cells.subList(Math.max(index, 1), cells.size());
+        sibling.cells.addAll(moved);
+        moved.clear();
+        sibling.next = next;
+        this.next = sibling.getId();
+        return sibling.cells.get(0).key;
+    }
+
+    /**
+     * Returns the encoded size of this leaf after merging the given sibling into it.
+     *
+     * @param sibling the right sibling of this leaf
+     * @return the encoded size in bytes
+     */
+    int getMergedSize(final LeafPage sibling) {
+        return getEncodedSize() + sibling.getEncodedSize() - HEADER_SIZE;
+    }
+
+    /**
+     * Moves all cells of the given sibling to the end of this leaf and
+     * unlinks the sibling.
+     *
+     * @param sibling the right sibling of this leaf
+     */
+    void merge(final LeafPage sibling) {
+        cells.addAll(sibling.cells);
+        sibling.cells.clear();
+        this.next = sibling.next;
+    }
+
+    List<Cell> getCells() {
+        return cells;
+    }
+
+    /**
+     * Returns the right sibling of this leaf.
+     *
+     * @return the id of the sibling or {@code 0} if this is the last leaf
+     */
+    int getNext() {
+        return next;
+    }
+
+    /**
+     * An entry of a leaf. Values too large to be stored inline are
+     * stored in a chain of {@link OverflowPage}s instead.
+     */
+    static final class Cell {
+        private final String key;
+        @Nullable
+        private final byte[] value;
+        private final int overflow;
+        private final int length;
+
+        private Cell(final String key, final @Nullable byte[] value, final int overflow, final int length) {
+            this.key = key;
+            this.value = value;
+            this.overflow = overflow;
+            this.length = length;
+        }
+
+        static Cell inline(final String key, final byte[] value) {
+            return new Cell(key, value, 0, value.length);
+        }
+
+        static Cell overflow(final String key, final int overflow, final int length) {
+            return new Cell(key, null, overflow, length);
+        }
+
+        int getEncodedSize() {
+            return encodedSize(key) + 1 + Integer.BYTES + (value != null ? value.length : Integer.BYTES);
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        @Nullable
+        byte[] getValue() {
+            return value;
+        }
+
+        int getOverflow() {
+            return overflow;
+        }
+
+        int getLength() {
+            return length;
+        }
+    }
+}
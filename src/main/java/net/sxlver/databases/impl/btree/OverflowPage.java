@@ -0,0 +1,55 @@
+package net.sxlver.databases.impl.btree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Holds a part of a value too large to be stored in its leaf. The parts
+ * of a value are chained from the first to the last page.
+ */
+final class OverflowPage extends Page {
+    static final int HEADER_SIZE = 1 + Integer.BYTES + Integer.BYTES;
+
+    private final int next;
+    private final byte[] data;
+
+    OverflowPage(final int id, final int next, final byte[] data) {
+        super(id);
+        this.next = next;
+        this.data = data;
+    }
+
+    static OverflowPage decode(final int id, final ByteBuffer buffer) {
+        final int next = buffer.getInt();
+        final byte[] data = new byte[buffer.getInt()];
+        buffer.get(data);
+        return new OverflowPage(id, next, data);
+    }
+
+    @Override
+    byte getType() {
+        return OVERFLOW;
+    }
+
+    @Override
+    int getEncodedSize() {
+        return HEADER_SIZE + data.length;
+    }
+
+    @Override
+    void encodeBody(final ByteBuffer buffer) {
+        buffer.putInt(next).putInt(data.length).put(data);
+    }
+
+    /**
+     * Returns the page holding the next part of the value.
+     *
+     * @return the id of the next page or {@code 0} if this is the last part
+     */
+    int getNext() {
+        return next;
+    }
+
+    byte[] getData() {
+        return data;
+    }
+}
@@ -0,0 +1,89 @@
+package net.sxlver.databases.impl.btree;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A fixed size page of a {@link PageFile}, decoded to its in-memory representation.
+ *
+ * <p>Every page starts with a byte telling its type. Pages are encoded
+ * again when they are logged or written back to the page file.
+ */
+abstract class Page {
+    static final byte HEADER = 1;
+    static final byte LEAF = 2;
+    static final byte INTERNAL = 3;
+    static final byte OVERFLOW = 4;
+    static final byte FREE = 5;
+
+    private final int id;
+
+    Page(final int id) {
+        this.id = id;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    abstract byte getType();
+
+    /**
+     * Returns the amount of bytes the encoded page occupies, including
+     * its type. A page has to be split once it exceeds the page size.
+     *
+     * @return the encoded size in bytes
+     */
+    abstract int getEncodedSize();
+
+    abstract void encodeBody(final ByteBuffer buffer);
+
+    /**
+     * Encodes the page to an image of the given page size.
+     *
+     * @param pageSize the size of pages
+     * @return the image of the page
+     */
+    byte[] encode(final int pageSize) {
+        final ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+        buffer.put(getType());
+        encodeBody(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the given image of a page.
+     *
+     * @param id the id of the page
+     * @param buffer the image of the page
+     * @return the decoded page
+     * @throws IllegalStateException if the image doesn't hold a valid page
+     */
+    static Page decode(final int id, final ByteBuffer buffer) {
+        final byte type = buffer.get();
+        switch(type) {
+            case HEADER: return HeaderPage.decode(buffer);
+            case LEAF: return LeafPage.decode(id, buffer);
+            case INTERNAL: return InternalPage.decode(id, buffer);
+            case OVERFLOW: return OverflowPage.decode(id, buffer);
+            case FREE: return FreePage.decode(id, buffer);
+        }
+        throw new IllegalStateException("Page " + id + " has unknown type " + type);
+    }
+
+    static int encodedSize(final String key) {
+        return Short.BYTES + key.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    static void putKey(final ByteBuffer buffer, final String key) {
+        final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getKey(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package net.sxlver.databases.impl.btree;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file made up of pages of a fixed size, addressed by their id.
+ */
+final class PageFile implements Closeable {
+    private final FileChannel channel;
+    private int pageSize;
+
+    PageFile(final File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    boolean isEmpty() throws IOException {
+        return channel.size() == 0;
+    }
+
+    /**
+     * Reads the page size stored in the header of the file.
+     *
+     * @return the size of the pages of the file
+     */
+    int readPageSize() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES * 2);
+        readFully(buffer, 0);
+        buffer.flip();
+        return HeaderPage.readPageSize(buffer);
+    }
+
+    void setPageSize(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    Page read(final int id) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+        readFully(buffer, (long) id * pageSize);
+        buffer.flip();
+        return Page.decode(id, buffer);
+    }
+
+    void write(final int id, final byte[] image) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(image);
+        long position = (long) id * image.length;
+        while(buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    void force() throws IOException {
+        channel.force(true);
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while(buffer.hasRemaining()) {
+            final int read = channel.read(buffer, offset);
+            if(read < 0) {
+                throw new IOException("Page at offset " + position + " is incomplete");
+            }
+            offset += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,139 @@
+package net.sxlver.databases.impl.btree;
+
+import com.google.common.collect.Maps;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Redo log of the images of all pages modified by a transaction.
+ *
+ * <p>Pages are only written to the {@link PageFile} by a checkpoint, after
+ * their images have been appended to the log. A transaction is appended
+ * as its page records followed by a commit record, which are laid out as
+ * {@code crc32 | type | page id | length | image}. Transactions without
+ * their commit record are discarded by the recovery, and as page images
+ * are complete, replaying a transaction twice is harmless.
+ */
+final class WriteAheadLog implements Closeable {
+    private static final byte PAGE = 1;
+    private static final byte COMMIT = 2;
+    private static final int HEADER_SIZE = Integer.BYTES + 1 + Integer.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private long size;
+
+    WriteAheadLog(final File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.size = channel.size();
+    }
+
+    /**
+     * Appends a transaction to the log.
+     *
+     * @param images the images of the modified pages by their id
+     * @param force whether the log should be forced to disk before returning
+     */
+    void commit(final Map<Integer, byte[]> images, final boolean force) throws IOException {
+        int length = HEADER_SIZE;
+        for (final byte[] image : images.values()) {
+            length += HEADER_SIZE + image.length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (final Map.Entry<Integer, byte[]> entry : images.entrySet()) {
+            putRecord(buffer, PAGE, entry.getKey(), entry.getValue());
+        }
+        putRecord(buffer, COMMIT, 0, new byte[0]);
+        buffer.flip();
+        long position = size;
+        while(buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        if(force) {
+            channel.force(false);
+        }
+        this.size = position;
+    }
+
+    /**
+     * Reads all committed transactions of the log.
+     *
+     * @return the most recent image of every page by its id
+     */
+    Map<Integer, byte[]> replay() throws IOException {
+        final Map<Integer, byte[]> images = Maps.newLinkedHashMap();
+        final Map<Integer, byte[]> pending = Maps.newLinkedHashMap();
+        long position = 0;
+        while(size - position >= HEADER_SIZE) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(header, position);
+            header.flip();
+            final int checksum = header.getInt();
+            final byte type = header.get();
+            final int pageId = header.getInt();
+            final int length = header.getInt();
+            if(length < 0 || length > size - position - HEADER_SIZE) {
+                break;
+            }
+            final ByteBuffer image = ByteBuffer.allocate(length);
+            readFully(image, position + HEADER_SIZE);
+            if(checksum != checksum(type, pageId, image.array())) {
+                break;
+            }
+            if(type == COMMIT) {
+                images.putAll(pending);
+                pending.clear();
+            }else {
+                pending.put(pageId, image.array());
+            }
+            position += HEADER_SIZE + length;
+        }
+        return images;
+    }
+
+    /**
+     * Discards all transactions once their pages have been checkpointed.
+     */
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.force(false);
+        this.size = 0;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    private static void putRecord(final ByteBuffer buffer, final byte type, final int pageId, final byte[] image) {
+        buffer.putInt(checksum(type, pageId, image)).put(type).putInt(pageId).putInt(image.length).put(image);
+    }
+
+    private static int checksum(final byte type, final int pageId, final byte[] image) {
+        final CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(1 + Integer.BYTES + Integer.BYTES).put(type).putInt(pageId).putInt(image.length).array());
+        crc.update(image);
+        return (int) crc.getValue();
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while(buffer.hasRemaining()) {
+            final int read = channel.read(buffer, offset);
+            if(read < 0) {
+                break;
+            }
+            offset += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,179 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.collect.Lists;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces files by writing their new contents to a temporary file, which
+ * is then moved over the destination. Readers and crashes therefore only
+ * ever observe the old or the new contents, never a partially written file.
+ */
+final class AtomicFileWriter {
+    private static final String TEMPORARY_FILE_FORMAT = ".tmp";
+    private static final int BUFFER_SIZE = 8192;
+
+    private AtomicFileWriter() {}
+
+    /**
+     * Writes the contents of a file to the stream it is given.
+     */
+    @FunctionalInterface
+    interface Contents {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes the given contents to a new temporary file next to the destination.
+     *
+     * @param destination the file that will be replaced
+     * @param contents the new contents of the file
+     * @param force whether the temporary file should be forced to disk
+     * @return the temporary file
+     */
+    static Path writeTemporary(final Path destination, final byte[] contents, final boolean force) throws IOException {
+        return writeTemporary(destination, out -> out.write(contents), force);
+    }
+
+    /**
+     * Streams the contents to a new temporary file next to the destination
+     * through a buffer of a fixed size.
+     *
+     * @param destination the file that will be replaced
+     * @param contents writes the new contents of the file, without closing the stream
+     * @param force whether the temporary file should be forced to disk
+     * @return the temporary file
+     */
+    static Path writeTemporary(final Path destination, final Contents contents, final boolean force) throws IOException {
+        final Path temporary = createTemporary(destination);
+        try(final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            final OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            contents.writeTo(out);
+            out.flush();
+            if(force) {
+                channel.force(true);
+            }
+        }catch(final IOException | RuntimeException exception) {
+            Files.deleteIfExists(temporary);
+            throw exception;
+        }
+        return temporary;
+    }
+
+    /**
+     * Creates a new temporary file next to the destination. Unlike files created by
+     * {@link Files#createTempFile(Path, String, String, java.nio.file.attribute.FileAttribute[])},
+     * which only the owner may access, it is created with the default permissions
+     * of new files or, if the destination exists, takes over its permissions.
+     *
+     * @param destination the file that will be replaced
+     * @return the temporary file
+     */
+    private static Path createTemporary(final Path destination) throws IOException {
+        final String prefix = destination.getFileName().toString() + '.';
+        while (true) {
+            final Path temporary = destination.resolveSibling(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + TEMPORARY_FILE_FORMAT);
+            try {
+                Files.createFile(temporary);
+            }catch(final FileAlreadyExistsException exception) {
+                continue;
+            }
+            try {
+                copyPermissions(destination, temporary);
+            }catch(final IOException | RuntimeException exception) {
+                Files.deleteIfExists(temporary);
+                throw exception;
+            }
+            return temporary;
+        }
+    }
+
+    private static void copyPermissions(final Path source, final Path target) throws IOException {
+        final PosixFileAttributeView view = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if(view == null) {
+            return;
+        }
+        final Set<PosixFilePermission> permissions;
+        try {
+            permissions = view.readAttributes().permissions();
+        }catch(final NoSuchFileException exception) {
+            // the destination has been removed in the meantime
+            return;
+        }
+        Files.setPosixFilePermissions(target, permissions);
+    }
+
+    /**
+     * Forces a temporary file that has been written without forcing it to disk.
+     *
+     * @param temporary the temporary file
+     */
+    static void force(final Path temporary) throws IOException {
+        try(final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Moves the temporary file over the destination.
+     *
+     * @param temporary the temporary file
+     * @param destination the file to replace
+     */
+    static void commit(final Path temporary, final Path destination) throws IOException {
+        try {
+            Files.move(temporary, destination, StandardCopyOption.ATOMIC_MOVE);
+        }catch(final AtomicMoveNotSupportedException exception) {
+            Files.move(temporary, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the given directory to disk, persisting the moves into it. Not
+     * every platform supports opening directories, in which case the moves
+     * are persisted by the operating system.
+     *
+     * @param directory the directory
+     */
+    static void forceDirectory(final Path directory) {
+        try(final FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }catch(final IOException ignored) {
+        }
+    }
+
+    /**
+     * Deletes temporary files left behind by writes interrupted by a crash.
+     *
+     * @param files the files to clean up
+     * @return the remaining files
+     */
+    static List<File> deleteTemporaryFiles(final List<File> files) {
+        final List<File> remaining = Lists.newArrayListWithCapacity(files.size());
+        for (final File file : files) {
+            if(file.getName().endsWith(TEMPORARY_FILE_FORMAT)) {
+                file.delete();
+            }else {
+                remaining.add(file);
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,249 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import net.sxlver.databases.CompressionCodec;
+import net.sxlver.databases.converter.RowEncoder;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes entries to the bytes of their files and decodes them again.
+ *
+ * <p>Entries smaller than the compression threshold are stored as plain
+ * text. Whether a file has been compressed, and by which codec, is told
+ * by its leading bytes, as no JSON text starts with a GZIP or zlib header.
+ */
+final class EntryCodec {
+    private static final int GZIP_MAGIC = 0x1f8b;
+    private static final int ZLIB_METHOD_MASK = 0x0f;
+    private static final int ZLIB_DEFLATE_METHOD = 8;
+    private static final int HEADER_SIZE = 2;
+
+    private final CompressionCodec codec;
+    private final int threshold;
+    private final boolean compact;
+
+    EntryCodec(final CompressionCodec codec, final int threshold, final boolean compact) {
+        this.codec = codec;
+        this.threshold = threshold;
+        this.compact = compact;
+    }
+
+    /**
+     * Serializes the given entry and compresses it if it exceeds the threshold.
+     *
+     * @param gson the gson instance of the database
+     * @param map the serialized entry
+     * @return the contents of the entry file
+     */
+    byte[] encode(final Gson gson, final Map<String, Object> map) throws IOException {
+        final byte[] bytes = toJson(gson, map).getBytes(StandardCharsets.UTF_8);
+        if(codec == CompressionCodec.NONE || bytes.length < threshold) {
+            return bytes;
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try(final OutputStream compressing = codec == CompressionCodec.GZIP ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) {
+            compressing.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Streams the fields of the given entity to the stream, compressing them once
+     * they exceed the threshold. Only the text up to the threshold is buffered to
+     * decide whether the entry is compressed, the stream isn't closed.
+     *
+     * @param gson the gson instance of the database
+     * @param entity the entity, which has to be supported by the {@link RowEncoder}
+     * @param out the stream of the entry file
+     */
+    void encode(final Gson gson, final Object entity, final OutputStream out) throws IOException {
+        final OutputStream target = codec == CompressionCodec.NONE ? new RetainingOutputStream(out) : new ThresholdOutputStream(out);
+        try(final JsonWriter writer = jsonWriter(gson, new OutputStreamWriter(target, StandardCharsets.UTF_8))) {
+            RowEncoder.encode(entity, new JsonRowSink(gson, writer));
+        }
+    }
+
+    private JsonWriter jsonWriter(final Gson gson, final Writer writer) throws IOException {
+        final JsonWriter jsonWriter = compact ? new JsonWriter(writer) : gson.newJsonWriter(writer);
+        // configured like Gson#toJson configures the writer it is given, which
+        // writes leniently as well, leaving special floating point values to the adapters
+        jsonWriter.setHtmlSafe(gson.htmlSafe());
+        jsonWriter.setSerializeNulls(gson.serializeNulls());
+        jsonWriter.setLenient(true);
+        return jsonWriter;
+    }
+
+    private String toJson(final Gson gson, final Map<String, Object> map) {
+        if(!compact) {
+            return gson.toJson(map);
+        }
+        // the indent is taken from the writer, overriding
+        // the pretty printing of the gson instance
+        final StringWriter writer = new StringWriter();
+        gson.toJson(map, map.getClass(), new JsonWriter(writer));
+        return writer.toString();
+    }
+
+    /**
+     * Opens a reader for the given entry file, decompressing it if necessary.
+     *
+     * @param file the entry file
+     * @return the reader of the file
+     */
+    Reader reader(final File file) throws IOException {
+        final InputStream in = new BufferedInputStream(new FileInputStream(file));
+        in.mark(HEADER_SIZE);
+        final int header = (in.read() << 8) | in.read();
+        in.reset();
+        return new InputStreamReader(decompress(in, header), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a reader for the given mapping of an entry file, decompressing it
+     * if necessary. Plain text is decoded straight from the mapping.
+     *
+     * @param buffer the contents of the entry file
+     * @return the reader of the contents
+     */
+    Reader reader(final ByteBuffer buffer) throws IOException {
+        final int position = buffer.position();
+        final int header = buffer.remaining() < HEADER_SIZE ? 0 : Short.toUnsignedInt(buffer.getShort(position));
+        if(!isCompressed(header)) {
+            return MappedFileCache.reader(buffer);
+        }
+        return new InputStreamReader(decompress(new ByteBufferInputStream(buffer), header), StandardCharsets.UTF_8);
+    }
+
+    private static InputStream decompress(final InputStream in, final int header) throws IOException {
+        if(header == GZIP_MAGIC) {
+            return new GZIPInputStream(in);
+        }
+        if(isZlibHeader(header)) {
+            return new InflaterInputStream(in);
+        }
+        return in;
+    }
+
+    private static boolean isCompressed(final int header) {
+        return header == GZIP_MAGIC || isZlibHeader(header);
+    }
+
+    private static boolean isZlibHeader(final int header) {
+        return header > 0 && ((header >> 8) & ZLIB_METHOD_MASK) == ZLIB_DEFLATE_METHOD && header % 31 == 0;
+    }
+
+    /**
+     * Keeps the underlying stream open when it is closed.
+     */
+    private static final class RetainingOutputStream extends FilterOutputStream {
+
+        private RetainingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Buffers the text of an entry until it reaches the threshold, at which
+     * point the buffer and everything following it is compressed.
+     */
+    private final class ThresholdOutputStream extends OutputStream {
+        private final OutputStream out;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream compressing;
+
+        private ThresholdOutputStream(final OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            target(1).write(b);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            target(length).write(bytes, offset, length);
+        }
+
+        private OutputStream target(final int length) throws IOException {
+            if(compressing != null) {
+                return compressing;
+            }
+            if(buffer.size() + length < threshold) {
+                return buffer;
+            }
+            final OutputStream retained = new RetainingOutputStream(out);
+            compressing = codec == CompressionCodec.GZIP ? new GZIPOutputStream(retained) : new DeflaterOutputStream(retained);
+            buffer.writeTo(compressing);
+            buffer = null;
+            return compressing;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(compressing != null) {
+                compressing.close();
+            } else if(buffer != null) {
+                buffer.writeTo(out);
+                buffer = null;
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if(length == 0) {
+                return 0;
+            }
+            if(!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import net.sxlver.databases.TableLayout;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.util.FileSystemUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Resolves the files of the entries of a table according to its {@link TableLayout}.
+ */
+final class EntryFiles {
+    private static final HashFunction SHARD_HASH = Hashing.murmur3_32_fixed();
+    private static final int SHARD_LENGTH = 2;
+
+    private final File table;
+    private final TableLayout layout;
+    private final String fileFormat;
+
+    EntryFiles(final File table, final TableLayout layout, final String fileFormat) {
+        this.table = table;
+        this.layout = layout;
+        this.fileFormat = fileFormat;
+    }
+
+    /**
+     * Returns the file of the entry with the given unique id.
+     *
+     * @param uniqueId the unique id of the entry
+     * @return the file of the entry
+     */
+    File resolve(final String uniqueId) {
+        final String fileName = uniqueId + fileFormat;
+        if(layout == TableLayout.FLAT) {
+            return new File(table, fileName);
+        }
+        final String hash = SHARD_HASH.hashString(uniqueId, StandardCharsets.UTF_8).toString();
+        final String first = hash.substring(0, SHARD_LENGTH);
+        final String second = hash.substring(SHARD_LENGTH, SHARD_LENGTH * 2);
+        return new File(table, first + File.separator + second + File.separator + fileName);
+    }
+
+    /**
+     * Returns all files stored in the table, regardless of their format.
+     *
+     * @return the files of the table
+     */
+    List<File> listFiles() {
+        final List<File> files = Lists.newArrayList();
+        collect(table, layout == TableLayout.FLAT ? 0 : 2, files);
+        return files;
+    }
+
+    private static void collect(final File directory, final int depth, final List<File> files) {
+        for (final File file : FileSystemUtil.getFilesInDirectoryNonNull(directory)) {
+            if(file.isFile()) {
+                files.add(file);
+            }else if(depth > 0 && file.isDirectory()) {
+                collect(file, depth - 1, files);
+            }
+        }
+    }
+
+    /**
+     * Moves the entry files of a table that has been stored using the other
+     * layout to where this layout expects them.
+     */
+    void migrate() {
+        try {
+            if(layout == TableLayout.HASHED) {
+                for (final File file : FileSystemUtil.getFilesInDirectoryNonNull(table)) {
+                    if(file.isFile() && file.getName().endsWith(fileFormat)) {
+                        move(file, resolve(uniqueId(file)));
+                    }
+                }
+                return;
+            }
+            for (final File directory : FileSystemUtil.getFilesInDirectoryNonNull(table)) {
+                if(!directory.isDirectory() || directory.getName().length() != SHARD_LENGTH) {
+                    continue;
+                }
+                final List<File> shardedFiles = Lists.newArrayList();
+                collect(directory, 1, shardedFiles);
+                for (final File file : shardedFiles) {
+                    if(file.getName().endsWith(fileFormat)) {
+                        move(file, resolve(uniqueId(file)));
+                    }
+                }
+                // remove the shard directories emptied by the migration
+                for (final File shard : FileSystemUtil.getFilesInDirectoryNonNull(directory)) {
+                    shard.delete();
+                }
+                directory.delete();
+            }
+        }catch(final IOException exception) {
+            throw new DatabaseException("Unable to migrate table " + table + " to layout " + layout + ". " + exception.getMessage());
+        }
+    }
+
+    private String uniqueId(final File file) {
+        final String name = file.getName();
+        return name.substring(0, name.length() - fileFormat.length());
+    }
+
+    private static void move(final File source, final File destination) throws IOException {
+        destination.getParentFile().mkdirs();
+        Files.move(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
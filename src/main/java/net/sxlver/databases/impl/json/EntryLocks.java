@@ -0,0 +1,204 @@
+package net.sxlver.databases.impl.json;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Striped read/write locks keyed by the unique ids of entries.
+ *
+ * <p>Operations on entries mapping to different stripes run in parallel,
+ * while writes of the same entry are ordered. Optionally, writes also lock
+ * the region of their stripe in a lock file of the table, which excludes
+ * writes of the same entry by other processes sharing the table. The lock
+ * file is shared by all databases of the table within this process, whose
+ * writes of a region are ordered before the region is locked, as file locks
+ * are held on behalf of the whole process.
+ *
+ * <p>Readers never take file locks, as entries are replaced atomically.
+ * Operations on the whole table, like cleaning up temporary files, exclude
+ * the writes of every entry, including those of other processes if file
+ * locking is enabled.
+ */
+final class EntryLocks {
+    private static final String LOCK_FILE_NAME = ".lock";
+    private static final Map<Path, LockFile> LOCK_FILES = new HashMap<>();
+
+    private final ReadWriteLock[] stripes;
+    @Nullable
+    private final LockFile lockFile;
+
+    EntryLocks(final int stripes, final File table, final boolean fileLocking) throws IOException {
+        this.stripes = new ReadWriteLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+        if(fileLocking) {
+            table.mkdirs();
+            this.lockFile = LockFile.acquire(new File(table, LOCK_FILE_NAME).toPath().toAbsolutePath().normalize());
+        }else {
+            this.lockFile = null;
+        }
+    }
+
+    /**
+     * Runs the given operation while holding the read lock of the entry.
+     *
+     * @param key the unique id of the entry
+     * @param operation the operation reading the entry
+     * @return the result of the operation
+     */
+    <R> R read(final String key, final LockedOperation<R> operation) throws IOException {
+        final Lock lock = stripes[stripe(key)].readLock();
+        lock.lock();
+        try {
+            return operation.run();
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the given operation while holding the write lock of the entry.
+     *
+     * @param key the unique id of the entry
+     * @param operation the operation writing the entry
+     * @return the result of the operation
+     */
+    <R> R write(final String key, final LockedOperation<R> operation) throws IOException {
+        final int stripe = stripe(key);
+        final Lock lock = stripes[stripe].writeLock();
+        lock.lock();
+        try {
+            if(lockFile == null) {
+                return operation.run();
+            }
+            return lockFile.write(stripe, operation);
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the given operation while holding the write locks of every entry
+     * and, if file locking is enabled, the lock of the whole lock file.
+     *
+     * @param operation the operation on the table
+     * @return the result of the operation
+     */
+    <R> R table(final LockedOperation<R> operation) throws IOException {
+        for (final ReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+        }
+        try {
+            if(lockFile == null) {
+                return operation.run();
+            }
+            return lockFile.table(operation);
+        }finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].writeLock().unlock();
+            }
+        }
+    }
+
+    private int stripe(final String key) {
+        return Math.floorMod(key.hashCode(), stripes.length);
+    }
+
+    void close() throws IOException {
+        if(lockFile != null) {
+            lockFile.release();
+        }
+    }
+
+    /**
+     * The lock file of a table, opened once per process and closed once
+     * the last database of the table has been closed.
+     */
+    private static final class LockFile {
+        private final Path path;
+        private final FileChannel channel;
+        private final Map<Integer, Lock> regions = new ConcurrentHashMap<>();
+        // file locks of a process must not overlap, so locking the whole file
+        // excludes the threads locking a region
+        private final ReadWriteLock table = new ReentrantReadWriteLock();
+        private int references;
+
+        private LockFile(final Path path, final FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        private static LockFile acquire(final Path path) throws IOException {
+            synchronized (LOCK_FILES) {
+                LockFile lockFile = LOCK_FILES.get(path);
+                if(lockFile == null) {
+                    lockFile = new LockFile(path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+                    LOCK_FILES.put(path, lockFile);
+                }
+                lockFile.references++;
+                return lockFile;
+            }
+        }
+
+        private <R> R write(final int region, final LockedOperation<R> operation) throws IOException {
+            // only one thread of the process may hold the lock of a region
+            final Lock lock = regions.computeIfAbsent(region, ignored -> new ReentrantLock());
+            table.readLock().lock();
+            lock.lock();
+            try {
+                final FileLock fileLock = channel.lock(region, 1, false);
+                try {
+                    return operation.run();
+                }finally {
+                    fileLock.release();
+                }
+            }finally {
+                lock.unlock();
+                table.readLock().unlock();
+            }
+        }
+
+        private <R> R table(final LockedOperation<R> operation) throws IOException {
+            table.writeLock().lock();
+            try {
+                final FileLock fileLock = channel.lock(0, Long.MAX_VALUE, false);
+                try {
+                    return operation.run();
+                }finally {
+                    fileLock.release();
+                }
+            }finally {
+                table.writeLock().unlock();
+            }
+        }
+
+        private void release() throws IOException {
+            synchronized (LOCK_FILES) {
+                if(--references > 0) {
+                    return;
+                }
+                LOCK_FILES.remove(path);
+            }
+            channel.close();
+        }
+    }
+
+    @FunctionalInterface
+    interface LockedOperation<R> {
+        R run() throws IOException;
+    }
+}
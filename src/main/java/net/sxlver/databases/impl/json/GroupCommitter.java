@@ -0,0 +1,137 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.sxlver.databases.util.BackgroundTasks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Collects atomic file writes and forces them to disk in batches.
+ *
+ * <p>Every interval, a flusher thread forces all pending temporary files,
+ * moves them over their destinations, forces the affected directories and
+ * completes the future of every write of the batch. A write failing to be
+ * committed only fails its own future. Writes submitted after the committer
+ * has been closed are committed by the submitting thread.
+ */
+final class GroupCommitter {
+    private final BlockingQueue<PendingWrite> pending = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService flusher;
+    private boolean closed;
+
+    GroupCommitter(final String name, final long interval) {
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("group-commit-" + name)
+                .setDaemon(true)
+                .build());
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a temporary file to be committed with the next batch.
+     *
+     * @param temporary the temporary file holding the new contents
+     * @param destination the file to replace
+     * @return the future completed once the write is durable
+     */
+    CompletableFuture<Void> submit(final Path temporary, final Path destination) {
+        final PendingWrite write = new PendingWrite(temporary, destination);
+        synchronized (this) {
+            if(!closed) {
+                pending.add(write);
+                return write.future;
+            }
+        }
+        commit(List.of(write));
+        return write.future;
+    }
+
+    private void flush() {
+        final List<PendingWrite> batch = Lists.newArrayList();
+        pending.drainTo(batch);
+        if(batch.isEmpty()) {
+            return;
+        }
+        commit(batch);
+    }
+
+    /**
+     * Commits the given writes, completing the future of each write on its own.
+     * Nothing is thrown, so the periodic flush is never cancelled.
+     *
+     * @param batch the writes to commit
+     */
+    private static void commit(final List<PendingWrite> batch) {
+        try {
+            final List<PendingWrite> forced = Lists.newArrayListWithCapacity(batch.size());
+            for (final PendingWrite write : batch) {
+                try {
+                    AtomicFileWriter.force(write.temporary);
+                    forced.add(write);
+                }catch(final IOException exception) {
+                    write.fail(exception);
+                }
+            }
+            final List<PendingWrite> committed = Lists.newArrayListWithCapacity(forced.size());
+            final Set<Path> directories = Sets.newHashSet();
+            for (final PendingWrite write : forced) {
+                try {
+                    AtomicFileWriter.commit(write.temporary, write.destination);
+                    directories.add(write.destination.getParent());
+                    committed.add(write);
+                }catch(final IOException exception) {
+                    write.fail(exception);
+                }
+            }
+            directories.forEach(AtomicFileWriter::forceDirectory);
+            committed.forEach(write -> write.future.complete(null));
+        }catch(final Throwable throwable) {
+            // completing a future twice has no effect, so only
+            // the writes that haven't been completed yet fail
+            batch.forEach(write -> write.future.completeExceptionally(throwable));
+            BackgroundTasks.report(throwable);
+        }
+    }
+
+    /**
+     * Commits all pending writes and stops the flusher thread.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        }catch(final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private static final class PendingWrite {
+        private final Path temporary;
+        private final Path destination;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWrite(final Path temporary, final Path destination) {
+            this.temporary = temporary;
+            this.destination = destination;
+        }
+
+        private void fail(final IOException exception) {
+            try {
+                Files.deleteIfExists(temporary);
+            }catch(final IOException ignored) {
+            }
+            future.completeExceptionally(exception);
+        }
+    }
+}
@@ -2,25 +2,28 @@ package net.sxlver.databases.impl.json;
 
 import com.google.common.collect.Lists;
 import lombok.NonNull;
-import lombok.SneakyThrows;
 import net.sxlver.databases.*;
+import net.sxlver.databases.converter.RowDecoder;
 import net.sxlver.databases.exception.DatabaseException;
 import net.sxlver.databases.formatter.FieldNameFormatters;
 import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.IdentifierEncoding;
 import net.sxlver.databases.impl.json.context.JSONConversionContext;
 import net.sxlver.databases.util.FileSystemUtil;
 import net.sxlver.databases.util.Reflection;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Field;
-import java.util.Arrays;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -32,8 +35,27 @@ public class JSONDatabase<T> extends AbstractDatabase<T> {
     private final String databasePath;
 
     private final String tableName;
+    private final EntryFiles entryFiles;
+    private final JSONKeyIndex keyIndex;
+    private final TableMetadata metadata;
+    private final EntryLocks entryLocks;
+    private final EntryCodec entryCodec;
+    @Nullable
+    private final Field autoIncrementField;
+    @Nullable
+    private final MappedFileCache mappedFiles;
+    private final FsyncPolicy fsyncPolicy;
+    @Nullable
+    private final GroupCommitter groupCommitter;
+    @Nullable
+    private final ForkJoinPool readPool;
+    private final boolean preserveReadOrder;
+    private final IdentifierEncoding encoding;
 
     private final DatabaseConverter<T, Map<String, Object>> converter;
+    // whether entries are streamed from and to their files
+    // instead of being converted from and to maps
+    private final boolean streaming;
 
     JSONDatabase(final @NonNull Class<?>         type,
                  final @NonNull DatabaseSettings settings,
@@ -44,91 +66,197 @@ public class JSONDatabase<T> extends AbstractDatabase<T> {
         this.databasePath = FileSystemUtil.getJarFileDirectory(type) + settings.getDatabasePath() + File.separator + DATABASE_FOLDER;
         this.classInfo = ClassInfo.ofClass(type, FieldNameFormatters.IDENTITY);
         this.converter = (DatabaseConverter<T, Map<String, Object>>) classInfo.getConverter();
+        this.streaming = RowDecoder.supports(type, converter);
         this.tableName = Reflection.getTableName(type);
+        this.entryFiles = new EntryFiles(new File(getTypeDatabasePath()), settings.getTableLayout(), JSON_FILE_FORMAT);
+        try {
+            this.entryLocks = new EntryLocks(settings.getLockStripes(), new File(getTypeDatabasePath()), settings.isFileLocking());
+            // temporary files are only left behind by crashes while no entry is written
+            this.keyIndex = entryLocks.table(() -> {
+                entryFiles.migrate();
+                return JSONKeyIndex.of(AtomicFileWriter.deleteTemporaryFiles(entryFiles.listFiles()), JSON_FILE_FORMAT);
+            });
+        }catch(final IOException exception) {
+            throw new DatabaseException("Unable to open lock file of table " + tableName + ". " + exception.getMessage());
+        }
+        this.autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
+        this.entryCodec = new EntryCodec(settings.getCompressionCodec(), settings.getCompressionThreshold(), settings.isCompactEncoding());
+        this.fsyncPolicy = settings.getFsyncPolicy();
+        this.metadata = loadMetadata();
+        this.mappedFiles = settings.isMemoryMappedReads() ? new MappedFileCache(settings.getMappedFileCacheSize()) : null;
+        this.groupCommitter = fsyncPolicy == FsyncPolicy.GROUP_COMMIT ? new GroupCommitter(tableName, settings.getGroupCommitInterval()) : null;
+        this.readPool = settings.getReadPool() != null ? settings.getReadPool()
+                : settings.getReadParallelism() > 1 ? ParallelFileReader.sharedPool(settings.getReadParallelism()) : null;
+        this.preserveReadOrder = settings.isPreserveReadOrder();
+        this.encoding = IdentifierEncoding.of(settings);
         super.init();
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected T read(final Object query)  {
-        final String uniqueId = query.toString();
-        final String path = getTypeDatabasePath();
-        final String file = path + File.separator + uniqueId + JSON_FILE_FORMAT;
-        if(!new File(file).exists()) {
+        final String uniqueId = encoding.key(query, classInfo);
+        if(!keyIndex.contains(uniqueId)) {
             return null;
         }
-        final Map<String, Object> map;
-        try(final FileReader fileReader = new FileReader(file)) {
-            map = (Map<String, Object>) getGson().fromJson(fileReader, Map.class);
+        final T object;
+        try {
+            object = entryLocks.read(uniqueId, () -> readEntry(entryFiles.resolve(uniqueId)));
         }catch(final Exception exception) {
             throw new DatabaseException(exception.getMessage());
         }
-        final T object = converter.deserialize(map, JSONConversionContext.of(type));
         callMessageReceiver(object);
         return object;
     }
 
+    /**
+     * Deserializes the entry the reader reads. Entities converted reflectively
+     * are decoded from the json tokens directly, otherwise the entry is parsed
+     * to a map first, which is passed to the converter of the entity.
+     *
+     * @param reader the reader of the entry file
+     * @return the deserialized object
+     */
+    @SuppressWarnings("unchecked")
+    private T decode(final Reader reader) {
+        if(streaming) {
+            return RowDecoder.decode((Class<T>) type, new JsonRowSource(getGson(), reader));
+        }
+        final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(reader, Map.class);
+        return converter.deserialize(map, JSONConversionContext.of(type));
+    }
+
+    /**
+     * Reads the given entry file, which is decoded from its cached memory
+     * mapping if memory mapped reads are enabled.
+     *
+     * @param file the entry file
+     * @return the deserialized object
+     * @see DatabaseSettings#isMemoryMappedReads()
+     */
+    private T readEntry(final File file) throws IOException {
+        if(mappedFiles != null) {
+            return mappedFiles.read(file, buffer -> {
+                try(final Reader reader = entryCodec.reader(buffer)) {
+                    return decode(reader);
+                }
+            });
+        }
+        try(final Reader reader = entryCodec.reader(file)) {
+            return decode(reader);
+        }
+    }
+
     @Override
-    @SneakyThrows
     protected void write(final T object) {
-        final Map<String, Object> serializedMap = converter.serialize(object, null);
-        final String serialized = getGson().toJson(serializedMap);
-        final String path = tableName;
-        final String file = path + File.separator + Reflection.getUniqueIdentifier(object) + JSON_FILE_FORMAT;
-        final File dataFolder = new File(getDatabasePath());
-        final File destinationFile = new File(dataFolder, file);
-        if(!dataFolder.exists()) {
-            dataFolder.mkdirs();
+        await(stage(object));
+    }
+
+    /**
+     * Writes all objects before waiting for them to become durable, so
+     * a group commit forces all of them to disk at once.
+     *
+     * @param objects the objects to write
+     */
+    @Override
+    protected void writeAll(final Collection<T> objects) {
+        final CompletableFuture<?>[] futures = objects.stream()
+                .map(this::stage)
+                .toArray(CompletableFuture[]::new);
+        await(CompletableFuture.allOf(futures));
+    }
+
+    /**
+     * Writes the serialized object to a temporary file, which atomically replaces
+     * the file of the entry once it has been forced to disk as demanded by the
+     * {@link FsyncPolicy} of the database.
+     *
+     * @param object the object to write
+     * @return the future completed once the entry has been replaced
+     */
+    private CompletableFuture<Void> stage(final T object) {
+        final AtomicFileWriter.Contents contents = contentsOf(object);
+        final String uniqueId = encoding.key(classInfo.getIdentifier(object));
+        final File destinationFile = entryFiles.resolve(uniqueId);
+        final File directory = destinationFile.getParentFile();
+        if(!directory.exists()) {
+            directory.mkdirs();
         }
-        final File table = new File(getTypeDatabasePath());
-        if(!table.exists()) {
-            table.mkdirs();
+        // the high-water mark is persisted before the entry and forced to disk
+        // unless entries aren't either, so ids are never handed out twice after a crash
+        if(autoIncrementField != null && metadata.raiseMaxId((Integer) Reflection.getValue(autoIncrementField, object))) {
+            metadata.write(new File(getTypeDatabasePath()), fsyncPolicy != FsyncPolicy.NONE);
         }
-        try (final FileWriter fileWriter = new FileWriter(destinationFile)) {
-            fileWriter.write(serialized);
+        final Path destination = destinationFile.toPath();
+        try {
+            // group commits are ordered by the order they have been submitted in
+            return entryLocks.write(uniqueId, () -> {
+                // a mapped file can't be replaced on every platform
+                if(mappedFiles != null) {
+                    mappedFiles.invalidate(destinationFile);
+                }
+                final Path temporary = AtomicFileWriter.writeTemporary(destination, contents, fsyncPolicy == FsyncPolicy.PER_WRITE);
+                if(groupCommitter != null) {
+                    return groupCommitter.submit(temporary, destination)
+                            .thenRun(() -> committed(uniqueId, destinationFile));
+                }
+                AtomicFileWriter.commit(temporary, destination);
+                if(fsyncPolicy == FsyncPolicy.PER_WRITE) {
+                    AtomicFileWriter.forceDirectory(directory.toPath());
+                }
+                committed(uniqueId, destinationFile);
+                return CompletableFuture.completedFuture(null);
+            });
         } catch (final IOException exception) {
             throw new DatabaseException(exception.getMessage());
         }
     }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    protected Collection<T> readAll(final Object query) {
-        final String uniqueId = query.toString();
-        final String path = getTypeDatabasePath();
-        // Filter files by the one's matching the unique id
-        final List<File> results = Arrays.stream(FileSystemUtil.getFilesInDirectoryNonNull(new File(path)))
-                .filter(file -> file.getName().startsWith(uniqueId))
-                .collect(Collectors.toList());
+    /**
+     * Returns the contents of the file of the given object. Entities converted
+     * reflectively are streamed to the file while it is written, otherwise the
+     * object is serialized to a map and encoded up front.
+     *
+     * @param object the object to write
+     * @return the contents of the entry file
+     */
+    private AtomicFileWriter.Contents contentsOf(final T object) {
+        if(streaming) {
+            return out -> entryCodec.encode(getGson(), object, out);
+        }
+        final Map<String, Object> serializedMap = converter.serialize(object, null);
+        try {
+            final byte[] serialized = entryCodec.encode(getGson(), serializedMap);
+            return out -> out.write(serialized);
+        } catch (final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }
+    }
 
-        // initiate a new list that will hold the deserialized maps that
-        // will later be converted back to their original representation
-        final List<Map<String, Object>> mappedResults = Lists.newArrayList();
-        // Iterate over filtered files
-        for (final File result : results) {
-            // temporarily store the deserialized map
-            final Map<String, Object> map;
-            // initiate a new FileReader for the file
-            try(final FileReader fileReader = new FileReader(result)) {
-                // deserialize the text that has been reed by the
-                // FileReader and convert it to a Map<String,Object>
-                map = (Map<String, Object>) getGson().fromJson(fileReader, Map.class);
+    private void committed(final String uniqueId, final File file) {
+        keyIndex.add(uniqueId);
+        // the replaced file may have been mapped again before a group commit
+        if(mappedFiles != null) {
+            mappedFiles.invalidate(file);
+        }
+    }
 
-                // add deserialized map to a list that will later be
-                // deserialized all at once
-                mappedResults.add(map);
-            }catch(final Exception exception) {
-                // Throw DatabaseException if a error is encountered
-                // whilst processing the contents of the target file
-                throw new DatabaseException(exception.getMessage());
-            }
+    private static void await(final CompletableFuture<?> future) {
+        try {
+            future.join();
+        }catch(final CompletionException exception) {
+            throw new DatabaseException(exception.getCause().getMessage(), exception.getCause());
         }
+    }
 
-        // Finally deserialize the maps to their original representation
-        final Collection<T> objects =  mappedResults.stream().map(map
-                -> converter.deserialize(map, JSONConversionContext.of(type)))
+    @Override
+    protected Collection<T> readAll(final Object query) {
+        final String uniqueId = encoding.key(query, classInfo);
+        // Look up the files of the entries whose unique id starts with the query
+        final List<File> results = keyIndex.withPrefix(uniqueId).stream()
+                .map(entryFiles::resolve)
                 .collect(Collectors.toList());
 
+        final Collection<T> objects = readFiles(results);
         for (final T object : objects) {
             callMessageReceiver(object);
         }
@@ -136,80 +264,130 @@ public class JSONDatabase<T> extends AbstractDatabase<T> {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected Collection<T> readAll() {
-        final String path = getTypeDatabasePath();
-        // Get the files in the data folder as list
-        final List<File> results = Arrays.stream(FileSystemUtil.getFilesInDirectoryNonNull(new File(path))).collect(Collectors.toList());
-        final List<Map<String, Object>> mappedResults = Lists.newArrayList();
-        // Iterate over filtered files
-        for (final File result : results) {
-            // temporarily store the deserialized map
-            final Map<String, Object> map;
-            // initiate a new FileReader for the file
-            try(final FileReader fileReader = new FileReader(result)) {
-                // deserialize the text that has been reed by the
-                // FileReader and convert it to a Map<String,Object>
-                map = (Map<String, Object>) getGson().fromJson(fileReader, Map.class);
-                // add deserialized map to a list that will later be
-                // deserialized all at once
-                mappedResults.add(map);
-            }catch(final Exception exception) {
-                // Throw DatabaseException if an error is encountered
-                // whilst processing the contents of the target file
-                throw new DatabaseException(exception.getMessage());
-            }
+        // Get the files of all indexed entries as list
+        final List<File> results = keyIndex.keys().stream()
+                .map(entryFiles::resolve)
+                .collect(Collectors.toList());
+        return readFiles(results);
+    }
+
+    /**
+     * Reads and deserializes the given files, in parallel if a read
+     * parallelism greater than one has been configured.
+     *
+     * @param files the files to read
+     * @return the deserialized objects
+     * @see DatabaseSettings#getReadParallelism()
+     */
+    private Collection<T> readFiles(final List<File> files) {
+        if(readPool != null) {
+            return ParallelFileReader.read(readPool, files, this::readFile, preserveReadOrder);
         }
+        final List<T> objects = Lists.newArrayListWithCapacity(files.size());
+        for (final File file : files) {
+            objects.add(readFile(file));
+        }
+        return objects;
+    }
 
-        // Finally deserialize the maps to their original representation
-        return mappedResults.stream().map(map
-                -> converter.deserialize(map, JSONConversionContext.of(type)))
-                .collect(Collectors.toList());
+    private T readFile(final File file) {
+        // initiate a new reader for the file, which decompresses it if necessary
+        try(final Reader fileReader = entryCodec.reader(file)) {
+            // deserialize the text that is read by the
+            // reader to its original representation
+            return decode(fileReader);
+        }catch(final Exception exception) {
+            // Throw DatabaseException if an error is encountered
+            // whilst processing the contents of the target file
+            throw new DatabaseException(exception.getMessage());
+        }
     }
 
     @Override
     protected void delete(final Object query) {
-        final String uniqueId = query.toString();
+        final String uniqueId = encoding.key(query, classInfo);
         Predicate<String> filterApplicator = file -> file.equals(uniqueId);
         if(query instanceof DatabaseEntryIdentifier) {
-            filterApplicator = ((DatabaseEntryIdentifier) query).getFilterApplicator();
-        }
-        final String path = getTypeDatabasePath();
-        final File dataFolder = new File(path);
-        final File[] files = FileSystemUtil.getFilesInDirectoryNonNull(dataFolder);
-        Predicate<String> finalFilterApplicator = filterApplicator;
-        Arrays.stream(files).forEach(file -> {
-            if(finalFilterApplicator.test(removeFileFormatter(file.getName()))) {
-                file.delete();
+            filterApplicator = encoding.filter((DatabaseEntryIdentifier) query);
+        }
+        try {
+            for (final String key : keyIndex.matching(filterApplicator)) {
+                entryLocks.write(key, () -> {
+                    final File file = entryFiles.resolve(key);
+                    if(mappedFiles != null) {
+                        mappedFiles.invalidate(file);
+                    }
+                    file.delete();
+                    keyIndex.remove(key);
+                    return null;
+                });
             }
-        });
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }
     }
 
+    /**
+     * Returns the id high-water mark of the table metadata.
+     *
+     * @return the highest id that has been written
+     */
     @Override
     protected int fetchMaxId() {
-        final Field autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
-        if(autoIncrementField != null) {
-            final ClassInfo.FieldInfo fieldInfo = classInfo.getInfo(autoIncrementField);
-            final File typeDatabase = new File(getTypeDatabasePath());
-            if (!typeDatabase.exists()) {
-                return 0;
+        return metadata.getMaxId();
+    }
+
+    /**
+     * Reads the metadata of the table and rebuilds it by reading every entry
+     * if it doesn't exist or the schema of the entity type has changed.
+     *
+     * <p>The persisted high-water mark is trusted otherwise, as it is written
+     * before any entry carrying a higher id. The entry count is taken from the
+     * key index, as it is only persisted when the database is closed.
+     *
+     * @return the metadata of the table
+     */
+    private TableMetadata loadMetadata() {
+        final File table = new File(getTypeDatabasePath());
+        final String schema = TableMetadata.fingerprint(type);
+        final TableMetadata existing = TableMetadata.read(table);
+        if(existing != null && existing.hasSchema(schema)) {
+            existing.setCount(keyIndex.size());
+            return existing;
+        }
+        final TableMetadata metadata = new TableMetadata(scanMaxId(), keyIndex.size(), schema);
+        table.mkdirs();
+        metadata.write(table, fsyncPolicy != FsyncPolicy.NONE);
+        return metadata;
+    }
+
+    /**
+     * Reads every entry to find the highest id that has been written.
+     *
+     * @return the highest id of the entries or {@code 0} if there is no auto increment field
+     */
+    @SuppressWarnings("unchecked")
+    private int scanMaxId() {
+        int maxId = 0;
+        if(autoIncrementField == null) {
+            return maxId;
+        }
+        final String fieldName = ClassInfo.getFormatter(type).apply(autoIncrementField.getName());
+        for (final String key : keyIndex.keys()) {
+            final File file = entryFiles.resolve(key);
+            final Map<String, Object> map;
+            try (final Reader fileReader = entryCodec.reader(file)) {
+                map = (Map<String, Object>) getGson().fromJson(fileReader, Map.class);
+            } catch (final Exception exception) {
+                throw new DatabaseException(exception.getMessage());
             }
-            int maxId = 0;
-            final String fieldName = fieldInfo.getFormattedName();
-            for (final File file : typeDatabase.listFiles()) {
-                final Map<String, Object> map;
-                try (final FileReader fileReader = new FileReader(file)) {
-                    map = (Map<String, Object>) getGson().fromJson(fileReader, Map.class);
-                } catch (final Exception exception) {
-                    throw new DatabaseException(exception.getMessage());
-                }
-                final int id = (Integer) map.get(fieldName);
-                if(id > maxId) {
-                    maxId = id;
-                }
+            final Object id = map.get(fieldName);
+            if(id instanceof Number && ((Number) id).intValue() > maxId) {
+                maxId = ((Number) id).intValue();
             }
         }
-        return 0;
+        return maxId;
     }
 
     public static <T> JSONDatabase<T> of(final Class<T>         type,
@@ -220,10 +398,6 @@ public class JSONDatabase<T> extends AbstractDatabase<T> {
         return new JSONDatabase<>(type, settings, catchMainThread, thread);
     }
 
-    private String removeFileFormatter(final String string) {
-        return string.replaceAll(JSON_FILE_FORMAT, "");
-    }
-
     @Override
     protected ClassInfo getClassInfo() {
         return classInfo;
@@ -232,6 +406,25 @@ public class JSONDatabase<T> extends AbstractDatabase<T> {
     @Override
     protected void connect(final @NonNull DatabaseAuth auth) {}
 
+    /**
+     * Commits all pending writes of a group commit, persists the entry count
+     * of the table and releases the lock file. The pool reading files in
+     * parallel is shared, so it keeps running.
+     */
+    @Override
+    public void close() {
+        if(groupCommitter != null) {
+            groupCommitter.close();
+        }
+        metadata.setCount(keyIndex.size());
+        metadata.write(new File(getTypeDatabasePath()), fsyncPolicy != FsyncPolicy.NONE);
+        try {
+            entryLocks.close();
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }
+    }
+
     @Override
     public boolean isConnected() {
         return true;
@@ -0,0 +1,95 @@
+package net.sxlver.databases.impl.json;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Sorted in-memory index of the unique identifiers stored in a table directory.
+ *
+ * <p>The directory is only listed once when the index is created, afterwards the
+ * index is kept up to date by the {@link JSONDatabase} writing to the table. As
+ * unique identifiers are joined from their parts, entries sharing their leading
+ * parts are adjacent, so prefix queries are answered by a range scan.
+ */
+final class JSONKeyIndex {
+    private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+    // the size of a skip list set is computed by traversing it
+    private final AtomicInteger size = new AtomicInteger();
+
+    private JSONKeyIndex() {}
+
+    /**
+     * Creates the index for the given files of a table, which are listed once.
+     *
+     * @param files the files of the table
+     * @param fileFormat the file extension of the entries
+     * @return the index holding the identifiers of all entries in the table
+     */
+    static JSONKeyIndex of(final Collection<File> files, final String fileFormat) {
+        final JSONKeyIndex index = new JSONKeyIndex();
+        for (final File file : files) {
+            final String name = file.getName();
+            if(name.endsWith(fileFormat)) {
+                index.add(name.substring(0, name.length() - fileFormat.length()));
+            }
+        }
+        return index;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    boolean contains(final String key) {
+        return keys.contains(key);
+    }
+
+    void add(final String key) {
+        if(keys.add(key)) {
+            size.incrementAndGet();
+        }
+    }
+
+    void remove(final String key) {
+        if(keys.remove(key)) {
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns all identifiers starting with the given prefix.
+     *
+     * @param prefix the prefix of the identifiers
+     * @return a live view of the matching identifiers
+     */
+    NavigableSet<String> withPrefix(final String prefix) {
+        return keys.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Returns a snapshot of all identifiers matching the given filter.
+     *
+     * @param filter the filter to test the identifiers with
+     * @return the matching identifiers
+     */
+    Collection<String> matching(final Predicate<String> filter) {
+        return keys.stream()
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns all identifiers in ascending order.
+     *
+     * @return a unmodifiable live view of the identifiers
+     */
+    Collection<String> keys() {
+        return Collections.unmodifiableSet(keys);
+    }
+}
@@ -0,0 +1,113 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import lombok.NonNull;
+import net.sxlver.databases.converter.RowSink;
+import net.sxlver.databases.exception.DatabaseException;
+
+import java.io.IOException;
+
+/**
+ * Writes the fields of an entry to a {@link JsonWriter}.
+ *
+ * <p>Converted values are written by the {@code Object} adapter of the gson
+ * instance, so the text matches the one of the map the entry used to be
+ * serialized to.
+ */
+final class JsonRowSink implements RowSink {
+    private final JsonWriter writer;
+    private final TypeAdapter<Object> values;
+
+    JsonRowSink(final @NonNull Gson gson, final @NonNull JsonWriter writer) {
+        this.writer = writer;
+        this.values = gson.getAdapter(Object.class);
+    }
+
+    @Override
+    public void beginRow() {
+        try {
+            writer.beginObject();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void endRow() {
+        try {
+            writer.endObject();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void name(final String name) {
+        try {
+            writer.name(name);
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void writeBoolean(final boolean value) {
+        try {
+            writer.value(value);
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void writeInt(final int value) {
+        writeLong(value);
+    }
+
+    @Override
+    public void writeLong(final long value) {
+        try {
+            writer.value(value);
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void writeDouble(final double value) {
+        if(!Double.isFinite(value)) {
+            // the adapter decides whether special values may be serialized
+            writeValue(value);
+            return;
+        }
+        try {
+            writer.value(value);
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void writeString(final String value) {
+        try {
+            writer.value(value);
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void writeValue(final Object value) {
+        try {
+            values.write(writer, value);
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    private static DatabaseException failure(final IOException exception) {
+        return new DatabaseException("Unable to write entry. " + exception.getMessage(), exception);
+    }
+}
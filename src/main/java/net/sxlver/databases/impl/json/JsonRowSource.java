@@ -0,0 +1,151 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.NonNull;
+import net.sxlver.databases.converter.RowLayout;
+import net.sxlver.databases.converter.RowSource;
+import net.sxlver.databases.exception.DatabaseException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the fields of an entry file from a {@link JsonReader}.
+ *
+ * <p>Values of fields passed to a converter are read by the {@code Object}
+ * adapter of the gson instance, so they are of the same types they had when
+ * the file was parsed to a map. Numbers are read as the type of the field
+ * regardless of how they have been stored, narrowing them like the map did.
+ */
+final class JsonRowSource implements RowSource {
+    private final JsonReader reader;
+    private final TypeAdapter<Object> values;
+    private boolean wasNull;
+
+    JsonRowSource(final @NonNull Gson gson, final @NonNull Reader reader) {
+        this.reader = gson.newJsonReader(reader);
+        this.values = gson.getAdapter(Object.class);
+        // matches Gson#fromJson, which parses entries leniently
+        this.reader.setLenient(true);
+        try {
+            this.reader.beginObject();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public int nextField(final RowLayout layout) {
+        try {
+            if(!reader.hasNext()) {
+                reader.endObject();
+                return END;
+            }
+            return layout.ordinalOf(reader.nextName());
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public boolean wasNull() {
+        return wasNull;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        try {
+            return !readNull() && reader.nextBoolean();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public int readInt() {
+        try {
+            return readNull() ? 0 : readNumber().intValue();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public long readLong() {
+        try {
+            return readNull() ? 0L : readNumber().longValue();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public double readDouble() {
+        try {
+            return readNull() ? 0D : reader.nextDouble();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public String readString() {
+        try {
+            return readNull() ? null : reader.nextString();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public Object readValue() {
+        try {
+            return values.read(reader);
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void skipValue() {
+        try {
+            reader.skipValue();
+        }catch(final IOException exception) {
+            throw failure(exception);
+        }
+    }
+
+    /**
+     * Reads a number as the {@code Object} adapter would, that is as a
+     * {@code Long} if it is integral and as a {@code Double} otherwise.
+     *
+     * @return the number
+     */
+    private Number readNumber() throws IOException {
+        final String number = reader.nextString();
+        try {
+            return Long.parseLong(number);
+        }catch(final NumberFormatException ignored) {
+        }
+        try {
+            return Double.parseDouble(number);
+        }catch(final NumberFormatException exception) {
+            throw new DatabaseException("Cannot read '" + number + "' as number.", exception);
+        }
+    }
+
+    private boolean readNull() throws IOException {
+        wasNull = reader.peek() == JsonToken.NULL;
+        if(wasNull) {
+            reader.nextNull();
+        }
+        return wasNull;
+    }
+
+    private static DatabaseException failure(final IOException exception) {
+        return new DatabaseException("Unable to read entry. " + exception.getMessage(), exception);
+    }
+}
@@ -0,0 +1,210 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Least recently used cache of memory mapped entry files.
+ *
+ * <p>A mapping stays valid after its channel has been closed, so only the
+ * mappings are cached and no file handles are held open. Mappings have to
+ * be invalidated before the file they map is replaced or deleted, as some
+ * platforms can't replace mapped files. Invalidated and evicted mappings are
+ * unmapped once no read uses them anymore, instead of once they are garbage
+ * collected.
+ */
+final class MappedFileCache {
+    @Nullable
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final Cache<String, Mapping> mappings;
+
+    MappedFileCache(final long maximumSize) {
+        this.mappings = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .removalListener((RemovalListener<String, Mapping>) notification -> notification.getValue().release())
+                .build();
+    }
+
+    /**
+     * Runs the given operation on the contents of the given file read from
+     * its mapping. The mapping isn't unmapped before the operation returns.
+     *
+     * @param file the file to read
+     * @param operation the operation reading a buffer with its own position in the shared mapping
+     * @return the result of the operation
+     */
+    <R> R read(final File file, final MappedRead<R> operation) throws IOException {
+        final Mapping mapping = acquire(file);
+        try {
+            return operation.read(mapping.buffer.duplicate());
+        }finally {
+            mapping.release();
+        }
+    }
+
+    private Mapping acquire(final File file) throws IOException {
+        while(true) {
+            final Mapping mapping;
+            try {
+                mapping = mappings.get(file.getPath(), () -> new Mapping(map(file)));
+            }catch(final ExecutionException exception) {
+                throw new IOException(exception.getCause());
+            }
+            // a mapping removed in the meantime may have been unmapped already
+            if(mapping.retain()) {
+                return mapping;
+            }
+        }
+    }
+
+    /**
+     * Returns a reader decoding the given contents of a file without
+     * copying them to the heap first.
+     *
+     * @param buffer the contents of the file
+     * @return the reader of the contents
+     */
+    static Reader reader(final ByteBuffer buffer) {
+        return new ByteBufferReader(buffer);
+    }
+
+    void invalidate(final File file) {
+        mappings.invalidate(file.getPath());
+    }
+
+    private static MappedByteBuffer map(final File file) throws IOException {
+        try(final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Looks up the method releasing the memory of a direct buffer right away.
+     *
+     * @return the method or {@code null} if mappings are only released once they are garbage collected
+     */
+    @Nullable
+    private static MethodHandle findCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        }catch(final ReflectiveOperationException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * A cached mapping counting the reads using it, besides the reference of
+     * the cache itself. It is unmapped once the last reference has been released.
+     */
+    private static final class Mapping {
+        private final MappedByteBuffer buffer;
+        private int references = 1;
+
+        private Mapping(final MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private synchronized boolean retain() {
+            if(references == 0) {
+                return false;
+            }
+            references++;
+            return true;
+        }
+
+        private synchronized void release() {
+            if(--references > 0 || INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+            }catch(final Throwable throwable) {
+                // the mapping is released once it is garbage collected instead
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface MappedRead<R> {
+        R read(ByteBuffer buffer) throws IOException;
+    }
+
+    /**
+     * Decodes UTF-8 from a buffer without copying it to the heap first.
+     *
+     * <p>A surrogate pair can't be decoded into a single char, so it is decoded
+     * into pending chars if the caller has room for a single char only.
+     */
+    private static final class ByteBufferReader extends Reader {
+        private final ByteBuffer buffer;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer pending = CharBuffer.allocate(2).flip();
+        private boolean flushed;
+
+        private ByteBufferReader(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read(final char[] chars, final int offset, final int length) {
+            if(length == 0) {
+                return 0;
+            }
+            final CharBuffer out = CharBuffer.wrap(chars, offset, length);
+            while(pending.hasRemaining() && out.hasRemaining()) {
+                out.put(pending.get());
+            }
+            if(!pending.hasRemaining() && !flushed) {
+                decode(out);
+                if(out.position() == offset) {
+                    pending.clear();
+                    decode(pending);
+                    pending.flip();
+                    if(pending.hasRemaining()) {
+                        out.put(pending.get());
+                    }
+                }
+            }
+            final int read = out.position() - offset;
+            return read == 0 ? -1 : read;
+        }
+
+        private void decode(final CharBuffer out) {
+            decoder.decode(buffer, out, true);
+            if(!buffer.hasRemaining()) {
+                decoder.flush(out);
+                flushed = true;
+            }
+        }
+
+        @Override
+        public void close() {}
+    }
+}
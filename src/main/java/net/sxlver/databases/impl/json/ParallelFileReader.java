@@ -0,0 +1,125 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.collect.Lists;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Reads files in parallel by recursively splitting the files to read
+ * across the workers of a {@link ForkJoinPool}.
+ */
+final class ParallelFileReader {
+    /**
+     * The amount of files below which a task reads its files itself
+     * instead of splitting them any further.
+     */
+    private static final int SPLIT_THRESHOLD = 64;
+    private static final Map<Integer, ForkJoinPool> SHARED_POOLS = new ConcurrentHashMap<>();
+
+    private ParallelFileReader() {}
+
+    /**
+     * Returns the pool shared by all databases reading with the given parallelism.
+     * Its workers are daemon threads terminating when idle, so it's never shut down.
+     *
+     * @param parallelism the parallelism of the pool
+     * @return the shared pool
+     */
+    static ForkJoinPool sharedPool(final int parallelism) {
+        return SHARED_POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    /**
+     * Reads all given files in the given pool.
+     *
+     * @param pool the pool to read the files in
+     * @param files the files to read
+     * @param reader the function reading a single file
+     * @param preserveOrder whether the results should be in the order of the files
+     * @return the results of all files
+     */
+    static <R> Collection<R> read(final ForkJoinPool                pool,
+                                  final List<File>                  files,
+                                  final Function<File, ? extends R> reader,
+                                  final boolean                     preserveOrder
+    ) {
+        if(preserveOrder) {
+            return pool.invoke(new OrderedTask<>(files, reader));
+        }
+        final Queue<R> results = new ConcurrentLinkedQueue<>();
+        pool.invoke(new UnorderedTask<>(files, reader, results));
+        return results;
+    }
+
+    /**
+     * Merges the results of both halves in order of the files.
+     */
+    private static final class OrderedTask<R> extends RecursiveTask<List<R>> {
+        private final List<File> files;
+        private final Function<File, ? extends R> reader;
+
+        private OrderedTask(final List<File> files, final Function<File, ? extends R> reader) {
+            this.files = files;
+            this.reader = reader;
+        }
+
+        @Override
+        protected List<R> compute() {
+            if(files.size() <= SPLIT_THRESHOLD) {
+                final List<R> results = Lists.newArrayListWithCapacity(files.size());
+                for (final File file : files) {
+                    results.add(reader.apply(file));
+                }
+                return results;
+            }
+            final int middle = files.size() / 2;
+            final OrderedTask<R> left = new OrderedTask<>(files.subList(0, middle), reader);
+            final OrderedTask<R> right = new OrderedTask<>(files.subList(middle, files.size()), reader);
+            left.fork();
+            final List<R> rightResults = right.compute();
+            final List<R> results = left.join();
+            results.addAll(rightResults);
+            return results;
+        }
+    }
+
+    /**
+     * Adds the results straight to a shared queue, saving the merge of both halves.
+     */
+    private static final class UnorderedTask<R> extends RecursiveAction {
+        private final List<File> files;
+        private final Function<File, ? extends R> reader;
+        private final Queue<R> results;
+
+        private UnorderedTask(final List<File> files, final Function<File, ? extends R> reader, final Queue<R> results) {
+            this.files = files;
+            this.reader = reader;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if(files.size() <= SPLIT_THRESHOLD) {
+                for (final File file : files) {
+                    results.add(reader.apply(file));
+                }
+                return;
+            }
+            final int middle = files.size() / 2;
+            invokeAll(
+                    new UnorderedTask<>(files.subList(0, middle), reader, results),
+                    new UnorderedTask<>(files.subList(middle, files.size()), reader, results)
+            );
+        }
+    }
+}
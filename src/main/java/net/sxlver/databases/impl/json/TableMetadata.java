@@ -0,0 +1,119 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.filter.FieldFilters;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Metadata of a table stored next to its entries, so it doesn't have to
+ * be computed by reading every entry when the table is opened.
+ *
+ * <p>The metadata is only trusted if the schema of the entity type hasn't
+ * changed, otherwise it is rebuilt. The id high-water mark is persisted
+ * whenever it is raised, whereas the amount of entries is only persisted
+ * when the table is closed.
+ */
+final class TableMetadata {
+    private static final String FILE_NAME = ".meta";
+    private static final Gson GSON = new Gson();
+
+    private int maxId;
+    private int count;
+    private String schema;
+
+    TableMetadata(final int maxId, final int count, final String schema) {
+        this.maxId = maxId;
+        this.count = count;
+        this.schema = schema;
+    }
+
+    /**
+     * Returns the fingerprint of the fields stored for the given type. It
+     * changes whenever a field is added, removed, renamed or changes its type.
+     *
+     * @param type the entity type
+     * @return the fingerprint of the schema
+     */
+    static String fingerprint(final Class<?> type) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (final Field field : FieldFilters.DEFAULT.filterDeclaredFieldsOf(type)) {
+            hasher.putString(ClassInfo.getFormatter(type).apply(field.getName()), StandardCharsets.UTF_8)
+                    .putString(field.getGenericType().getTypeName(), StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Reads the metadata of the given table.
+     *
+     * @param table the table directory
+     * @return the metadata or {@code null} if it doesn't exist or is unreadable
+     */
+    @Nullable
+    static TableMetadata read(final File table) {
+        final File file = new File(table, FILE_NAME);
+        if(!file.exists()) {
+            return null;
+        }
+        try(final FileReader reader = new FileReader(file, StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, TableMetadata.class);
+        }catch(final Exception exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Atomically replaces the metadata file of the given table.
+     *
+     * @param table the table directory
+     * @param force whether the file and its directory should be forced to disk
+     */
+    synchronized void write(final File table, final boolean force) {
+        final File file = new File(table, FILE_NAME);
+        try {
+            final byte[] contents = GSON.toJson(this).getBytes(StandardCharsets.UTF_8);
+            AtomicFileWriter.commit(AtomicFileWriter.writeTemporary(file.toPath(), contents, force), file.toPath());
+            if(force) {
+                AtomicFileWriter.forceDirectory(table.toPath());
+            }
+        }catch(final IOException exception) {
+            throw new DatabaseException("Unable to write metadata of table " + table + ". " + exception.getMessage());
+        }
+    }
+
+    boolean hasSchema(final String schema) {
+        return schema.equals(this.schema);
+    }
+
+    /**
+     * Raises the id high-water mark.
+     *
+     * @param id the id that has been written
+     * @return whether the high-water mark has been raised
+     */
+    synchronized boolean raiseMaxId(final int id) {
+        if(id <= maxId) {
+            return false;
+        }
+        this.maxId = id;
+        return true;
+    }
+
+    synchronized void setCount(final int count) {
+        this.count = count;
+    }
+
+    synchronized int getMaxId() {
+        return maxId;
+    }
+}
@@ -0,0 +1,527 @@
+package net.sxlver.databases.impl.jsonlog;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import net.sxlver.databases.*;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import net.sxlver.databases.impl.json.context.JSONConversionContext;
+import net.sxlver.databases.util.BackgroundTasks;
+import net.sxlver.databases.util.FileSystemUtil;
+import net.sxlver.databases.util.Reflection;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * A flat file database appending serialized entries to log segments instead
+ * of storing every entry in a file of its own.
+ *
+ * <p>The position of the most recent record of every entry is kept in an
+ * in-memory index, which is rebuilt by replaying all segments on startup.
+ * Records superseded by later writes or deletes are discarded by a background
+ * compaction, which rewrites the live records into a new segment.
+ *
+ * <p>With {@link FsyncPolicy#GROUP_COMMIT}, the first writer waiting for its
+ * record to be forced to disk forces every record appended before it, so
+ * writers arriving meanwhile share the next force.
+ *
+ * @param <T> describes the type of object the database will work with
+ */
+public class JSONLogDatabase<T> extends AbstractDatabase<T> {
+
+    private static final String DATABASE_FOLDER = "database";
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+    private static final double COMPACTION_RATIO = 0.5;
+    private static final IdentifierEncoding ENCODING = IdentifierEncoding.ESCAPED;
+
+    private final ClassInfo classInfo;
+    private final DatabaseConverter<T, Map<String, Object>> converter;
+    private final String tableName;
+    private final File directory;
+    private final long segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+
+    private final NavigableMap<String, LogPointer> index = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Integer, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Lock appendLock = new ReentrantLock();
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final Object forceLock = new Object();
+    private final ScheduledExecutorService compactionExecutor;
+    private volatile LogSegment activeSegment;
+    private volatile long appendedSequence;
+    private long forcedSequence;
+    private volatile boolean connected;
+
+    @SuppressWarnings("unchecked")
+    JSONLogDatabase(final @NonNull Class<?>         type,
+                    final @NonNull DatabaseSettings settings,
+                    final boolean                   catchMainThread,
+                    final @Nullable Thread          thread
+    ) {
+        super(type, catchMainThread, thread);
+        this.classInfo = ClassInfo.ofClass(type, FieldNameFormatters.IDENTITY);
+        this.converter = (DatabaseConverter<T, Map<String, Object>>) classInfo.getConverter();
+        this.tableName = Reflection.getTableName(type);
+        this.directory = new File(FileSystemUtil.getJarFileDirectory(type) + settings.getDatabasePath()
+                + File.separator + DATABASE_FOLDER + File.separator + tableName);
+        this.segmentSize = settings.getLogSegmentSize();
+        this.fsyncPolicy = settings.getFsyncPolicy();
+        try {
+            recover();
+        }catch(final IOException exception) {
+            throw new DatabaseException("Unable to recover log of table " + tableName + ". " + exception.getMessage());
+        }
+        this.connected = true;
+        this.compactionExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("json-log-compaction-" + tableName)
+                .setDaemon(true)
+                .build());
+        final long interval = settings.getLogCompactionInterval();
+        compactionExecutor.scheduleWithFixedDelay(BackgroundTasks.guarded(this::compactIfNecessary), interval, interval, TimeUnit.SECONDS);
+        super.init();
+    }
+
+    @Override
+    protected T read(final Object query) {
+        final Map<String, Object> map;
+        segmentLock.readLock().lock();
+        try {
+            final LogPointer pointer = index.get(ENCODING.key(query, classInfo));
+            if(pointer == null) {
+                return null;
+            }
+            map = readMap(pointer);
+        }finally {
+            segmentLock.readLock().unlock();
+        }
+        final T object = converter.deserialize(map, JSONConversionContext.of(type));
+        callMessageReceiver(object);
+        return object;
+    }
+
+    @Override
+    protected void write(final T object) {
+        final Map<String, Object> serializedMap = converter.serialize(object, null);
+        final byte[] serialized = getGson().toJson(serializedMap).getBytes(StandardCharsets.UTF_8);
+        append(ENCODING.key(classInfo.getIdentifier(object)), serialized);
+    }
+
+    @Override
+    protected Collection<T> readAll(final Object query) {
+        final String uniqueId = ENCODING.key(query, classInfo);
+        final Collection<T> objects = deserialize(readMaps(index.subMap(uniqueId, true, uniqueId + Character.MAX_VALUE, false)));
+        for (final T object : objects) {
+            callMessageReceiver(object);
+        }
+        return objects;
+    }
+
+    @Override
+    protected Collection<T> readAll() {
+        return deserialize(readMaps(index));
+    }
+
+    @Override
+    protected void delete(final Object query) {
+        final String uniqueId = ENCODING.key(query, classInfo);
+        if(!(query instanceof DatabaseEntryIdentifier)) {
+            if(index.containsKey(uniqueId)) {
+                append(uniqueId, null);
+            }
+            return;
+        }
+        final List<String> keys = index.keySet().stream()
+                .filter(ENCODING.filter((DatabaseEntryIdentifier) query))
+                .collect(Collectors.toList());
+        for (final String key : keys) {
+            append(key, null);
+        }
+    }
+
+    @Override
+    protected int fetchMaxId() {
+        final Field autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
+        if(autoIncrementField == null) {
+            return 0;
+        }
+        final String fieldName = ClassInfo.getFormatter(type).apply(autoIncrementField.getName());
+        int maxId = 0;
+        for (final Map<String, Object> map : readMaps(index)) {
+            final Object id = map.get(fieldName);
+            if(id instanceof Number && ((Number) id).intValue() > maxId) {
+                maxId = ((Number) id).intValue();
+            }
+        }
+        return maxId;
+    }
+
+    public static <T> JSONLogDatabase<T> of(final Class<T>         type,
+                                            final DatabaseSettings settings,
+                                            final boolean          catchMainThread,
+                                            final Thread           thread
+    ) {
+        return new JSONLogDatabase<>(type, settings, catchMainThread, thread);
+    }
+
+    /**
+     * Appends a record to the active segment and points the index to it,
+     * rolling over to a new segment once the active one is full. The record
+     * is forced to disk according to the fsync policy before returning.
+     *
+     * @param key the unique id of the entry
+     * @param value the serialized entry or {@code null} if the entry has been deleted
+     */
+    private void append(final String key, final @Nullable byte[] value) {
+        final long recordSequence;
+        appendLock.lock();
+        try {
+            recordSequence = sequence.incrementAndGet();
+            final ByteBuffer record = LogRecord.encode(recordSequence, key, value);
+            final int length = record.remaining();
+            if(activeSegment.getSize() > 0 && activeSegment.getSize() + length > segmentSize) {
+                activate(activeSegment.getId() + 1);
+            }
+            final long offset = activeSegment.append(record);
+            if(fsyncPolicy == FsyncPolicy.PER_WRITE) {
+                activeSegment.force();
+            }
+            this.appendedSequence = recordSequence;
+            if(value == null) {
+                unlink(index.remove(key));
+            }else {
+                link(key, new LogPointer(activeSegment, offset, length, recordSequence));
+            }
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }finally {
+            appendLock.unlock();
+        }
+        if(fsyncPolicy == FsyncPolicy.GROUP_COMMIT) {
+            forceUpTo(recordSequence);
+        }
+    }
+
+    /**
+     * Forces the active segment to disk unless a force of another writer
+     * already covered the given record. Records of previous segments have
+     * been forced when the segment was rolled over.
+     *
+     * @param recordSequence the sequence number of the record to persist
+     */
+    private void forceUpTo(final long recordSequence) {
+        synchronized(forceLock) {
+            if(forcedSequence >= recordSequence) {
+                return;
+            }
+            final long target;
+            final LogSegment segment;
+            appendLock.lock();
+            try {
+                target = appendedSequence;
+                segment = activeSegment;
+            }finally {
+                appendLock.unlock();
+            }
+            segmentLock.readLock().lock();
+            try {
+                // segments removed by a compaction had their records forced to the compacted segment
+                if(connected && segments.get(segment.getId()) == segment) {
+                    segment.force();
+                }
+            }catch(final IOException exception) {
+                throw new DatabaseException(exception.getMessage());
+            }finally {
+                segmentLock.readLock().unlock();
+            }
+            this.forcedSequence = target;
+        }
+    }
+
+    private void activate(final int id) throws IOException {
+        final LogSegment segment = LogSegment.open(directory, id);
+        if(fsyncPolicy != FsyncPolicy.NONE) {
+            if(activeSegment != null) {
+                activeSegment.force();
+            }
+            LogSegment.forceDirectory(directory);
+        }
+        segments.put(id, segment);
+        this.activeSegment = segment;
+    }
+
+    private void link(final String key, final LogPointer pointer) {
+        pointer.getSegment().addLiveBytes(pointer.getLength());
+        unlink(index.put(key, pointer));
+    }
+
+    private void unlink(final @Nullable LogPointer pointer) {
+        if(pointer != null) {
+            pointer.getSegment().addLiveBytes(-pointer.getLength());
+        }
+    }
+
+    /**
+     * Rebuilds the index by replaying all segments in order. Records are
+     * applied by their sequence number, as compacted segments may contain
+     * records older than the ones of segments preceding them.
+     *
+     * <p>Appending continues in the last segment as long as it has room left.
+     */
+    private void recover() throws IOException {
+        if(!directory.exists()) {
+            directory.mkdirs();
+        }
+        for (final File file : FileSystemUtil.getFilesInDirectoryNonNull(directory)) {
+            // segments of an interrupted compaction are incomplete
+            if(file.getName().endsWith(LogSegment.TEMPORARY_FILE_FORMAT)) {
+                file.delete();
+                continue;
+            }
+            final Integer id = LogSegment.parseId(file);
+            if(id != null) {
+                segments.put(id, LogSegment.open(directory, id));
+            }
+        }
+        final Map<String, Long> deletions = Maps.newHashMap();
+        for (final LogSegment segment : segments.values()) {
+            replay(segment, deletions);
+        }
+        this.appendedSequence = sequence.get();
+        this.forcedSequence = appendedSequence;
+        if(segments.isEmpty()) {
+            activate(1);
+        }else if(segments.lastEntry().getValue().getSize() >= segmentSize) {
+            activate(segments.lastKey() + 1);
+        }else {
+            this.activeSegment = segments.lastEntry().getValue();
+        }
+    }
+
+    private void replay(final LogSegment segment, final Map<String, Long> deletions) throws IOException {
+        final long size = segment.getSize();
+        long position = 0;
+        while(position < size) {
+            final LogRecord record = LogRecord.read(segment.getChannel(), position, size);
+            if(record == null) {
+                // appends that weren't forced before a crash may have been torn,
+                // which doesn't only affect the last segment without an fsync policy
+                segment.truncate(position);
+                break;
+            }
+            sequence.accumulateAndGet(record.getSequence(), Math::max);
+            final String key = record.getKey();
+            final LogPointer current = index.get(key);
+            final long latest = Math.max(current == null ? 0 : current.getSequence(), deletions.getOrDefault(key, 0L));
+            if(record.getSequence() > latest) {
+                if(record.isTombstone()) {
+                    deletions.put(key, record.getSequence());
+                    unlink(index.remove(key));
+                }else {
+                    link(key, new LogPointer(segment, position, record.getLength(), record.getSequence()));
+                }
+            }
+            position += record.getLength();
+        }
+    }
+
+    private void compactIfNecessary() {
+        long size = 0;
+        long liveBytes = 0;
+        for (final LogSegment segment : segments.values()) {
+            size += segment.getSize();
+            liveBytes += segment.getLiveBytes();
+        }
+        final long garbage = size - liveBytes;
+        if(garbage < MIN_COMPACTION_BYTES || garbage < size * COMPACTION_RATIO) {
+            return;
+        }
+        compact();
+    }
+
+    /**
+     * Rewrites the live records of all segments into a single new segment and
+     * deletes the old segments afterwards. Writes continue in a new active
+     * segment while the compaction is running.
+     *
+     * <p>The old segments are deleted in ascending order, so a crash during
+     * deletion never leaves a superseded record without the record superseding it.
+     */
+    public synchronized void compact() {
+        final List<LogSegment> compacted;
+        final int outputId;
+        appendLock.lock();
+        try {
+            compacted = Lists.newArrayList(segments.values());
+            outputId = activeSegment.getId() + 1;
+            activate(outputId + 1);
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }finally {
+            appendLock.unlock();
+        }
+        try {
+            final Set<LogSegment> sources = Sets.newIdentityHashSet();
+            sources.addAll(compacted);
+            final Map<String, LogPointer> moved = Maps.newLinkedHashMap();
+            final Map<String, Long> offsets = Maps.newHashMap();
+            final LogSegment output = LogSegment.openTemporary(directory, outputId);
+            for (final Map.Entry<String, LogPointer> entry : index.entrySet()) {
+                final LogPointer pointer = entry.getValue();
+                if(sources.contains(pointer.getSegment())) {
+                    final ByteBuffer record = pointer.getSegment().read(pointer.getOffset(), pointer.getLength());
+                    offsets.put(entry.getKey(), output.append(record));
+                    moved.put(entry.getKey(), pointer);
+                }
+            }
+            output.force();
+            output.close();
+
+            if(moved.isEmpty()) {
+                output.delete();
+            }else {
+                final File destination = new File(directory, LogSegment.fileName(outputId));
+                Files.move(output.getFile().toPath(), destination.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                // the compacted segment has to be persisted before the old segments are deleted
+                LogSegment.forceDirectory(directory);
+                final LogSegment segment = LogSegment.open(directory, outputId);
+                appendLock.lock();
+                try {
+                    segments.put(outputId, segment);
+                    for (final Map.Entry<String, LogPointer> entry : moved.entrySet()) {
+                        final LogPointer source = entry.getValue();
+                        final LogPointer target = new LogPointer(segment, offsets.get(entry.getKey()), source.getLength(), source.getSequence());
+                        // entries written during the compaction keep their newer record
+                        if(index.replace(entry.getKey(), source, target)) {
+                            segment.addLiveBytes(target.getLength());
+                            unlink(source);
+                        }
+                    }
+                }finally {
+                    appendLock.unlock();
+                }
+            }
+
+            segmentLock.writeLock().lock();
+            try {
+                for (final LogSegment segment : compacted) {
+                    segments.remove(segment.getId());
+                    segment.delete();
+                }
+            }finally {
+                segmentLock.writeLock().unlock();
+            }
+        }catch(final IOException exception) {
+            throw new DatabaseException("Unable to compact log of table " + tableName + ". " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Reads the entries the given pointers point to. The records are read
+     * in the order they are stored in, so segments are read sequentially.
+     *
+     * @param pointers the pointers of the entries by their unique id
+     * @return the deserialized maps of the entries
+     */
+    private List<Map<String, Object>> readMaps(final Map<String, LogPointer> pointers) {
+        final List<Map<String, Object>> maps = Lists.newArrayList();
+        segmentLock.readLock().lock();
+        try {
+            final List<LogPointer> sorted = pointers.values().stream()
+                    .sorted(Comparator.comparingInt((LogPointer pointer) -> pointer.getSegment().getId())
+                            .thenComparingLong(LogPointer::getOffset))
+                    .collect(Collectors.toList());
+            for (final LogPointer pointer : sorted) {
+                maps.add(readMap(pointer));
+            }
+        }finally {
+            segmentLock.readLock().unlock();
+        }
+        return maps;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMap(final LogPointer pointer) {
+        final LogRecord record;
+        try {
+            record = LogRecord.decode(pointer.getSegment().read(pointer.getOffset(), pointer.getLength()));
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }
+        if(record == null || record.isTombstone()) {
+            throw new DatabaseException("Corrupted record at offset " + pointer.getOffset() + " of " + pointer.getSegment().getFile());
+        }
+        return (Map<String, Object>) getGson().fromJson(new String(record.getValue(), StandardCharsets.UTF_8), Map.class);
+    }
+
+    private Collection<T> deserialize(final List<Map<String, Object>> maps) {
+        return maps.stream()
+                .map(map -> converter.deserialize(map, JSONConversionContext.of(type)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected ClassInfo getClassInfo() {
+        return classInfo;
+    }
+
+    @Override
+    protected void connect(final @NonNull DatabaseAuth auth) {}
+
+    /**
+     * Stops the background compaction and closes all segments.
+     */
+    @Override
+    public synchronized void close() {
+        if(!connected) {
+            return;
+        }
+        compactionExecutor.shutdown();
+        appendLock.lock();
+        segmentLock.writeLock().lock();
+        try {
+            for (final LogSegment segment : segments.values()) {
+                segment.force();
+                segment.close();
+            }
+            this.connected = false;
+        }catch(final IOException exception) {
+            throw new DatabaseException(exception.getMessage());
+        }finally {
+            segmentLock.writeLock().unlock();
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public String getTypeDatabasePath() {
+        return directory.getPath();
+    }
+}
@@ -0,0 +1,34 @@
+package net.sxlver.databases.impl.jsonlog;
+
+/**
+ * Points to the most recent record of an entry.
+ */
+final class LogPointer {
+    private final LogSegment segment;
+    private final long offset;
+    private final int length;
+    private final long sequence;
+
+    LogPointer(final LogSegment segment, final long offset, final int length, final long sequence) {
+        this.segment = segment;
+        this.offset = offset;
+        this.length = length;
+        this.sequence = sequence;
+    }
+
+    LogSegment getSegment() {
+        return segment;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+}
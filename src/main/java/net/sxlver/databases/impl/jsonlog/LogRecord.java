@@ -0,0 +1,156 @@
+package net.sxlver.databases.impl.jsonlog;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * A single record appended to a {@link LogSegment}.
+ *
+ * <p>Records are laid out as {@code crc32 | sequence | key length | value length | key | value},
+ * where the checksum covers everything following it. A value length of {@code -1} marks
+ * a tombstone written when an entry has been deleted.
+ */
+final class LogRecord {
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int TOMBSTONE = -1;
+
+    private final long sequence;
+    private final String key;
+    @Nullable
+    private final byte[] value;
+    private final int length;
+
+    private LogRecord(final long sequence, final String key, final @Nullable byte[] value, final int length) {
+        this.sequence = sequence;
+        this.key = key;
+        this.value = value;
+        this.length = length;
+    }
+
+    /**
+     * Encodes a record.
+     *
+     * @param sequence the sequence number ordering the record among all records of the log
+     * @param key the unique id of the entry
+     * @param value the serialized entry or {@code null} for a tombstone
+     * @return the buffer holding the encoded record, ready to be written
+     */
+    static ByteBuffer encode(final long sequence, final String key, final @Nullable byte[] value) {
+        final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        final int valueLength = value == null ? TOMBSTONE : value.length;
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + Math.max(valueLength, 0));
+        buffer.position(Integer.BYTES);
+        buffer.putLong(sequence).putInt(keyBytes.length).putInt(valueLength).put(keyBytes);
+        if(value != null) {
+            buffer.put(value);
+        }
+        buffer.putInt(0, checksum(buffer.array(), buffer.capacity()));
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decodes a record that has been read completely.
+     *
+     * @param buffer the buffer holding exactly one record
+     * @return the record or {@code null} if the record is incomplete or its checksum doesn't match
+     */
+    @Nullable
+    static LogRecord decode(final ByteBuffer buffer) {
+        final int length = buffer.remaining();
+        if(length < HEADER_SIZE) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        final ByteBuffer record = ByteBuffer.wrap(bytes);
+        final int checksum = record.getInt();
+        final long sequence = record.getLong();
+        final int keyLength = record.getInt();
+        final int valueLength = record.getInt();
+        if(keyLength < 0 || valueLength < TOMBSTONE || HEADER_SIZE + keyLength + Math.max(valueLength, 0) != length) {
+            return null;
+        }
+        if(checksum != checksum(bytes, length)) {
+            return null;
+        }
+        final String key = new String(bytes, HEADER_SIZE, keyLength, StandardCharsets.UTF_8);
+        byte[] value = null;
+        if(valueLength != TOMBSTONE) {
+            value = new byte[valueLength];
+            record.position(HEADER_SIZE + keyLength);
+            record.get(value);
+        }
+        return new LogRecord(sequence, key, value, length);
+    }
+
+    /**
+     * Reads the record starting at the given position of a segment.
+     *
+     * @param channel the channel of the segment
+     * @param position the position the record starts at
+     * @param limit the size of the segment
+     * @return the record or {@code null} if the record has been torn or corrupted
+     */
+    @Nullable
+    static LogRecord read(final FileChannel channel, final long position, final long limit) throws IOException {
+        if(limit - position < HEADER_SIZE) {
+            return null;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, position);
+        final int keyLength = header.getInt(Integer.BYTES + Long.BYTES);
+        final int valueLength = header.getInt(Integer.BYTES + Long.BYTES + Integer.BYTES);
+        final long length = (long) HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+        if(keyLength < 0 || valueLength < TOMBSTONE || length > limit - position) {
+            return null;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        readFully(channel, buffer, position);
+        buffer.flip();
+        return decode(buffer);
+    }
+
+    static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while(buffer.hasRemaining()) {
+            final int read = channel.read(buffer, offset);
+            if(read < 0) {
+                break;
+            }
+            offset += read;
+        }
+    }
+
+    private static int checksum(final byte[] bytes, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, Integer.BYTES, length - Integer.BYTES);
+        return (int) crc.getValue();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    @Nullable
+    byte[] getValue() {
+        return value;
+    }
+
+    boolean isTombstone() {
+        return value == null;
+    }
+
+    int getLength() {
+        return length;
+    }
+}
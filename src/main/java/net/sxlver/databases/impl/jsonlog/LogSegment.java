@@ -0,0 +1,156 @@
+package net.sxlver.databases.impl.jsonlog;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A file records of a {@link JSONLogDatabase} are appended to.
+ *
+ * <p>Only the active segment of a database is appended to, every other
+ * segment is immutable until it is deleted by a compaction.
+ */
+final class LogSegment implements Closeable {
+    private static final String FILE_PREFIX = "segment-";
+    static final String FILE_FORMAT = ".log";
+    static final String TEMPORARY_FILE_FORMAT = ".compacting";
+
+    private final int id;
+    private final File file;
+    private final FileChannel channel;
+    private final AtomicLong size;
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    private LogSegment(final int id, final File file) throws IOException {
+        this.id = id;
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.size = new AtomicLong(channel.size());
+    }
+
+    static LogSegment open(final File directory, final int id) throws IOException {
+        return new LogSegment(id, new File(directory, fileName(id)));
+    }
+
+    /**
+     * Opens a segment that is written by a compaction. It becomes a regular
+     * segment once it has been completed and moved to {@link #fileName(int)}.
+     *
+     * @param directory the directory of the table
+     * @param id the id of the segment
+     * @return the temporary segment
+     */
+    static LogSegment openTemporary(final File directory, final int id) throws IOException {
+        return new LogSegment(id, new File(directory, fileName(id) + TEMPORARY_FILE_FORMAT));
+    }
+
+    static String fileName(final int id) {
+        return FILE_PREFIX + String.format("%08d", id) + FILE_FORMAT;
+    }
+
+    /**
+     * Parses the id of the segment stored in the given file.
+     *
+     * @param file the file
+     * @return the id or {@code null} if the file isn't a segment
+     */
+    @Nullable
+    static Integer parseId(final File file) {
+        final String name = file.getName();
+        if(!file.isFile() || !name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_FORMAT)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - FILE_FORMAT.length()));
+        }catch(final NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Appends the given record to the end of the segment. Appends
+     * must not be called concurrently.
+     *
+     * @param record the encoded record
+     * @return the offset the record has been written at
+     */
+    long append(final ByteBuffer record) throws IOException {
+        final long offset = size.get();
+        long position = offset;
+        while(record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        size.set(position);
+        return offset;
+    }
+
+    ByteBuffer read(final long offset, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        LogRecord.readFully(channel, buffer, offset);
+        buffer.flip();
+        return buffer;
+    }
+
+    void truncate(final long length) throws IOException {
+        channel.truncate(length);
+        size.set(length);
+    }
+
+    void force() throws IOException {
+        channel.force(true);
+    }
+
+    /**
+     * Forces the given directory to disk, persisting the segments created in
+     * it. Not every platform supports opening directories, in which case the
+     * segments are persisted by the operating system.
+     *
+     * @param directory the directory of the table
+     */
+    static void forceDirectory(final File directory) {
+        try(final FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        }catch(final IOException ignored) {
+        }
+    }
+
+    void addLiveBytes(final long bytes) {
+        liveBytes.addAndGet(bytes);
+    }
+
+    long getLiveBytes() {
+        return liveBytes.get();
+    }
+
+    long getSize() {
+        return size.get();
+    }
+
+    int getId() {
+        return id;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    FileChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        file.delete();
+    }
+}
@@ -0,0 +1,296 @@
+package net.sxlver.databases.impl.memory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import net.sxlver.databases.*;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import net.sxlver.databases.impl.json.context.JSONConversionContext;
+import net.sxlver.databases.util.BackgroundTasks;
+import net.sxlver.databases.util.FileSystemUtil;
+import net.sxlver.databases.util.Reflection;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A database keeping all entries in memory, ordered by their unique id.
+ *
+ * <p>Entries are stored in their serialized form, so objects passed to or
+ * returned by the database never share state with the stored entries.
+ * Optionally, all entries are written to a snapshot file in a fixed interval
+ * and when the database is closed, which is loaded again on startup. Databases
+ * that haven't been closed are closed by a shutdown hook when the JVM exits, so
+ * writes made after the last snapshot are only lost if the process terminates
+ * abnormally.
+ *
+ * @param <T> describes the type of object the database will work with
+ */
+public class MemoryDatabase<T> extends AbstractDatabase<T> {
+
+    private static final String DATABASE_FOLDER = "database";
+    private static final String SNAPSHOT_FILE_NAME = "snapshot.bin";
+    private static final int SNAPSHOT_MAGIC = 0x4d454d53;
+    private static final IdentifierEncoding ENCODING = IdentifierEncoding.ESCAPED;
+
+    private final ClassInfo classInfo;
+    private final DatabaseConverter<T, Map<String, Object>> converter;
+    private final String tableName;
+    private final NavigableMap<String, byte[]> entries = new ConcurrentSkipListMap<>();
+    // counts the modifications, so unchanged tables aren't written again
+    private final AtomicLong modifications = new AtomicLong();
+    private long snapshotModifications;
+    @Nullable
+    private final File snapshotFile;
+    @Nullable
+    private final ScheduledExecutorService snapshotExecutor;
+    // writes the final snapshot if the database hasn't been closed when the JVM exits
+    @Nullable
+    final Thread shutdownHook;
+    private volatile boolean connected;
+
+    @SuppressWarnings("unchecked")
+    MemoryDatabase(final @NonNull Class<?>         type,
+                   final @NonNull DatabaseSettings settings,
+                   final boolean                   catchMainThread,
+                   final @Nullable Thread          thread
+    ) {
+        super(type, catchMainThread, thread);
+        this.classInfo = ClassInfo.ofClass(type, FieldNameFormatters.IDENTITY);
+        this.converter = (DatabaseConverter<T, Map<String, Object>>) classInfo.getConverter();
+        this.tableName = Reflection.getTableName(type);
+        if(settings.isMemorySnapshots()) {
+            this.snapshotFile = new File(FileSystemUtil.getJarFileDirectory(type) + settings.getDatabasePath()
+                    + File.separator + DATABASE_FOLDER + File.separator + tableName, SNAPSHOT_FILE_NAME);
+            loadSnapshot();
+            this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("memory-snapshot-" + tableName)
+                    .setDaemon(true)
+                    .build());
+            final long interval = settings.getMemorySnapshotInterval();
+            snapshotExecutor.scheduleWithFixedDelay(BackgroundTasks.guarded(this::snapshot), interval, interval, TimeUnit.SECONDS);
+            this.shutdownHook = new Thread(BackgroundTasks.guarded(this::close), "memory-snapshot-" + tableName + "-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }else {
+            this.snapshotFile = null;
+            this.snapshotExecutor = null;
+            this.shutdownHook = null;
+        }
+        this.connected = true;
+        super.init();
+    }
+
+    @Override
+    protected T read(final Object query) {
+        final byte[] value = entries.get(ENCODING.key(query, classInfo));
+        if(value == null) {
+            return null;
+        }
+        final T object = deserialize(value);
+        callMessageReceiver(object);
+        return object;
+    }
+
+    @Override
+    protected void write(final T object) {
+        final byte[] serialized = getGson().toJson(converter.serialize(object, null)).getBytes(StandardCharsets.UTF_8);
+        entries.put(ENCODING.key(classInfo.getIdentifier(object)), serialized);
+        modifications.incrementAndGet();
+    }
+
+    @Override
+    protected Collection<T> readAll(final Object query) {
+        final String uniqueId = ENCODING.key(query, classInfo);
+        final Collection<T> objects = deserialize(entries.subMap(uniqueId, true, uniqueId + Character.MAX_VALUE, false).values());
+        for (final T object : objects) {
+            callMessageReceiver(object);
+        }
+        return objects;
+    }
+
+    @Override
+    protected Collection<T> readAll() {
+        return deserialize(entries.values());
+    }
+
+    @Override
+    protected void delete(final Object query) {
+        if(query instanceof DatabaseEntryIdentifier) {
+            entries.keySet().removeIf(ENCODING.filter((DatabaseEntryIdentifier) query));
+        }else {
+            entries.remove(ENCODING.key(query, classInfo));
+        }
+        modifications.incrementAndGet();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected int fetchMaxId() {
+        final Field autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
+        if(autoIncrementField == null) {
+            return 0;
+        }
+        final String fieldName = ClassInfo.getFormatter(type).apply(autoIncrementField.getName());
+        int maxId = 0;
+        for (final byte[] value : entries.values()) {
+            final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(new String(value, StandardCharsets.UTF_8), Map.class);
+            final Object id = map.get(fieldName);
+            if(id instanceof Number && ((Number) id).intValue() > maxId) {
+                maxId = ((Number) id).intValue();
+            }
+        }
+        return maxId;
+    }
+
+    public static <T> MemoryDatabase<T> of(final Class<T>         type,
+                                           final DatabaseSettings settings,
+                                           final boolean          catchMainThread,
+                                           final Thread           thread
+    ) {
+        return new MemoryDatabase<>(type, settings, catchMainThread, thread);
+    }
+
+    /**
+     * Loads the entries of the snapshot file, if there is one.
+     */
+    private void loadSnapshot() {
+        if(!snapshotFile.exists()) {
+            return;
+        }
+        final CRC32 crc = new CRC32();
+        try(final DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)), crc))) {
+            if(in.readInt() != SNAPSHOT_MAGIC) {
+                throw new DatabaseException("Snapshot of table " + tableName + " has an invalid header");
+            }
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String key = in.readUTF();
+                final byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                entries.put(key, value);
+            }
+            final int checksum = (int) crc.getValue();
+            if(in.readInt() != checksum) {
+                throw new DatabaseException("Snapshot of table " + tableName + " is corrupted");
+            }
+        }catch(final IOException exception) {
+            throw new DatabaseException("Unable to load snapshot of table " + tableName + ". " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Writes all entries to the snapshot file if they have been modified since
+     * the last snapshot. The snapshot is written to a temporary file first,
+     * which replaces the previous snapshot once it is complete and is deleted
+     * if the snapshot fails.
+     */
+    public synchronized void snapshot() {
+        if(snapshotFile == null) {
+            throw new DatabaseException("Snapshots are disabled for table " + tableName);
+        }
+        final long currentModifications = modifications.get();
+        if(currentModifications == snapshotModifications) {
+            return;
+        }
+        // copy the entries, so the count matches the entries written
+        final List<Map.Entry<String, byte[]>> snapshot = List.copyOf(entries.entrySet());
+        Path temporary = null;
+        try {
+            snapshotFile.getParentFile().mkdirs();
+            temporary = Files.createTempFile(snapshotFile.getParentFile().toPath(), SNAPSHOT_FILE_NAME, ".tmp");
+            final CRC32 crc = new CRC32();
+            try(final FileOutputStream file = new FileOutputStream(temporary.toFile());
+                final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(snapshot.size());
+                for (final Map.Entry<String, byte[]> entry : snapshot) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+                out.writeInt((int) crc.getValue());
+                out.flush();
+                file.getFD().sync();
+            }
+            try {
+                Files.move(temporary, snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }catch(final AtomicMoveNotSupportedException exception) {
+                Files.move(temporary, snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            temporary = null;
+        }catch(final IOException exception) {
+            throw new DatabaseException("Unable to write snapshot of table " + tableName + ". " + exception.getMessage());
+        }finally {
+            if(temporary != null) {
+                temporary.toFile().delete();
+            }
+        }
+        this.snapshotModifications = currentModifications;
+    }
+
+    private Collection<T> deserialize(final Collection<byte[]> values) {
+        return values.stream()
+                .map(this::deserialize)
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private T deserialize(final byte[] value) {
+        final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(new String(value, StandardCharsets.UTF_8), Map.class);
+        return converter.deserialize(map, JSONConversionContext.of(type));
+    }
+
+    @Override
+    protected ClassInfo getClassInfo() {
+        return classInfo;
+    }
+
+    @Override
+    protected void connect(final @NonNull DatabaseAuth auth) {}
+
+    /**
+     * Stops the scheduled snapshots and writes a final snapshot.
+     */
+    @Override
+    public synchronized void close() {
+        if(!connected) {
+            return;
+        }
+        if(snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }catch(final IllegalStateException ignored) {
+                // the JVM is shutting down, which is what closes the database
+            }
+            snapshot();
+        }
+        this.connected = false;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+}
@@ -0,0 +1,129 @@
+package net.sxlver.databases.impl.mongodb;
+
+import lombok.NonNull;
+import net.sxlver.databases.converter.RowLayout;
+import net.sxlver.databases.converter.RowSource;
+import net.sxlver.databases.exception.DatabaseException;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+
+/**
+ * Reads the fields of a document from a {@link BsonReader}, skipping the
+ * identifier fields the {@link MongoDBEntityCodec} adds to every document.
+ *
+ * <p>Numbers are read as the type of the field regardless of the width they
+ * have been stored with.
+ */
+final class BsonRowSource implements RowSource {
+    private final BsonReader reader;
+    private boolean wasNull;
+
+    BsonRowSource(final @NonNull BsonReader reader) {
+        this.reader = reader;
+        reader.readStartDocument();
+    }
+
+    @Override
+    public int nextField(final RowLayout layout) {
+        if(reader.readBsonType() == BsonType.END_OF_DOCUMENT) {
+            reader.readEndDocument();
+            return END;
+        }
+        final String name = reader.readName();
+        if(MongoDBEntityCodec.isIdentifierField(name)) {
+            return SKIP;
+        }
+        return layout.ordinalOf(name);
+    }
+
+    @Override
+    public boolean wasNull() {
+        return wasNull;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        if(readNull()) {
+            return false;
+        }
+        if(reader.getCurrentBsonType() != BsonType.BOOLEAN) {
+            throw mismatch("boolean");
+        }
+        return reader.readBoolean();
+    }
+
+    @Override
+    public int readInt() {
+        if(readNull()) {
+            return 0;
+        }
+        switch (reader.getCurrentBsonType()) {
+            case INT32: return reader.readInt32();
+            case INT64: return (int) reader.readInt64();
+            case DOUBLE: return (int) reader.readDouble();
+            default: throw mismatch("int");
+        }
+    }
+
+    @Override
+    public long readLong() {
+        if(readNull()) {
+            return 0L;
+        }
+        switch (reader.getCurrentBsonType()) {
+            case INT32: return reader.readInt32();
+            case INT64: return reader.readInt64();
+            case DOUBLE: return (long) reader.readDouble();
+            default: throw mismatch("long");
+        }
+    }
+
+    @Override
+    public double readDouble() {
+        if(readNull()) {
+            return 0D;
+        }
+        switch (reader.getCurrentBsonType()) {
+            case INT32: return reader.readInt32();
+            case INT64: return reader.readInt64();
+            case DOUBLE: return reader.readDouble();
+            case DECIMAL128: return reader.readDecimal128().doubleValue();
+            default: throw mismatch("double");
+        }
+    }
+
+    @Override
+    public String readString() {
+        if(readNull()) {
+            return null;
+        }
+        switch (reader.getCurrentBsonType()) {
+            case STRING: return reader.readString();
+            case SYMBOL: return reader.readSymbol();
+            case OBJECT_ID: return reader.readObjectId().toHexString();
+            default: throw mismatch("string");
+        }
+    }
+
+    @Override
+    public Object readValue() {
+        return MongoDBEntityCodec.readValue(reader);
+    }
+
+    @Override
+    public void skipValue() {
+        reader.skipValue();
+    }
+
+    private boolean readNull() {
+        wasNull = reader.getCurrentBsonType() == BsonType.NULL;
+        if(wasNull) {
+            reader.readNull();
+        }
+        return wasNull;
+    }
+
+    private DatabaseException mismatch(final String type) {
+        return new DatabaseException("Cannot read BSON " + reader.getCurrentBsonType() + " as " + type + ".");
+    }
+}
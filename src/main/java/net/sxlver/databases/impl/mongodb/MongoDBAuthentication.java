@@ -1,23 +1,46 @@
 package net.sxlver.databases.impl.mongodb;
 
+import com.mongodb.MongoClientOptions;
 import lombok.NonNull;
 import net.sxlver.databases.DatabaseAuth;
 import net.sxlver.databases.DatabaseSettings;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
+
+/**
+ * The settings databases connect to MongoDB with.
+ *
+ * <p>Equal authentications share a connection pool. The database an entity
+ * is stored in isn't part of the connection, so databases working with other
+ * databases of the same cluster are equal, unless users are authenticated
+ * against the database they work with.
+ */
 public class MongoDBAuthentication extends DatabaseAuth {
+    private static final MongoClientOptions DEFAULT_OPTIONS = MongoClientOptions.builder().build();
+
     private final String connectionUri;
     private final String host;
     private final int port;
     private final String database;
+    @Nullable
+    private final String authenticationDatabase;
     private final boolean useSSL;
+    private final int maxPoolSize;
+    private final int maxWaitTime;
+    private final int maxConnectionIdleTime;
 
     public MongoDBAuthentication(final @NonNull DatabaseSettings settings) {
         super(settings.getUsername(), settings.getPassword());
         this.host = settings.getHost();
         this.port = settings.getPort();
         this.database = settings.getDatabase();
+        this.authenticationDatabase = settings.getAuthenticationDatabase();
         this.connectionUri = settings.getConnectionUri();
         this.useSSL = settings.isUseSsl();
+        this.maxPoolSize = settings.getMaxPoolSize();
+        this.maxWaitTime = settings.getMaxWaitTime();
+        this.maxConnectionIdleTime = settings.getMaxConnectionIdleTime();
     }
 
     public MongoDBAuthentication(final @NonNull String connectionUri,
@@ -27,13 +50,35 @@ public class MongoDBAuthentication extends DatabaseAuth {
                                  final int             port,
                                  final @NonNull String database,
                                  final boolean         useSSL
+    ) {
+        this(connectionUri, username, password, host, port, database, useSSL,
+                DEFAULT_OPTIONS.getConnectionsPerHost(),
+                DEFAULT_OPTIONS.getMaxWaitTime(),
+                DEFAULT_OPTIONS.getMaxConnectionIdleTime()
+        );
+    }
+
+    public MongoDBAuthentication(final @NonNull String connectionUri,
+                                 final @NonNull String username,
+                                 final @NonNull String password,
+                                 final @NonNull String host,
+                                 final int             port,
+                                 final @NonNull String database,
+                                 final boolean         useSSL,
+                                 final int             maxPoolSize,
+                                 final int             maxWaitTime,
+                                 final int             maxConnectionIdleTime
     ) {
         super(username, password);
         this.connectionUri = connectionUri;
         this.host = host;
         this.port = port;
         this.database = database;
+        this.authenticationDatabase = null;
         this.useSSL = useSSL;
+        this.maxPoolSize = maxPoolSize;
+        this.maxWaitTime = maxWaitTime;
+        this.maxConnectionIdleTime = maxConnectionIdleTime;
     }
 
     public String getHost() {
@@ -48,6 +93,16 @@ public class MongoDBAuthentication extends DatabaseAuth {
         return database;
     }
 
+    /**
+     * Returns the database users are authenticated against if no connection
+     * uri is given, which defaults to the database that is worked with.
+     *
+     * @return the authentication database
+     */
+    public String getAuthenticationDatabase() {
+        return authenticationDatabase != null ? authenticationDatabase : database;
+    }
+
     public String getConnectionUri() {
         return connectionUri;
     }
@@ -55,4 +110,52 @@ public class MongoDBAuthentication extends DatabaseAuth {
     public boolean isUseSSL() {
         return useSSL;
     }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public int getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public int getMaxConnectionIdleTime() {
+        return maxConnectionIdleTime;
+    }
+
+    /**
+     * Returns the authentication database if the credentials are authenticated
+     * against it, connection uris specify their authentication database themselves.
+     */
+    @Nullable
+    private String credentialSource() {
+        return connectionUri.isBlank() ? getAuthenticationDatabase() : null;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if(this == other) {
+            return true;
+        }
+        if(!(other instanceof MongoDBAuthentication)) {
+            return false;
+        }
+        final MongoDBAuthentication that = (MongoDBAuthentication) other;
+        return port == that.port
+                && useSSL == that.useSSL
+                && maxPoolSize == that.maxPoolSize
+                && maxWaitTime == that.maxWaitTime
+                && maxConnectionIdleTime == that.maxConnectionIdleTime
+                && connectionUri.equals(that.connectionUri)
+                && host.equals(that.host)
+                && Objects.equals(credentialSource(), that.credentialSource())
+                && getUsername().equals(that.getUsername())
+                && getPassword().equals(that.getPassword());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(connectionUri, host, port, credentialSource(), useSSL, getUsername(),
+                maxPoolSize, maxWaitTime, maxConnectionIdleTime);
+    }
 }
@@ -0,0 +1,134 @@
+package net.sxlver.databases.impl.mongodb;
+
+import com.google.common.collect.Maps;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoClientURI;
+import com.mongodb.MongoCredential;
+import com.mongodb.ServerAddress;
+import com.mongodb.reactivestreams.client.MongoClients;
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Shares a single client, and therefore a single connection pool, between
+ * all databases using equal connection settings. Each database selects the
+ * database it works with from the shared client.
+ *
+ * <p>Clients are reference counted, every {@link #acquire(MongoDBAuthentication)}
+ * must be followed by exactly one {@link #release(MongoDBAuthentication)}. The
+ * client is closed once it has been released by the last database using it.
+ *
+ * @param <C> the type of client shared by the registry
+ */
+final class MongoDBClientRegistry<C> {
+
+    /**
+     * Registry of the blocking clients used by {@link MongoDBDatabase}.
+     */
+    static final MongoDBClientRegistry<MongoClient> SYNC = new MongoDBClientRegistry<>(
+            MongoDBClientRegistry::createClient,
+            MongoClient::close
+    );
+
+    /**
+     * Registry of the non-blocking clients used by {@link ReactiveMongoDBDatabase}.
+     */
+    static final MongoDBClientRegistry<com.mongodb.reactivestreams.client.MongoClient> REACTIVE = new MongoDBClientRegistry<>(
+            auth -> MongoClients.create(createSettings(auth)),
+            com.mongodb.reactivestreams.client.MongoClient::close
+    );
+
+    private final Map<MongoDBAuthentication, SharedClient<C>> clients = Maps.newHashMap();
+    private final Function<MongoDBAuthentication, C> factory;
+    private final Consumer<C> closer;
+
+    private MongoDBClientRegistry(final Function<MongoDBAuthentication, C> factory, final Consumer<C> closer) {
+        this.factory = factory;
+        this.closer = closer;
+    }
+
+    /**
+     * Returns the client for the given connection settings, creating
+     * it if no database is using these settings yet.
+     *
+     * @param auth the connection settings
+     * @return the shared client
+     */
+    synchronized C acquire(final @NonNull MongoDBAuthentication auth) {
+        final SharedClient<C> shared = clients.computeIfAbsent(auth, key -> new SharedClient<>(factory.apply(key)));
+        shared.references++;
+        return shared.client;
+    }
+
+    /**
+     * Releases the client for the given connection settings and closes
+     * it if it isn't used by any other database.
+     *
+     * @param auth the connection settings the client has been acquired with
+     */
+    synchronized void release(final @NonNull MongoDBAuthentication auth) {
+        final SharedClient<C> shared = clients.get(auth);
+        if(shared == null) {
+            return;
+        }
+        if(--shared.references <= 0) {
+            clients.remove(auth);
+            closer.accept(shared.client);
+        }
+    }
+
+    private static MongoClient createClient(final MongoDBAuthentication auth) {
+        final MongoClientOptions.Builder options = MongoClientOptions.builder()
+                .connectionsPerHost(auth.getMaxPoolSize())
+                .maxWaitTime(auth.getMaxWaitTime())
+                .maxConnectionIdleTime(auth.getMaxConnectionIdleTime());
+
+        if(!auth.getConnectionUri().isBlank()) {
+            return new MongoClient(new MongoClientURI(auth.getConnectionUri(), options));
+        }
+        final ServerAddress address = new ServerAddress(auth.getHost(), auth.getPort());
+        return new MongoClient(address, createCredential(auth), options.sslEnabled(auth.isUseSSL()).build());
+    }
+
+    private static MongoClientSettings createSettings(final MongoDBAuthentication auth) {
+        final MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(auth.getMaxPoolSize())
+                        .maxWaitTime(auth.getMaxWaitTime(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(auth.getMaxConnectionIdleTime(), TimeUnit.MILLISECONDS));
+
+        if(!auth.getConnectionUri().isBlank()) {
+            return settings.applyConnectionString(new ConnectionString(auth.getConnectionUri())).build();
+        }
+        final ServerAddress address = new ServerAddress(auth.getHost(), auth.getPort());
+        return settings.credential(createCredential(auth))
+                .applyToClusterSettings(cluster -> cluster.hosts(Collections.singletonList(address)))
+                .applyToSslSettings(ssl -> ssl.enabled(auth.isUseSSL()))
+                .build();
+    }
+
+    private static MongoCredential createCredential(final MongoDBAuthentication auth) {
+        return MongoCredential.createCredential(
+                auth.getUsername(),
+                auth.getAuthenticationDatabase(),
+                auth.getPassword().toCharArray()
+        );
+    }
+
+    private static final class SharedClient<C> {
+        private final C client;
+        private int references;
+
+        private SharedClient(final C client) {
+            this.client = client;
+        }
+    }
+}
@@ -2,44 +2,45 @@ package net.sxlver.databases.impl.mongodb;
 
 import com.google.common.collect.Lists;
 import com.mongodb.MongoClient;
-import com.mongodb.MongoClientOptions;
-import com.mongodb.MongoCredential;
-import com.mongodb.ServerAddress;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.FindOneAndReplaceOptions;
-import com.mongodb.client.model.IndexOptions;
-import com.mongodb.client.model.Indexes;
-import com.mongodb.util.JSON;
+import com.mongodb.client.model.*;
 import lombok.NonNull;
 import net.sxlver.databases.*;
 import net.sxlver.databases.exception.DatabaseException;
 import net.sxlver.databases.formatter.FieldNameFormatters;
 import net.sxlver.databases.impl.DatabaseEntryIdentifier;
-import net.sxlver.databases.impl.mongodb.context.MongoDBConversionContext;
+import net.sxlver.databases.impl.IdentifierEncoding;
 import net.sxlver.databases.util.Reflection;
 import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
-import java.util.Map;
-import java.util.function.Predicate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static net.sxlver.databases.impl.mongodb.MongoDBQueries.*;
+import static net.sxlver.databases.util.Validator.checkAutoIncrementFieldIsInteger;
 
 public class MongoDBDatabase<T> extends AbstractDatabase<T> {
 
     private MongoClient client;
+    private MongoDBAuthentication authentication;
     private MongoDatabase database;
-    private final MongoCollection<Document> mongoCollection;
+    private final MongoCollection<T> mongoCollection;
+    private final MongoCollection<Document> documentCollection;
+    private final MongoCollection<Document> counterCollection;
 
     private final ClassInfo classInfo;
-    private final DatabaseConverter<T, Map<String, Object>> converter;
     private final String collectionName;
-
-    private static final String MONGO_ID = "_id";
-    private static final String UNIQUE_ID = "uniqueIdentifier";
+    private final int bulkWriteChunkSize;
+    private final IdentifierEncoding encoding;
+    @Nullable
+    private final String autoIncrementFieldName;
 
     MongoDBDatabase(final @NonNull Class<?>         type,
                     final @NonNull DatabaseSettings settings,
@@ -48,99 +49,105 @@ public class MongoDBDatabase<T> extends AbstractDatabase<T> {
     ) {
         super(type, catchMainThread, thread);
         this.classInfo = ClassInfo.ofClass(type, FieldNameFormatters.IDENTITY);
-        this.converter = (DatabaseConverter<T, Map<String, Object>>) classInfo.getConverter();
         this.collectionName = Reflection.getTableName(type);
+        this.bulkWriteChunkSize = bulkWriteChunkSize(settings);
+        this.encoding = IdentifierEncoding.of(settings);
+        this.autoIncrementFieldName = MongoDBQueries.autoIncrementFieldName(type, classInfo);
         try {
             connect(new MongoDBAuthentication(settings));
         }catch(final Exception exception) {
+            close();
             throw new DatabaseException("Unable to connect to MongoDB database. " + exception.getMessage());
         }
-        this.mongoCollection = database.getCollection(getCollectionName());
-        IndexOptions indexOptions = new IndexOptions().unique(true);
-        mongoCollection.createIndex(Indexes.text(UNIQUE_ID), indexOptions);
-        super.init();
+        try {
+            this.mongoCollection = createCollection().withWriteConcern(parseWriteConcern(settings.getWriteConcern()));
+            this.documentCollection = mongoCollection.withDocumentClass(Document.class);
+            this.counterCollection = database.getCollection(COUNTERS_COLLECTION).withWriteConcern(mongoCollection.getWriteConcern());
+            createIndexes();
+            migrateUniqueIdentifiers();
+            super.init();
+        }catch(final RuntimeException exception) {
+            // the shared client is closed once no database holds a reference anymore
+            close();
+            throw exception;
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected T read(final Object query) {
-        final String uniqueId = query.toString();
-        final Document search = new Document(MONGO_ID, uniqueId);
-        final Document result = mongoCollection.find(search).limit(1).first();
-        if(result == null) {
+        final String uniqueId = encoding.key(query, classInfo);
+        final T object = mongoCollection.find(byId(uniqueId))
+                .projection(excludeIdentifiers())
+                .limit(1)
+                .first();
+        if(object == null) {
             return null;
         }
-        removeMongoId(result);
-        final String jsonResult = JSON.serialize(result);
-        final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(jsonResult, Map.class);
-        final T object = converter.deserialize(map, MongoDBConversionContext.of(type));
         callMessageReceiver(object);
         return object;
     }
 
     @Override
     protected void write(final T object) {
-        final DatabaseEntryIdentifier uniqueIdentifier = Reflection.getUniqueIdentifier(object);
-        final Map<String, Object> map = converter.serialize(object, MongoDBConversionContext.of(type));
-        final String serialized = getGson().toJson(map);
-        final Document document = Document.parse(serialized);
-        appendMongoId(document, uniqueIdentifier.toString());
-        final Bson bson = new Document(MONGO_ID, uniqueIdentifier.toString());
-        final FindOneAndReplaceOptions options = new FindOneAndReplaceOptions().upsert(true);
-        mongoCollection.findOneAndReplace(bson, document, options);
+        final DatabaseEntryIdentifier uniqueIdentifier = classInfo.getIdentifier(object);
+        final Bson bson = byId(encoding.key(uniqueIdentifier));
+        mongoCollection.replaceOne(bson, object, new ReplaceOptions().upsert(true));
+    }
+
+    @Override
+    protected void writeAll(final Collection<T> objects) {
+        final ReplaceOptions options = new ReplaceOptions().upsert(true);
+        final List<WriteModel<T>> models = objects.stream()
+                .map(object -> {
+                    final Bson bson = byId(encoding.key(classInfo.getIdentifier(object)));
+                    return new ReplaceOneModel<>(bson, object, options);
+                })
+                .collect(Collectors.toList());
+        bulkWrite(models);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected Collection<T> readAll(final Object query) {
-        final String uniqueId = query.toString();
-        final Document search = new Document(MONGO_ID, uniqueId);
-        final FindIterable<Document> iterable = mongoCollection.find();
-        final String delimiter = DatabaseEntryIdentifier.DELIMITER;
-        Predicate<String> filterApplicator = mongoId -> mongoId.equals(uniqueId);
-        if(query instanceof DatabaseEntryIdentifier) {
-            filterApplicator = ((DatabaseEntryIdentifier) query).getFilterApplicator();
-        }
+        final FindIterable<T> iterable = mongoCollection.find(createFilter(query, encoding, classInfo))
+                .projection(excludeIdentifiers());
         final Collection<T> collection = Lists.newArrayList();
-        for (final Document document : iterable) {
-            final String mongoId = document.getString(MONGO_ID);
-            if(filterApplicator.test(mongoId)) {
-                removeMongoId(document);
-                final String json = JSON.serialize(document);
-                final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(json, Map.class);
-                final T object = converter.deserialize(map, MongoDBConversionContext.of(type));
-                callMessageReceiver(object);
-                collection.add(object);
-            }
+        for (final T object : iterable) {
+            callMessageReceiver(object);
+            collection.add(object);
         }
         return collection;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected Collection<T> readAll() {
-        final Collection<T> collection = Lists.newArrayList();
-        for (final Document document : mongoCollection.find()) {
-            final String json = JSON.serialize(document);
-            final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(json, Map.class);
-            collection.add(converter.deserialize(map, MongoDBConversionContext.of(type)));
-        }
-        return collection;
+        return mongoCollection.find()
+                .projection(excludeIdentifiers())
+                .into(Lists.newArrayList());
     }
 
     @Override
     protected void delete(final Object query) {
-        final String uniqueId = query.toString();
-        final FindIterable<Document> iterable = mongoCollection.find();
-        Predicate<String> filterApplicator = mongoId -> mongoId.equals(uniqueId);
-        if(query instanceof DatabaseEntryIdentifier) {
-            filterApplicator = ((DatabaseEntryIdentifier) query).getFilterApplicator();
-        }
-        for (final Document document : iterable) {
-            final String mongoId = document.getString(MONGO_ID);
-            if(filterApplicator.test(mongoId)) {
-                mongoCollection.deleteOne(document);
-            }
+        mongoCollection.deleteMany(createFilter(query, encoding, classInfo));
+    }
+
+    @Override
+    protected void deleteAll(final Collection<?> queries) {
+        final List<WriteModel<T>> models = queries.stream()
+                .map(query -> new DeleteManyModel<T>(createFilter(query, encoding, classInfo)))
+                .collect(Collectors.toList());
+        bulkWrite(models);
+    }
+
+    /**
+     * Sends the given write operations to the database in unordered batches
+     * of at most {@link DatabaseSettings#getBulkWriteChunkSize()} operations.
+     *
+     * @param models the write operations to execute
+     */
+    private void bulkWrite(final List<WriteModel<T>> models) {
+        final BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+        for (final List<WriteModel<T>> chunk : Lists.partition(models, bulkWriteChunkSize)) {
+            mongoCollection.bulkWrite(chunk, options);
         }
     }
 
@@ -152,60 +159,176 @@ public class MongoDBDatabase<T> extends AbstractDatabase<T> {
         return new MongoDBDatabase<>(type, settings, catchMainThread, thread);
     }
 
-    private void appendMongoId(final Document document, final String uniqueId) {
-        document.append(MONGO_ID, uniqueId);
+    /**
+     * Returns the collection of this database, (de-)serializing its documents
+     * through a {@link MongoDBEntityCodec} registered in front of the codecs
+     * of the database.
+     *
+     * @return the collection holding the entities
+     */
+    @SuppressWarnings("unchecked")
+    private MongoCollection<T> createCollection() {
+        final Class<T> entityType = (Class<T>) type;
+        final CodecRegistry registry = entityCodecRegistry(entityType, classInfo, encoding, database.getCodecRegistry());
+        return database.getCollection(getCollectionName(), entityType).withCodecRegistry(registry);
+    }
+
+    /**
+     * Creates the index on the unique identifier parts and drops the
+     * unique text index created by earlier versions, which cannot hold
+     * identifier parts shared between documents.
+     */
+    private void createIndexes() {
+        for (final Document index : documentCollection.listIndexes()) {
+            if(LEGACY_UNIQUE_ID_INDEX.equals(index.getString(INDEX_NAME))) {
+                documentCollection.dropIndex(LEGACY_UNIQUE_ID_INDEX);
+            }
+        }
+        documentCollection.createIndex(Indexes.ascending(UNIQUE_ID));
+        if(autoIncrementFieldName != null) {
+            documentCollection.createIndex(Indexes.ascending(autoIncrementFieldName));
+        }
     }
 
-    private void removeMongoId(final Document document) {
-        document.remove(MONGO_ID);
+    /**
+     * Adds the unique identifier parts to documents that have been
+     * written before the parts were stored alongside the {@code _id}.
+     */
+    private void migrateUniqueIdentifiers() {
+        final FindIterable<Document> iterable = documentCollection.find(missingUniqueIdentifiers())
+                .projection(Projections.include(MONGO_ID));
+        for (final Document document : iterable) {
+            final Object mongoId = document.get(MONGO_ID);
+            documentCollection.updateOne(Filters.eq(MONGO_ID, mongoId), setUniqueIdentifiers(mongoId, encoding));
+        }
     }
 
     @Override
     protected void connect(final @NonNull DatabaseAuth auth) {
         final MongoDBAuthentication mongoAuth = (MongoDBAuthentication) auth;
         if(client == null) {
-            boolean blankUri = mongoAuth.getConnectionUri().isBlank();
-            if(!blankUri) {
-                this.client = new MongoClient(mongoAuth.getConnectionUri());
-            }else {
-                final MongoCredential credentials = MongoCredential.createCredential(
-                        mongoAuth.getUsername(),
-                        mongoAuth.getDatabase(),
-                        mongoAuth.getPassword().toCharArray()
-                );
-
-                final MongoClientOptions options = MongoClientOptions.builder().sslEnabled(mongoAuth.isUseSSL()).build();
-                final ServerAddress address = new ServerAddress(mongoAuth.getHost(), mongoAuth.getPort());
-                this.client = new MongoClient(address, credentials, options);
-            }
+            this.client = MongoDBClientRegistry.SYNC.acquire(mongoAuth);
+            this.authentication = mongoAuth;
             this.database = client.getDatabase(mongoAuth.getDatabase());
         }
     }
 
+    /**
+     * Releases the client of this database. The underlying connection pool
+     * is closed once no other database with equal connection settings is
+     * using it anymore.
+     */
+    @Override
+    public void close() {
+        if(client != null) {
+            MongoDBClientRegistry.SYNC.release(authentication);
+            this.client = null;
+        }
+    }
+
     @Override
     protected ClassInfo getClassInfo() {
         return classInfo;
     }
 
+    /**
+     * Allocates the next id of the auto increment field by atomically incrementing
+     * the sequence of the collection in the counters collection, so ids stay unique
+     * across multiple instances writing to the same collection.
+     *
+     * @param fetch whether the current id should be fetched from the database instead
+     * @return the next available id
+     */
     @Override
-    protected int fetchMaxId() {
+    protected int nextId(final boolean fetch) {
+        if(fetch || autoIncrementFieldName == null) {
+            return super.nextId(fetch);
+        }
+        final int nextId = allocateIds(1);
+        ID_MAP.put(this, nextId);
+        return nextId;
+    }
+
+    /**
+     * Assigns ids to all objects whose auto increment field hasn't been set yet. The
+     * ids are allocated using a single increment of the sequence in the counters
+     * collection.
+     *
+     * @param objects the objects to assign ids to
+     */
+    @Override
+    protected void applyAttributes(final Collection<T> objects) {
         final Field autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
-        if(autoIncrementField != null) {
-            final ClassInfo.FieldInfo fieldInfo = classInfo.getInfo(autoIncrementField);
-            final FindIterable<Document> iterable = mongoCollection.find();
-            int maxId = 0;
-            final String fieldName = fieldInfo.getFormattedName();
-            for (final Document document : iterable) {
-                final String json = JSON.serialize(document);
-                final Map<String, Object> map = (Map<String, Object>) getGson().fromJson(json, Map.class);
-                final int id = (Integer) map.get(fieldName);
-                if(id > maxId) {
-                    maxId = id;
-                }
-            }
-            return maxId;
+        if(autoIncrementField == null) {
+            return;
+        }
+        checkAutoIncrementFieldIsInteger(autoIncrementField);
+        final List<T> unassigned = objects.stream()
+                .filter(object -> (Integer) Reflection.getValue(autoIncrementField, object) == 0)
+                .collect(Collectors.toList());
+        if(unassigned.isEmpty()) {
+            return;
+        }
+        final int lastId = allocateIds(unassigned.size());
+        int nextId = lastId - unassigned.size();
+        for (final T object : unassigned) {
+            Reflection.setValue(autoIncrementField, object, ++nextId);
+        }
+        ID_MAP.put(this, lastId);
+    }
+
+    /**
+     * Allocates a range of ids by atomically incrementing the sequence of the
+     * collection in the counters collection.
+     *
+     * @param amount the amount of ids to allocate
+     * @return the last id of the allocated range
+     */
+    private int allocateIds(final int amount) {
+        final Document counter = counterCollection.findOneAndUpdate(
+                byId(collectionName),
+                incrementSequence(amount),
+                incrementSequenceOptions()
+        );
+        return counter.get(SEQUENCE, Number.class).intValue();
+    }
+
+    /**
+     * Returns the current value of the sequence in the counters collection. If no
+     * sequence exists yet, it is seeded with the highest id stored in the collection.
+     *
+     * @return the highest id that has been allocated
+     */
+    @Override
+    protected int fetchMaxId() {
+        if(autoIncrementFieldName == null) {
+            return 0;
+        }
+        final Document counter = counterCollection.find(byId(collectionName)).first();
+        if(counter != null) {
+            return counter.get(SEQUENCE, Number.class).intValue();
+        }
+        return seedCounter();
+    }
+
+    /**
+     * Seeds the sequence of the collection with the highest id stored in the
+     * collection, which is looked up using the index on the auto increment field.
+     *
+     * @return the id the sequence has been seeded with
+     */
+    private int seedCounter() {
+        final Document highest = documentCollection.find()
+                .projection(Projections.include(autoIncrementFieldName))
+                .sort(Sorts.descending(autoIncrementFieldName))
+                .limit(1)
+                .first();
+        int maxId = 0;
+        if(highest != null && highest.get(autoIncrementFieldName) instanceof Number) {
+            maxId = highest.get(autoIncrementFieldName, Number.class).intValue();
         }
-        return 0;
+        counterCollection.updateOne(byId(collectionName), seedSequence(maxId), new UpdateOptions().upsert(true));
+        return maxId;
     }
 
     @Override
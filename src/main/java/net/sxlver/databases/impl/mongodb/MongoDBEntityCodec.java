@@ -0,0 +1,244 @@
+package net.sxlver.databases.impl.mongodb;
+
+import lombok.NonNull;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.converter.RowDecoder;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.filter.FieldFilters;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import net.sxlver.databases.impl.mongodb.context.MongoDBConversionContext;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecConfigurationException;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Decimal128;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+import static net.sxlver.databases.impl.mongodb.MongoDBQueries.MONGO_ID;
+import static net.sxlver.databases.impl.mongodb.MongoDBQueries.UNIQUE_ID;
+
+/**
+ * Encodes and decodes instances of {@code T} straight from and to BSON.
+ *
+ * <p>Values produced by the {@link DatabaseConverter} of the class are written
+ * using their native BSON representation (e.g. {@code int64}, {@code date} or
+ * {@code binary}), so no intermediate json text has to be produced or parsed.
+ *
+ * <p>The {@code _id} and {@code uniqueIdentifier} fields of a document are
+ * written by the codec itself, so entities can't have fields of those names.
+ *
+ * @param <T> the type of the entity this codec handles
+ */
+class MongoDBEntityCodec<T> implements Codec<T> {
+    private final Class<T> type;
+    private final ClassInfo classInfo;
+    private final IdentifierEncoding encoding;
+    private final DatabaseConverter<T, Map<String, Object>> converter;
+    private final CodecRegistry fallbackRegistry;
+    private final boolean rowDecoding;
+
+    @SuppressWarnings("unchecked")
+    MongoDBEntityCodec(final @NonNull Class<T>           type,
+                       final @NonNull ClassInfo          classInfo,
+                       final @NonNull IdentifierEncoding encoding,
+                       final @NonNull CodecRegistry      fallbackRegistry
+    ) {
+        this.type = type;
+        this.classInfo = classInfo;
+        this.encoding = encoding;
+        this.converter = (DatabaseConverter<T, Map<String, Object>>) classInfo.getConverter();
+        this.fallbackRegistry = fallbackRegistry;
+        this.rowDecoding = RowDecoder.supports(type, converter);
+        checkFieldNames(type, classInfo);
+    }
+
+    /**
+     * Makes sure no field of the entity is stored under the name of an identifier field.
+     *
+     * @param type the type of the entity
+     * @param classInfo the info of the type
+     * @throws DatabaseException if a field is named like an identifier field
+     */
+    private static void checkFieldNames(final Class<?> type, final ClassInfo classInfo) {
+        for (final Field field : FieldFilters.DEFAULT.filterDeclaredFieldsOf(type)) {
+            final ClassInfo.FieldInfo info = classInfo.getInfo(field);
+            if(info != null && isIdentifierField(info.getFormattedName())) {
+                throw identifierFieldException(type, info.getFormattedName());
+            }
+        }
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final T value, final EncoderContext encoderContext) {
+        final DatabaseEntryIdentifier uniqueId = classInfo.getIdentifier(value);
+        final Map<String, Object> serialized = converter.serialize(value, MongoDBConversionContext.of(type));
+        writer.writeStartDocument();
+        final String key = encoding.key(uniqueId);
+        writer.writeString(MONGO_ID, key);
+        // the parts of the key, which are the parts of the identifier unless they contain the delimiter
+        writer.writeStartArray(UNIQUE_ID);
+        for (final String part : encoding.parts(key)) {
+            writer.writeString(part);
+        }
+        writer.writeEndArray();
+        for (final Map.Entry<String, Object> entry : serialized.entrySet()) {
+            if(isIdentifierField(entry.getKey())) {
+                throw identifierFieldException(type, entry.getKey());
+            }
+            writer.writeName(entry.getKey());
+            writeValue(writer, entry.getValue(), encoderContext);
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public T decode(final BsonReader reader, final DecoderContext decoderContext) {
+        if(rowDecoding) {
+            return RowDecoder.decode(type, new BsonRowSource(reader));
+        }
+        final Map<String, Object> map = readDocument(reader, true);
+        final T object = converter.deserialize(map, MongoDBConversionContext.of(type));
+        if(object == null) {
+            throw new DatabaseException("Converter returned null whilst decoding " + type);
+        }
+        return object;
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return type;
+    }
+
+    /**
+     * Writes a value produced by a converter using its native BSON type.
+     *
+     * <p>Types unknown to this codec are handed over to the fallback
+     * {@link CodecRegistry} of the database.
+     *
+     * @param writer the writer to write to
+     * @param value the value to write, may be null
+     * @param encoderContext the context of the current encoding
+     */
+    @SuppressWarnings("unchecked")
+    private void writeValue(final BsonWriter writer, final Object value, final EncoderContext encoderContext) {
+        if(value == null) {
+            writer.writeNull();
+        }else if(value instanceof String) {
+            writer.writeString((String) value);
+        }else if(value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writer.writeInt32(((Number) value).intValue());
+        }else if(value instanceof Long) {
+            writer.writeInt64((Long) value);
+        }else if(value instanceof Double || value instanceof Float) {
+            writer.writeDouble(((Number) value).doubleValue());
+        }else if(value instanceof BigDecimal) {
+            writer.writeDecimal128(new Decimal128((BigDecimal) value));
+        }else if(value instanceof Boolean) {
+            writer.writeBoolean((Boolean) value);
+        }else if(value instanceof Character || value instanceof Enum || value instanceof UUID) {
+            writer.writeString(value.toString());
+        }else if(value instanceof Date) {
+            writer.writeDateTime(((Date) value).getTime());
+        }else if(value instanceof Instant) {
+            writer.writeDateTime(((Instant) value).toEpochMilli());
+        }else if(value instanceof byte[]) {
+            writer.writeBinaryData(new BsonBinary((byte[]) value));
+        }else if(value instanceof Map) {
+            writer.writeStartDocument();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.writeName(String.valueOf(entry.getKey()));
+                writeValue(writer, entry.getValue(), encoderContext);
+            }
+            writer.writeEndDocument();
+        }else if(value instanceof Iterable) {
+            writer.writeStartArray();
+            for (final Object element : (Iterable<?>) value) {
+                writeValue(writer, element, encoderContext);
+            }
+            writer.writeEndArray();
+        }else if(value instanceof Object[]) {
+            writeValue(writer, Arrays.asList((Object[]) value), encoderContext);
+        }else {
+            try {
+                final Codec<Object> codec = (Codec<Object>) fallbackRegistry.get(value.getClass());
+                encoderContext.encodeWithChildContext(codec, writer, value);
+            }catch(final CodecConfigurationException exception) {
+                throw new DatabaseException("No BSON representation for " + value.getClass() + " in " + type, exception);
+            }
+        }
+    }
+
+    private static Map<String, Object> readDocument(final BsonReader reader, final boolean skipIdentifiers) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        reader.readStartDocument();
+        while(reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            if(skipIdentifiers && isIdentifierField(name)) {
+                reader.skipValue();
+                continue;
+            }
+            map.put(name, readValue(reader));
+        }
+        reader.readEndDocument();
+        return map;
+    }
+
+    private static List<Object> readArray(final BsonReader reader) {
+        final List<Object> list = new ArrayList<>();
+        reader.readStartArray();
+        while(reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            list.add(readValue(reader));
+        }
+        reader.readEndArray();
+        return list;
+    }
+
+    /**
+     * Reads the current value of the reader and converts it to the
+     * java type converters expect for it.
+     *
+     * @param reader the reader positioned at the value
+     * @return the value read
+     */
+    static Object readValue(final BsonReader reader) {
+        switch(reader.getCurrentBsonType()) {
+            case DOCUMENT: return readDocument(reader, false);
+            case ARRAY: return readArray(reader);
+            case INT32: return reader.readInt32();
+            case INT64: return reader.readInt64();
+            case DOUBLE: return reader.readDouble();
+            case DECIMAL128: return reader.readDecimal128().bigDecimalValue();
+            case STRING: return reader.readString();
+            case SYMBOL: return reader.readSymbol();
+            case BOOLEAN: return reader.readBoolean();
+            case DATE_TIME: return new Date(reader.readDateTime());
+            case BINARY: return reader.readBinaryData().getData();
+            case OBJECT_ID: return reader.readObjectId().toHexString();
+            case NULL:
+                reader.readNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static DatabaseException identifierFieldException(final Class<?> type, final String name) {
+        return new DatabaseException("Field '" + name + "' of " + type + " is reserved for the identifier of MongoDB documents. Rename the field.");
+    }
+
+    static boolean isIdentifierField(final String name) {
+        return MONGO_ID.equals(name) || UNIQUE_ID.equals(name);
+    }
+}
@@ -0,0 +1,189 @@
+package net.sxlver.databases.impl.mongodb;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import net.sxlver.databases.util.Reflection;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.regex.Pattern;
+
+/**
+ * Filters, updates and settings shared by the blocking and the
+ * reactive MongoDB database implementations.
+ */
+final class MongoDBQueries {
+    static final String MONGO_ID = "_id";
+    static final String UNIQUE_ID = "uniqueIdentifier";
+    static final String COUNTERS_COLLECTION = "counters";
+    static final String SEQUENCE = "sequence";
+    static final String LEGACY_UNIQUE_ID_INDEX = UNIQUE_ID + "_text";
+    static final String INDEX_NAME = "name";
+
+    private MongoDBQueries() {}
+
+    /**
+     * Translates a query into a server side filter.
+     *
+     * <p>Plain queries have to match the {@code _id} exactly, whereas a
+     * {@link DatabaseEntryIdentifier} additionally matches every document
+     * containing its parts consecutively and in order, like
+     * {@link IdentifierEncoding#filter(DatabaseEntryIdentifier)}. The indexed unique
+     * identifier array narrows the documents down to those containing all parts,
+     * the order is checked on the {@code _id} the parts are encoded to. Both hold
+     * the parts of the encoded key, so a plain key containing the delimiter is
+     * split into the same parts the {@code _id} of a matching document holds.
+     *
+     * @param query the query to translate
+     * @param encoding the encoding of the {@code _id}
+     * @param classInfo the info of the entity type
+     * @return the filter matching the query
+     */
+    static Bson createFilter(final Object query, final IdentifierEncoding encoding, final ClassInfo classInfo) {
+        final Bson exactMatch = byId(encoding.key(query, classInfo));
+        if(!(query instanceof DatabaseEntryIdentifier)) {
+            return exactMatch;
+        }
+        final DatabaseEntryIdentifier identifier = (DatabaseEntryIdentifier) query;
+        final String consecutiveParts = "(^|" + DatabaseEntryIdentifier.DELIMITER + ")"
+                + Pattern.quote(encoding.key(identifier))
+                + "(" + DatabaseEntryIdentifier.DELIMITER + "|$)";
+        return Filters.or(exactMatch, Filters.and(
+                Filters.all(UNIQUE_ID, encoding.parts(encoding.key(identifier))),
+                Filters.regex(MONGO_ID, consecutiveParts)
+        ));
+    }
+
+    static Bson byId(final String uniqueId) {
+        return Filters.eq(MONGO_ID, uniqueId);
+    }
+
+    static Bson excludeIdentifiers() {
+        return Projections.exclude(MONGO_ID, UNIQUE_ID);
+    }
+
+    /**
+     * Returns the filter matching documents written before the unique
+     * identifier parts were stored alongside the {@code _id}.
+     *
+     * @return the filter matching documents without identifier parts
+     */
+    static Bson missingUniqueIdentifiers() {
+        return Filters.exists(UNIQUE_ID, false);
+    }
+
+    /**
+     * Returns the update adding the unique identifier parts, which are
+     * decoded from the given {@code _id}, to a document.
+     *
+     * @param mongoId the {@code _id} of the document
+     * @param encoding the encoding of the {@code _id}
+     * @return the update storing the identifier parts
+     */
+    static Bson setUniqueIdentifiers(final Object mongoId, final IdentifierEncoding encoding) {
+        return Updates.set(UNIQUE_ID, encoding.parts(mongoId.toString()));
+    }
+
+    /**
+     * Returns the update atomically allocating a range of ids of a sequence
+     * in the counters collection. The sequence holds the last id of the
+     * range after the update.
+     *
+     * @param amount the amount of ids to allocate
+     * @return the update incrementing the sequence
+     */
+    static Bson incrementSequence(final int amount) {
+        return Updates.inc(SEQUENCE, amount);
+    }
+
+    static FindOneAndUpdateOptions incrementSequenceOptions() {
+        return new FindOneAndUpdateOptions()
+                .upsert(true)
+                .returnDocument(ReturnDocument.AFTER);
+    }
+
+    /**
+     * Returns the update seeding a sequence with the given id. {@code $max}
+     * keeps ids allocated by other instances in the meantime.
+     *
+     * @param maxId the highest id stored in the collection
+     * @return the update seeding the sequence
+     */
+    static Bson seedSequence(final int maxId) {
+        return Updates.max(SEQUENCE, maxId);
+    }
+
+    /**
+     * Returns the maximum amount of operations sent in a single bulk write.
+     *
+     * @param settings the settings of the database
+     * @return the chunk size
+     * @throws DatabaseException if the chunk size isn't positive
+     */
+    static int bulkWriteChunkSize(final DatabaseSettings settings) {
+        final int chunkSize = settings.getBulkWriteChunkSize();
+        if(chunkSize <= 0) {
+            throw new DatabaseException("The bulk write chunk size must be positive, but is " + chunkSize + ".");
+        }
+        return chunkSize;
+    }
+
+    static WriteConcern parseWriteConcern(final String name) {
+        final WriteConcern writeConcern = WriteConcern.valueOf(name);
+        if(writeConcern == null) {
+            throw new DatabaseException("Unknown write concern " + name);
+        }
+        return writeConcern;
+    }
+
+    /**
+     * Returns the name the auto increment field is stored with, which is
+     * the name the converter of the class formats the field name to.
+     *
+     * @param type the type of the entity
+     * @param classInfo the info of the entity type
+     * @return the stored field name or {@code null} if there is no such field
+     */
+    @Nullable
+    static String autoIncrementFieldName(final Class<?> type, final ClassInfo classInfo) {
+        final Field autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
+        if(autoIncrementField == null) {
+            return null;
+        }
+        return ClassInfo.getFormatter(type).apply(autoIncrementField.getName());
+    }
+
+    /**
+     * Returns a registry (de-)serializing entities through a {@link MongoDBEntityCodec}
+     * registered in front of the given registry.
+     *
+     * @param type the type of the entity
+     * @param classInfo the info of the entity type
+     * @param encoding the encoding of the {@code _id}
+     * @param defaultRegistry the registry of the database
+     * @return the registry handling the entity type
+     */
+    static <T> CodecRegistry entityCodecRegistry(final Class<T>           type,
+                                                 final ClassInfo          classInfo,
+                                                 final IdentifierEncoding encoding,
+                                                 final CodecRegistry      defaultRegistry
+    ) {
+        final MongoDBEntityCodec<T> codec = new MongoDBEntityCodec<>(type, classInfo, encoding, defaultRegistry);
+        return CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(codec),
+                defaultRegistry
+        );
+    }
+}
@@ -0,0 +1,106 @@
+package net.sxlver.databases.impl.mongodb;
+
+import com.google.common.collect.Lists;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Bridges the publishers of the reactive-streams driver to
+ * {@link CompletableFuture}s.
+ */
+final class PublisherFutures {
+
+    private PublisherFutures() {}
+
+    /**
+     * Requests the first element of the given publisher and cancels the
+     * subscription once it has been received.
+     *
+     * @param publisher the publisher to subscribe to
+     * @return the future completed with the first element or {@code null}
+     *         if the publisher completed without emitting any element
+     */
+    static <T> CompletableFuture<T> first(final Publisher<T> publisher) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        publisher.subscribe(new Subscriber<T>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(final Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(final T element) {
+                if(future.complete(element)) {
+                    subscription.cancel();
+                }
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Collects all elements emitted by the given publisher.
+     *
+     * @param publisher the publisher to subscribe to
+     * @return the future completed with the elements once the publisher completed
+     */
+    static <T> CompletableFuture<List<T>> toList(final Publisher<T> publisher) {
+        final List<T> list = Lists.newArrayList();
+        return drain(publisher, list::add).thenApply(ignored -> list);
+    }
+
+    /**
+     * Discards all elements emitted by the given publisher, e.g. the
+     * acknowledgements of write operations.
+     *
+     * @param publisher the publisher to subscribe to
+     * @return the future completed once the publisher completed
+     */
+    static CompletableFuture<Void> completion(final Publisher<?> publisher) {
+        return drain(publisher, element -> {});
+    }
+
+    private static <T> CompletableFuture<Void> drain(final Publisher<T> publisher, final Consumer<? super T> consumer) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        publisher.subscribe(new Subscriber<T>() {
+            @Override
+            public void onSubscribe(final Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final T element) {
+                consumer.accept(element);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,383 @@
+package net.sxlver.databases.impl.mongodb;
+
+import com.google.common.collect.Lists;
+import com.mongodb.client.model.*;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import lombok.NonNull;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.ReactiveDatabase;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import net.sxlver.databases.util.Reflection;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.FlowAdapters;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+
+import static net.sxlver.databases.impl.mongodb.MongoDBQueries.*;
+import static net.sxlver.databases.util.Validator.checkAutoIncrementFieldIsInteger;
+
+/**
+ * A {@link ReactiveDatabase} backed by the reactive-streams MongoDB driver.
+ *
+ * <p>Documents are stored exactly like by {@link MongoDBDatabase}, both
+ * implementations can therefore be used on the same collection at once.
+ *
+ * @param <T> describes the type of object the database will work with
+ */
+public class ReactiveMongoDBDatabase<T> implements ReactiveDatabase<T> {
+
+    private MongoClient client;
+    private MongoDBAuthentication authentication;
+    private MongoDatabase database;
+    private final MongoCollection<T> mongoCollection;
+    private final MongoCollection<Document> documentCollection;
+    private final MongoCollection<Document> counterCollection;
+
+    private final Class<T> type;
+    private final ClassInfo classInfo;
+    private final String collectionName;
+    private final int bulkWriteChunkSize;
+    private final IdentifierEncoding encoding;
+    @Nullable
+    private final Field autoIncrementField;
+    @Nullable
+    private final String autoIncrementFieldName;
+
+    /**
+     * Completed once the indexes have been created, legacy documents have
+     * been migrated and the id sequence has been seeded. Every operation
+     * is deferred until then.
+     */
+    private final CompletableFuture<Void> initialized;
+
+    ReactiveMongoDBDatabase(final @NonNull Class<T>         type,
+                            final @NonNull DatabaseSettings settings
+    ) {
+        this.type = type;
+        this.classInfo = ClassInfo.ofClass(type, FieldNameFormatters.IDENTITY);
+        this.collectionName = Reflection.getTableName(type);
+        this.bulkWriteChunkSize = bulkWriteChunkSize(settings);
+        this.encoding = IdentifierEncoding.of(settings);
+        this.autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
+        if(autoIncrementField != null) {
+            checkAutoIncrementFieldIsInteger(autoIncrementField);
+        }
+        this.autoIncrementFieldName = MongoDBQueries.autoIncrementFieldName(type, classInfo);
+        try {
+            connect(new MongoDBAuthentication(settings));
+        }catch(final Exception exception) {
+            close();
+            throw new DatabaseException("Unable to connect to MongoDB database. " + exception.getMessage());
+        }
+        try {
+            final CodecRegistry registry = entityCodecRegistry(type, classInfo, encoding, database.getCodecRegistry());
+            this.mongoCollection = database.getCollection(collectionName, type)
+                    .withCodecRegistry(registry)
+                    .withWriteConcern(parseWriteConcern(settings.getWriteConcern()));
+            this.documentCollection = mongoCollection.withDocumentClass(Document.class);
+            this.counterCollection = database.getCollection(COUNTERS_COLLECTION).withWriteConcern(mongoCollection.getWriteConcern());
+            this.initialized = createIndexes()
+                    .thenCompose(ignored -> migrateUniqueIdentifiers())
+                    .thenCompose(ignored -> seedCounter());
+        }catch(final RuntimeException exception) {
+            // the shared client is closed once no database holds a reference anymore
+            close();
+            throw exception;
+        }
+    }
+
+    @Override
+    public @NonNull CompletableFuture<Void> save(final @NonNull T object) {
+        return saveAll(List.of(object));
+    }
+
+    @Override
+    public @NonNull CompletableFuture<Void> saveAll(final @NonNull Collection<T> objects) {
+        return initialized
+                .thenCompose(ignored -> applyAttributes(objects))
+                .thenCompose(ignored -> {
+                    final ReplaceOptions options = new ReplaceOptions().upsert(true);
+                    final List<WriteModel<T>> models = objects.stream()
+                            .map(object -> {
+                                final Bson bson = byId(encoding.key(classInfo.getIdentifier(object)));
+                                return new ReplaceOneModel<>(bson, object, options);
+                            })
+                            .collect(Collectors.toList());
+                    return bulkWrite(models);
+                });
+    }
+
+    @Override
+    public @NonNull CompletableFuture<T> get(final @NonNull Object query) {
+        return initialized
+                .thenCompose(ignored -> PublisherFutures.first(mongoCollection.find(byId(encoding.key(query, classInfo)))
+                        .projection(excludeIdentifiers())
+                        .limit(1)))
+                .thenApply(object -> {
+                    if(object != null) {
+                        callMessageReceiver(object);
+                    }
+                    return object;
+                });
+    }
+
+    @Override
+    public @NonNull Flow.Publisher<T> getAll(final @NonNull Object query) {
+        return load(mongoCollection.find(createFilter(query, encoding, classInfo)).projection(excludeIdentifiers()));
+    }
+
+    @Override
+    public @NonNull Flow.Publisher<T> getAll() {
+        return load(mongoCollection.find().projection(excludeIdentifiers()));
+    }
+
+    @Override
+    public @NonNull CompletableFuture<Void> remove(final @NonNull Object query) {
+        return initialized.thenCompose(ignored -> PublisherFutures.completion(mongoCollection.deleteMany(createFilter(query, encoding, classInfo))));
+    }
+
+    @Override
+    public @NonNull CompletableFuture<Void> removeAll(final @NonNull Collection<?> queries) {
+        final List<WriteModel<T>> models = queries.stream()
+                .map(query -> new DeleteManyModel<T>(createFilter(query, encoding, classInfo)))
+                .collect(Collectors.toList());
+        return initialized.thenCompose(ignored -> bulkWrite(models));
+    }
+
+    public static <T> ReactiveMongoDBDatabase<T> of(final Class<T> type, final DatabaseSettings settings) {
+        return new ReactiveMongoDBDatabase<>(type, settings);
+    }
+
+    /**
+     * Sends the given write operations to the database in unordered batches of at
+     * most {@link DatabaseSettings#getBulkWriteChunkSize()} operations. A batch is
+     * only sent once the previous one has been acknowledged.
+     *
+     * @param models the write operations to execute
+     * @return the future completed once all batches have been acknowledged
+     */
+    private CompletableFuture<Void> bulkWrite(final List<WriteModel<T>> models) {
+        final BulkWriteOptions options = new BulkWriteOptions().ordered(false);
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+        for (final List<WriteModel<T>> chunk : Lists.partition(models, bulkWriteChunkSize)) {
+            future = future.thenCompose(ignored -> PublisherFutures.completion(mongoCollection.bulkWrite(chunk, options)));
+        }
+        return future;
+    }
+
+    /**
+     * Assigns ids to all objects whose auto increment field hasn't been set yet. The
+     * ids are allocated using a single increment of the sequence in the counters
+     * collection.
+     *
+     * @param objects the objects to assign ids to
+     * @return the future completed once the ids have been assigned
+     */
+    private CompletableFuture<Void> applyAttributes(final Collection<T> objects) {
+        if(autoIncrementField == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final List<T> unassigned = objects.stream()
+                .filter(object -> (Integer) Reflection.getValue(autoIncrementField, object) == 0)
+                .collect(Collectors.toList());
+        if(unassigned.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return allocateIds(unassigned.size()).thenAccept(lastId -> {
+            int nextId = lastId - unassigned.size();
+            for (final T object : unassigned) {
+                Reflection.setValue(autoIncrementField, object, ++nextId);
+            }
+        });
+    }
+
+    /**
+     * Allocates a range of ids by atomically incrementing the sequence of the
+     * collection in the counters collection.
+     *
+     * @param amount the amount of ids to allocate
+     * @return the future completed with the last id of the allocated range
+     */
+    private CompletableFuture<Integer> allocateIds(final int amount) {
+        final Publisher<Document> publisher = counterCollection.findOneAndUpdate(
+                byId(collectionName),
+                incrementSequence(amount),
+                incrementSequenceOptions()
+        );
+        return PublisherFutures.first(publisher).thenApply(counter -> counter.get(SEQUENCE, Number.class).intValue());
+    }
+
+    /**
+     * Seeds the sequence of the collection with the highest id stored in the
+     * collection if no sequence exists yet.
+     *
+     * @return the future completed once the sequence exists
+     * @see MongoDBDatabase#fetchMaxId()
+     */
+    private CompletableFuture<Void> seedCounter() {
+        if(autoIncrementFieldName == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return PublisherFutures.first(counterCollection.find(byId(collectionName)).first()).thenCompose(counter -> {
+            if(counter != null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            final Publisher<Document> highest = documentCollection.find()
+                    .projection(Projections.include(autoIncrementFieldName))
+                    .sort(Sorts.descending(autoIncrementFieldName))
+                    .limit(1)
+                    .first();
+            return PublisherFutures.first(highest).thenCompose(document -> {
+                int maxId = 0;
+                if(document != null && document.get(autoIncrementFieldName) instanceof Number) {
+                    maxId = document.get(autoIncrementFieldName, Number.class).intValue();
+                }
+                final UpdateOptions options = new UpdateOptions().upsert(true);
+                return PublisherFutures.completion(counterCollection.updateOne(byId(collectionName), seedSequence(maxId), options));
+            });
+        });
+    }
+
+    /**
+     * Creates the index on the unique identifier parts and drops the legacy
+     * unique text index.
+     *
+     * @return the future completed once the indexes exist
+     * @see MongoDBDatabase
+     */
+    private CompletableFuture<Void> createIndexes() {
+        return PublisherFutures.toList(documentCollection.listIndexes()).thenCompose(indexes -> {
+            CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+            if(indexes.stream().anyMatch(index -> LEGACY_UNIQUE_ID_INDEX.equals(index.getString(INDEX_NAME)))) {
+                future = PublisherFutures.completion(documentCollection.dropIndex(LEGACY_UNIQUE_ID_INDEX));
+            }
+            future = future.thenCompose(ignored -> PublisherFutures.completion(documentCollection.createIndex(Indexes.ascending(UNIQUE_ID))));
+            if(autoIncrementFieldName != null) {
+                future = future.thenCompose(ignored -> PublisherFutures.completion(documentCollection.createIndex(Indexes.ascending(autoIncrementFieldName))));
+            }
+            return future;
+        });
+    }
+
+    /**
+     * Adds the unique identifier parts to documents that have been written
+     * before the parts were stored alongside the {@code _id}.
+     *
+     * @return the future completed once all documents have been migrated
+     */
+    private CompletableFuture<Void> migrateUniqueIdentifiers() {
+        final Publisher<Document> legacyDocuments = documentCollection.find(missingUniqueIdentifiers())
+                .projection(Projections.include(MONGO_ID));
+        return PublisherFutures.toList(legacyDocuments).thenCompose(documents -> {
+            if(documents.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            final List<WriteModel<Document>> models = documents.stream()
+                    .map(document -> document.get(MONGO_ID))
+                    .map(mongoId -> new UpdateOneModel<Document>(Filters.eq(MONGO_ID, mongoId), setUniqueIdentifiers(mongoId, encoding)))
+                    .collect(Collectors.toList());
+            return PublisherFutures.completion(documentCollection.bulkWrite(models, new BulkWriteOptions().ordered(false)));
+        });
+    }
+
+    /**
+     * Returns a publisher emitting the elements of the given source once the
+     * database has been initialized, calling the message receiver of every
+     * element before it is handed to the subscriber.
+     *
+     * @param source the publisher of the driver
+     * @return the publisher emitting the loaded objects
+     */
+    private Flow.Publisher<T> load(final Publisher<T> source) {
+        final Publisher<T> publisher = subscriber -> initialized.whenComplete((ignored, throwable) -> {
+            if(throwable != null) {
+                subscriber.onSubscribe(EmptySubscription.INSTANCE);
+                subscriber.onError(throwable);
+                return;
+            }
+            source.subscribe(new Subscriber<T>() {
+                @Override
+                public void onSubscribe(final Subscription subscription) {
+                    subscriber.onSubscribe(subscription);
+                }
+
+                @Override
+                public void onNext(final T object) {
+                    callMessageReceiver(object);
+                    subscriber.onNext(object);
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    subscriber.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    subscriber.onComplete();
+                }
+            });
+        });
+        return FlowAdapters.toFlowPublisher(publisher);
+    }
+
+    private void connect(final @NonNull MongoDBAuthentication auth) {
+        if(client == null) {
+            this.client = MongoDBClientRegistry.REACTIVE.acquire(auth);
+            this.authentication = auth;
+            this.database = client.getDatabase(auth.getDatabase());
+        }
+    }
+
+    /**
+     * Releases the client of this database. The underlying connection pool
+     * is closed once no other database with equal connection settings is
+     * using it anymore.
+     */
+    @Override
+    public void close() {
+        if(client != null) {
+            MongoDBClientRegistry.REACTIVE.release(authentication);
+            this.client = null;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return client != null;
+    }
+
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    private enum EmptySubscription implements Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(final long n) {}
+
+        @Override
+        public void cancel() {}
+    }
+}
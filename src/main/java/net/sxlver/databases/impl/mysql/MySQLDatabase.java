@@ -7,7 +7,8 @@ import net.sxlver.databases.exception.DatabaseException;
 import net.sxlver.databases.formatter.FieldNameFormatter;
 import net.sxlver.databases.formatter.FieldNameFormatters;
 import net.sxlver.databases.impl.DatabaseEntryIdentifier;
-import net.sxlver.databases.impl.mysql.type.TypeMappings;
+import net.sxlver.databases.impl.mysql.dialect.SQLDialect;
+import net.sxlver.databases.impl.mysql.dialect.SQLDialects;
 import net.sxlver.databases.util.Reflection;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,6 +26,7 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
     private final MySQLDatabaseHandler<T> databaseHandler;
 
     private final FieldNameFormatter formatter;
+    private final SQLDialect dialect;
     private final ClassInfo classInfo;
     private final String tableName;
 
@@ -71,12 +73,34 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
                          final boolean                     catchMainThread,
                          final @Nullable Thread            thread,
                          final @NonNull FieldNameFormatter formatter
+    ) {
+        this(type, settings, catchMainThread, thread, formatter, SQLDialects.MYSQL);
+    }
+
+    /**
+     * Constructs the database and automatically opens a connection given
+     * the information provided by the {@link DatabaseSettings}
+     *
+     * @param type the object the database is dealing with
+     * @param settings the database settings
+     * @param catchMainThread whether to throw an exception if executed on the defined thread
+     * @param thread thread db operations should not be allowed on
+     * @param formatter the formatter converting the field names
+     * @param dialect the dialect of the SQL database to connect to
+     */
+    public MySQLDatabase(final @NonNull Class<?>           type,
+                         final @NonNull DatabaseSettings   settings,
+                         final boolean                     catchMainThread,
+                         final @Nullable Thread            thread,
+                         final @NonNull FieldNameFormatter formatter,
+                         final @NonNull SQLDialect         dialect
     ) {
         super(type, catchMainThread, thread);
         this.settings = settings;
         this.classInfo = ClassInfo.ofClass(type, formatter);
         this.databaseHandler = new MySQLDatabaseHandler<>(this, (DatabaseConverter<T, Map<String, Object>>) classInfo.getConverter());
         this.formatter = formatter;
+        this.dialect = dialect;
         this.tableName = formatter.apply(Reflection.getTableName(type));
         connect(new MySQLDatabaseAuthentication(settings));
         super.init();
@@ -127,7 +151,7 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
      * @return the deserialized object
      */
     private T getFromUniqueIdentifier(final @NonNull Object uniqueId) {
-        return databaseHandler.get(uniqueId.toString().split(DatabaseEntryIdentifier.DELIMITER));
+        return databaseHandler.get(DatabaseEntryIdentifier.from(uniqueId).getUniqueIds());
     }
 
 
@@ -168,7 +192,7 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
      */
     @NonNull
     private Collection<T> getAllFromUniqueIdentifier(final @NonNull Object uniqueId) {
-        return databaseHandler.getAll(uniqueId.toString().split(DatabaseEntryIdentifier.DELIMITER));
+        return databaseHandler.getAll(DatabaseEntryIdentifier.from(uniqueId).getUniqueIds());
     }
 
     /**
@@ -182,12 +206,29 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
         return databaseHandler.getAll();
     }
 
+    /**
+     * Reads a page of entries ordered by their first unique identifier. Passing
+     * the id of the last entry of a page reads the following page, which seeks
+     * to the id instead of skipping the preceding rows like an offset would.
+     *
+     * @param after the first unique id of the entry preceding the page or {@code null} to read the first page
+     * @param limit the maximum amount of entries of the page
+     * @return the entries of the page
+     */
+    @NonNull
+    public Collection<T> getPage(final @Nullable Object after, final int limit) {
+        if(isCatchMainThread()) {
+            catchMainThread();
+        }
+        return databaseHandler.getPage(after == null ? null : after.toString(), limit);
+    }
+
     @Override
     protected void delete(final @NonNull Object query) {
         if(query instanceof SQLQuery) {
             ((SQLQuery) query).update();
         }
-        databaseHandler.remove(query.toString().split(DatabaseEntryIdentifier.DELIMITER));
+        databaseHandler.remove(DatabaseEntryIdentifier.from(query).getUniqueIds());
     }
 
     /**
@@ -202,7 +243,7 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
         final Field autoIncrementField = Reflection.getAutoIncrementField(type, classInfo);
         if(autoIncrementField != null) {
             final ClassInfo.FieldInfo fieldInfo = classInfo.getInfo(autoIncrementField);
-            final SQLQuery query = newStatementBuilder().selectMaxId(getTable(), fieldInfo.getFormattedName()).createQuery();
+            final SQLQuery query = newStatementBuilder().selectMaxId(getQuotedTable(), quote(fieldInfo.getFormattedName())).createQuery();
             final ResultSet result = query.execute();
             if(result.next()) {
                 return result.getInt(fieldInfo.getFormattedName());
@@ -220,11 +261,24 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
                                           final boolean          catchMainThread,
                                           final Thread           thread
     ) {
-        return new MySQLDatabase<>(type, settings, catchMainThread, thread, FieldNameFormatters.LOWER_SNAKE);
+        return of(type, settings, catchMainThread, thread, SQLDialects.MYSQL);
+    }
+
+    public static <T> MySQLDatabase<T> of(final Class<T>         type,
+                                          final DatabaseSettings settings,
+                                          final boolean          catchMainThread,
+                                          final Thread           thread,
+                                          final SQLDialect       dialect
+    ) {
+        return new MySQLDatabase<>(type, settings, catchMainThread, thread, FieldNameFormatters.LOWER_SNAKE, dialect);
     }
 
     public String getSchema() {
-        return Reflection.getTableSchema(type, formatter, TypeMappings.DEFAULT);
+        return Reflection.getTableSchema(type, formatter, dialect.getTypeMapping(), dialect::quote);
+    }
+
+    public SQLDialect getDialect() {
+        return dialect;
     }
 
     SQLQuery newQuery(final String query) {
@@ -240,6 +294,20 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
         return connection != null;
     }
 
+    @Override
+    public void close() {
+        if(connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch(final SQLException exception) {
+            throw new DatabaseException("Unable to close connection to " + dialect + " database: " + exception.getMessage());
+        } finally {
+            connection = null;
+        }
+    }
+
     protected ClassInfo getClassInfo() {
         return classInfo;
     }
@@ -248,22 +316,26 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
         return tableName;
     }
 
+    String getQuotedTable() {
+        return quote(tableName);
+    }
+
+    String quote(final String identifier) {
+        return dialect.quote(identifier);
+    }
+
     @Override
     public void connect(final @NonNull DatabaseAuth auth) {
         final MySQLDatabaseAuthentication mySQLAuth = (MySQLDatabaseAuthentication) auth;
         try {
             connection = DriverManager.getConnection(
-                    "jdbc:mysql://" +
-                            mySQLAuth.getHost() + ":" +
-                            mySQLAuth.getPort() + "/" +
-                            mySQLAuth.getDatabase() + "?autoReconnect=true&characterEncoding=utf8&serverTimezone=UTC&useSSL=" +
-                            mySQLAuth.isUseSSL(),
+                    dialect.getUrl(type, settings, mySQLAuth),
                     mySQLAuth.getUsername(),
                     mySQLAuth.getPassword()
             );
             createTable();
         } catch(final Exception exception) {
-            throw new DatabaseException("Unable to open connection to MySQL database: " + exception.getMessage());
+            throw new DatabaseException("Unable to open connection to " + dialect + " database: " + exception.getMessage());
         }
     }
 
@@ -275,7 +347,7 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
         }
         final SQLQuery tableCreateQuery = newStatementBuilder()
                 .createIfNotExists(
-                        getTable(),
+                        getQuotedTable(),
                         getSchema(),
                         getUniqueIdStructure()
                 ).createQuery();
@@ -288,9 +360,9 @@ public class MySQLDatabase<T> extends AbstractDatabase<T> {
         if (uniqueIds.length > 1) {
             return SQLBuilder.uniqueConstraint(
                     "identifier_constraint",
-                    Arrays.stream(uniqueIds).map(Field::getName).toArray(String[]::new)
+                    Arrays.stream(uniqueIds).map(field -> quote(formatter.apply(field.getName()))).toArray(String[]::new)
             );
         }
-        return SQLBuilder.uniqueKey(formatter.apply(uniqueIds[0].getName()));
+        return dialect.uniqueKey(quote(formatter.apply(uniqueIds[0].getName())));
     }
 }
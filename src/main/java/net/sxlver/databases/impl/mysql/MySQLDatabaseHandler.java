@@ -1,12 +1,19 @@
 package net.sxlver.databases.impl.mysql;
 
-import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import net.sxlver.databases.ClassInfo;
 import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.adapter.strategy.CustomToNumberPolicy;
+import net.sxlver.databases.converter.RowDecoder;
+import net.sxlver.databases.converter.RowSource;
+import net.sxlver.databases.filter.FieldFilters;
 import net.sxlver.databases.impl.mysql.context.MySQLConversionContext;
+import net.sxlver.databases.util.Reflection;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.sql.ResultSet;
@@ -14,17 +21,31 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 class MySQLDatabaseHandler<T> {
+    // converts lists, sets and maps from and to the json text stored in their columns
+    static final Gson CONTAINER_GSON = new GsonBuilder()
+            .disableHtmlEscaping()
+            .setObjectToNumberStrategy(CustomToNumberPolicy.INT_LONG_DOUBLE)
+            .create();
+
     private final MySQLDatabase<T> database;
     private final DatabaseConverter<T, Map<String, Object>> converter;
+    private final boolean rowDecoding;
+    private final Set<String> containerColumns = new HashSet<>();
 
     MySQLDatabaseHandler(final @NonNull MySQLDatabase<T> database,
                          final @NonNull DatabaseConverter<T, Map<String, Object>> converter
     ) {
         this.database = database;
         this.converter = converter;
+        this.rowDecoding = RowDecoder.supports(database.getType(), converter);
+        for (final Field field : FieldFilters.DEFAULT.filterDeclaredFieldsOf(database.getType())) {
+            final ClassInfo.FieldInfo fieldInfo = database.getClassInfo().getInfo(field);
+            if(fieldInfo != null && Reflection.isContainerType(field.getType())) {
+                containerColumns.add(fieldInfo.getFormattedName());
+            }
+        }
     }
 
     /**
@@ -38,7 +59,7 @@ class MySQLDatabaseHandler<T> {
     public T get(final String... uniqueIds) {
         final Field[] uniqueIdentifiers = database.getClassInfo().getUniqueIdentifiers();
         final ResultSet result = database.newStatementBuilder()
-                .select(database.getTable(), "*")
+                .select(database.getQuotedTable(), "*")
                 .where(convertUniqueIds(uniqueIdentifiers, uniqueIds.length))
                 .createQuery()
                 .execute((Object[]) uniqueIds);
@@ -46,8 +67,7 @@ class MySQLDatabaseHandler<T> {
         if(!result.next())
             return null;
 
-        final Map<String, Object> resultMap = mapFromResult(result);
-        final T object = converter.deserialize(resultMap, MySQLConversionContext.of(database.getType()));
+        final T object = decode(result, new ResultSetRowSource(result));
         database.callMessageReceiver(object);
         return object;
     }
@@ -65,8 +85,7 @@ class MySQLDatabaseHandler<T> {
         if(!result.next())
             return null;
 
-        final Map<String, Object> resultMap = mapFromResult(result);
-        final T object = converter.deserialize(resultMap, MySQLConversionContext.of(database.getType()));
+        final T object = decode(result, new ResultSetRowSource(result));
         database.callMessageReceiver(object);
         return object;
     }
@@ -74,19 +93,12 @@ class MySQLDatabaseHandler<T> {
     @SneakyThrows
     public Collection<T> getAll(final String... uniqueIds) {
         final ResultSet result = database.newStatementBuilder()
-                .select(database.getTable(), "*")
+                .select(database.getQuotedTable(), "*")
                 .where(convertUniqueIds(database.getClassInfo().getUniqueIdentifiers(), uniqueIds.length))
                 .createQuery()
                 .execute((Object[]) uniqueIds);
 
-        final List<Map<String, Object>> mappedResults = Lists.newArrayList();
-        while(result.next()) {
-            mappedResults.add(mapFromResult(result));
-        }
-        final Collection<T> objects = mappedResults.stream().map(map
-                -> converter.deserialize(map, MySQLConversionContext.of(database.getType())))
-                .collect(Collectors.toList());
-
+        final Collection<T> objects = decodeAll(result);
         for (final T object : objects) {
             database.callMessageReceiver(object);
         }
@@ -96,18 +108,39 @@ class MySQLDatabaseHandler<T> {
     @SneakyThrows
     public Collection<T> getAll() {
         final ResultSet result = database.newStatementBuilder()
-                .select(database.getTable(), "*")
+                .select(database.getQuotedTable(), "*")
                 .createQuery()
                 .execute();
 
-        final List<Map<String, Object>> mappedResults = Lists.newArrayList();
-        while(result.next()) {
-            mappedResults.add(mapFromResult(result));
+        final Collection<T> objects = decodeAll(result);
+        for (final T object : objects) {
+            database.callMessageReceiver(object);
         }
-        final Collection<T> objects = mappedResults.stream().map(map
-                -> converter.deserialize(map, MySQLConversionContext.of(database.getType())))
-                .collect(Collectors.toList());
+        return objects;
+    }
 
+    /**
+     * Gets the rows following the given value of the first unique identifier
+     * in its order, seeking to the value instead of skipping the preceding rows.
+     *
+     * @param after the value preceding the page or {@code null} to read the first page
+     * @param limit the maximum amount of rows
+     * @return the deserialized rows of the page
+     */
+    @SneakyThrows
+    public Collection<T> getPage(final @Nullable String after, final int limit) {
+        final String column = convertUniqueIds(database.getClassInfo().getUniqueIdentifiers(), 1)[0];
+        final SQLBuilder builder = database.newStatementBuilder()
+                .select(database.getQuotedTable(), "*");
+        if(after != null) {
+            builder.after(column);
+        }
+        final ResultSet result = builder.orderBy(column)
+                .limit(limit)
+                .createQuery()
+                .executeQuery(after == null ? new Object[0] : new Object[]{after});
+
+        final Collection<T> objects = decodeAll(result);
         for (final T object : objects) {
             database.callMessageReceiver(object);
         }
@@ -123,14 +156,7 @@ class MySQLDatabaseHandler<T> {
     @SneakyThrows
     public Collection<T> getAll(final SQLQuery query) {
         final ResultSet result = query.execute();
-        final List<Map<String, Object>> mappedResults = Lists.newArrayList();
-        while(result.next()) {
-            mappedResults.add(mapFromResult(result));
-        }
-        final Collection<T> objects = mappedResults.stream().map(map
-                -> converter.deserialize(map, MySQLConversionContext.of(database.getType())))
-                .collect(Collectors.toList());
-
+        final Collection<T> objects = decodeAll(result);
         for (final T object : objects) {
             database.callMessageReceiver(object);
         }
@@ -144,15 +170,20 @@ class MySQLDatabaseHandler<T> {
      */
     public void save(final T object) {
         final Map<String, Object> serialized = converter.serialize(object, null);
+        final Field[] uniqueIdentifiers = database.getClassInfo().getUniqueIdentifiers();
+        final List<String> columns = serialized.keySet().stream()
+                .map(database::quote)
+                .collect(Collectors.toList());
         final SQLQuery query = database.newStatementBuilder()
-                .insert(database.getTable(), mapToColumns(serialized))
-                .updateOnDuplicateKey(mapToColumnsUpdate(serialized))
+                .upsert(database.getQuotedTable(), columns, Arrays.asList(convertUniqueIds(uniqueIdentifiers, uniqueIdentifiers.length)))
                 .createQuery();
 
-        // Duplicate the array due to the values being required once by
-        // the INSERT and once again by the ON DUPLICATE KEY UPDATE statement
-        final Object[] values = serialized.values().toArray();
-        query.update(Stream.concat(Arrays.stream(values), Arrays.stream(values)).toArray(Object[]::new));
+        final Object[] values = serialized.values().stream()
+                .map(MySQLDatabaseHandler::toColumnValue)
+                .toArray();
+        // the dialect decides how often the values are bound, e.g. once by the
+        // INSERT and once again by the ON DUPLICATE KEY UPDATE statement of MySQL
+        query.update(database.getDialect().upsertParameters(values));
     }
 
     /**
@@ -164,7 +195,7 @@ class MySQLDatabaseHandler<T> {
     public void remove(final String... uniqueIds) {
         final Field[] uniqueIdentifiers = database.getClassInfo().getUniqueIdentifiers();
         final SQLQuery deleteQuery = database.newStatementBuilder()
-                .delete(database.getTable())
+                .delete(database.getQuotedTable())
                 .where(convertUniqueIds(uniqueIdentifiers, uniqueIds.length))
                 .replaceOnCreate(uniqueIds)
                 .createQuery();
@@ -172,6 +203,40 @@ class MySQLDatabaseHandler<T> {
         deleteQuery.update();
     }
 
+    /**
+     * Deserializes every remaining row of the result.
+     *
+     * @param result the result to read
+     * @return the deserialized objects
+     * @throws SQLException if a error occurs whilst reading the results
+     */
+    private Collection<T> decodeAll(final ResultSet result) throws SQLException {
+        final RowSource source = new ResultSetRowSource(result);
+        final List<T> objects = Lists.newArrayList();
+        while(result.next()) {
+            objects.add(decode(result, source));
+        }
+        return objects;
+    }
+
+    /**
+     * Deserializes the current row of the result. Entities converted reflectively
+     * are decoded from the columns directly, otherwise the row is parsed to a map
+     * first, which is passed to the converter of the entity.
+     *
+     * @param result the result positioned at the row
+     * @param source the source reading the rows of the result
+     * @return the deserialized object
+     * @throws SQLException if a error occurs whilst reading the result
+     */
+    @SuppressWarnings("unchecked")
+    private T decode(final ResultSet result, final RowSource source) throws SQLException {
+        if(rowDecoding) {
+            return RowDecoder.decode((Class<T>) database.getType(), source);
+        }
+        return converter.deserialize(mapFromResult(result), MySQLConversionContext.of(database.getType()));
+    }
+
     /**
      * Parses a {@code ResultSet} to a {@code Map<String, Object>}
      *
@@ -183,14 +248,34 @@ class MySQLDatabaseHandler<T> {
         final Map<String, Object> map = new HashMap<>();
         final ResultSetMetaData metadata = result.getMetaData();
         for (int i = 0; i < metadata.getColumnCount(); i++) {
-            map.put(metadata.getColumnLabel(i+1), result.getObject(i+1));
+            final String column = metadata.getColumnLabel(i+1);
+            final Object value = result.getObject(i+1);
+            if(value instanceof String && containerColumns.contains(column)) {
+                map.put(column, CONTAINER_GSON.fromJson((String) value, Object.class));
+            }else {
+                map.put(column, value);
+            }
         }
         return map;
     }
 
+    /**
+     * Returns the value bound to the column of a serialized field. Lists,
+     * sets and maps are stored as json text, as drivers can't bind them.
+     *
+     * @param value the serialized value of the field
+     * @return the value of the column
+     */
+    private static Object toColumnValue(final Object value) {
+        if(value instanceof Collection || value instanceof Map) {
+            return CONTAINER_GSON.toJson(value);
+        }
+        return value;
+    }
+
     /**
      * Converts the fields marked as unique ids to a string array
-     * containing their formatted names
+     * containing their formatted and quoted names
      *
      * @param uniqueIds the field(s) defined as unique id(s)
      * @return the converted unique id(s)
@@ -200,37 +285,8 @@ class MySQLDatabaseHandler<T> {
         for (int i = 0; i < uniqueIds.length && i < max; i++) {
             final Field field = uniqueIds[i];
             final ClassInfo.FieldInfo fieldInfo = database.getClassInfo().getInfo(field);
-            formattedUniqueIds[i] = fieldInfo.getFormattedName();
+            formattedUniqueIds[i] = database.quote(fieldInfo.getFormattedName());
         }
         return formattedUniqueIds;
     }
-
-    /**
-     * Takes a {@code Map} as argument and returns a string
-     * that can be put in the VALUES sql query.
-     *
-     * @param map map to parse from
-     * @return a valid string passed to the VALUES sql query
-     */
-    private String mapToColumns(final Map<String, Object> map) {
-        final Set<String> keySet = map.keySet();
-        final String valueQuery = Strings.repeat("?,", keySet.size());
-        return valueQuery.substring(0, valueQuery.length()-1);
-    }
-
-    /**
-     * Takes a {@code Map} as argument and returns a string
-     * that can be put in the UPDATE sql query.
-     *
-     * @param map map to parse from
-     * @return a valid string passed to the UPDATE sql query
-     */
-    private String mapToColumnsUpdate(final Map<String, Object> map) {
-        final StringBuilder valueQuery = new StringBuilder();
-        for (final Map.Entry<String, Object> entry : map.entrySet()) {
-            final String field = entry.getKey();
-            valueQuery.append(field).append(" = ?,");
-        }
-        return valueQuery.substring(0, valueQuery.length()-1);
-    }
 }
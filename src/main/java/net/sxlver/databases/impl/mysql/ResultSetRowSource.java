@@ -0,0 +1,136 @@
+package net.sxlver.databases.impl.mysql;
+
+import lombok.NonNull;
+import net.sxlver.databases.converter.RowLayout;
+import net.sxlver.databases.converter.RowSource;
+import net.sxlver.databases.exception.DatabaseException;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Reads the current row of a {@link ResultSet} column by column.
+ *
+ * <p>The column labels are resolved to the ordinals of the entity once per
+ * result, every following row is read by column index only. Lists, sets and
+ * maps are parsed from the json text they are stored as.
+ */
+final class ResultSetRowSource implements RowSource {
+    private final ResultSet result;
+    private RowLayout layout;
+    private int[] ordinals;
+    private boolean[] containers;
+    private int column;
+
+    ResultSetRowSource(final @NonNull ResultSet result) {
+        this.result = result;
+    }
+
+    @Override
+    public int nextField(final RowLayout layout) {
+        if(this.layout != layout) {
+            resolve(layout);
+        }
+        if(column == ordinals.length) {
+            // rewind for the next row of the result
+            column = 0;
+            return END;
+        }
+        return ordinals[column++];
+    }
+
+    private void resolve(final RowLayout layout) {
+        try {
+            final ResultSetMetaData metadata = result.getMetaData();
+            final int[] ordinals = new int[metadata.getColumnCount()];
+            final boolean[] containers = new boolean[ordinals.length];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = layout.ordinalOf(metadata.getColumnLabel(i + 1));
+                containers[i] = ordinals[i] != SKIP && layout.get(ordinals[i]).isContainer();
+            }
+            this.ordinals = ordinals;
+            this.containers = containers;
+            this.layout = layout;
+            this.column = 0;
+        }catch(final SQLException exception) {
+            throw new DatabaseException("Unable to read the columns of the result. " + exception.getMessage(), exception);
+        }
+    }
+
+    @Override
+    public boolean wasNull() {
+        try {
+            return result.wasNull();
+        }catch(final SQLException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public boolean readBoolean() {
+        try {
+            return result.getBoolean(column);
+        }catch(final SQLException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public int readInt() {
+        try {
+            return result.getInt(column);
+        }catch(final SQLException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public long readLong() {
+        try {
+            return result.getLong(column);
+        }catch(final SQLException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public double readDouble() {
+        try {
+            return result.getDouble(column);
+        }catch(final SQLException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public String readString() {
+        try {
+            return result.getString(column);
+        }catch(final SQLException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public Object readValue() {
+        try {
+            final Object value = result.getObject(column);
+            if(value instanceof String && containers[column - 1]) {
+                return MySQLDatabaseHandler.CONTAINER_GSON.fromJson((String) value, Object.class);
+            }
+            return value;
+        }catch(final SQLException exception) {
+            throw failure(exception);
+        }
+    }
+
+    @Override
+    public void skipValue() {
+        // columns are read by index, so there is nothing to skip
+    }
+
+    private DatabaseException failure(final SQLException exception) {
+        return new DatabaseException("Unable to read column " + column + " of the result. " + exception.getMessage(), exception);
+    }
+}
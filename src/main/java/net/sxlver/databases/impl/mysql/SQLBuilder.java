@@ -24,7 +24,9 @@ public class SQLBuilder {
     private static final String updateQuery = " UPDATE %s SET %s";
     private static final String onDuplicateKey = " ON DUPLICATE KEY ";
     private static final String onDuplicateKeyUpdate = onDuplicateKey + " UPDATE %s";
-    private static final String selectMaxIdQuery = "SELECT %s FROM %s ORDER BY %s DESC LIMIT 1";
+    private static final String selectMaxIdQuery = "SELECT %s FROM %s ORDER BY %s DESC";
+    private static final String orderByQuery = " ORDER BY %s ";
+    private static final String afterQuery = " WHERE %s > ? ";
 
     private final MySQLDatabase<?> database;
 
@@ -78,6 +80,45 @@ public class SQLBuilder {
         return this;
     }
 
+    /**
+     * Appends a statement inserting a row or updating the row with
+     * the same keys, in the syntax of the dialect of the database.
+     *
+     * @param table the table
+     * @param columns the columns of the row
+     * @param keys the columns identifying the row
+     * @return this builder
+     * @see net.sxlver.databases.impl.mysql.dialect.SQLDialect#upsertParameters(Object[])
+     */
+    public SQLBuilder upsert(final String table, final List<String> columns, final List<String> keys) {
+        statement.append(database.getDialect().upsert(table, columns, keys));
+        return this;
+    }
+
+    /**
+     * Appends the condition of a keyset page, selecting the rows following
+     * the given value of the column. Has to be followed by {@link #orderBy(String)}
+     * and {@link #limit(int)} on the same column. The value is bound as a parameter
+     * of {@link SQLQuery#executeQuery(Object...)}.
+     *
+     * @param column the column the rows are ordered by
+     * @return this builder
+     */
+    public SQLBuilder after(final String column) {
+        statement.append(String.format(afterQuery, column));
+        return this;
+    }
+
+    public SQLBuilder orderBy(final String column) {
+        statement.append(String.format(orderByQuery, column));
+        return this;
+    }
+
+    public SQLBuilder limit(final int limit) {
+        statement.append(database.getDialect().limit(limit));
+        return this;
+    }
+
     public SQLBuilder updateOnDuplicateKey(final String columns) {
         statement.append(String.format(onDuplicateKeyUpdate, columns));
         return this;
@@ -113,7 +154,20 @@ public class SQLBuilder {
 
     SQLBuilder selectMaxId(final String table, final String column) {
         statement.append(String.format(selectMaxIdQuery, column, table, column));
-        return this;
+        return limit(1);
+    }
+
+    /**
+     * Returns a statement inserting a row or updating the given columns
+     * of the row with the same unique key, in the syntax of MySQL.
+     *
+     * @param table the table
+     * @param values the values of the row
+     * @param updates the assignments of the columns to update
+     * @return the statement
+     */
+    public static String insertOrUpdate(final String table, final String values, final String updates) {
+        return String.format(insertQuery, table) + String.format(valuesQuery, values) + String.format(onDuplicateKeyUpdate, updates);
     }
 
     public static String uniqueKey(final String column) {
@@ -43,6 +43,26 @@ public class SQLQuery {
         }
     }
 
+    /**
+     * Executes the query, binding the given parameters to its placeholders
+     * instead of replacing them within the query.
+     *
+     * @param parameter the values of the placeholders in order
+     * @return the result of the query
+     */
+    public ResultSet executeQuery(final Object... parameter) {
+        try {
+            final PreparedStatement statement = connection.prepareStatement(query);
+            for (int i = 0; i < parameter.length; i++) {
+                statement.setObject(i + 1, parameter[i]);
+            }
+            return statement.executeQuery();
+        }catch(final SQLException exception) {
+            final String message = "whilst executing query '" + query + "'";
+            throw new DatabaseException(message, exception);
+        }
+    }
+
     public String getQuery() {
         return query;
     }
@@ -0,0 +1,74 @@
+package net.sxlver.databases.impl.mysql.dialect;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.impl.mysql.MySQLDatabaseAuthentication;
+import net.sxlver.databases.impl.mysql.type.TypeMapping;
+
+import java.util.List;
+
+/**
+ * Describes the parts of the SQL syntax that differ between the
+ * databases the SQL backend supports.
+ */
+public interface SQLDialect {
+
+    /**
+     * Returns the mapping of java types to the column types of the dialect.
+     *
+     * @return the type mapping
+     */
+    TypeMapping getTypeMapping();
+
+    /**
+     * Returns the JDBC url to open a connection with.
+     *
+     * @param type the type stored in the database
+     * @param settings the database settings
+     * @param auth the authentication parsed from the settings
+     * @return the JDBC url
+     */
+    String getUrl(final Class<?> type, final DatabaseSettings settings, final MySQLDatabaseAuthentication auth);
+
+    /**
+     * Quotes a table or column name, so it may contain reserved words.
+     *
+     * @param identifier the name
+     * @return the quoted name
+     */
+    String quote(final String identifier);
+
+    /**
+     * Returns the table constraint making a single column unique.
+     *
+     * @param column the column
+     * @return the unique key constraint
+     */
+    String uniqueKey(final String column);
+
+    /**
+     * Returns a statement inserting a row or updating the row with the same keys.
+     *
+     * @param table the table
+     * @param columns the columns of the row in the order their values are passed in
+     * @param keys the columns identifying the row
+     * @return the statement
+     * @see #upsertParameters(Object[])
+     */
+    String upsert(final String table, final List<String> columns, final List<String> keys);
+
+    /**
+     * Returns the parameters of an {@link #upsert(String, List, List)} statement.
+     *
+     * @param values the values of the row
+     * @return the parameters to bind to the statement
+     */
+    Object[] upsertParameters(final Object[] values);
+
+    /**
+     * Returns the clause limiting the amount of rows of a query.
+     *
+     * @param limit the maximum amount of rows
+     * @return the limit clause
+     */
+    String limit(final int limit);
+}
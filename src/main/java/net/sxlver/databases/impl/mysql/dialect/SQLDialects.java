@@ -0,0 +1,121 @@
+package net.sxlver.databases.impl.mysql.dialect;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.impl.mysql.MySQLDatabaseAuthentication;
+import net.sxlver.databases.impl.mysql.SQLBuilder;
+import net.sxlver.databases.impl.mysql.type.TypeMapping;
+import net.sxlver.databases.impl.mysql.type.TypeMappings;
+import net.sxlver.databases.util.FileSystemUtil;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public enum SQLDialects implements SQLDialect {
+    MYSQL(TypeMappings.DEFAULT) {
+        @Override
+        public String getUrl(final Class<?> type, final DatabaseSettings settings, final MySQLDatabaseAuthentication auth) {
+            return "jdbc:mysql://" +
+                    auth.getHost() + ":" +
+                    auth.getPort() + "/" +
+                    auth.getDatabase() + "?autoReconnect=true&characterEncoding=utf8&serverTimezone=UTC&useSSL=" +
+                    auth.isUseSSL();
+        }
+
+        @Override
+        public String quote(final String identifier) {
+            return "`" + identifier.replace("`", "``") + "`";
+        }
+
+        @Override
+        public String uniqueKey(final String column) {
+            return SQLBuilder.uniqueKey(column);
+        }
+
+        @Override
+        public String upsert(final String table, final List<String> columns, final List<String> keys) {
+            return SQLBuilder.insertOrUpdate(table, parameters(columns.size()),
+                    columns.stream().map(column -> column + " = ?").collect(Collectors.joining(",")));
+        }
+
+        /**
+         * Binds the values twice, once to the INSERT and once
+         * again to the ON DUPLICATE KEY UPDATE statement.
+         */
+        @Override
+        public Object[] upsertParameters(final Object[] values) {
+            return Stream.concat(Arrays.stream(values), Arrays.stream(values)).toArray(Object[]::new);
+        }
+    },
+    /**
+     * An embedded H2 database running in MySQL compatibility mode. The database
+     * is stored in the database path unless a connection uri is given, which
+     * may also point to an in-memory database like {@code jdbc:h2:mem:name;DB_CLOSE_DELAY=-1}.
+     * The compatibility mode is added to connection uris not setting a mode themselves.
+     */
+    H2(TypeMappings.H2) {
+        @Override
+        public String getUrl(final Class<?> type, final DatabaseSettings settings, final MySQLDatabaseAuthentication auth) {
+            final String connectionUri = settings.getConnectionUri();
+            if(!connectionUri.isBlank()) {
+                return connectionUri.toUpperCase(Locale.ROOT).contains(MODE) ? connectionUri : connectionUri + COMPATIBILITY_MODE;
+            }
+            return "jdbc:h2:file:" + FileSystemUtil.getJarFileDirectory(type) + settings.getDatabasePath()
+                    + File.separator + DATABASE_FOLDER + File.separator + auth.getDatabase() + COMPATIBILITY_MODE;
+        }
+
+        @Override
+        public String quote(final String identifier) {
+            return "\"" + identifier.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        public String uniqueKey(final String column) {
+            return String.format(" UNIQUE (%s)", column);
+        }
+
+        @Override
+        public String upsert(final String table, final List<String> columns, final List<String> keys) {
+            return String.format(" MERGE INTO %s (%s) KEY (%s) VALUES (%s)",
+                    table, String.join(",", columns), String.join(",", keys), parameters(columns.size()));
+        }
+
+        @Override
+        public Object[] upsertParameters(final Object[] values) {
+            return values;
+        }
+
+        @Override
+        public String limit(final int limit) {
+            return String.format(" FETCH FIRST %d ROWS ONLY", limit);
+        }
+    };
+
+    private static final String DATABASE_FOLDER = "database";
+    private static final String MODE = ";MODE=";
+    private static final String COMPATIBILITY_MODE = MODE + "MySQL;DATABASE_TO_LOWER=TRUE";
+
+    private final TypeMapping typeMapping;
+
+    SQLDialects(final TypeMapping typeMapping) {
+        this.typeMapping = typeMapping;
+    }
+
+    @Override
+    public TypeMapping getTypeMapping() {
+        return typeMapping;
+    }
+
+    @Override
+    public String limit(final int limit) {
+        return String.format(" LIMIT %d", limit);
+    }
+
+    private static String parameters(final int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
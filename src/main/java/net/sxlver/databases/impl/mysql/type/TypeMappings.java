@@ -25,6 +25,22 @@ public enum TypeMappings implements TypeMapping {
             new TypeMapper("BLOB", byte[].class),
             new TypeMapper("TEXT", List.class, Map.class, Set.class),
             new TypeMapper("VARCHAR(64)", Enum.class)
+    ),
+    H2(
+            new TypeMapper("VARCHAR(255)", String.class),
+            new TypeMapper("VARCHAR(50)", UUID.class),
+            new TypeMapper("BOOLEAN", Boolean.class, boolean.class),
+            new TypeMapper("DOUBLE PRECISION", Double.class, double.class),
+            new TypeMapper("REAL", Float.class, float.class),
+            new TypeMapper("INT", Integer.class, int.class),
+            new TypeMapper("BIGINT", Long.class, long.class),
+            new TypeMapper("SMALLINT", Short.class, short.class),
+            new TypeMapper("TIMESTAMP", Time.class, Timestamp.class),
+            new TypeMapper("DATE", Date.class),
+            new TypeMapper("DECIMAL", BigDecimal.class),
+            new TypeMapper("VARBINARY", byte[].class),
+            new TypeMapper("VARCHAR", List.class, Map.class, Set.class),
+            new TypeMapper("VARCHAR(64)", Enum.class)
     );
 
     private final List<TypeMapper> typeMappers = Lists.newArrayList();
@@ -0,0 +1,112 @@
+package net.sxlver.databases.processor;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.VariableElement;
+import java.util.Set;
+
+/**
+ * A persisted field of an entity the {@link EntityProcessor} generates code for.
+ */
+final class EntityField {
+    static final Set<String> SIMPLE_TYPES = Set.of(
+            "java.lang.Boolean",
+            "java.lang.Byte",
+            "java.lang.Character",
+            "java.lang.Short",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.Float",
+            "java.lang.Double",
+            "java.lang.String"
+    );
+
+    /**
+     * Decides how the generated code converts the value of a field,
+     * matching the converter the reflective conversion would select.
+     */
+    enum Kind {
+        CONVERTER,
+        PRIMITIVE,
+        SIMPLE,
+        ENUM,
+        GENERIC
+    }
+
+    private final String name;
+    private final String type;
+    private final Kind kind;
+    private final boolean accessible;
+
+    EntityField(final VariableElement field, final String type, final Kind kind) {
+        this.name = field.getSimpleName().toString();
+        this.type = type;
+        this.kind = kind;
+        this.accessible = !field.getModifiers().contains(Modifier.PRIVATE);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the erased type of the field as it is referenced in source code.
+     *
+     * @return the type of the field
+     */
+    String getType() {
+        return type;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns whether the generated code in the package of the entity can access
+     * the field directly, otherwise it is accessed through a {@code FieldAccessor}.
+     *
+     * @return whether the field isn't private
+     */
+    boolean isAccessible() {
+        return accessible;
+    }
+
+    /**
+     * Returns the name of the {@code EntitySerializer} helper unboxing a value
+     * of the field, if it is of a primitive or boxed primitive type.
+     *
+     * @return the name of the helper or {@code null}
+     */
+    String getUnboxingHelper() {
+        switch (type) {
+            case "boolean": case "java.lang.Boolean": return "booleanValue";
+            case "char": case "java.lang.Character": return "charValue";
+            case "byte": case "java.lang.Byte": return "byteValue";
+            case "short": case "java.lang.Short": return "shortValue";
+            case "int": case "java.lang.Integer": return "intValue";
+            case "long": case "java.lang.Long": return "longValue";
+            case "float": case "java.lang.Float": return "floatValue";
+            case "double": case "java.lang.Double": return "doubleValue";
+            default: return null;
+        }
+    }
+
+    /**
+     * Returns the type a converted value is cast to before it's assigned to the field.
+     *
+     * @return the boxed type of primitive fields, otherwise the type of the field
+     */
+    String getReferenceType() {
+        switch (type) {
+            case "boolean": return "java.lang.Boolean";
+            case "char": return "java.lang.Character";
+            case "byte": return "java.lang.Byte";
+            case "short": return "java.lang.Short";
+            case "int": return "java.lang.Integer";
+            case "long": return "java.lang.Long";
+            case "float": return "java.lang.Float";
+            case "double": return "java.lang.Double";
+            default: return type;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package net.sxlver.databases.processor;
+
+import net.sxlver.databases.EntityMetadata;
+import net.sxlver.databases.annotation.CustomConverter;
+import net.sxlver.databases.annotation.ElementType;
+import net.sxlver.databases.annotation.Ignore;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.impl.mysql.annotation.AutoIncrement;
+import net.sxlver.databases.impl.mysql.annotation.DataType;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a converter and an {@link EntityMetadata} class for every type declaring
+ * a field annotated with {@link UniqueIdentifier}, and reports misused database
+ * annotations as compile errors.
+ *
+ * <p>Register the artifact as annotation processor to enable it. Entities compiled
+ * without it keep being scanned through reflection at runtime.
+ */
+public class EntityProcessor extends AbstractProcessor {
+    private static final Set<String> INTEGER_TYPES = Set.of("int", "java.lang.Integer");
+    private static final List<String> CONTAINER_TYPES = List.of("java.util.List", "java.util.Set", "java.util.Map");
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(
+                UniqueIdentifier.class.getName(),
+                AutoIncrement.class.getName(),
+                Ignore.class.getName(),
+                DataType.class.getName(),
+                ElementType.class.getName(),
+                CustomConverter.class.getName()
+        );
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getElementsAnnotatedWith(AutoIncrement.class)) {
+            if(!INTEGER_TYPES.contains(erasure(element.asType()))) {
+                error(element, "@AutoIncrement field '" + element.getSimpleName() + "' must be of type int or Integer.");
+            }
+        }
+        for (final Element element : roundEnv.getElementsAnnotatedWith(DataType.class)) {
+            if(element.getAnnotation(DataType.class).value().isBlank()) {
+                error(element, "@DataType of field '" + element.getSimpleName() + "' must not be blank.");
+            }
+        }
+        for (final Element element : roundEnv.getElementsAnnotatedWith(ElementType.class)) {
+            if(!isContainer(element.asType())) {
+                error(element, "@ElementType can only be used on fields of type List, Set or Map.");
+            }
+        }
+        for (final Element element : roundEnv.getElementsAnnotatedWith(CustomConverter.class)) {
+            checkConverter(element);
+        }
+
+        final Set<TypeElement> entities = new LinkedHashSet<>();
+        for (final VariableElement field : ElementFilter.fieldsIn(roundEnv.getElementsAnnotatedWith(UniqueIdentifier.class))) {
+            if(field.getModifiers().contains(Modifier.STATIC)) {
+                error(field, "@UniqueIdentifier field '" + field.getSimpleName() + "' must not be static.");
+            }
+            entities.add((TypeElement) field.getEnclosingElement());
+        }
+        for (final TypeElement entity : entities) {
+            if(checkEntity(entity)) {
+                generate(entity);
+            }
+        }
+        return false;
+    }
+
+    private boolean checkEntity(final TypeElement entity) {
+        if(entity.getNestingKind() == NestingKind.MEMBER && !entity.getModifiers().contains(Modifier.STATIC)) {
+            error(entity, "Entity " + entity.getSimpleName() + " must be a static class.");
+            return false;
+        }
+        if(entity.getModifiers().contains(Modifier.ABSTRACT)) {
+            final String message = "No converter is generated for the abstract entity " + entity.getSimpleName() + ".";
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, entity);
+            return false;
+        }
+        if(findNoArgsConstructor(entity) == null) {
+            error(entity, "Entity " + entity.getSimpleName() + " doesn't have a no-args constructor.");
+            return false;
+        }
+        for (Element element = entity; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if(element.getModifiers().contains(Modifier.PRIVATE)) {
+                final String message = "No converter is generated for the private entity " + entity.getSimpleName() + ".";
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, entity);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkConverter(final Element element) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if(!erasure(mirror.getAnnotationType()).equals(CustomConverter.class.getName())) {
+                continue;
+            }
+            for (final AnnotationValue value : mirror.getElementValues().values()) {
+                final TypeElement converter = (TypeElement) ((DeclaredType) value.getValue()).asElement();
+                if(converter.getModifiers().contains(Modifier.ABSTRACT) || findNoArgsConstructor(converter) == null) {
+                    error(element, "Converter " + converter.getSimpleName() + " must be a concrete class with a no-args constructor.");
+                }
+            }
+        }
+    }
+
+    private void generate(final TypeElement entity) {
+        final List<EntityField> fields = new ArrayList<>();
+        final List<String> uniqueIdentifiers = new ArrayList<>();
+        final List<String> autoIncrementFields = new ArrayList<>();
+        for (final VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+            final String name = field.getSimpleName().toString();
+            if(field.getAnnotation(UniqueIdentifier.class) != null) {
+                uniqueIdentifiers.add(name);
+            }
+            if(field.getAnnotation(AutoIncrement.class) != null) {
+                autoIncrementFields.add(name);
+            }
+            if(isPersisted(field)) {
+                fields.add(new EntityField(field, erasure(field.asType()), kindOf(field)));
+            }
+        }
+
+        final ExecutableElement constructor = findNoArgsConstructor(entity);
+        final EntitySource source = new EntitySource(
+                processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString(),
+                processingEnv.getElementUtils().getBinaryName(entity).toString(),
+                entity.getQualifiedName().toString(),
+                !constructor.getModifiers().contains(Modifier.PRIVATE),
+                entity.getAnnotation(CustomConverter.class) == null
+        );
+        try {
+            if(source.hasConverter()) {
+                write(source.getConverterName(), source.converter(fields), entity);
+            }
+            write(source.getMetadataName(), source.metadata(fields, uniqueIdentifiers, autoIncrementFields), entity);
+        }catch(final IOException exception) {
+            error(entity, "Unable to generate the converter of " + entity.getSimpleName() + ": " + exception.getMessage());
+        }
+    }
+
+    private void write(final String name, final String source, final TypeElement entity) throws IOException {
+        try (final Writer writer = processingEnv.getFiler().createSourceFile(name, entity).openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private static boolean isPersisted(final VariableElement field) {
+        final Set<Modifier> modifiers = field.getModifiers();
+        return !(modifiers.contains(Modifier.FINAL) ||
+                modifiers.contains(Modifier.STATIC) ||
+                modifiers.contains(Modifier.TRANSIENT) ||
+                field.getAnnotation(Ignore.class) != null);
+    }
+
+    private EntityField.Kind kindOf(final VariableElement field) {
+        final TypeMirror type = field.asType();
+        if(field.getAnnotation(CustomConverter.class) != null) {
+            return EntityField.Kind.CONVERTER;
+        } else if(type.getKind().isPrimitive()) {
+            return EntityField.Kind.PRIMITIVE;
+        } else if(EntityField.SIMPLE_TYPES.contains(erasure(type))) {
+            return EntityField.Kind.SIMPLE;
+        } else if(type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM) {
+            return EntityField.Kind.ENUM;
+        }
+        return EntityField.Kind.GENERIC;
+    }
+
+    private boolean isContainer(final TypeMirror type) {
+        for (final String container : CONTAINER_TYPES) {
+            final TypeElement element = processingEnv.getElementUtils().getTypeElement(container);
+            final TypeMirror erased = processingEnv.getTypeUtils().erasure(element.asType());
+            if(processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), erased)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ExecutableElement findNoArgsConstructor(final TypeElement type) {
+        for (final ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if(constructor.getParameters().isEmpty()) {
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    private String erasure(final TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private void error(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,217 @@
+package net.sxlver.databases.processor;
+
+import net.sxlver.databases.EntityMetadata;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the source code of the classes the {@link EntityProcessor} generates for an entity.
+ */
+final class EntitySource {
+    static final String CONVERTER_SUFFIX = "$$DatabaseConverter";
+
+    private final String packageName;
+    private final String simpleBinaryName;
+    private final String entityType;
+    private final boolean constructorAccessible;
+    private final boolean converter;
+
+    EntitySource(final String  packageName,
+                 final String  binaryName,
+                 final String  entityType,
+                 final boolean constructorAccessible,
+                 final boolean converter
+    ) {
+        this.packageName = packageName;
+        this.simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        this.entityType = entityType;
+        this.constructorAccessible = constructorAccessible;
+        this.converter = converter;
+    }
+
+    /**
+     * Returns whether a converter is generated, which isn't the case if the
+     * entity defines a custom converter for itself.
+     *
+     * @return whether a converter is generated
+     */
+    boolean hasConverter() {
+        return converter;
+    }
+
+    String getConverterName() {
+        return qualify(simpleBinaryName + CONVERTER_SUFFIX);
+    }
+
+    String getMetadataName() {
+        return qualify(simpleBinaryName + EntityMetadata.SUFFIX);
+    }
+
+    String converter(final List<EntityField> fields) {
+        final String name = simpleBinaryName + CONVERTER_SUFFIX;
+        final StringBuilder sb = header();
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(name).append(" extends net.sxlver.databases.converter.EntitySerializer\n");
+        sb.append("        implements net.sxlver.databases.DatabaseConverter<").append(entityType).append(", java.util.Map<String, Object>> {\n");
+        sb.append("    private final String[] names;\n");
+        for (int i = 0; i < fields.size(); i++) {
+            if(!fields.get(i).isAccessible()) {
+                sb.append("    private final net.sxlver.databases.util.FieldAccessor accessor").append(i).append(";\n");
+            }
+        }
+
+        sb.append("\n    public ").append(name).append("() {\n");
+        sb.append("        super(fields(").append(entityType).append(".class");
+        for (final EntityField field : fields) {
+            sb.append(", \"").append(field.getName()).append('"');
+        }
+        sb.append("));\n");
+        sb.append("        this.names = formattedNames(").append(entityType).append(".class, fields);\n");
+        for (int i = 0; i < fields.size(); i++) {
+            if(!fields.get(i).isAccessible()) {
+                sb.append("        this.accessor").append(i).append(" = net.sxlver.databases.util.FieldAccessor.of(fields[").append(i).append("]);\n");
+            }
+        }
+        sb.append("    }\n");
+
+        sb.append("\n    @Override\n");
+        sb.append("    public java.util.Map<String, Object> serialize(final ").append(entityType)
+                .append(" toSerialize, final net.sxlver.databases.converter.ConversionContext context) {\n");
+        sb.append("        return serialize((Object) toSerialize);\n");
+        sb.append("    }\n");
+
+        sb.append("\n    @Override\n");
+        sb.append("    public ").append(entityType).append(" deserialize(final java.util.Map<String, Object> toDeserialize, ")
+                .append("final net.sxlver.databases.converter.ConversionContext context) {\n");
+        if(constructorAccessible) {
+            sb.append("        final ").append(entityType).append(" instance = new ").append(entityType).append("();\n");
+        } else {
+            sb.append("        final ").append(entityType).append(" instance = net.sxlver.databases.util.Reflection.newInstance(")
+                    .append(entityType).append(".class);\n");
+        }
+        sb.append("        deserialize(instance, toDeserialize);\n");
+        sb.append("        return instance;\n");
+        sb.append("    }\n");
+
+        sb.append("\n    @Override\n");
+        sb.append("    protected java.util.Map<String, Object> write(final Object instance) {\n");
+        sb.append("        final ").append(entityType).append(" entity = (").append(entityType).append(") instance;\n");
+        sb.append("        final java.util.Map<String, Object> map = new java.util.LinkedHashMap<>();\n");
+        for (int i = 0; i < fields.size(); i++) {
+            sb.append("        map.put(names[").append(i).append("], ").append(writeValue(fields.get(i), i)).append(");\n");
+        }
+        sb.append("        return map;\n");
+        sb.append("    }\n");
+
+        sb.append("\n    @Override\n");
+        sb.append("    protected void read(final Object instance, final java.util.Map<String, Object> map) {\n");
+        sb.append("        final ").append(entityType).append(" entity = (").append(entityType).append(") instance;\n");
+        sb.append("        Object value;\n");
+        for (int i = 0; i < fields.size(); i++) {
+            readValue(sb, fields.get(i), i);
+        }
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    String metadata(final List<EntityField> fields, final List<String> uniqueIdentifiers, final List<String> autoIncrementFields) {
+        final StringBuilder sb = header();
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(simpleBinaryName).append(EntityMetadata.SUFFIX)
+                .append(" implements net.sxlver.databases.EntityMetadata<").append(entityType).append("> {\n");
+
+        sb.append("\n    @Override\n");
+        sb.append("    public Class<").append(entityType).append("> getType() {\n");
+        sb.append("        return ").append(entityType).append(".class;\n");
+        sb.append("    }\n");
+
+        final List<String> names = fields.stream().map(EntityField::getName).collect(Collectors.toList());
+        appendList(sb, "getFieldNames", names);
+        appendList(sb, "getUniqueIdentifiers", uniqueIdentifiers);
+        appendList(sb, "getAutoIncrementFields", autoIncrementFields);
+
+        sb.append("\n    @Override\n");
+        sb.append("    public net.sxlver.databases.DatabaseConverter<").append(entityType)
+                .append(", java.util.Map<String, Object>> createConverter() {\n");
+        if(converter) {
+            sb.append("        return new ").append(simpleBinaryName).append(CONVERTER_SUFFIX).append("();\n");
+        } else {
+            sb.append("        return null;\n");
+        }
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String writeValue(final EntityField field, final int index) {
+        final String read = field.isAccessible() ? "entity." + field.getName() : "accessor" + index + ".get(entity)";
+        switch (field.getKind()) {
+            case CONVERTER:
+                return "serializeWith(" + index + ", " + read + ", entity)";
+            case ENUM:
+                return field.isAccessible() ? "enumName(" + read + ")" : "enumName((Enum<?>) " + read + ")";
+            case GENERIC:
+                return "convertTo(" + index + ", entity)";
+            default:
+                return read;
+        }
+    }
+
+    private void readValue(final StringBuilder sb, final EntityField field, final int index) {
+        sb.append("        value = map.get(names[").append(index).append("]);\n");
+        switch (field.getKind()) {
+            case CONVERTER:
+            case GENERIC:
+                final String helper = field.getKind() == EntityField.Kind.CONVERTER ? "deserializeWith" : "convertFrom";
+                sb.append("        if(value != null) {\n");
+                sb.append("            value = ").append(helper).append("(").append(index).append(", value, entity);\n");
+                sb.append("        }\n");
+                sb.append("        if(value != null) {\n");
+                sb.append("            ").append(assign(field, index, "(" + field.getReferenceType() + ") value")).append(";\n");
+                sb.append("        }\n");
+                return;
+            case ENUM:
+                sb.append("        if(value != null) {\n");
+                sb.append("            ").append(assign(field, index, "(" + field.getType() + ") enumValue(" + index + ", value)")).append(";\n");
+                sb.append("        }\n");
+                return;
+            default:
+                final String unboxing = field.getUnboxingHelper();
+                final String converted = unboxing == null ? "(" + field.getType() + ") value" : unboxing + "(value)";
+                sb.append("        if(value != null) {\n");
+                sb.append("            ").append(assign(field, index, converted)).append(";\n");
+                sb.append("        }\n");
+        }
+    }
+
+    private static String assign(final EntityField field, final int index, final String value) {
+        if(field.isAccessible()) {
+            return "entity." + field.getName() + " = " + value;
+        }
+        return "accessor" + index + ".set(entity, " + value + ")";
+    }
+
+    private static void appendList(final StringBuilder sb, final String method, final List<String> values) {
+        sb.append("\n    @Override\n");
+        sb.append("    public java.util.List<String> ").append(method).append("() {\n");
+        sb.append("        return java.util.List.of(");
+        sb.append(values.stream().map(value -> '"' + value + '"').collect(Collectors.joining(", ")));
+        sb.append(");\n");
+        sb.append("    }\n");
+    }
+
+    private StringBuilder header() {
+        final StringBuilder sb = new StringBuilder();
+        if(!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("@javax.annotation.processing.Generated(\"").append(EntityProcessor.class.getName()).append("\")\n");
+        return sb;
+    }
+
+    private String qualify(final String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+}
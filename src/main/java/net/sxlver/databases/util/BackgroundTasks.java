@@ -0,0 +1,38 @@
+package net.sxlver.databases.util;
+
+/**
+ * Reports failures of tasks running on background threads, which have
+ * no caller the failure could be thrown to.
+ */
+public final class BackgroundTasks {
+
+    private BackgroundTasks() {}
+
+    /**
+     * Hands the given failure to the uncaught exception handler of the current
+     * thread without terminating it, so the application decides how it is logged.
+     *
+     * @param throwable the failure
+     */
+    public static void report(final Throwable throwable) {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+    }
+
+    /**
+     * Returns a task reporting the runtime exceptions of the given task instead
+     * of throwing them, so periodic executions of it aren't cancelled.
+     *
+     * @param task the task
+     * @return the guarded task
+     */
+    public static Runnable guarded(final Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            }catch(final RuntimeException exception) {
+                report(exception);
+            }
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package net.sxlver.databases.util;
+
+import net.sxlver.databases.exception.DatabaseException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes a field through method handles, which are resolved
+ * once per field instead of checking the access on every call.
+ *
+ * <p>Besides the boxing {@link #get(Object)} and {@link #set(Object, Object)},
+ * fields of the common primitive types can be accessed without boxing.
+ */
+public final class FieldAccessor {
+    // accessors are created on first use, so fields that are never accessed
+    // don't have to be accessible
+    private static final ClassValue<Map<Field, FieldAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<Field, FieldAccessor> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    // typed as (Object)fieldType and (Object, fieldType)void, used by the primitive accessors
+    private final MethodHandle exactGetter;
+    private final MethodHandle exactSetter;
+
+    private FieldAccessor(final Field field) {
+        this.field = field;
+        try {
+            field.setAccessible(true);
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle getter = lookup.unreflectGetter(field);
+            final MethodHandle setter = lookup.unreflectSetter(field);
+            this.exactGetter = getter.asType(MethodType.methodType(field.getType(), Object.class));
+            this.exactSetter = setter.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+            this.getter = getter.asType(GETTER_TYPE);
+            this.setter = setter.asType(SETTER_TYPE);
+        }catch(final IllegalAccessException | RuntimeException exception) {
+            throw new DatabaseException("Unable to access field '" + field + "'.", exception);
+        }
+    }
+
+    /**
+     * Returns the accessor of the given field, which is created once per field.
+     *
+     * @param field the field
+     * @return the accessor of the field
+     */
+    public static FieldAccessor of(final Field field) {
+        if(Modifier.isStatic(field.getModifiers())) {
+            throw new DatabaseException("Static field '" + field + "' can't be accessed on an instance.");
+        }
+        final Map<Field, FieldAccessor> accessors = ACCESSORS.get(field.getDeclaringClass());
+        final FieldAccessor accessor = accessors.get(field);
+        if(accessor != null) {
+            return accessor;
+        }
+        final FieldAccessor created = new FieldAccessor(field);
+        final FieldAccessor existing = accessors.putIfAbsent(field, created);
+        return existing != null ? existing : created;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Object get(final Object instance) {
+        try {
+            return getter.invokeExact(instance);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    /**
+     * Sets the value of the field. Values needing a widening conversion,
+     * like an {@code Integer} assigned to a {@code long} field, are set
+     * through reflection.
+     *
+     * @param instance the instance declaring the field
+     * @param value the value
+     */
+    public void set(final Object instance, final Object value) {
+        try {
+            setter.invokeExact(instance, value);
+        }catch(final ClassCastException | NullPointerException exception) {
+            // let reflection convert the value or report why it can't
+            setReflectively(instance, value);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public int getInt(final Object instance) {
+        checkType(int.class);
+        try {
+            return (int) exactGetter.invokeExact(instance);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public void setInt(final Object instance, final int value) {
+        checkType(int.class);
+        try {
+            exactSetter.invokeExact(instance, value);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public long getLong(final Object instance) {
+        checkType(long.class);
+        try {
+            return (long) exactGetter.invokeExact(instance);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public void setLong(final Object instance, final long value) {
+        checkType(long.class);
+        try {
+            exactSetter.invokeExact(instance, value);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public double getDouble(final Object instance) {
+        checkType(double.class);
+        try {
+            return (double) exactGetter.invokeExact(instance);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public void setDouble(final Object instance, final double value) {
+        checkType(double.class);
+        try {
+            exactSetter.invokeExact(instance, value);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public boolean getBoolean(final Object instance) {
+        checkType(boolean.class);
+        try {
+            return (boolean) exactGetter.invokeExact(instance);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    public void setBoolean(final Object instance, final boolean value) {
+        checkType(boolean.class);
+        try {
+            exactSetter.invokeExact(instance, value);
+        }catch(final Throwable throwable) {
+            throw rethrow(throwable, instance);
+        }
+    }
+
+    private void checkType(final Class<?> type) {
+        if(field.getType() != type) {
+            throw new IllegalArgumentException("Field '" + field + "' is not of type " + type);
+        }
+    }
+
+    private void setReflectively(final Object instance, final Object value) {
+        try {
+            field.set(instance, value);
+        }catch(final IllegalAccessException exception) {
+            throw rethrow(exception, instance);
+        }
+    }
+
+    private RuntimeException rethrow(final Throwable throwable, final Object instance) {
+        if(throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        if(throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        final String message = "Illegal access of field '" + field + "' " + "on object " + instance + ".";
+        return new DatabaseException(message, throwable);
+    }
+}
@@ -17,13 +17,30 @@ import net.sxlver.databases.exception.DatabaseException;
 import net.sxlver.databases.impl.mysql.type.TypeMapping;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class Reflection {
+    private static final ClassValue<Optional<MethodHandle>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(final Class<?> type) {
+            try {
+                final Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return Optional.of(MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class)));
+            } catch (final NoSuchMethodException | IllegalAccessException | RuntimeException exception) {
+                return Optional.empty();
+            }
+        }
+    };
+
     private static final Set<Class<?>> SIMPLE_TYPES = new HashSet<>(Arrays.asList(
             Boolean.class,
             Byte.class,
@@ -45,13 +62,7 @@ public class Reflection {
     }
 
     public static Object getValue(final Field field, final Object inst) {
-        try {
-            field.setAccessible(true);
-            return field.get(inst);
-        } catch (final IllegalAccessException exception) {
-            final String message = "Illegal access of field '" + field + "' " + "on object " + inst + ".";
-            throw new DatabaseException(message, exception);
-        }
+        return FieldAccessor.of(field).get(inst);
     }
 
     public static String getTableName(final Class<?> clazz) {
@@ -63,13 +74,7 @@ public class Reflection {
     }
 
     public static void setValue(final Field field, final Object inst, final Object value) {
-        try {
-            field.setAccessible(true);
-            field.set(inst, value);
-        } catch (IllegalAccessException e) {
-            final String message = "Illegal access of field '" + field + "' " + "on object " + inst + ".";
-            throw new DatabaseException(message, e);
-        }
+        FieldAccessor.of(field).set(inst, value);
     }
 
     public static boolean isContainerType(final Class<?> clazz) {
@@ -90,6 +95,15 @@ public class Reflection {
         return annotations;
     }
 
+    /**
+     * Scans the class of the instance for its unique identifier fields on every call.
+     *
+     * @deprecated use {@link ClassInfo#getIdentifier(Object)}, which resolves the fields once
+     *
+     * @param instance the instance
+     * @return the identifier of the instance
+     */
+    @Deprecated
     public static <T> DatabaseEntryIdentifier getUniqueIdentifier(final T instance) {
         final Class<?> clazz = instance.getClass();
         final Predicate<Field> uniqueIdFilter = field -> field.isAnnotationPresent(UniqueIdentifier.class);
@@ -105,6 +119,27 @@ public class Reflection {
         return DatabaseEntryIdentifier.of(uniqueIdValues);
     }
 
+    /**
+     * Resolves the declared fields of a class by their names.
+     *
+     * @param clazz the class declaring the fields
+     * @param names the names of the fields
+     * @return the fields in the order of their names
+     */
+    public static Field[] getDeclaredFields(final Class<?> clazz, final Collection<String> names) {
+        final Field[] fields = new Field[names.size()];
+        int i = 0;
+        for (final String name : names) {
+            try {
+                fields[i++] = clazz.getDeclaredField(name);
+            } catch (final NoSuchFieldException exception) {
+                final String msg = "Class " + clazz.getSimpleName() + " doesn't declare a field '" + name + "'.";
+                throw new DatabaseException(msg, exception);
+            }
+        }
+        return fields;
+    }
+
     public static Field getAutoIncrementField(final Class<?> clazz, final ClassInfo classInfo) {
         return FieldFilters.DEFAULT.filterDeclaredFieldsOf(clazz).stream()
                 .map(classInfo::getInfo)
@@ -114,7 +149,29 @@ public class Reflection {
                 .orElse(null);
     }
 
+    /**
+     * Instantiates the given class through its cached no-args constructor handle.
+     * Classes whose constructor can't be resolved to a handle are instantiated
+     * reflectively, which reports why the class can't be instantiated.
+     *
+     * @param cls the class to instantiate
+     * @return the new instance
+     */
+    @SuppressWarnings("unchecked")
     public static <T> T newInstance(final Class<T> cls) {
+        final Optional<MethodHandle> constructor = CONSTRUCTORS.get(cls);
+        if(constructor.isEmpty()) {
+            return newInstanceReflectively(cls);
+        }
+        try {
+            return (T) constructor.get().invokeExact();
+        } catch (final Throwable throwable) {
+            final String msg = "Constructor of class " + cls.getSimpleName() + " has thrown an exception.";
+            throw new DatabaseException(msg, throwable);
+        }
+    }
+
+    private static <T> T newInstanceReflectively(final Class<T> cls) {
         try {
             final Constructor<T> constructor = cls.getDeclaredConstructor();
             constructor.setAccessible(true);
@@ -164,13 +221,31 @@ public class Reflection {
     }
 
     public static String getTableSchema(final Class<?> type, final FieldNameFormatter formatter, final TypeMapping typeMapping) {
+        return getTableSchema(type, formatter, typeMapping, UnaryOperator.identity());
+    }
+
+    /**
+     * Returns the column definitions of the table storing the given type.
+     *
+     * @param type the type stored in the table
+     * @param formatter the formatter converting the field names to column names
+     * @param typeMapping the mapping of java types to column types
+     * @param quote the function quoting the column names
+     * @return the column definitions separated by commas
+     */
+    public static String getTableSchema(final Class<?>              type,
+                                        final FieldNameFormatter    formatter,
+                                        final TypeMapping           typeMapping,
+                                        final UnaryOperator<String> quote
+    ) {
         final StringBuilder sb = new StringBuilder();
         final FieldFilter filter = FieldFilters.DEFAULT;
         for (final Field field : filter.filterDeclaredFieldsOf(type)) {
-            sb.append(formatter.apply(field.getName())).append(" ")
+            final String column = quote.apply(formatter.apply(field.getName()));
+            sb.append(column).append(" ")
                     .append(getSQLType(field, typeMapping)).append(" ")
                     .append(getColumnModifiers(field)).append(",")
-                    .append(getRequiredTableAttributes(field, formatter));
+                    .append(getRequiredTableAttributes(field, column));
         }
         return sb.substring(0, Math.max(sb.length()-1, 0));
     }
@@ -187,13 +262,13 @@ public class Reflection {
         return sb.toString();
     }
 
-    private static String getRequiredTableAttributes(final Field field, final FieldNameFormatter formatter) {
+    private static String getRequiredTableAttributes(final Field field, final String column) {
         final StringBuilder sb = new StringBuilder();
         for (final Annotation annotation : field.getDeclaredAnnotations()) {
             if(annotation.annotationType().isAnnotationPresent(ColumnAttribute.class)) {
                 final ColumnAttribute attribute = annotation.annotationType().getAnnotation(ColumnAttribute.class);
                 if(!attribute.requiredTableAttribute().isBlank()) {
-                    sb.append(String.format(attribute.requiredTableAttribute(), formatter.apply(field.getName()))).append(",");
+                    sb.append(String.format(attribute.requiredTableAttribute(), column)).append(",");
                 }
             }
         }
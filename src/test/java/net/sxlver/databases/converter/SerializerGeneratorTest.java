@@ -0,0 +1,106 @@
+package net.sxlver.databases.converter;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.annotation.CustomConverter;
+import net.sxlver.databases.annotation.GenerateSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerializerGeneratorTest {
+
+    @Test
+    void testGeneratedSerializerMatchesFieldMapper() {
+        final EntitySerializer serializer = SerializerGenerator.forType(TestEntity.class);
+        assertNotNull(serializer);
+
+        final TestEntity entity = new TestEntity();
+        entity.primitiveInt = 7;
+        entity.primitiveLong = Long.MAX_VALUE;
+        entity.primitiveDouble = 1.5;
+        entity.primitiveBoolean = true;
+        entity.primitiveChar = 'x';
+        entity.boxedInt = 42;
+        entity.string = "value";
+        entity.state = State.ACTIVE;
+        entity.list = Lists.newArrayList("a", "b");
+        entity.convertedInt = 3;
+        entity.convertedString = "converted";
+
+        final Map<String, Object> generated = serializer.serialize(entity);
+        assertEquals(FieldMapper.instanceToMap(entity), generated);
+        assertEquals("#3", generated.get("converted_int"));
+
+        final TestEntity generatedRead = new TestEntity();
+        serializer.deserialize(generatedRead, generated);
+        final TestEntity reflectiveRead = new TestEntity();
+        FieldMapper.instanceFromMap(reflectiveRead, generated);
+        assertEquals(FieldMapper.instanceToMap(reflectiveRead), FieldMapper.instanceToMap(generatedRead));
+        assertEquals(3, generatedRead.convertedInt);
+        assertEquals(State.ACTIVE, generatedRead.state);
+    }
+
+    @Test
+    void testGeneratedSerializerReadsNumbersOfOtherTypes() {
+        final EntitySerializer serializer = SerializerGenerator.forType(TestEntity.class);
+        assertNotNull(serializer);
+
+        // numbers are read back as the smallest fitting type or as doubles
+        final Map<String, Object> map = Maps.newHashMap(serializer.serialize(new TestEntity()));
+        map.put("primitive_long", 5);
+        map.put("primitive_double", 2);
+
+        final TestEntity generatedRead = new TestEntity();
+        serializer.deserialize(generatedRead, map);
+        final TestEntity reflectiveRead = new TestEntity();
+        FieldMapper.instanceFromMap(reflectiveRead, map);
+        assertEquals(FieldMapper.instanceToMap(reflectiveRead), FieldMapper.instanceToMap(generatedRead));
+        assertEquals(5L, generatedRead.primitiveLong);
+        assertEquals(2.0, generatedRead.primitiveDouble);
+    }
+
+    @Test
+    void testUnannotatedTypeHasNoSerializer() {
+        assertNull(SerializerGenerator.forType(String.class));
+    }
+
+    enum State {
+        ACTIVE, INACTIVE
+    }
+
+    @GenerateSerializer
+    static class TestEntity {
+        private int primitiveInt;
+        private long primitiveLong;
+        private double primitiveDouble;
+        private boolean primitiveBoolean;
+        private char primitiveChar = 'a';
+        private Integer boxedInt = 0;
+        private String string = "";
+        private State state = State.INACTIVE;
+        private List<String> list = Lists.newArrayList();
+        @CustomConverter(PrefixConverter.class)
+        private int convertedInt;
+        @CustomConverter(PrefixConverter.class)
+        private String convertedString = "";
+    }
+
+    public static class PrefixConverter implements DatabaseConverter<Object, String> {
+
+        @Override
+        public Object deserialize(final String toDeserialize, final ConversionContext context) {
+            final String value = toDeserialize.substring(1);
+            return context.getFieldType() == int.class ? (Object) Integer.parseInt(value) : value;
+        }
+
+        @Override
+        public String serialize(final Object toSerialize, final ConversionContext context) {
+            return "#" + toSerialize;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package net.sxlver.databases.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseEntryIdentifierTest {
+
+    @Test
+    void testKeysMatchLegacyKeys() {
+        assertEquals("Sxlver", DatabaseEntryIdentifier.of("Sxlver").toString());
+        assertEquals("a_b", DatabaseEntryIdentifier.of("a", "b").toString());
+        // entries stored under ids containing the delimiter keep their keys
+        assertEquals("a_b", DatabaseEntryIdentifier.of("a_b").toString());
+        assertEquals("50%_1", DatabaseEntryIdentifier.of("50%", "1").toString());
+    }
+
+    @Test
+    void testParseLegacyKey() {
+        assertEquals(DatabaseEntryIdentifier.of("a", "b", "c"), DatabaseEntryIdentifier.parse("a_b_c"));
+        assertEquals(DatabaseEntryIdentifier.of("a", "b"), DatabaseEntryIdentifier.from("a_b"));
+        assertEquals(DatabaseEntryIdentifier.of(""), DatabaseEntryIdentifier.parse(""));
+    }
+
+    @Test
+    void testEscapedRoundTrip() {
+        final DatabaseEntryIdentifier[] identifiers = {
+                DatabaseEntryIdentifier.of("a_b"),
+                DatabaseEntryIdentifier.of("a_b", "c"),
+                DatabaseEntryIdentifier.of("50%", "%5F", "%25_"),
+                DatabaseEntryIdentifier.of("", "_", ""),
+                DatabaseEntryIdentifier.of("plain", "id")
+        };
+        for (final DatabaseEntryIdentifier identifier : identifiers) {
+            final DatabaseEntryIdentifier parsed = DatabaseEntryIdentifier.parse(identifier.toEscapedString());
+            assertEquals(identifier, parsed);
+            assertEquals(identifier.asList(), parsed.asList());
+        }
+        assertEquals("plain_id", DatabaseEntryIdentifier.of("plain", "id").toEscapedString());
+    }
+
+    @Test
+    void testFilterApplicatorMatchesLegacyKeys() {
+        assertTrue(DatabaseEntryIdentifier.of("a_b").getFilterApplicator().test("a_b"));
+        assertTrue(DatabaseEntryIdentifier.of("b").getFilterApplicator().test("a_b_c"));
+        assertTrue(DatabaseEntryIdentifier.of("a", "b").getFilterApplicator().test("x_a_b"));
+        assertFalse(DatabaseEntryIdentifier.of("b").getFilterApplicator().test("a_bc"));
+        assertFalse(DatabaseEntryIdentifier.of("a", "b").getFilterApplicator().test("b_a"));
+    }
+
+    @Test
+    void testEscapedFilterMatchesWholeParts() {
+        final IdentifierEncoding encoding = IdentifierEncoding.ESCAPED;
+        final String key = encoding.key(DatabaseEntryIdentifier.of("a", "b_c"));
+        assertTrue(encoding.filter(DatabaseEntryIdentifier.of("b_c")).test(key));
+        assertTrue(encoding.filter(DatabaseEntryIdentifier.of("a")).test(key));
+        assertFalse(encoding.filter(DatabaseEntryIdentifier.of("a", "b")).test(key));
+        assertFalse(encoding.filter(DatabaseEntryIdentifier.of("c")).test(key));
+        assertNotEquals(key, encoding.key(DatabaseEntryIdentifier.of("a_b", "c")));
+    }
+
+    @Test
+    void testOrdering() {
+        assertTrue(DatabaseEntryIdentifier.of("a", "b").compareTo(DatabaseEntryIdentifier.of("a", "c")) < 0);
+        assertTrue(DatabaseEntryIdentifier.of("a").compareTo(DatabaseEntryIdentifier.of("a", "a")) < 0);
+        assertEquals(DatabaseEntryIdentifier.of("a", "b").hashCode(), DatabaseEntryIdentifier.of("a", "b").hashCode());
+    }
+}
@@ -0,0 +1,164 @@
+package net.sxlver.databases.impl.btree;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.DatabaseTypes;
+import net.sxlver.databases.FsyncPolicy;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.mysql.annotation.AutoIncrement;
+import net.sxlver.databases.util.FileSystemUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BTreeDatabaseTest {
+
+    @Test
+    void testReplayAfterCrash(final @TempDir Path directory) throws Exception {
+        final DatabaseSettings settings = settings(directory);
+        final BTreeDatabase<TestEntry> crashed = BTreeDatabase.of(TestEntry.class, settings, false, null);
+        crashed.save(new TestEntry("a", "x", "1"));
+        crashed.save(new TestEntry("b", "x", "2"));
+        crashed.save(new TestEntry("c", "x", "3"));
+        crashed.remove(DatabaseEntryIdentifier.of("b", "x"));
+        // the database isn't closed, so nothing has been checkpointed and the
+        // log ends with a transaction that has been torn while it was appended
+        final File log = new File(crashed.getTypeDatabasePath(), "entries.wal");
+        assertTrue(log.length() > 0);
+        try(final RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.seek(file.length());
+            file.write(new byte[]{0, 0, 0, 42, 1, 0, 0, 0, 3, 0, 0, 16});
+        }
+
+        final BTreeDatabase<TestEntry> database = BTreeDatabase.of(TestEntry.class, settings, false, null);
+        assertEquals("1", database.get(DatabaseEntryIdentifier.of("a", "x")).value);
+        assertNull(database.get(DatabaseEntryIdentifier.of("b", "x")));
+        assertEquals(3, database.get(DatabaseEntryIdentifier.of("c", "x")).id);
+        assertEquals(0, log.length());
+
+        // the highest id has been recovered along with the entries
+        final TestEntry entry = new TestEntry("d", "x", "4");
+        database.save(entry);
+        assertEquals(4, entry.id);
+        database.close();
+    }
+
+    @Test
+    void testRemoveByParts(final @TempDir Path directory) {
+        final DatabaseSettings settings = settings(directory);
+        BTreeDatabase<TestEntry> database = BTreeDatabase.of(TestEntry.class, settings, false, null);
+        database.save(new TestEntry("a", "1", ""));
+        database.save(new TestEntry("a", "2", ""));
+        database.save(new TestEntry("ab", "1", ""));
+        database.save(new TestEntry("b", "a", ""));
+        // like the other backends, every entry containing the parts is removed
+        database.remove(DatabaseEntryIdentifier.of("a"));
+        assertNull(database.get(DatabaseEntryIdentifier.of("a", "1")));
+        assertNull(database.get(DatabaseEntryIdentifier.of("a", "2")));
+        assertNotNull(database.get(DatabaseEntryIdentifier.of("ab", "1")));
+        assertNull(database.get(DatabaseEntryIdentifier.of("b", "a")));
+        database.close();
+
+        database = BTreeDatabase.of(TestEntry.class, settings, false, null);
+        assertEquals(1, database.getAll().size());
+        final TestEntry entry = new TestEntry("c", "1", "");
+        database.save(entry);
+        assertEquals(5, entry.id);
+        database.close();
+    }
+
+    @Test
+    void testPartsContainingDelimiterDontCollide(final @TempDir Path directory) {
+        final BTreeDatabase<TestEntry> database = BTreeDatabase.of(TestEntry.class, settings(directory), false, null);
+        database.save(new TestEntry("a_b", "c", "1"));
+        database.save(new TestEntry("a", "b_c", "2"));
+        assertEquals(2, database.getAll().size());
+        assertEquals("1", database.get(DatabaseEntryIdentifier.of("a_b", "c")).value);
+        assertEquals("2", database.get(DatabaseEntryIdentifier.of("a", "b_c")).value);
+
+        database.remove(DatabaseEntryIdentifier.of("b_c"));
+        assertNotNull(database.get(DatabaseEntryIdentifier.of("a_b", "c")));
+        assertNull(database.get(DatabaseEntryIdentifier.of("a", "b_c")));
+        database.close();
+    }
+
+    private static DatabaseSettings settings(final Path directory) {
+        // the database path is resolved relative to the directory of the code source
+        final Path codeSource = Path.of(FileSystemUtil.getJarFileDirectory(TestEntry.class)).toAbsolutePath();
+        final String databasePath = File.separator + codeSource.relativize(directory.toAbsolutePath());
+        return new DatabaseSettings() {
+            @Override
+            public DatabaseTypes getDatabaseType() {
+                return DatabaseTypes.BTREE;
+            }
+
+            @Override
+            public String getUsername() {
+                return null;
+            }
+
+            @Override
+            public String getPassword() {
+                return null;
+            }
+
+            @Override
+            public String getDatabase() {
+                return null;
+            }
+
+            @Override
+            public String getHost() {
+                return null;
+            }
+
+            @Override
+            public boolean isUseSsl() {
+                return false;
+            }
+
+            @Override
+            public int getPort() {
+                return 0;
+            }
+
+            @Override
+            public String getDatabasePath() {
+                return databasePath;
+            }
+
+            @Override
+            public String getConnectionUri() {
+                return null;
+            }
+
+            @Override
+            public FsyncPolicy getFsyncPolicy() {
+                return FsyncPolicy.PER_WRITE;
+            }
+        };
+    }
+
+    static class TestEntry {
+        @UniqueIdentifier
+        private String group = "";
+        @UniqueIdentifier
+        private String name = "";
+        @AutoIncrement
+        private int id;
+        private String value = "";
+
+        TestEntry() {}
+
+        TestEntry(final String group, final String name, final String value) {
+            this.group = group;
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package net.sxlver.databases.impl.btree;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BTreeTest {
+    private static final int PAGE_SIZE = 512;
+
+    @Test
+    void testSplitAndMerge(final @TempDir Path directory) throws IOException {
+        final BufferPool pool = create(directory);
+        final BTree tree = new BTree(pool);
+        final List<String> keys = Lists.newArrayList();
+        for (int i = 0; i < 1000; i++) {
+            final String key = String.format("key%04d", i);
+            keys.add(key);
+            tree.put(key, value(key));
+            pool.commit();
+        }
+        // leaves and inner pages have been split
+        final InternalPage root = (InternalPage) pool.get(pool.getHeader().getRoot());
+        assertTrue(pool.get(root.getChild(0)) instanceof InternalPage);
+        assertEquals(keys, tree.keys(""));
+        assertArrayEquals(value("key0500"), tree.get("key0500"));
+        final int pageCount = pool.getHeader().getPageCount();
+
+        final List<String> remaining = Lists.newArrayList();
+        for (final String key : keys) {
+            if(key.endsWith("00")) {
+                remaining.add(key);
+                continue;
+            }
+            assertTrue(tree.remove(key));
+            pool.commit();
+        }
+        // the pages have been merged up to a root leaf
+        assertTrue(pool.get(pool.getHeader().getRoot()) instanceof LeafPage);
+        assertEquals(remaining, tree.keys(""));
+        assertEquals(remaining, tree.keys("key0"));
+        assertNull(tree.get("key0501"));
+        assertArrayEquals(value("key0500"), tree.get("key0500"));
+        assertNotEquals(0, pool.getHeader().getFreeList());
+
+        // merged pages are reused by the next splits
+        for (final String key : keys) {
+            tree.put(key, value(key));
+            pool.commit();
+        }
+        assertEquals(keys, tree.keys(""));
+        assertTrue(pool.getHeader().getPageCount() <= pageCount);
+        pool.close();
+    }
+
+    @Test
+    void testOverflowChains(final @TempDir Path directory) throws IOException {
+        BufferPool pool = create(directory);
+        BTree tree = new BTree(pool);
+        final byte[] large = bytes(3000, 1);
+        tree.put("small", value("small"));
+        tree.put("large", large);
+        pool.commit();
+        assertArrayEquals(large, tree.get("large"));
+        final int pageCount = pool.getHeader().getPageCount();
+
+        // the replaced chain is freed once the new one has been written
+        tree.put("large", bytes(100, 2));
+        pool.commit();
+        final int replacedPageCount = pool.getHeader().getPageCount();
+        assertTrue(replacedPageCount > pageCount);
+        tree.put("other", bytes(3000, 3));
+        pool.commit();
+        assertEquals(replacedPageCount, pool.getHeader().getPageCount());
+        pool.close();
+
+        pool = open(directory);
+        tree = new BTree(pool);
+        assertArrayEquals(bytes(100, 2), tree.get("large"));
+        assertArrayEquals(bytes(3000, 3), tree.get("other"));
+        assertArrayEquals(value("small"), tree.get("small"));
+        assertTrue(tree.remove("other"));
+        pool.commit();
+        assertNull(tree.get("other"));
+        assertEquals(List.of("large", "small"), tree.keys(""));
+        pool.close();
+    }
+
+    @Test
+    void testRollback(final @TempDir Path directory) throws IOException {
+        BufferPool pool = create(directory);
+        BTree tree = new BTree(pool);
+        final List<String> keys = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            final String key = "key" + i;
+            keys.add(key);
+            tree.put(key, value(key));
+        }
+        pool.commit();
+        final int pageCount = pool.getHeader().getPageCount();
+        final int root = pool.getHeader().getRoot();
+
+        // splits, overflow chains and removals of a transaction are undone
+        for (int i = 0; i < 200; i++) {
+            tree.put("new" + i, value("new" + i));
+        }
+        tree.put("key1", bytes(3000, 4));
+        assertTrue(tree.remove("key2"));
+        pool.rollback();
+
+        assertEquals(pageCount, pool.getHeader().getPageCount());
+        assertEquals(root, pool.getHeader().getRoot());
+        assertEquals(keys, tree.keys(""));
+        assertArrayEquals(value("key1"), tree.get("key1"));
+        assertArrayEquals(value("key2"), tree.get("key2"));
+        assertNull(tree.get("new0"));
+
+        tree.put("key9", bytes(20, 5));
+        pool.commit();
+        pool.close();
+
+        pool = open(directory);
+        tree = new BTree(pool);
+        assertEquals(keys, tree.keys(""));
+        assertArrayEquals(value("key2"), tree.get("key2"));
+        assertArrayEquals(bytes(20, 5), tree.get("key9"));
+        pool.close();
+    }
+
+    private static BufferPool create(final Path directory) throws IOException {
+        final PageFile file = new PageFile(directory.resolve("entries.btree").toFile());
+        file.setPageSize(PAGE_SIZE);
+        final WriteAheadLog log = new WriteAheadLog(directory.resolve("entries.wal").toFile());
+        final BufferPool pool = new BufferPool(file, log, new HeaderPage(PAGE_SIZE, 0, 1, 0, 0), 16, false);
+        BTree.create(pool);
+        return pool;
+    }
+
+    private static BufferPool open(final Path directory) throws IOException {
+        final PageFile file = new PageFile(directory.resolve("entries.btree").toFile());
+        file.setPageSize(file.readPageSize());
+        final WriteAheadLog log = new WriteAheadLog(directory.resolve("entries.wal").toFile());
+        return new BufferPool(file, log, (HeaderPage) file.read(HeaderPage.ID), 16, false);
+    }
+
+    private static byte[] value(final String key) {
+        return ("value of " + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(final int length, final int seed) {
+        final byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) seed);
+        for (int i = 0; i < length; i += 7) {
+            bytes[i] = (byte) (i * seed);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,41 @@
+package net.sxlver.databases.impl.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class AtomicFileWriterTest {
+
+    @Test
+    void testReplacedFileKeepsPermissions(final @TempDir Path directory) throws Exception {
+        assumeTrue(Files.getFileAttributeView(directory, PosixFileAttributeView.class) != null);
+        final Path destination = directory.resolve("entry.json");
+        Files.writeString(destination, "old");
+        final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(destination, permissions);
+
+        AtomicFileWriter.commit(AtomicFileWriter.writeTemporary(destination, "new".getBytes(StandardCharsets.UTF_8), false), destination);
+        assertEquals("new", Files.readString(destination));
+        assertEquals(permissions, Files.getPosixFilePermissions(destination));
+    }
+
+    @Test
+    void testNewFileHasDefaultPermissions(final @TempDir Path directory) throws Exception {
+        assumeTrue(Files.getFileAttributeView(directory, PosixFileAttributeView.class) != null);
+        final Path reference = Files.createFile(directory.resolve("reference"));
+        final Path destination = directory.resolve("entry.json");
+
+        AtomicFileWriter.commit(AtomicFileWriter.writeTemporary(destination, "new".getBytes(StandardCharsets.UTF_8), false), destination);
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(destination));
+    }
+}
@@ -0,0 +1,144 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.io.CharStreams;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import net.sxlver.databases.CompressionCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntryCodecTest {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int THRESHOLD = 256;
+
+    @Test
+    void testHeaders(final @TempDir File directory) throws Exception {
+        final Map<String, Object> map = map(THRESHOLD);
+        final byte[] gzip = new EntryCodec(CompressionCodec.GZIP, THRESHOLD, false).encode(GSON, map);
+        assertEquals(0x1f, gzip[0] & 0xff);
+        assertEquals(0x8b, gzip[1] & 0xff);
+        final byte[] deflate = new EntryCodec(CompressionCodec.DEFLATE, THRESHOLD, false).encode(GSON, map);
+        // the compression method and the check bits of the zlib header
+        assertEquals(8, deflate[0] & 0x0f);
+        assertEquals(0, ((deflate[0] & 0xff) << 8 | deflate[1] & 0xff) % 31);
+
+        final EntryCodec codec = new EntryCodec(CompressionCodec.NONE, THRESHOLD, false);
+        assertEquals(GSON.toJson(map), read(codec, gzip, directory));
+        assertEquals(GSON.toJson(map), read(codec, deflate, directory));
+    }
+
+    @Test
+    void testThreshold(final @TempDir File directory) throws Exception {
+        for (final CompressionCodec compression : List.of(CompressionCodec.GZIP, CompressionCodec.DEFLATE)) {
+            final EntryCodec codec = new EntryCodec(compression, THRESHOLD, false);
+            final Map<String, Object> below = map(THRESHOLD - 1);
+            final byte[] plain = codec.encode(GSON, below);
+            assertArrayEquals(GSON.toJson(below).getBytes(StandardCharsets.UTF_8), plain);
+            assertEquals(GSON.toJson(below), read(codec, plain, directory));
+
+            final Map<String, Object> reaching = map(THRESHOLD);
+            final byte[] compressed = codec.encode(GSON, reaching);
+            assertNotEquals('{', compressed[0]);
+            assertEquals(GSON.toJson(reaching), read(codec, compressed, directory));
+        }
+    }
+
+    @Test
+    void testCompact(final @TempDir File directory) throws Exception {
+        final Map<String, Object> map = map(THRESHOLD);
+        map.put("tags", Lists.newArrayList("a", "b"));
+        for (final CompressionCodec compression : CompressionCodec.values()) {
+            final EntryCodec codec = new EntryCodec(compression, THRESHOLD, true);
+            final String text = read(codec, codec.encode(GSON, map), directory);
+            assertEquals(new Gson().toJson(map), text);
+            assertEquals(JsonParser.parseString(GSON.toJson(map)), JsonParser.parseString(text));
+        }
+    }
+
+    @Test
+    void testStreaming(final @TempDir File directory) throws Exception {
+        for (final CompressionCodec compression : CompressionCodec.values()) {
+            for (final boolean compact : new boolean[] {false, true}) {
+                final EntryCodec codec = new EntryCodec(compression, THRESHOLD, compact);
+                for (final int length : new int[] {0, THRESHOLD / 2, THRESHOLD, THRESHOLD * 64}) {
+                    final TestEntity entity = new TestEntity(Strings.repeat("x", length));
+                    final Map<String, Object> map = new LinkedHashMap<>();
+                    map.put("name", entity.name);
+                    map.put("tags", entity.tags);
+                    final byte[] expected = codec.encode(GSON, map);
+
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    codec.encode(GSON, entity, out);
+                    final byte[] streamed = out.toByteArray();
+                    // compressed the same way as the text of the serialized entry
+                    assertEquals(expected[0], streamed[0]);
+                    assertEquals(read(codec, expected, directory), read(codec, streamed, directory));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReadOtherCodecs(final @TempDir File directory) throws Exception {
+        final Map<String, Object> map = map(THRESHOLD * 4);
+        for (final CompressionCodec written : CompressionCodec.values()) {
+            final byte[] contents = new EntryCodec(written, THRESHOLD, false).encode(GSON, map);
+            for (final CompressionCodec reading : CompressionCodec.values()) {
+                assertEquals(GSON.toJson(map), read(new EntryCodec(reading, THRESHOLD, false), contents, directory), written + " read by " + reading);
+            }
+        }
+    }
+
+    /**
+     * Returns a map whose pretty printed text has the given length.
+     */
+    private static Map<String, Object> map(final int length) {
+        final String empty = GSON.toJson(Map.of("name", ""));
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", Strings.repeat("x", length - empty.length()));
+        assertEquals(length, GSON.toJson(map).length());
+        return map;
+    }
+
+    /**
+     * Reads the contents from a file and from a buffer, which have to be the same.
+     */
+    private static String read(final EntryCodec codec, final byte[] contents, final File directory) throws Exception {
+        final File file = File.createTempFile("entry", ".json", directory);
+        Files.write(file.toPath(), contents);
+        final String text;
+        try(final Reader reader = codec.reader(file)) {
+            text = CharStreams.toString(reader);
+        }
+        try(final Reader reader = codec.reader(ByteBuffer.wrap(contents))) {
+            assertEquals(text, CharStreams.toString(reader));
+        }
+        return text;
+    }
+
+    static class TestEntity {
+        private String name = "";
+        private List<String> tags = Lists.newArrayList("a", "b");
+
+        TestEntity() {}
+
+        TestEntity(final String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.sxlver.databases.impl.json;
+
+import net.sxlver.databases.TableLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntryFilesTest {
+    private static final String FILE_FORMAT = ".json";
+    private static final List<String> IDS = List.of("a", "b", "a_b", "Sxlver");
+    private static final Set<String> FILE_NAMES = IDS.stream().map(id -> id + FILE_FORMAT).collect(Collectors.toSet());
+
+    @Test
+    void testHashedLayout(final @TempDir File table) throws Exception {
+        final EntryFiles files = new EntryFiles(table, TableLayout.HASHED, FILE_FORMAT);
+        for (final String id : IDS) {
+            final File file = files.resolve(id);
+            // ab/cd/<id>.json below the table
+            assertEquals(id + FILE_FORMAT, file.getName());
+            assertEquals(2, file.getParentFile().getName().length());
+            assertEquals(2, file.getParentFile().getParentFile().getName().length());
+            assertEquals(table, file.getParentFile().getParentFile().getParentFile());
+            // the same id always resolves to the same file
+            assertEquals(file, files.resolve(id));
+            write(file, id);
+        }
+        assertEquals(FILE_NAMES, fileNames(files.listFiles()));
+    }
+
+    @Test
+    void testMigrateFlatToHashed(final @TempDir File table) throws Exception {
+        final EntryFiles flat = new EntryFiles(table, TableLayout.FLAT, FILE_FORMAT);
+        for (final String id : IDS) {
+            write(flat.resolve(id), id);
+        }
+        final EntryFiles hashed = new EntryFiles(table, TableLayout.HASHED, FILE_FORMAT);
+        hashed.migrate();
+        assertMigrated(hashed, flat);
+    }
+
+    @Test
+    void testMigrateHashedToFlat(final @TempDir File table) throws Exception {
+        final EntryFiles hashed = new EntryFiles(table, TableLayout.HASHED, FILE_FORMAT);
+        for (final String id : IDS) {
+            write(hashed.resolve(id), id);
+        }
+        final EntryFiles flat = new EntryFiles(table, TableLayout.FLAT, FILE_FORMAT);
+        flat.migrate();
+        assertMigrated(flat, hashed);
+        // the emptied shard directories are removed
+        assertEquals(IDS.size(), table.listFiles().length);
+    }
+
+    @Test
+    void testMigrateKeepsOtherFiles(final @TempDir File table) throws Exception {
+        final File metadata = new File(table, "metadata.dat");
+        write(metadata, "metadata");
+        final EntryFiles flat = new EntryFiles(table, TableLayout.FLAT, FILE_FORMAT);
+        write(flat.resolve("a"), "a");
+        new EntryFiles(table, TableLayout.HASHED, FILE_FORMAT).migrate();
+        flat.migrate();
+        assertEquals("metadata", Files.readString(metadata.toPath()));
+        assertEquals("a", Files.readString(flat.resolve("a").toPath()));
+    }
+
+    private static void assertMigrated(final EntryFiles files, final EntryFiles previous) throws Exception {
+        for (final String id : IDS) {
+            assertEquals(id, Files.readString(files.resolve(id).toPath()));
+            assertFalse(previous.resolve(id).exists());
+        }
+        assertEquals(FILE_NAMES, fileNames(files.listFiles()));
+    }
+
+    private static void write(final File file, final String contents) throws Exception {
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), contents);
+    }
+
+    private static Set<String> fileNames(final List<File> files) {
+        return files.stream().map(File::getName).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,96 @@
+package net.sxlver.databases.impl.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntryLocksTest {
+
+    @Test
+    void testTablesSharingLockFileInProcess(final @TempDir File table) throws Exception {
+        final EntryLocks first = new EntryLocks(4, table, true);
+        final EntryLocks second = new EntryLocks(4, table, true);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final AtomicInteger active = new AtomicInteger();
+        try {
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[200];
+            for (int i = 0; i < futures.length; i++) {
+                final EntryLocks locks = i % 2 == 0 ? first : second;
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        locks.write("key", () -> {
+                            // writes of the same entry never overlap
+                            assertEquals(1, active.incrementAndGet());
+                            active.decrementAndGet();
+                            return null;
+                        });
+                    }catch(final Exception exception) {
+                        throw new IllegalStateException(exception);
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+            first.close();
+            second.close();
+        }
+        // the lock file is closed with the last table, so it can be acquired again
+        final EntryLocks reopened = new EntryLocks(4, table, true);
+        assertEquals("value", reopened.write("key", () -> "value"));
+        reopened.close();
+    }
+
+    @Test
+    void testTableExcludesWritesOfOtherTables(final @TempDir File table) throws Exception {
+        final EntryLocks first = new EntryLocks(4, table, true);
+        final EntryLocks second = new EntryLocks(4, table, true);
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CompletableFuture<Void> release = new CompletableFuture<>();
+        final AtomicBoolean writing = new AtomicBoolean();
+        final CompletableFuture<Void> write = CompletableFuture.runAsync(() -> {
+            try {
+                first.write("key", () -> {
+                    writing.set(true);
+                    locked.countDown();
+                    release.join();
+                    writing.set(false);
+                    return null;
+                });
+            }catch(final Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        try {
+            locked.await(30, TimeUnit.SECONDS);
+            final CompletableFuture<Boolean> tableOperation = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return second.table(writing::get);
+                }catch(final IOException exception) {
+                    throw new IllegalStateException(exception);
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(tableOperation.isDone());
+            release.complete(null);
+            // the table is only locked once the write has finished
+            assertFalse(tableOperation.get(30, TimeUnit.SECONDS));
+            write.get(30, TimeUnit.SECONDS);
+        } finally {
+            release.complete(null);
+            first.close();
+            second.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package net.sxlver.databases.impl.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GroupCommitterTest {
+
+    @Test
+    void testFailedWriteDoesNotFailBatch(final @TempDir Path directory) throws Exception {
+        final GroupCommitter committer = new GroupCommitter("test", 10);
+        try {
+            final Path destination = directory.resolve("a.json");
+            // the destination of the second write is a non-empty directory, so moving over it fails
+            final Path blocked = Files.createDirectories(directory.resolve("b.json").resolve("child"));
+            final CompletableFuture<Void> first = committer.submit(temporary(destination, "a"), destination);
+            final CompletableFuture<Void> second = committer.submit(temporary(directory.resolve("b.tmp.json"), "b"), blocked.getParent());
+
+            first.get(10, TimeUnit.SECONDS);
+            assertEquals("a", Files.readString(destination));
+            assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+        } finally {
+            committer.close();
+        }
+    }
+
+    @Test
+    void testSubmitAfterClose(final @TempDir Path directory) throws Exception {
+        final GroupCommitter committer = new GroupCommitter("test", 10);
+        committer.close();
+        final Path destination = directory.resolve("a.json");
+        final CompletableFuture<Void> future = committer.submit(temporary(destination, "a"), destination);
+        assertTrue(future.isDone());
+        future.get();
+        assertEquals("a", Files.readString(destination));
+    }
+
+    private static Path temporary(final Path destination, final String contents) throws Exception {
+        return AtomicFileWriter.writeTemporary(destination, contents.getBytes(StandardCharsets.UTF_8), false);
+    }
+}
@@ -0,0 +1,228 @@
+package net.sxlver.databases.impl.json;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.DatabaseTypes;
+import net.sxlver.databases.TableLayout;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.mysql.annotation.AutoIncrement;
+import net.sxlver.databases.util.FileSystemUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONDatabaseTest {
+
+    @Test
+    void testEscapedIdentifiersDontCollide(final @TempDir Path directory) {
+        final DatabaseSettings settings = settings(directory, true, false);
+        JSONDatabase<PairEntry> database = JSONDatabase.of(PairEntry.class, settings, false, null);
+        database.save(new PairEntry("a_b", "c"));
+        database.save(new PairEntry("a", "b_c"));
+        database.close();
+
+        database = JSONDatabase.of(PairEntry.class, settings, false, null);
+        assertEquals(2, database.getAll().size());
+        database.remove(DatabaseEntryIdentifier.of("b_c"));
+        assertNotNull(database.get(DatabaseEntryIdentifier.of("a_b", "c")));
+        assertNull(database.get(DatabaseEntryIdentifier.of("a", "b_c")));
+        database.close();
+    }
+
+    @Test
+    void testLegacyKeysAreKept(final @TempDir Path directory) {
+        final JSONDatabase<PairEntry> database = JSONDatabase.of(PairEntry.class, settings(directory, false, false), false, null);
+        database.save(new PairEntry("a_b", "c"));
+        assertTrue(new File(database.getTypeDatabasePath(), "a_b_c.json").isFile());
+        assertNotNull(database.get("a_b_c"));
+        database.close();
+    }
+
+    @Test
+    void testMaxIdIsTrustedWithoutCount(final @TempDir Path directory) throws Exception {
+        final DatabaseSettings settings = settings(directory, false, false);
+        final JSONDatabase<CountedEntry> crashed = JSONDatabase.of(CountedEntry.class, settings, false, null);
+        crashed.save(new CountedEntry("a"));
+        crashed.save(new CountedEntry("b"));
+        // the database isn't closed, so the persisted count doesn't match and
+        // an entry that can't be parsed shows whether the entries are read
+        Files.writeString(new File(crashed.getTypeDatabasePath(), "b.json").toPath(), "{");
+
+        final JSONDatabase<CountedEntry> database = JSONDatabase.of(CountedEntry.class, settings, false, null);
+        final CountedEntry entry = new CountedEntry("c");
+        database.save(entry);
+        assertEquals(3, entry.id);
+        assertEquals(1, database.get("a").id);
+        database.close();
+    }
+
+    @Test
+    void testOverwriteMappedEntry(final @TempDir Path directory) {
+        final JSONDatabase<CountedEntry> database = JSONDatabase.of(CountedEntry.class, settings(directory, false, true), false, null);
+        for (int i = 1; i <= 3; i++) {
+            final CountedEntry entry = new CountedEntry("a");
+            entry.id = i * 10;
+            database.save(entry);
+            // maps the entry, which is replaced by the next save
+            assertEquals(i * 10, database.get("a").id);
+        }
+        database.close();
+    }
+
+    @Test
+    void testLookupsAfterMigration(final @TempDir Path directory) {
+        TableLayout previous = TableLayout.FLAT;
+        for (final TableLayout layout : List.of(TableLayout.HASHED, TableLayout.FLAT)) {
+            final JSONDatabase<PairEntry> written = JSONDatabase.of(PairEntry.class, settings(directory, false, false, previous, null), false, null);
+            written.save(new PairEntry("a", "b"));
+            written.save(new PairEntry("c", "d"));
+            written.close();
+
+            final JSONDatabase<PairEntry> database = JSONDatabase.of(PairEntry.class, settings(directory, false, false, layout, null), false, null);
+            assertEquals(2, database.getAll().size());
+            assertEquals("b", database.get("a_b").name);
+            assertEquals("d", database.get(DatabaseEntryIdentifier.of("c", "d")).name);
+            database.remove("c_d");
+            assertNull(database.get("c_d"));
+            database.close();
+            previous = layout;
+        }
+    }
+
+    @Test
+    void testReadPoolIsShared(final @TempDir Path directory) {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final DatabaseSettings settings = settings(directory, false, false, TableLayout.FLAT, pool);
+            final JSONDatabase<CountedEntry> database = JSONDatabase.of(CountedEntry.class, settings, false, null);
+            for (int i = 0; i < 200; i++) {
+                database.save(new CountedEntry("entry" + i));
+            }
+            assertEquals(200, database.getAll().size());
+            database.close();
+            // the pool is owned by the settings
+            assertFalse(pool.isShutdown());
+            final JSONDatabase<CountedEntry> reopened = JSONDatabase.of(CountedEntry.class, settings, false, null);
+            assertEquals(200, reopened.getAll().size());
+            reopened.close();
+        } finally {
+            pool.shutdown();
+        }
+        assertSame(ParallelFileReader.sharedPool(4), ParallelFileReader.sharedPool(4));
+    }
+
+    static DatabaseSettings settings(final Path directory, final boolean escapedIdentifiers, final boolean memoryMappedReads) {
+        return settings(directory, escapedIdentifiers, memoryMappedReads, TableLayout.FLAT, null);
+    }
+
+    static DatabaseSettings settings(final Path directory,
+                                     final boolean escapedIdentifiers,
+                                     final boolean memoryMappedReads,
+                                     final TableLayout layout,
+                                     final ForkJoinPool readPool
+    ) {
+        // the database path is resolved relative to the directory of the code source
+        final Path codeSource = Path.of(FileSystemUtil.getJarFileDirectory(PairEntry.class)).toAbsolutePath();
+        final String databasePath = File.separator + codeSource.relativize(directory.toAbsolutePath());
+        return new DatabaseSettings() {
+            @Override
+            public DatabaseTypes getDatabaseType() {
+                return DatabaseTypes.JSON;
+            }
+
+            @Override
+            public String getUsername() {
+                return null;
+            }
+
+            @Override
+            public String getPassword() {
+                return null;
+            }
+
+            @Override
+            public String getDatabase() {
+                return null;
+            }
+
+            @Override
+            public String getHost() {
+                return null;
+            }
+
+            @Override
+            public boolean isUseSsl() {
+                return false;
+            }
+
+            @Override
+            public int getPort() {
+                return 0;
+            }
+
+            @Override
+            public String getDatabasePath() {
+                return databasePath;
+            }
+
+            @Override
+            public String getConnectionUri() {
+                return null;
+            }
+
+            @Override
+            public boolean isEscapedIdentifiers() {
+                return escapedIdentifiers;
+            }
+
+            @Override
+            public boolean isMemoryMappedReads() {
+                return memoryMappedReads;
+            }
+
+            @Override
+            public TableLayout getTableLayout() {
+                return layout;
+            }
+
+            @Override
+            public ForkJoinPool getReadPool() {
+                return readPool;
+            }
+        };
+    }
+
+    static class PairEntry {
+        @UniqueIdentifier
+        private String group = "";
+        @UniqueIdentifier
+        private String name = "";
+
+        PairEntry() {}
+
+        PairEntry(final String group, final String name) {
+            this.group = group;
+            this.name = name;
+        }
+    }
+
+    static class CountedEntry {
+        @UniqueIdentifier
+        private String name = "";
+        @AutoIncrement
+        private int id;
+
+        CountedEntry() {}
+
+        CountedEntry(final String name) {
+            this.name = name;
+        }
+    }
+}
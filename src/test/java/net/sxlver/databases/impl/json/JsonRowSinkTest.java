@@ -0,0 +1,105 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.CompressionCodec;
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.adapter.strategy.CustomToNumberPolicy;
+import net.sxlver.databases.converter.RowDecoder;
+import net.sxlver.databases.converter.RowEncoder;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonRowSinkTest {
+    private static final Gson GSON = new GsonBuilder()
+            .setObjectToNumberStrategy(CustomToNumberPolicy.INT_LONG_DOUBLE)
+            .serializeSpecialFloatingPointValues()
+            .create();
+
+    @Test
+    void testRoundTrip() throws Exception {
+        final TestEntity entity = entity();
+        final TestEntity decoded = RowDecoder.decode(TestEntity.class, new JsonRowSource(GSON, new StringReader(encode(GSON, entity))));
+        assertEquals(entity.count, decoded.count);
+        assertEquals(entity.total, decoded.total);
+        assertEquals(entity.ratio, decoded.ratio);
+        assertEquals(entity.missing, decoded.missing);
+        assertEquals(entity.infinite, decoded.infinite);
+        assertEquals(entity.active, decoded.active);
+        assertEquals(entity.name, decoded.name);
+        assertEquals(entity.tags, decoded.tags);
+        // null values of maps are left out unless gson serializes nulls
+        assertEquals(Map.of("a", 1), decoded.counts);
+    }
+
+    @Test
+    void testMatchesSerializedMap() throws Exception {
+        for (final Gson gson : List.of(GSON, GSON.newBuilder().serializeNulls().create(), GSON.newBuilder().setPrettyPrinting().create())) {
+            final TestEntity entity = entity();
+            assertEquals(gson.toJson(serialize(entity)), encode(gson, entity));
+        }
+    }
+
+    @Test
+    void testRejectsSpecialValuesLikeSerializedMap() {
+        final Gson gson = new Gson();
+        final TestEntity entity = entity();
+        assertThrows(IllegalArgumentException.class, () -> gson.toJson(serialize(entity)));
+        assertThrows(IllegalArgumentException.class, () -> encode(gson, entity));
+    }
+
+    private static String encode(final Gson gson, final Object entity) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new EntryCodec(CompressionCodec.NONE, 0, false).encode(gson, entity, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> serialize(final TestEntity entity) {
+        final DatabaseConverter<TestEntity, Map<String, Object>> converter = (DatabaseConverter<TestEntity, Map<String, Object>>)
+                ClassInfo.ofClass(TestEntity.class, FieldNameFormatters.IDENTITY).getConverter();
+        return converter.serialize(entity, null);
+    }
+
+    private static TestEntity entity() {
+        final TestEntity entity = new TestEntity();
+        entity.count = 3;
+        entity.total = 9007199254740993L;
+        entity.ratio = 0.25;
+        entity.missing = Double.NaN;
+        entity.infinite = Double.NEGATIVE_INFINITY;
+        entity.active = true;
+        entity.name = "entry \"quoted\" <html>";
+        // the converter doesn't accept null fields, but nulls in containers
+        entity.tags = Lists.newArrayList("a", null, "b");
+        entity.counts.put("a", 1);
+        entity.counts.put("b", null);
+        return entity;
+    }
+
+    static class TestEntity {
+        private int count;
+        private long total;
+        private double ratio;
+        private double missing;
+        private double infinite;
+        private boolean active;
+        @UniqueIdentifier
+        private String name = "";
+        private List<String> tags = Lists.newArrayList();
+        private Map<String, Integer> counts = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,72 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.sxlver.databases.adapter.strategy.CustomToNumberPolicy;
+import net.sxlver.databases.converter.RowDecoder;
+import net.sxlver.databases.exception.DatabaseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonRowSourceTest {
+    private static final Gson GSON = new GsonBuilder()
+            .setObjectToNumberStrategy(CustomToNumberPolicy.INT_LONG_DOUBLE)
+            .create();
+
+    @Test
+    void testDecode() {
+        final TestEntity entity = decode("{\"count\": 3, \"total\": 9007199254740993, \"ratio\": 0.25, \"active\": true, "
+                + "\"name\": \"entry\", \"tags\": [\"a\", \"b\"], \"unknown\": {\"nested\": [1, 2]}}");
+        assertEquals(3, entity.count);
+        assertEquals(9007199254740993L, entity.total);
+        assertEquals(0.25, entity.ratio);
+        assertTrue(entity.active);
+        assertEquals("entry", entity.name);
+        assertEquals(List.of("a", "b"), entity.tags);
+    }
+
+    @Test
+    void testNumbersAreNarrowed() {
+        // stored numbers may have a different width than the field, e.g. after changing its type
+        final TestEntity entity = decode("{\"count\": 1.5, \"total\": 2.0E3, \"ratio\": 4}");
+        assertEquals(1, entity.count);
+        assertEquals(2000L, entity.total);
+        assertEquals(4.0, entity.ratio);
+        assertEquals(-1, decode("{\"count\": 4294967295}").count);
+    }
+
+    @Test
+    void testNullsKeepDefaults() {
+        final TestEntity entity = decode("{\"count\": null, \"total\": null, \"ratio\": null, \"active\": null, \"name\": null, \"tags\": null}");
+        final TestEntity defaults = new TestEntity();
+        assertEquals(defaults.count, entity.count);
+        assertEquals(defaults.total, entity.total);
+        assertEquals(defaults.ratio, entity.ratio);
+        assertEquals(defaults.active, entity.active);
+        assertEquals(defaults.name, entity.name);
+        assertEquals(defaults.tags, entity.tags);
+    }
+
+    @Test
+    void testMalformedNumber() {
+        assertThrows(DatabaseException.class, () -> decode("{\"count\": \"many\"}"));
+    }
+
+    private static TestEntity decode(final String json) {
+        return RowDecoder.decode(TestEntity.class, new JsonRowSource(GSON, new StringReader(json)));
+    }
+
+    static class TestEntity {
+        private int count = 7;
+        private long total = 8L;
+        private double ratio = 0.5;
+        private boolean active = true;
+        private String name = "default";
+        private List<String> tags = Lists.newArrayList("default");
+    }
+}
@@ -0,0 +1,93 @@
+package net.sxlver.databases.impl.json;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileCacheTest {
+    private static final String TEXT = "a\uD83D\uDE00b\u00E9\uD83D\uDE01";
+
+    @Test
+    void testSurrogatePairsAreReadCharByChar() throws IOException {
+        final Reader reader = MappedFileCache.reader(buffer(TEXT));
+        final StringBuilder read = new StringBuilder();
+        final char[] chars = new char[1];
+        int count;
+        while((count = reader.read(chars, 0, 1)) != -1) {
+            assertEquals(1, count);
+            read.append(chars[0]);
+        }
+        assertEquals(TEXT, read.toString());
+    }
+
+    @Test
+    void testSurrogatePairsAcrossReads() throws IOException {
+        // every read ends right before or within a surrogate pair
+        for (int size = 1; size <= 4; size++) {
+            final Reader reader = MappedFileCache.reader(buffer(TEXT));
+            final StringBuilder read = new StringBuilder();
+            final char[] chars = new char[size];
+            int count;
+            while((count = reader.read(chars, 0, size)) != -1) {
+                assertTrue(count > 0);
+                read.append(chars, 0, count);
+            }
+            assertEquals(TEXT, read.toString());
+        }
+    }
+
+    @Test
+    void testParsedByGson() {
+        final String value = "x".repeat(1022) + TEXT.repeat(100);
+        final Map<?, ?> map = new Gson().fromJson(MappedFileCache.reader(buffer("{\"value\":\"" + value + "\"}")), Map.class);
+        assertEquals(value, map.get("value"));
+    }
+
+    @Test
+    void testInvalidatedMappingIsReplaced(final @TempDir Path directory) throws IOException {
+        final MappedFileCache cache = new MappedFileCache(4);
+        final Path file = directory.resolve("entry.json");
+        Files.writeString(file, "first");
+        assertEquals("first", cache.read(file.toFile(), MappedFileCacheTest::text));
+
+        cache.invalidate(file.toFile());
+        final Path temporary = directory.resolve("entry.json.tmp");
+        Files.writeString(temporary, "second");
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        assertEquals("second", cache.read(file.toFile(), MappedFileCacheTest::text));
+    }
+
+    @Test
+    void testEvictedMappingIsReleasedAfterRead(final @TempDir Path directory) throws IOException {
+        final MappedFileCache cache = new MappedFileCache(1);
+        final File first = Files.writeString(directory.resolve("first.json"), "first").toFile();
+        final File second = Files.writeString(directory.resolve("second.json"), "second").toFile();
+        final String read = cache.read(first, buffer -> {
+            // evicts the mapping that is still being read
+            assertEquals("second", cache.read(second, MappedFileCacheTest::text));
+            return text(buffer);
+        });
+        assertEquals("first", read);
+        assertEquals("first", cache.read(first, MappedFileCacheTest::text));
+    }
+
+    private static String text(final ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    private static ByteBuffer buffer(final String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,30 @@
+package net.sxlver.databases.impl.json;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableMetadataTest {
+
+    @Test
+    void testWriteAndRead(final @TempDir File table) {
+        final TableMetadata metadata = new TableMetadata(3, 2, "schema");
+        assertTrue(metadata.raiseMaxId(5));
+        assertFalse(metadata.raiseMaxId(4));
+        metadata.write(table, true);
+
+        final TableMetadata read = TableMetadata.read(table);
+        assertNotNull(read);
+        assertEquals(5, read.getMaxId());
+        assertTrue(read.hasSchema("schema"));
+        assertFalse(read.hasSchema("other"));
+    }
+
+    @Test
+    void testMissingMetadata(final @TempDir File table) {
+        assertNull(TableMetadata.read(table));
+    }
+}
@@ -0,0 +1,227 @@
+package net.sxlver.databases.impl.jsonlog;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.DatabaseTypes;
+import net.sxlver.databases.FsyncPolicy;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.util.FileSystemUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONLogDatabaseTest {
+
+    @Test
+    void testRecoveryContinuesLastSegment(final @TempDir Path directory) {
+        final DatabaseSettings settings = settings(directory, FsyncPolicy.PER_WRITE, 1024 * 1024);
+        JSONLogDatabase<TestEntry> database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+        database.save(new TestEntry("a", "1"));
+        database.save(new TestEntry("b", "2"));
+        database.remove("b");
+        database.close();
+
+        for (int i = 0; i < 3; i++) {
+            database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+            assertEquals("1", database.get("a").value);
+            assertNull(database.get("b"));
+            database.close();
+        }
+        // reopening the table doesn't leave empty segments behind
+        assertEquals(1, segments(database).length);
+    }
+
+    @Test
+    void testCorruptedRecordTruncatesSegment(final @TempDir Path directory) throws Exception {
+        final DatabaseSettings settings = settings(directory, FsyncPolicy.NONE, 1);
+        JSONLogDatabase<TestEntry> database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+        // every record rolls over to a segment of its own
+        database.save(new TestEntry("a", "1"));
+        database.save(new TestEntry("b", "1"));
+        database.save(new TestEntry("a", "2"));
+        database.close();
+
+        final File[] segments = segments(database);
+        assertEquals(3, segments.length);
+        try(final RandomAccessFile file = new RandomAccessFile(segments[1], "rw")) {
+            // flips a bit of the value, so the checksum no longer matches
+            file.seek(file.length() - 2);
+            final int value = file.read();
+            file.seek(file.length() - 2);
+            file.write(value ^ 1);
+        }
+
+        database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+        assertNull(database.get("b"));
+        assertEquals("2", database.get("a").value);
+        database.close();
+        assertEquals(0, segments[1].length());
+    }
+
+    @Test
+    void testCompaction(final @TempDir Path directory) {
+        final DatabaseSettings settings = settings(directory, FsyncPolicy.NONE, 256);
+        JSONLogDatabase<TestEntry> database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+        for (int i = 0; i < 50; i++) {
+            database.save(new TestEntry("a", String.valueOf(i)));
+            database.save(new TestEntry("b" + i, String.valueOf(i)));
+        }
+        for (int i = 0; i < 50; i += 2) {
+            database.remove("b" + i);
+        }
+        final int before = segments(database).length;
+        database.compact();
+        assertTrue(segments(database).length < before);
+        assertEquals("49", database.get("a").value);
+        assertEquals(26, database.getAll().size());
+        database.close();
+
+        database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+        assertEquals("49", database.get("a").value);
+        assertNull(database.get("b0"));
+        assertEquals("1", database.get("b1").value);
+        assertEquals(26, database.getAll().size());
+        database.close();
+    }
+
+    @Test
+    void testGroupCommit(final @TempDir Path directory) throws Exception {
+        final DatabaseSettings settings = settings(directory, FsyncPolicy.GROUP_COMMIT, 512);
+        JSONLogDatabase<TestEntry> database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[100];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = database.saveAsync(new TestEntry("entry" + i, String.valueOf(i)));
+        }
+        CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+        database.close();
+
+        database = JSONLogDatabase.of(TestEntry.class, settings, false, null);
+        assertEquals(100, database.getAll().size());
+        assertEquals("42", database.get("entry42").value);
+        database.close();
+    }
+
+    @Test
+    void testPartsContainingDelimiterDontCollide(final @TempDir Path directory) {
+        final DatabaseSettings settings = settings(directory, FsyncPolicy.PER_WRITE, 1024 * 1024);
+        JSONLogDatabase<PairEntry> database = JSONLogDatabase.of(PairEntry.class, settings, false, null);
+        database.save(new PairEntry("a_b", "c"));
+        database.save(new PairEntry("a", "b_c"));
+        database.close();
+
+        database = JSONLogDatabase.of(PairEntry.class, settings, false, null);
+        assertEquals(2, database.getAll().size());
+        database.remove(DatabaseEntryIdentifier.of("b_c"));
+        assertNotNull(database.get(DatabaseEntryIdentifier.of("a_b", "c")));
+        assertNull(database.get(DatabaseEntryIdentifier.of("a", "b_c")));
+        database.close();
+    }
+
+    private static File[] segments(final JSONLogDatabase<?> database) {
+        final File[] files = FileSystemUtil.getFilesInDirectoryNonNull(new File(database.getTypeDatabasePath()));
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static DatabaseSettings settings(final Path directory, final FsyncPolicy fsyncPolicy, final long segmentSize) {
+        // the database path is resolved relative to the directory of the code source
+        final Path codeSource = Path.of(FileSystemUtil.getJarFileDirectory(TestEntry.class)).toAbsolutePath();
+        final String databasePath = File.separator + codeSource.relativize(directory.toAbsolutePath());
+        return new DatabaseSettings() {
+            @Override
+            public DatabaseTypes getDatabaseType() {
+                return DatabaseTypes.JSON_LOG;
+            }
+
+            @Override
+            public String getUsername() {
+                return null;
+            }
+
+            @Override
+            public String getPassword() {
+                return null;
+            }
+
+            @Override
+            public String getDatabase() {
+                return null;
+            }
+
+            @Override
+            public String getHost() {
+                return null;
+            }
+
+            @Override
+            public boolean isUseSsl() {
+                return false;
+            }
+
+            @Override
+            public int getPort() {
+                return 0;
+            }
+
+            @Override
+            public String getDatabasePath() {
+                return databasePath;
+            }
+
+            @Override
+            public String getConnectionUri() {
+                return null;
+            }
+
+            @Override
+            public long getLogSegmentSize() {
+                return segmentSize;
+            }
+
+            @Override
+            public long getLogCompactionInterval() {
+                return 3600;
+            }
+
+            @Override
+            public FsyncPolicy getFsyncPolicy() {
+                return fsyncPolicy;
+            }
+        };
+    }
+
+    static class TestEntry {
+        @UniqueIdentifier
+        private String id = "";
+        private String value = "";
+
+        TestEntry() {}
+
+        TestEntry(final String id, final String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    static class PairEntry {
+        @UniqueIdentifier
+        private String group = "";
+        @UniqueIdentifier
+        private String name = "";
+
+        PairEntry() {}
+
+        PairEntry(final String group, final String name) {
+            this.group = group;
+            this.name = name;
+        }
+    }
+}
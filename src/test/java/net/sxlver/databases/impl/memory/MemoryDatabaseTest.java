@@ -0,0 +1,180 @@
+package net.sxlver.databases.impl.memory;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.DatabaseTypes;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.util.FileSystemUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryDatabaseTest {
+
+    @Test
+    void testSnapshotIsLoaded(final @TempDir Path directory) {
+        final DatabaseSettings settings = settings(directory);
+        MemoryDatabase<TestEntry> database = MemoryDatabase.of(TestEntry.class, settings, false, null);
+        database.save(new TestEntry("a", "1"));
+        database.save(new TestEntry("b", "2"));
+        database.remove("b");
+        database.close();
+
+        database = MemoryDatabase.of(TestEntry.class, settings, false, null);
+        assertEquals("1", database.get("a").value);
+        assertNull(database.get("b"));
+        database.close();
+    }
+
+    @Test
+    void testShutdownHookWritesSnapshot(final @TempDir Path directory) throws Exception {
+        final DatabaseSettings settings = settings(directory);
+        MemoryDatabase<TestEntry> database = MemoryDatabase.of(TestEntry.class, settings, false, null);
+        database.save(new TestEntry("a", "1"));
+        // the JVM exits without the database having been closed
+        database.shutdownHook.start();
+        database.shutdownHook.join();
+        assertFalse(database.isConnected());
+        assertFalse(Runtime.getRuntime().removeShutdownHook(database.shutdownHook));
+
+        database = MemoryDatabase.of(TestEntry.class, settings, false, null);
+        assertEquals("1", database.get("a").value);
+        database.close();
+        // closed databases don't keep their hook
+        assertFalse(Runtime.getRuntime().removeShutdownHook(database.shutdownHook));
+    }
+
+    @Test
+    void testFailedSnapshotDeletesTemporaryFile(final @TempDir Path directory) throws Exception {
+        final MemoryDatabase<TestEntry> database = MemoryDatabase.of(TestEntry.class, settings(directory), false, null);
+        database.save(new TestEntry("a", "1"));
+        database.snapshot();
+        final Path snapshot;
+        try(final Stream<Path> files = Files.walk(directory)) {
+            snapshot = files.filter(file -> file.getFileName().toString().equals("snapshot.bin")).findFirst().orElseThrow();
+        }
+        // the snapshot can't be replaced by a directory that isn't empty
+        Files.delete(snapshot);
+        Files.createDirectories(snapshot.resolve("blocked"));
+
+        database.save(new TestEntry("b", "2"));
+        assertThrows(DatabaseException.class, database::snapshot);
+        try(final Stream<Path> files = Files.list(snapshot.getParent())) {
+            assertEquals(List.of(snapshot), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testPartsContainingDelimiterDontCollide(final @TempDir Path directory) {
+        final DatabaseSettings settings = settings(directory);
+        MemoryDatabase<PairEntry> database = MemoryDatabase.of(PairEntry.class, settings, false, null);
+        database.save(new PairEntry("a_b", "c"));
+        database.save(new PairEntry("a", "b_c"));
+        database.close();
+
+        database = MemoryDatabase.of(PairEntry.class, settings, false, null);
+        assertEquals(2, database.getAll().size());
+        database.remove(DatabaseEntryIdentifier.of("b_c"));
+        assertNotNull(database.get(DatabaseEntryIdentifier.of("a_b", "c")));
+        assertNull(database.get(DatabaseEntryIdentifier.of("a", "b_c")));
+        database.close();
+    }
+
+    private static DatabaseSettings settings(final Path directory) {
+        // the database path is resolved relative to the directory of the code source
+        final Path codeSource = Path.of(FileSystemUtil.getJarFileDirectory(TestEntry.class)).toAbsolutePath();
+        final String databasePath = File.separator + codeSource.relativize(directory.toAbsolutePath());
+        return new DatabaseSettings() {
+            @Override
+            public DatabaseTypes getDatabaseType() {
+                return DatabaseTypes.MEMORY;
+            }
+
+            @Override
+            public String getUsername() {
+                return null;
+            }
+
+            @Override
+            public String getPassword() {
+                return null;
+            }
+
+            @Override
+            public String getDatabase() {
+                return null;
+            }
+
+            @Override
+            public String getHost() {
+                return null;
+            }
+
+            @Override
+            public boolean isUseSsl() {
+                return false;
+            }
+
+            @Override
+            public int getPort() {
+                return 0;
+            }
+
+            @Override
+            public String getDatabasePath() {
+                return databasePath;
+            }
+
+            @Override
+            public String getConnectionUri() {
+                return null;
+            }
+
+            @Override
+            public boolean isMemorySnapshots() {
+                return true;
+            }
+
+            @Override
+            public long getMemorySnapshotInterval() {
+                return 3600;
+            }
+        };
+    }
+
+    static class TestEntry {
+        @UniqueIdentifier
+        private String id = "";
+        private String value = "";
+
+        TestEntry() {}
+
+        TestEntry(final String id, final String value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    static class PairEntry {
+        @UniqueIdentifier
+        private String group = "";
+        @UniqueIdentifier
+        private String name = "";
+
+        PairEntry() {}
+
+        PairEntry(final String group, final String name) {
+            this.group = group;
+            this.name = name;
+        }
+    }
+}
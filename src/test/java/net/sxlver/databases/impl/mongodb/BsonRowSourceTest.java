@@ -0,0 +1,86 @@
+package net.sxlver.databases.impl.mongodb;
+
+import com.google.common.collect.Lists;
+import net.sxlver.databases.converter.RowDecoder;
+import net.sxlver.databases.exception.DatabaseException;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BsonRowSourceTest {
+
+    @Test
+    void testDecode() {
+        final BsonDocument document = new BsonDocument()
+                .append(MongoDBQueries.MONGO_ID, new BsonString("entry"))
+                .append(MongoDBQueries.UNIQUE_ID, new BsonArray(List.of(new BsonString("entry"))))
+                .append("count", new BsonInt32(3))
+                .append("total", new BsonInt64(9007199254740993L))
+                .append("ratio", new BsonDouble(0.25))
+                .append("active", BsonBoolean.FALSE)
+                .append("name", new BsonString("entry"))
+                .append("tags", new BsonArray(List.of(new BsonString("a"), new BsonString("b"))))
+                .append("unknown", new BsonDocument("nested", new BsonInt32(1)));
+        final TestEntity entity = decode(document);
+        assertEquals(3, entity.count);
+        assertEquals(9007199254740993L, entity.total);
+        assertEquals(0.25, entity.ratio);
+        assertFalse(entity.active);
+        assertEquals("entry", entity.name);
+        assertEquals(List.of("a", "b"), entity.tags);
+    }
+
+    @Test
+    void testNumbersAreNarrowed() {
+        final TestEntity entity = decode(new BsonDocument()
+                .append("count", new BsonDouble(1.5))
+                .append("total", new BsonInt32(2000))
+                .append("ratio", new BsonInt64(4L)));
+        assertEquals(1, entity.count);
+        assertEquals(2000L, entity.total);
+        assertEquals(4.0, entity.ratio);
+    }
+
+    @Test
+    void testNullsKeepDefaults() {
+        final TestEntity entity = decode(new BsonDocument()
+                .append("count", BsonNull.VALUE)
+                .append("active", BsonNull.VALUE)
+                .append("name", BsonNull.VALUE)
+                .append("tags", BsonNull.VALUE));
+        final TestEntity defaults = new TestEntity();
+        assertEquals(defaults.count, entity.count);
+        assertEquals(defaults.active, entity.active);
+        assertEquals(defaults.name, entity.name);
+        assertEquals(defaults.tags, entity.tags);
+    }
+
+    @Test
+    void testTypeMismatch() {
+        assertThrows(DatabaseException.class, () -> decode(new BsonDocument("count", new BsonString("many"))));
+    }
+
+    private static TestEntity decode(final BsonDocument document) {
+        return RowDecoder.decode(TestEntity.class, new BsonRowSource(new BsonDocumentReader(document)));
+    }
+
+    static class TestEntity {
+        private int count = 7;
+        private long total = 8L;
+        private double ratio = 0.5;
+        private boolean active = true;
+        private String name = "default";
+        private List<String> tags = Lists.newArrayList("default");
+    }
+}
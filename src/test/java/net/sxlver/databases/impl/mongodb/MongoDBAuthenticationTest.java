@@ -0,0 +1,88 @@
+package net.sxlver.databases.impl.mongodb;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.DatabaseTypes;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoDBAuthenticationTest {
+
+    @Test
+    void testConnectionUriIgnoresDatabase() {
+        final MongoDBAuthentication first = new MongoDBAuthentication("mongodb://localhost/?authSource=admin", "user", "password", "", 0, "first", false);
+        final MongoDBAuthentication second = new MongoDBAuthentication("mongodb://localhost/?authSource=admin", "user", "password", "", 0, "second", false);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, new MongoDBAuthentication("mongodb://other/?authSource=admin", "user", "password", "", 0, "first", false));
+    }
+
+    @Test
+    void testCredentialsAuthenticateAgainstDatabase() {
+        final MongoDBAuthentication first = new MongoDBAuthentication("", "user", "password", "localhost", 27017, "first", false);
+        final MongoDBAuthentication second = new MongoDBAuthentication("", "user", "password", "localhost", 27017, "second", false);
+        assertEquals("first", first.getAuthenticationDatabase());
+        assertNotEquals(first, second);
+
+        final MongoDBAuthentication sharedFirst = new MongoDBAuthentication(settings("first", "admin"));
+        final MongoDBAuthentication sharedSecond = new MongoDBAuthentication(settings("second", "admin"));
+        assertEquals("admin", sharedFirst.getAuthenticationDatabase());
+        assertEquals("first", sharedFirst.getDatabase());
+        assertEquals(sharedFirst, sharedSecond);
+        assertEquals(sharedFirst.hashCode(), sharedSecond.hashCode());
+    }
+
+    private static DatabaseSettings settings(final String database, final String authenticationDatabase) {
+        return new DatabaseSettings() {
+            @Override
+            public DatabaseTypes getDatabaseType() {
+                return DatabaseTypes.MONGODB;
+            }
+
+            @Override
+            public String getUsername() {
+                return "user";
+            }
+
+            @Override
+            public String getPassword() {
+                return "password";
+            }
+
+            @Override
+            public String getDatabase() {
+                return database;
+            }
+
+            @Override
+            public String getHost() {
+                return "localhost";
+            }
+
+            @Override
+            public boolean isUseSsl() {
+                return false;
+            }
+
+            @Override
+            public int getPort() {
+                return 27017;
+            }
+
+            @Override
+            public String getDatabasePath() {
+                return null;
+            }
+
+            @Override
+            public String getConnectionUri() {
+                return "";
+            }
+
+            @Override
+            public String getAuthenticationDatabase() {
+                return authenticationDatabase;
+            }
+        };
+    }
+}
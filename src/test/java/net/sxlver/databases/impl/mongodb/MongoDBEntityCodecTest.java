@@ -0,0 +1,64 @@
+package net.sxlver.databases.impl.mongodb;
+
+import com.mongodb.MongoClientSettings;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.exception.DatabaseException;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoDBEntityCodecTest {
+
+    @Test
+    void testRoundTrip() {
+        final MongoDBEntityCodec<TestEntity> codec = codec(TestEntity.class);
+        final TestEntity entity = new TestEntity();
+        entity.name = "entry";
+        entity.count = 3;
+
+        final BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), entity, EncoderContext.builder().build());
+        assertEquals("entry", document.getString(MongoDBQueries.MONGO_ID).getValue());
+        assertEquals(3, document.getInt32("count").getValue());
+
+        final TestEntity decoded = codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+        assertEquals("entry", decoded.name);
+        assertEquals(3, decoded.count);
+    }
+
+    @Test
+    void testIdentifierFieldNamesAreRejected() {
+        final DatabaseException exception = assertThrows(DatabaseException.class, () -> codec(MongoIdEntity.class));
+        assertTrue(exception.getMessage().contains("'_id'"));
+        assertThrows(DatabaseException.class, () -> codec(UniqueIdEntity.class));
+    }
+
+    private static <T> MongoDBEntityCodec<T> codec(final Class<T> type) {
+        return new MongoDBEntityCodec<>(type, ClassInfo.ofClass(type, FieldNameFormatters.IDENTITY), IdentifierEncoding.LEGACY, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    static class TestEntity {
+        @UniqueIdentifier
+        private String name = "";
+        private int count;
+    }
+
+    static class MongoIdEntity {
+        @UniqueIdentifier
+        private String name = "";
+        private String _id = "";
+    }
+
+    static class UniqueIdEntity {
+        @UniqueIdentifier
+        private String uniqueIdentifier = "";
+    }
+}
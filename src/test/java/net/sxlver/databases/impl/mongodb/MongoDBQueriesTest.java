@@ -0,0 +1,93 @@
+package net.sxlver.databases.impl.mongodb;
+
+import com.mongodb.MongoClientSettings;
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import net.sxlver.databases.impl.DatabaseEntryIdentifier;
+import net.sxlver.databases.impl.IdentifierEncoding;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonRegularExpression;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoDBQueriesTest {
+    private static final List<String> IDS = List.of("a", "b", "a_b", "b_a", "a_b_c", "x_a_b", "x_a_b_y", "a_c_b", "ab", "a_bc", "xa_b");
+    private static final ClassInfo CLASS_INFO = ClassInfo.ofClass(TestEntity.class, FieldNameFormatters.IDENTITY);
+
+    @Test
+    void testPlainQueryMatchesId() {
+        assertEquals(new BsonDocument(MongoDBQueries.MONGO_ID, new BsonString("a_b")), render(MongoDBQueries.createFilter("a_b", IdentifierEncoding.LEGACY, CLASS_INFO)));
+    }
+
+    @Test
+    void testIdentifierMatchesConsecutiveParts() {
+        for (final DatabaseEntryIdentifier identifier : List.of(
+                DatabaseEntryIdentifier.of("a", "b"),
+                DatabaseEntryIdentifier.of("b"),
+                DatabaseEntryIdentifier.of("a_b")
+        )) {
+            for (final String id : IDS) {
+                assertEquals(identifier.getFilterApplicator().test(id), matches(identifier, IdentifierEncoding.LEGACY, id), identifier + " on " + id);
+            }
+        }
+    }
+
+    @Test
+    void testEscapedIdentifierMatchesWholeParts() {
+        final IdentifierEncoding encoding = IdentifierEncoding.ESCAPED;
+        final List<DatabaseEntryIdentifier> identifiers = List.of(
+                DatabaseEntryIdentifier.of("a", "b"),
+                DatabaseEntryIdentifier.of("a_b"),
+                DatabaseEntryIdentifier.of("x", "a_b"),
+                DatabaseEntryIdentifier.of("a_b", "c"),
+                DatabaseEntryIdentifier.of("a", "b_c")
+        );
+        for (final DatabaseEntryIdentifier identifier : identifiers) {
+            for (final DatabaseEntryIdentifier stored : identifiers) {
+                final String id = encoding.key(stored);
+                assertEquals(encoding.filter(identifier).test(id), matches(identifier, encoding, id), identifier + " on " + id);
+            }
+        }
+        assertTrue(matches(DatabaseEntryIdentifier.of("a_b"), encoding, encoding.key(DatabaseEntryIdentifier.of("x", "a_b"))));
+        assertFalse(matches(DatabaseEntryIdentifier.of("a", "b"), encoding, encoding.key(DatabaseEntryIdentifier.of("x", "a_b"))));
+    }
+
+    /**
+     * Evaluates the filter of the identifier on a document stored under the
+     * given id, holding the unique identifier parts the codec writes.
+     */
+    private static boolean matches(final DatabaseEntryIdentifier identifier, final IdentifierEncoding encoding, final String id) {
+        final BsonDocument filter = render(MongoDBQueries.createFilter(identifier, encoding, CLASS_INFO));
+        final BsonArray or = filter.getArray("$or");
+        if(or.get(0).asDocument().getString(MongoDBQueries.MONGO_ID).getValue().equals(id)) {
+            return true;
+        }
+        final BsonDocument partial = or.get(1).asDocument();
+        final List<String> documentParts = encoding.parts(id);
+        for (final BsonValue part : partial.getDocument(MongoDBQueries.UNIQUE_ID).getArray("$all")) {
+            if(!documentParts.contains(part.asString().getValue())) {
+                return false;
+            }
+        }
+        final BsonRegularExpression regex = partial.get(MongoDBQueries.MONGO_ID).asRegularExpression();
+        return Pattern.compile(regex.getPattern()).matcher(id).find();
+    }
+
+    private static BsonDocument render(final Bson filter) {
+        return filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    static class TestEntity {
+        @UniqueIdentifier
+        private String name = "";
+    }
+}
@@ -0,0 +1,75 @@
+package net.sxlver.databases.impl.mysql;
+
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.impl.mysql.dialect.SQLDialects;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MySQLDatabaseTest {
+
+    @Test
+    void testH2RoundTrip() {
+        final MySQLDatabase<TestEntity> database = MySQLDatabase.of(TestEntity.class,
+                SQLBuilderTest.settings("jdbc:h2:mem:round_trip;DB_CLOSE_DELAY=-1"), false, null, SQLDialects.H2);
+        final TestEntity entity = new TestEntity("a", "first");
+        entity.tags.add("x");
+        entity.tags.add("y");
+        entity.counts.put("x", 1);
+        database.save(entity);
+        // saving again updates the row
+        entity.value = "second";
+        database.save(entity);
+        database.save(new TestEntity("b", "other"));
+
+        final TestEntity read = database.get("a");
+        assertEquals("second", read.value);
+        assertEquals(List.of("x", "y"), read.tags);
+        assertEquals(Map.of("x", 1), read.counts);
+        assertEquals(2, database.getAll().size());
+
+        database.remove("b");
+        assertNull(database.get("b"));
+        database.close();
+    }
+
+    @Test
+    void testKeysetPages() {
+        final MySQLDatabase<TestEntity> database = MySQLDatabase.of(TestEntity.class,
+                SQLBuilderTest.settings("jdbc:h2:mem:pages;DB_CLOSE_DELAY=-1"), false, null, SQLDialects.H2);
+        for (final String name : List.of("d", "a", "e", "c", "b")) {
+            database.save(new TestEntity(name, name));
+        }
+        assertEquals(List.of("a", "b"), names(database.getPage(null, 2)));
+        assertEquals(List.of("c", "d"), names(database.getPage("b", 2)));
+        assertEquals(List.of("e"), names(database.getPage("d", 2)));
+        database.close();
+    }
+
+    private static List<String> names(final Collection<TestEntity> entities) {
+        return entities.stream().map(entity -> entity.name).collect(Collectors.toList());
+    }
+
+    static class TestEntity {
+        @UniqueIdentifier
+        private String name = "";
+        // a reserved word of H2
+        private String value = "";
+        private List<String> tags = new ArrayList<>();
+        private Map<String, Integer> counts = new LinkedHashMap<>();
+
+        TestEntity() {}
+
+        TestEntity(final String name, final String value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package net.sxlver.databases.impl.mysql;
+
+import net.sxlver.databases.converter.RowDecoder;
+import net.sxlver.databases.converter.RowSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultSetRowSourceTest {
+
+    @Test
+    void testDecodeRows() throws Exception {
+        try(final Connection connection = DriverManager.getConnection("jdbc:h2:mem:row_source");
+            final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE entries (\"name\" VARCHAR(50), \"count\" INT, \"total\" BIGINT, "
+                    + "\"ratio\" DOUBLE, \"active\" BOOLEAN, \"unknown\" VARCHAR(50))");
+            statement.execute("INSERT INTO entries VALUES ('first', 1, 9007199254740993, 0.25, TRUE, 'x'), "
+                    + "('second', NULL, NULL, NULL, NULL, NULL)");
+
+            final List<TestEntity> entities = new ArrayList<>();
+            try(final ResultSet result = statement.executeQuery("SELECT * FROM entries ORDER BY \"name\"")) {
+                // the source is reused for every row of the result
+                final RowSource source = new ResultSetRowSource(result);
+                while(result.next()) {
+                    entities.add(RowDecoder.decode(TestEntity.class, source));
+                }
+            }
+
+            assertEquals(2, entities.size());
+            final TestEntity first = entities.get(0);
+            assertEquals("first", first.name);
+            assertEquals(1, first.count);
+            assertEquals(9007199254740993L, first.total);
+            assertEquals(0.25, first.ratio);
+            assertTrue(first.active);
+
+            final TestEntity second = entities.get(1);
+            final TestEntity defaults = new TestEntity();
+            assertEquals("second", second.name);
+            assertEquals(defaults.count, second.count);
+            assertEquals(defaults.total, second.total);
+            assertEquals(defaults.ratio, second.ratio);
+            assertEquals(defaults.active, second.active);
+        }
+    }
+
+    static class TestEntity {
+        private String name = "default";
+        private int count = 7;
+        private long total = 8L;
+        private double ratio = 0.5;
+        private boolean active = false;
+    }
+}
@@ -0,0 +1,109 @@
+package net.sxlver.databases.impl.mysql;
+
+import net.sxlver.databases.DatabaseSettings;
+import net.sxlver.databases.DatabaseTypes;
+import net.sxlver.databases.annotation.UniqueIdentifier;
+import net.sxlver.databases.impl.mysql.dialect.SQLDialects;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLBuilderTest {
+
+    @Test
+    void testKeysetPageBindsValue() throws Exception {
+        final MySQLDatabase<TestRow> database = MySQLDatabase.of(TestRow.class, settings("jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1"),
+                false, null, SQLDialects.H2);
+        for (final String name : List.of("a", "b", "c", "d", "e")) {
+            database.save(new TestRow(name));
+        }
+
+        final SQLBuilder builder = database.newStatementBuilder()
+                .select(database.getTable(), "name")
+                .after("name")
+                .orderBy("name")
+                .limit(2);
+        assertEquals(List.of("c", "d"), names(builder.createQuery().executeQuery("b")));
+        // the value is bound, so it can't alter the query
+        assertEquals(List.of(), names(builder.createQuery().executeQuery("z' OR '1'='1")));
+        database.close();
+    }
+
+    @Test
+    void testMySqlUpsert() {
+        assertEquals(" INSERT INTO test  VALUES (?,?)  ON DUPLICATE KEY  UPDATE id = ?,value = ?",
+                SQLDialects.MYSQL.upsert("test", List.of("id", "value"), List.of("id")));
+    }
+
+    private static List<String> names(final ResultSet result) throws Exception {
+        final List<String> names = new ArrayList<>();
+        while(result.next()) {
+            names.add(result.getString(1));
+        }
+        return names;
+    }
+
+    static DatabaseSettings settings(final String connectionUri) {
+        return new DatabaseSettings() {
+            @Override
+            public DatabaseTypes getDatabaseType() {
+                return DatabaseTypes.H2;
+            }
+
+            @Override
+            public String getUsername() {
+                return "sa";
+            }
+
+            @Override
+            public String getPassword() {
+                return "";
+            }
+
+            @Override
+            public String getDatabase() {
+                return "test";
+            }
+
+            @Override
+            public String getHost() {
+                return null;
+            }
+
+            @Override
+            public boolean isUseSsl() {
+                return false;
+            }
+
+            @Override
+            public int getPort() {
+                return 0;
+            }
+
+            @Override
+            public String getDatabasePath() {
+                return "";
+            }
+
+            @Override
+            public String getConnectionUri() {
+                return connectionUri;
+            }
+        };
+    }
+
+    static class TestRow {
+        @UniqueIdentifier
+        private String name = "";
+
+        TestRow() {}
+
+        TestRow(final String name) {
+            this.name = name;
+        }
+    }
+}
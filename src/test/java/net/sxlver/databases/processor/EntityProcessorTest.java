@@ -0,0 +1,193 @@
+package net.sxlver.databases.processor;
+
+import net.sxlver.databases.ClassInfo;
+import net.sxlver.databases.DatabaseConverter;
+import net.sxlver.databases.formatter.FieldNameFormatters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityProcessorTest {
+    private static final String ENTITY = String.join("\n",
+            "package test.entity;",
+            "",
+            "import net.sxlver.databases.annotation.Ignore;",
+            "import net.sxlver.databases.annotation.UniqueIdentifier;",
+            "import net.sxlver.databases.impl.mysql.annotation.AutoIncrement;",
+            "",
+            "import java.util.ArrayList;",
+            "import java.util.List;",
+            "",
+            "public class Account {",
+            "    public enum State { OPEN, CLOSED }",
+            "",
+            "    @UniqueIdentifier",
+            "    private String ownerName = \"owner\";",
+            "    @UniqueIdentifier",
+            "    @AutoIncrement",
+            "    int number = 1;",
+            "    private long balance = 100L;",
+            "    private Double rate = 0.5;",
+            "    private State state = State.OPEN;",
+            "    List<String> tags = new ArrayList<>(List.of(\"a\", \"b\"));",
+            "    private transient int cached;",
+            "    @Ignore",
+            "    private String ignored = \"\";",
+            "    private static int instances;",
+            "",
+            "    public Account() {}",
+            "}"
+    );
+
+    @Test
+    void testGeneratedSourcesCompile(final @TempDir Path directory) throws Exception {
+        final Path output = directory.resolve("processed");
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(directory, output, true, Map.of("test/entity/Account.java", ENTITY));
+        assertEquals(List.of(), errors(diagnostics));
+        assertTrue(Files.exists(output.resolve("test/entity/Account$$DatabaseConverter.class")));
+        assertTrue(Files.exists(output.resolve("test/entity/Account$$DatabaseMetadata.class")));
+    }
+
+    @Test
+    void testMetadataMatchesReflectiveClassInfo(final @TempDir Path directory) throws Exception {
+        final Path processed = directory.resolve("processed");
+        final Path reflective = directory.resolve("reflective");
+        assertEquals(List.of(), errors(compile(directory.resolve("a"), processed, true, Map.of("test/entity/Account.java", ENTITY))));
+        assertEquals(List.of(), errors(compile(directory.resolve("b"), reflective, false, Map.of("test/entity/Account.java", ENTITY))));
+
+        try(final URLClassLoader processedLoader = loader(processed); final URLClassLoader reflectiveLoader = loader(reflective)) {
+            final Class<?> processedType = processedLoader.loadClass("test.entity.Account");
+            final Class<?> reflectiveType = reflectiveLoader.loadClass("test.entity.Account");
+            final ClassInfo fromMetadata = ClassInfo.ofClass(processedType, FieldNameFormatters.LOWER_SNAKE);
+            final ClassInfo fromReflection = ClassInfo.ofClass(reflectiveType, FieldNameFormatters.LOWER_SNAKE);
+
+            assertTrue(fromMetadata.getConverter().getClass().getName().endsWith(EntitySource.CONVERTER_SUFFIX));
+            assertEquals(describe(reflectiveType, fromReflection), describe(processedType, fromMetadata));
+            assertEquals(names(fromReflection.getUniqueIdentifiers()), names(fromMetadata.getUniqueIdentifiers()));
+
+            final Object processedEntity = processedType.getConstructor().newInstance();
+            final Object reflectiveEntity = reflectiveType.getConstructor().newInstance();
+            assertEquals(serialize(fromReflection, reflectiveEntity), serialize(fromMetadata, processedEntity));
+            assertEquals(fromReflection.getIdentifier(reflectiveEntity), fromMetadata.getIdentifier(processedEntity));
+        }
+    }
+
+    @Test
+    void testAbstractEntityIsSkipped(final @TempDir Path directory) throws Exception {
+        final String source = String.join("\n",
+                "package test.entity;",
+                "",
+                "public abstract class Base {",
+                "    @net.sxlver.databases.annotation.UniqueIdentifier",
+                "    private String id = \"\";",
+                "}"
+        );
+        final Path output = directory.resolve("processed");
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(directory, output, true, Map.of("test/entity/Base.java", source));
+        assertEquals(List.of(), errors(diagnostics));
+        assertTrue(diagnostics.stream().anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.NOTE
+                && diagnostic.getMessage(null).contains("abstract entity Base")));
+        assertFalse(Files.exists(output.resolve("test/entity/Base$$DatabaseConverter.class")));
+        assertFalse(Files.exists(output.resolve("test/entity/Base$$DatabaseMetadata.class")));
+    }
+
+    @Test
+    void testMisusedAnnotationsAreReported(final @TempDir Path directory) throws Exception {
+        final String source = String.join("\n",
+                "package test.entity;",
+                "",
+                "import net.sxlver.databases.annotation.UniqueIdentifier;",
+                "import net.sxlver.databases.impl.mysql.annotation.AutoIncrement;",
+                "",
+                "public class Outer {",
+                "    public class Inner {",
+                "        @UniqueIdentifier",
+                "        @AutoIncrement",
+                "        private String id = \"\";",
+                "    }",
+                "}"
+        );
+        final List<String> errors = errors(compile(directory, directory.resolve("processed"), true, Map.of("test/entity/Outer.java", source)));
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().anyMatch(message -> message.contains("@AutoIncrement field 'id' must be of type int or Integer.")));
+        assertTrue(errors.stream().anyMatch(message -> message.contains("Entity Inner must be a static class.")));
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(final Path sourceDirectory,
+                                                                      final Path output,
+                                                                      final boolean process,
+                                                                      final Map<String, String> sources
+    ) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final List<File> files = new ArrayList<>();
+        for (final Map.Entry<String, String> source : sources.entrySet()) {
+            final Path file = sourceDirectory.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            files.add(file.toFile());
+        }
+        Files.createDirectories(output);
+        final List<String> options = new ArrayList<>(List.of(
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", output.toString(),
+                "-s", output.toString()
+        ));
+        options.addAll(process ? List.of("-processor", EntityProcessor.class.getName()) : List.of("-proc:none"));
+        try(final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(files)).call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> errors(final List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    private static URLClassLoader loader(final Path directory) throws Exception {
+        return new URLClassLoader(new URL[]{directory.toUri().toURL()}, EntityProcessorTest.class.getClassLoader());
+    }
+
+    private static List<String> describe(final Class<?> type, final ClassInfo info) {
+        final List<String> fields = new ArrayList<>();
+        for (final Field field : type.getDeclaredFields()) {
+            final ClassInfo.FieldInfo fieldInfo = info.getInfo(field);
+            if(fieldInfo != null) {
+                fields.add(field.getName() + ":" + fieldInfo.getFormattedName() + ":" + fieldInfo.getFieldType().getName()
+                        + ":" + fieldInfo.isUniqueIdentifier() + ":" + fieldInfo.isAutoIncrement());
+            }
+        }
+        return fields;
+    }
+
+    private static List<String> names(final Field[] fields) {
+        return Arrays.stream(fields).map(Field::getName).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object serialize(final ClassInfo info, final Object entity) {
+        return ((DatabaseConverter<Object, Object>) info.getConverter()).serialize(entity, null);
+    }
+}
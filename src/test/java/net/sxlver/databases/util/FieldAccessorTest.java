@@ -0,0 +1,36 @@
+package net.sxlver.databases.util;
+
+import net.sxlver.databases.exception.DatabaseException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldAccessorTest {
+
+    @Test
+    void testAccessorsAreCreatedPerField() throws Exception {
+        final FieldAccessor accessor = FieldAccessor.of(TestEntity.class.getDeclaredField("count"));
+        assertSame(accessor, FieldAccessor.of(TestEntity.class.getDeclaredField("count")));
+        final TestEntity entity = new TestEntity();
+        accessor.setInt(entity, 3);
+        assertEquals(3, accessor.getInt(entity));
+        assertThrows(DatabaseException.class, () -> FieldAccessor.of(TestEntity.class.getDeclaredField("INSTANCES")));
+    }
+
+    @Test
+    void testInaccessibleFieldIsRejectedOnAccess() throws Exception {
+        // the fields of records can't be written
+        assertThrows(DatabaseException.class, () -> FieldAccessor.of(Point.class.getDeclaredField("x")));
+        final TestEntity entity = new TestEntity();
+        entity.point = new Point(1);
+        assertEquals(new Point(1), FieldAccessor.of(TestEntity.class.getDeclaredField("point")).get(entity));
+    }
+
+    static class TestEntity {
+        private static int INSTANCES;
+        private int count;
+        private Point point;
+    }
+
+    record Point(int x) {}
+}